@@ -6,6 +6,8 @@ plugins {
     alias(libs.plugins.kotlin.compose)
     alias(libs.plugins.kotlin.android)
     alias(libs.plugins.google.services)
+    alias(libs.plugins.ksp)
+    alias(libs.plugins.baselineprofile)
 }
 
 android {
@@ -55,6 +57,18 @@ android {
     }
 }
 
+// The benchmarkRelease / nonMinifiedRelease types the baselineprofile plugin derives from
+// release have no keystore of their own; sign them with the debug key so they install on a
+// test device. release itself stays unsigned until a real keystore is configured.
+androidComponents {
+    onVariants(selector().withBuildType("benchmarkRelease")) { variant ->
+        variant.signingConfig.setConfig(android.signingConfigs.getByName("debug"))
+    }
+    onVariants(selector().withBuildType("nonMinifiedRelease")) { variant ->
+        variant.signingConfig.setConfig(android.signingConfigs.getByName("debug"))
+    }
+}
+
 dependencies {
     implementation(platform("com.google.firebase:firebase-bom:34.9.0"))
 
@@ -83,7 +97,20 @@ dependencies {
     implementation(libs.googleid)
     implementation("androidx.browser:browser:1.8.0")
     implementation(libs.coil.compose)
+    implementation(libs.room.runtime)
+    implementation(libs.room.ktx)
+    implementation(libs.room.paging)
+    ksp(libs.room.compiler)
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.compose)
+    implementation(libs.work.runtime)
+    implementation(libs.androidx.metrics.performance)
+    implementation(libs.androidx.profileinstaller)
+    implementation(libs.androidx.startup)
+    implementation(libs.androidx.tracing)
+    baselineProfile(project(":benchmark"))
     testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
     androidTestImplementation(platform(libs.androidx.compose.bom))
@@ -5,26 +5,104 @@ import android.os.Bundle
 import androidx.activity.ComponentActivity
 import androidx.activity.compose.setContent
 import androidx.activity.enableEdgeToEdge
+import androidx.compose.foundation.layout.Box
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.ui.ExperimentalComposeUiApi
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.semantics.semantics
+import androidx.compose.ui.semantics.testTagsAsResourceId
+import androidx.core.view.doOnPreDraw
+import androidx.lifecycle.lifecycleScope
+import androidx.metrics.performance.JankStats
+import androidx.startup.AppInitializer
+import androidx.tracing.Trace
+import androidx.tracing.trace
+import com.kelasxi.myapplication.startup.DeferredWorkInitializer
 import com.kelasxi.myapplication.ui.navigation.TrashCareNavGraph
 import com.kelasxi.myapplication.ui.theme.TrashCareTheme
 import com.kelasxi.myapplication.util.LanguageManager
+import com.kelasxi.myapplication.util.PerfTracking
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
 
 class MainActivity : ComponentActivity() {
 
+    private lateinit var jankStats: JankStats
+
     override fun attachBaseContext(newBase: Context) {
         // Apply saved locale every time the Activity is (re-)created so that
         // string resources resolve in the correct language after a language switch.
         super.attachBaseContext(LanguageManager.applyLocale(newBase))
     }
 
+    @OptIn(ExperimentalComposeUiApi::class)
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
+        traceStartup()
         enableEdgeToEdge()
-        setContent {
-            TrashCareTheme {
-                TrashCareNavGraph()
+        trace("TrashCare.setContent") {
+            setContent {
+                TrashCareTheme {
+                    // Test tags double as resource ids so the Macrobenchmark module can find lists
+                    Box(Modifier.fillMaxSize().semantics { testTagsAsResourceId = true }) {
+                        trace("TrashCare.composeNavGraph") { TrashCareNavGraph() }
+                    }
+                }
             }
         }
+        jankStats = PerfTracking.track(window)
     }
-}
 
+    override fun onResume() {
+        super.onResume()
+        jankStats.isTrackingEnabled = true
+    }
+
+    override fun onPause() {
+        super.onPause()
+        jankStats.isTrackingEnabled = false
+    }
+
+    /**
+     * Marks the first activity of the process: async trace sections from
+     * onCreate to the first draw (time to initial display) and to
+     * reportFullyDrawn (time to full display, reported by the start screens
+     * through ReportDrawnWhen), both also logged by PerfTracking. Deferred
+     * startup work begins once the screen is fully drawn.
+     */
+    private fun traceStartup() {
+        if (startupTraced) return
+        startupTraced = true
+
+        Trace.beginAsyncSection(SECTION_FIRST_FRAME, 0)
+        Trace.beginAsyncSection(SECTION_FULLY_DRAWN, 0)
+        window.decorView.doOnPreDraw {
+            Trace.endAsyncSection(SECTION_FIRST_FRAME, 0)
+            PerfTracking.logStartup("first frame")
+        }
+        fullyDrawnReporter.addOnReportDrawnListener {
+            Trace.endAsyncSection(SECTION_FULLY_DRAWN, 0)
+            PerfTracking.logStartup("fully drawn")
+            startDeferredWork()
+        }
+        // A start screen that never gets its data must not hold the deferred work back
+        window.decorView.postDelayed(::startDeferredWork, DEFERRED_WORK_TIMEOUT_MS)
+    }
+
+    private fun startDeferredWork() {
+        lifecycleScope.launch(Dispatchers.IO) {
+            // Idempotent: the second caller (listener or timeout) gets the cached result
+            AppInitializer.getInstance(applicationContext)
+                .initializeComponent(DeferredWorkInitializer::class.java)
+        }
+    }
+
+    private companion object {
+        const val SECTION_FIRST_FRAME      = "TrashCare.firstFrame"
+        const val SECTION_FULLY_DRAWN      = "TrashCare.fullyDrawn"
+        const val DEFERRED_WORK_TIMEOUT_MS = 5_000L
+
+        /** Per process: a language switch recreates the activity but is no startup. */
+        var startupTraced = false
+    }
+}
@@ -2,15 +2,32 @@ package com.kelasxi.myapplication
 
 import android.app.Application
 import android.content.Context
+import androidx.tracing.trace
+import androidx.work.Configuration
+import coil.ImageLoader
+import coil.ImageLoaderFactory
+import com.kelasxi.myapplication.ui.common.ImagePipeline
 import com.kelasxi.myapplication.util.LanguageManager
 
 /**
  * Custom Application class that applies the saved locale before any
  * Activity is created, so all string resources resolve correctly.
+ *
+ * Everything else starts through androidx.startup (see the startup package
+ * and the InitializationProvider entry in the manifest): NetworkInitializer
+ * eagerly, DeferredWorkInitializer after the first screen is fully drawn.
+ * WorkManager initialises on demand with the configuration below instead of
+ * through its own provider on the launch path. Coil asks for its
+ * ImageLoader (ImagePipeline) on the first image, not at startup.
  */
-class TrashCareApplication : Application() {
+class TrashCareApplication : Application(), Configuration.Provider, ImageLoaderFactory {
 
     override fun attachBaseContext(base: Context) {
-        super.attachBaseContext(LanguageManager.applyLocale(base))
+        super.attachBaseContext(trace("TrashCare.applyLocale") { LanguageManager.applyLocale(base) })
     }
+
+    override val workManagerConfiguration: Configuration
+        get() = Configuration.Builder().build()
+
+    override fun newImageLoader(): ImageLoader = ImagePipeline.newImageLoader(this)
 }
@@ -0,0 +1,55 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+
+@Dao
+interface CartDao {
+
+    /** What the cart screen shows: live lines, in the order they were added. */
+    @Query("SELECT * FROM cart_items WHERE quantity > 0 ORDER BY added_at")
+    suspend fun lines(): List<CartItemEntity>
+
+    @Query("SELECT * FROM cart_items WHERE listing_id = :listingId")
+    suspend fun get(listingId: String): CartItemEntity?
+
+    @Query("SELECT * FROM cart_items")
+    suspend fun all(): List<CartItemEntity>
+
+    @Upsert
+    suspend fun upsert(row: CartItemEntity)
+
+    @Upsert
+    suspend fun upsert(rows: List<CartItemEntity>)
+
+    /** Changes the server has not accepted yet, oldest first. */
+    @Query("SELECT * FROM cart_items WHERE dirty = 1 ORDER BY updated_at LIMIT :limit")
+    suspend fun dirty(limit: Int): List<CartItemEntity>
+
+    /** Marks a line as accepted — unless it was changed again while the PUT was in flight. */
+    @Query("UPDATE cart_items SET dirty = 0 WHERE listing_id = :listingId AND updated_at = :updatedAt")
+    suspend fun markSynced(listingId: String, updatedAt: Long)
+
+    @Query("DELETE FROM cart_items WHERE dirty = 0")
+    suspend fun deleteClean()
+
+    @Query("DELETE FROM cart_items")
+    suspend fun clear()
+
+    /**
+     * Replaces every accepted line with the server's cart. Lines with local
+     * changes still pending keep the local version; the next PUT decides.
+     */
+    @Transaction
+    suspend fun applyServerCart(server: List<CartItemEntity>) {
+        val local = all().associateBy { it.listingId }
+        deleteClean()
+        upsert(
+            server
+                .filter { local[it.listingId]?.dirty != true }
+                .map { row -> local[row.listingId]?.let { row.copy(addedAt = it.addedAt) } ?: row }
+        )
+    }
+}
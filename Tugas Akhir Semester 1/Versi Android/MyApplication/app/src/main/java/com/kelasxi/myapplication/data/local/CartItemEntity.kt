@@ -0,0 +1,33 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One cart line with a snapshot of its listing, so the cart survives process
+ * death and shows up before any listing is fetched again.
+ *
+ * [dirty] = changed locally since the last accepted PUT /api/cart. A removed
+ * line stays as a dirty tombstone (quantity 0) until the server has it.
+ */
+@Entity(tableName = "cart_items")
+data class CartItemEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "listing_id")    val listingId: String,
+    @ColumnInfo(name = "quantity")      val quantity: Int,
+    @ColumnInfo(name = "updated_at")    val updatedAt: Long,   // client epoch ms, last writer wins
+    @ColumnInfo(name = "added_at")      val addedAt: Long,     // keeps the display order stable
+    @ColumnInfo(name = "dirty")         val dirty: Boolean,
+    @ColumnInfo(name = "name")          val name: String,
+    @ColumnInfo(name = "price")         val price: Long,
+    @ColumnInfo(name = "seller_name")   val sellerName: String,
+    @ColumnInfo(name = "seller_rating") val sellerRating: Float,
+    @ColumnInfo(name = "description")   val description: String,
+    @ColumnInfo(name = "category")      val category: String,
+    @ColumnInfo(name = "condition")     val condition: String,
+    @ColumnInfo(name = "image_url")     val imageUrl: String?,
+    @ColumnInfo(name = "is_sold")       val isSold: Boolean,
+    @ColumnInfo(name = "is_active")     val isActive: Boolean,
+    @ColumnInfo(name = "stock")         val stock: Int
+)
@@ -0,0 +1,25 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Upsert
+
+@Dao
+interface GeocodeCacheDao {
+
+    @Query("SELECT * FROM geocode_cache WHERE geohash = :geohash AND fetched_at >= :notBefore")
+    suspend fun get(geohash: String, notBefore: Long): GeocodeCacheEntity?
+
+    @Upsert
+    suspend fun upsert(entry: GeocodeCacheEntity)
+
+    /** Keeps the table bounded: drops expired rows, then all but the newest [keep]. */
+    @Query(
+        """
+        DELETE FROM geocode_cache
+        WHERE fetched_at < :notBefore
+           OR geohash NOT IN (SELECT geohash FROM geocode_cache ORDER BY fetched_at DESC LIMIT :keep)
+        """
+    )
+    suspend fun trim(notBefore: Long, keep: Int)
+}
@@ -0,0 +1,18 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One reverse-geocoded address, keyed by the geohash cell it was resolved
+ * for (see GeocodeRepository). An empty [address] means Nominatim knows no
+ * address there — cached too, so the sea is not asked about twice.
+ */
+@Entity(tableName = "geocode_cache")
+data class GeocodeCacheEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "geohash")    val geohash: String,
+    @ColumnInfo(name = "address")    val address: String,
+    @ColumnInfo(name = "fetched_at") val fetchedAt: Long
+)
@@ -0,0 +1,105 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.paging.PagingSource
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+
+@Dao
+interface ListingDao {
+
+    /**
+     * Paged view of the cache, newest listing first — same order as
+     * GET /api/marketplace/feed. A null category means "no filter".
+     */
+    @Query(
+        """
+        SELECT * FROM listings
+        WHERE (:category IS NULL OR category = :category)
+        ORDER BY CAST(id AS INTEGER) DESC
+        """
+    )
+    fun pagingSource(category: String?): PagingSource<Int, ListingEntity>
+
+    /**
+     * Search through listings_fts instead of scanning every row. [match] /
+     * [nameMatch] come from FtsQuery: listings whose name matches rank
+     * first, then description/category-only hits; newest first within each.
+     */
+    @Query(
+        """
+        SELECT listings.* FROM listings
+        JOIN listings_fts ON listings_fts.rowid = listings.rowid
+        WHERE listings_fts MATCH :match
+          AND (:category IS NULL OR listings.category = :category)
+        ORDER BY
+          listings.rowid IN (SELECT rowid FROM listings_fts WHERE listings_fts MATCH :nameMatch) DESC,
+          CAST(listings.id AS INTEGER) DESC
+        """
+    )
+    fun searchPagingSource(category: String?, match: String, nameMatch: String): PagingSource<Int, ListingEntity>
+
+    @Query("SELECT MAX(CAST(id AS INTEGER)) FROM listings")
+    suspend fun newestId(): Long?
+
+    @Query("SELECT * FROM listings WHERE id IN (:ids)")
+    suspend fun getByIds(ids: List<String>): List<ListingEntity>
+
+    @Upsert
+    suspend fun upsert(rows: List<ListingEntity>)
+
+    @Query("DELETE FROM listings WHERE id IN (:ids)")
+    suspend fun deleteByIds(ids: List<String>)
+
+    @Query("DELETE FROM listings")
+    suspend fun clear()
+
+    @Query("UPDATE listings SET is_wishlisted = :wishlisted WHERE id = :id")
+    suspend fun setWishlisted(id: String, wishlisted: Boolean)
+
+    /**
+     * Delta sync — writes only rows whose content actually differs from
+     * what is stored, so observers are not woken up for no-op syncs.
+     * Returns the number of rows touched.
+     */
+    @Transaction
+    suspend fun applyDelta(changed: List<ListingEntity>, removedIds: List<String>): Int {
+        val existing = if (changed.isEmpty()) emptyMap()
+                       else getByIds(changed.map { it.id }).associateBy { it.id }
+        val dirty = changed.filter { existing[it.id] != it }
+        val gone = if (removedIds.isEmpty()) emptyList()
+                   else getByIds(removedIds).map { it.id }
+        if (dirty.isNotEmpty()) upsert(dirty)
+        if (gone.isNotEmpty()) deleteByIds(gone)
+        return dirty.size + gone.size
+    }
+
+    // ── Paging remote keys ───────────────────────────────────────
+
+    @Query("SELECT * FROM listing_remote_keys WHERE scope = :scope")
+    suspend fun remoteKey(scope: String): ListingRemoteKey?
+
+    @Upsert
+    suspend fun upsertRemoteKey(key: ListingRemoteKey)
+
+    @Query("DELETE FROM listing_remote_keys")
+    suspend fun clearRemoteKeys()
+
+    @Query("SELECT EXISTS(SELECT 1 FROM listing_remote_keys WHERE scope != :scope)")
+    suspend fun hasForeignScopes(scope: String): Boolean
+
+    /** Drops the cached feed and every cursor, so paging starts again from the newest listing. */
+    @Transaction
+    suspend fun resetFeed() {
+        clear()
+        clearRemoteKeys()
+    }
+
+    /** Stores one fetched feed page together with the cursor that follows it. */
+    @Transaction
+    suspend fun insertFeedPage(rows: List<ListingEntity>, key: ListingRemoteKey) {
+        upsert(rows)
+        upsertRemoteKey(key)
+    }
+}
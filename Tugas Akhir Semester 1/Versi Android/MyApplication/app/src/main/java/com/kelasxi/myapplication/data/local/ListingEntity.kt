@@ -0,0 +1,31 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/** One cached row of GET /api/marketplace — mirrors ListingDto field-for-field. */
+@Entity(
+    tableName = "listings",
+    indices = [Index("category"), Index("created_at")]
+)
+data class ListingEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "id")            val id: String,
+    @ColumnInfo(name = "name")          val name: String,
+    @ColumnInfo(name = "price")         val price: Long,
+    @ColumnInfo(name = "seller_name")   val sellerName: String,
+    @ColumnInfo(name = "seller_rating") val sellerRating: Float,
+    @ColumnInfo(name = "description")   val description: String,
+    @ColumnInfo(name = "category")      val category: String,   // furniture|electronics|clothing|books|others
+    @ColumnInfo(name = "condition")     val condition: String,  // like_new|good|fair
+    @ColumnInfo(name = "image_url")     val imageUrl: String?,
+    @ColumnInfo(name = "thumbnail_url") val thumbnailUrl: String?,
+    @ColumnInfo(name = "is_wishlisted") val isWishlisted: Boolean,
+    @ColumnInfo(name = "is_sold")       val isSold: Boolean,
+    @ColumnInfo(name = "is_active")     val isActive: Boolean,
+    @ColumnInfo(name = "stock")         val stock: Int,
+    @ColumnInfo(name = "created_at")    val createdAt: String?,
+    @ColumnInfo(name = "updated_at")    val updatedAt: String?
+)
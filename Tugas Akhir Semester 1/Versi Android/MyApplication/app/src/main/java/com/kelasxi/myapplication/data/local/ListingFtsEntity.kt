@@ -0,0 +1,24 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+
+/**
+ * Full-text index over the cached listings (name, description, category).
+ * External-content table: Room keeps it in step with [ListingEntity] through
+ * triggers, so the text itself is stored only once. prefix = 2,3 adds
+ * index entries for short prefixes, which keeps as-you-type queries cheap.
+ */
+@Fts4(
+    contentEntity = ListingEntity::class,
+    tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+    prefix = [2, 3]
+)
+@Entity(tableName = "listings_fts")
+data class ListingFtsEntity(
+    @ColumnInfo(name = "name")        val name: String,
+    @ColumnInfo(name = "description") val description: String,
+    @ColumnInfo(name = "category")    val category: String
+)
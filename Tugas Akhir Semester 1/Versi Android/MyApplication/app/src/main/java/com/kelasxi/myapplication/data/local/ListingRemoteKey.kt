@@ -0,0 +1,18 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * Where the paged feed left off. Only the unfiltered feed ("all") is paged;
+ * categories are filtered locally.
+ * nextCursor is the opaque cursor from GET /api/marketplace/feed.
+ */
+@Entity(tableName = "listing_remote_keys")
+data class ListingRemoteKey(
+    @PrimaryKey
+    @ColumnInfo(name = "scope")        val scope: String,
+    @ColumnInfo(name = "next_cursor")  val nextCursor: String?,
+    @ColumnInfo(name = "end_reached")  val endReached: Boolean
+)
@@ -0,0 +1,21 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One GPS fix kept by CourierLocationService until it has been uploaded.
+ * Coordinates are stored as degrees × 1e5 (~1 m), the same fixed-point
+ * form the batch endpoint takes, so encoding is plain subtraction.
+ */
+@Entity(tableName = "location_log")
+data class LocationFixEntity(
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")          val id: Long = 0,
+    @ColumnInfo(name = "lat_e5")      val latE5: Long,
+    @ColumnInfo(name = "lng_e5")      val lngE5: Long,
+    @ColumnInfo(name = "accuracy_m")  val accuracyM: Int,
+    @ColumnInfo(name = "speed_dm_s")  val speedDmS: Int,
+    @ColumnInfo(name = "recorded_at") val recordedAt: Long   // epoch seconds
+)
@@ -0,0 +1,39 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+
+/** Ring log of not-yet-uploaded courier fixes, oldest first. */
+@Dao
+interface LocationLogDao {
+
+    @Insert
+    suspend fun insert(fix: LocationFixEntity)
+
+    @Query("SELECT * FROM location_log ORDER BY id LIMIT :limit")
+    suspend fun oldest(limit: Int): List<LocationFixEntity>
+
+    @Query("SELECT COUNT(*) FROM location_log")
+    suspend fun count(): Int
+
+    /** Drops everything up to and including [id] — called after a batch is accepted. */
+    @Query("DELETE FROM location_log WHERE id <= :id")
+    suspend fun deleteThrough(id: Long)
+
+    /** Ring behaviour: keeps only the newest [capacity] rows when offline for long. */
+    @Query(
+        """
+        DELETE FROM location_log
+        WHERE id NOT IN (SELECT id FROM location_log ORDER BY id DESC LIMIT :capacity)
+        """
+    )
+    suspend fun trimTo(capacity: Int)
+
+    @Transaction
+    suspend fun append(fix: LocationFixEntity, capacity: Int) {
+        insert(fix)
+        trimTo(capacity)
+    }
+}
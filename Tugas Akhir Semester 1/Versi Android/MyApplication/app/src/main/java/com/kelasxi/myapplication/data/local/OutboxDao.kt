@@ -0,0 +1,27 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+
+@Dao
+interface OutboxDao {
+
+    @Query("SELECT * FROM outbox ORDER BY id LIMIT 1")
+    suspend fun oldest(): OutboxEntity?
+
+    @Query("SELECT COUNT(*) FROM outbox")
+    suspend fun count(): Int
+
+    @Insert
+    suspend fun insert(row: OutboxEntity): Long
+
+    @Query("UPDATE outbox SET attempts = attempts + 1, last_error = :error WHERE id = :id")
+    suspend fun markFailed(id: Long, error: String)
+
+    @Query("DELETE FROM outbox WHERE id = :id")
+    suspend fun delete(id: Long)
+
+    @Query("DELETE FROM outbox")
+    suspend fun clear()
+}
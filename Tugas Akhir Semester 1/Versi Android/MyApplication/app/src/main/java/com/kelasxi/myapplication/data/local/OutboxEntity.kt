@@ -0,0 +1,28 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A write the server has not acknowledged yet (new pickup, new order,
+ * courier status change). Rows replay in [id] order; [idempotencyKey] goes
+ * out as the Idempotency-Key header on every attempt, so a retry after a
+ * lost response is answered from the server's record instead of being
+ * applied twice.
+ */
+@Entity(
+    tableName = "outbox",
+    indices = [Index(value = ["idempotency_key"], unique = true)]
+)
+data class OutboxEntity(
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")              val id: Long = 0,
+    @ColumnInfo(name = "idempotency_key") val idempotencyKey: String,
+    @ColumnInfo(name = "kind")            val kind: String,
+    @ColumnInfo(name = "payload")         val payload: String,
+    @ColumnInfo(name = "created_at")      val createdAt: Long,
+    @ColumnInfo(name = "attempts")        val attempts: Int = 0,
+    @ColumnInfo(name = "last_error")      val lastError: String? = null
+)
@@ -0,0 +1,25 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Upsert
+
+@Dao
+interface RouteCacheDao {
+
+    @Query("SELECT * FROM route_cache WHERE cell_key = :key AND fetched_at >= :notBefore")
+    suspend fun get(key: String, notBefore: Long): RouteCacheEntity?
+
+    @Upsert
+    suspend fun upsert(route: RouteCacheEntity)
+
+    /** Keeps the table bounded: drops expired rows, then all but the newest [keep]. */
+    @Query(
+        """
+        DELETE FROM route_cache
+        WHERE fetched_at < :notBefore
+           OR cell_key NOT IN (SELECT cell_key FROM route_cache ORDER BY fetched_at DESC LIMIT :keep)
+        """
+    )
+    suspend fun trim(notBefore: Long, keep: Int)
+}
@@ -0,0 +1,21 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One driving route, keyed by the snapped origin/destination cells
+ * (see RouteRepository.cellKey). The geometry is stored as an encoded
+ * polyline (precision 5) to keep rows small.
+ */
+@Entity(tableName = "route_cache")
+data class RouteCacheEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "cell_key")   val cellKey: String,
+    @ColumnInfo(name = "polyline")   val polyline: String,
+    @ColumnInfo(name = "distance_m") val distanceM: Double,
+    @ColumnInfo(name = "duration_s") val durationS: Double,
+    @ColumnInfo(name = "provider")   val provider: String,
+    @ColumnInfo(name = "fetched_at") val fetchedAt: Long
+)
@@ -0,0 +1,39 @@
+package com.kelasxi.myapplication.data.local
+
+import android.content.Context
+import androidx.datastore.preferences.core.edit
+import androidx.datastore.preferences.core.stringPreferencesKey
+import androidx.datastore.preferences.preferencesDataStore
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.map
+
+// ── DataStore singleton extension ────────────────────────────────
+val Context.syncDataStore by preferencesDataStore(name = "sync_prefs")
+
+/**
+ * Per-resource sync cursors: the server clock of the last successful sync
+ * (sent back as `updated_since`) and the ETag it returned.
+ */
+object SyncStateStore {
+    private val KEY_LISTINGS_SYNCED_AT = stringPreferencesKey("listings_synced_at")
+    private val KEY_LISTINGS_ETAG      = stringPreferencesKey("listings_etag")
+
+    suspend fun listingsSyncedAt(context: Context): String? =
+        context.syncDataStore.data.map { it[KEY_LISTINGS_SYNCED_AT] }.first()
+
+    suspend fun listingsEtag(context: Context): String? =
+        context.syncDataStore.data.map { it[KEY_LISTINGS_ETAG] }.first()
+
+    suspend fun saveListingsCursor(context: Context, syncedAt: String?, etag: String?) {
+        context.syncDataStore.edit { prefs ->
+            if (syncedAt != null) prefs[KEY_LISTINGS_SYNCED_AT] = syncedAt
+            else prefs.remove(KEY_LISTINGS_SYNCED_AT)
+            if (etag != null) prefs[KEY_LISTINGS_ETAG] = etag
+            else prefs.remove(KEY_LISTINGS_ETAG)
+        }
+    }
+
+    suspend fun clear(context: Context) {
+        context.syncDataStore.edit { it.clear() }
+    }
+}
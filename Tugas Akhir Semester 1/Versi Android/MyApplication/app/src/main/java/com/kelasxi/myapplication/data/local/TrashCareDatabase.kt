@@ -0,0 +1,65 @@
+package com.kelasxi.myapplication.data.local
+
+import android.content.Context
+import androidx.room.Database
+import androidx.room.Room
+import androidx.room.RoomDatabase
+
+/**
+ * On-device SQLite store for data that should survive process death and
+ * be readable before the network answers (marketplace listings, courier
+ * routes, geocoded addresses, …).
+ *
+ * Everything here is either a cache of server state or a short-lived,
+ * loss-tolerant buffer (the courier GPS log, unsynced cart and wishlist
+ * edits, the outbox of writes made offline), so a schema bump simply drops
+ * the tables and the next sync refills them.
+ */
+@Database(
+    entities = [
+        ListingEntity::class,
+        ListingFtsEntity::class,
+        ListingRemoteKey::class,
+        RouteCacheEntity::class,
+        LocationFixEntity::class,
+        GeocodeCacheEntity::class,
+        CartItemEntity::class,
+        WishlistPendingEntity::class,
+        OutboxEntity::class
+    ],
+    version = 10,
+    exportSchema = false
+)
+abstract class TrashCareDatabase : RoomDatabase() {
+
+    abstract fun listingDao(): ListingDao
+
+    abstract fun routeCacheDao(): RouteCacheDao
+
+    abstract fun locationLogDao(): LocationLogDao
+
+    abstract fun geocodeCacheDao(): GeocodeCacheDao
+
+    abstract fun cartDao(): CartDao
+
+    abstract fun wishlistPendingDao(): WishlistPendingDao
+
+    abstract fun outboxDao(): OutboxDao
+
+    companion object {
+        @Volatile
+        private var instance: TrashCareDatabase? = null
+
+        fun get(context: Context): TrashCareDatabase =
+            instance ?: synchronized(this) {
+                instance ?: Room.databaseBuilder(
+                    context.applicationContext,
+                    TrashCareDatabase::class.java,
+                    "trashcare.db"
+                )
+                    .fallbackToDestructiveMigration()
+                    .build()
+                    .also { instance = it }
+            }
+    }
+}
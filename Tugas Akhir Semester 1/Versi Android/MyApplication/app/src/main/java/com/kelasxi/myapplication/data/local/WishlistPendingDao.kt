@@ -0,0 +1,41 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+
+@Dao
+interface WishlistPendingDao {
+
+    @Query("SELECT * FROM wishlist_pending ORDER BY queued_at LIMIT :limit")
+    suspend fun oldest(limit: Int): List<WishlistPendingEntity>
+
+    @Query("SELECT * FROM wishlist_pending")
+    suspend fun all(): List<WishlistPendingEntity>
+
+    @Query("SELECT * FROM wishlist_pending WHERE listing_id = :listingId")
+    suspend fun get(listingId: String): WishlistPendingEntity?
+
+    @Insert
+    suspend fun insert(row: WishlistPendingEntity)
+
+    @Query("DELETE FROM wishlist_pending WHERE listing_id = :listingId")
+    suspend fun delete(listingId: String)
+
+    @Query("DELETE FROM wishlist_pending WHERE listing_id IN (:listingIds)")
+    suspend fun delete(listingIds: List<String>)
+
+    @Query("DELETE FROM wishlist_pending")
+    suspend fun clear()
+
+    /**
+     * One tap. A pending row for the same listing means this tap undoes it —
+     * the two cancel out and nothing is sent.
+     */
+    @Transaction
+    suspend fun toggle(listingId: String, wishlisted: Boolean, at: Long) {
+        if (get(listingId) != null) delete(listingId)
+        else insert(WishlistPendingEntity(listingId, wishlisted, at))
+    }
+}
@@ -0,0 +1,18 @@
+package com.kelasxi.myapplication.data.local
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * A wishlist change the server has not confirmed yet — the state the user
+ * left the heart in. The server's state is the opposite, which is what a
+ * rollback restores; a second tap before the flush deletes the row.
+ */
+@Entity(tableName = "wishlist_pending")
+data class WishlistPendingEntity(
+    @PrimaryKey
+    @ColumnInfo(name = "listing_id") val listingId: String,
+    @ColumnInfo(name = "wishlisted") val wishlisted: Boolean,
+    @ColumnInfo(name = "queued_at")  val queuedAt: Long
+)
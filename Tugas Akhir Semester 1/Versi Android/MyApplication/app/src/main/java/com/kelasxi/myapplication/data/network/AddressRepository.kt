@@ -11,9 +11,8 @@ class AddressRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getAddresses(): AuthResult<List<Address>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.getAddresses("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.getAddresses()
             if (response.isSuccessful) {
                 val list = response.body()!!.data.map { it.toDomain() }
                 AuthResult.Success(list)
@@ -39,8 +38,7 @@ class AddressRepository(private val context: Context) {
         isDefault: Boolean = false
     ): AuthResult<Address> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
             val body = AddAddressRequest(
                 label          = label,
                 recipient_name = recipientName,
@@ -51,7 +49,7 @@ class AddressRepository(private val context: Context) {
                 postal_code    = postalCode,
                 is_default     = isDefault
             )
-            val response = api.addAddress("Bearer $token", body)
+            val response = api.addAddress(body)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -67,9 +65,8 @@ class AddressRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun setDefaultAddress(id: Long): AuthResult<Address> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.setDefaultAddress("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.setDefaultAddress(id)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -85,9 +82,8 @@ class AddressRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun deleteAddress(id: Long): AuthResult<String> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.deleteAddress("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.deleteAddress(id)
             if (response.isSuccessful) {
                 val msg = response.body()?.get("message") ?: "Alamat dihapus."
                 AuthResult.Success(msg)
@@ -27,37 +27,29 @@ interface ApiService {
     suspend fun loginWithGoogle(@Body body: GoogleLoginRequest): Response<AuthResponse>
 
     @POST("auth/logout")
-    suspend fun logout(
-        @Header("Authorization") bearer: String
-    ): Response<MessageResponse>
+    suspend fun logout(): Response<MessageResponse>
 
     @GET("auth/me")
-    suspend fun me(
-        @Header("Authorization") bearer: String
-    ): Response<AuthResponse>
+    suspend fun me(): Response<AuthResponse>
 
     // ── Pickup endpoints ─────────────────────────────────────────
 
     @GET("pickups")
-    suspend fun getPickups(
-        @Header("Authorization") bearer: String
-    ): Response<PickupListResponse>
+    suspend fun getPickups(): Response<PickupListResponse>
 
     @POST("pickups")
     suspend fun createPickup(
-        @Header("Authorization") bearer: String,
-        @Body body: CreatePickupRequest
+        @Body body: CreatePickupRequest,
+        @Header("Idempotency-Key") idempotencyKey: String? = null
     ): Response<PickupSingleResponse>
 
     @GET("pickups/{id}")
     suspend fun getPickup(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<PickupSingleResponse>
 
     @POST("pickups/{id}/cancel")
     suspend fun cancelPickup(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: CancelPickupRequest = CancelPickupRequest()
     ): Response<PickupSingleResponse>
@@ -65,31 +57,47 @@ interface ApiService {
     /** POST /api/pickups/{id}/rate — user rates courier after pickup is done */
     @POST("pickups/{id}/rate")
     suspend fun ratePickup(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: RatePickupRequest
     ): Response<PickupSingleResponse>
 
     // ── Marketplace endpoints ─────────────────────────────────────
 
-    /** GET /api/marketplace?category=&search= */
+    /**
+     * GET /api/marketplace?category=&search=&updated_since=&page=&per_page=
+     * With updated_since the server also returns inactive/sold/deleted rows
+     * changed after that time so the local cache can drop them.
+     * A matching If-None-Match answers 304 with an empty body.
+     */
     @GET("marketplace")
     suspend fun getListings(
-        @Header("Authorization") bearer: String,
-        @Query("category") category: String? = null,
-        @Query("search")   search: String? = null
+        @Query("category")      category: String? = null,
+        @Query("search")        search: String? = null,
+        @Query("updated_since") updatedSince: String? = null,
+        @Query("page")          page: Int? = null,
+        @Query("per_page")      perPage: Int? = null,
+        @Header("If-None-Match") ifNoneMatch: String? = null
     ): Response<ListingListResponse>
 
+    /**
+     * GET /api/marketplace/feed?category=&cursor=&per_page=
+     * Keyset-paginated feed (newest first) for the paged marketplace grid.
+     * Pass meta.next_cursor back as cursor; null means the end was reached.
+     */
+    @GET("marketplace/feed")
+    suspend fun getListingFeed(
+        @Query("category") category: String? = null,
+        @Query("cursor")   cursor: String? = null,
+        @Query("per_page") perPage: Int? = null
+    ): Response<ListingFeedResponse>
+
     /** GET /api/marketplace/mine — seller's own listings */
     @GET("marketplace/mine")
-    suspend fun getMyListings(
-        @Header("Authorization") bearer: String
-    ): Response<ListingListResponse>
+    suspend fun getMyListings(): Response<ListingListResponse>
 
     /** GET /api/marketplace/{id} */
     @GET("marketplace/{id}")
     suspend fun getListing(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<ListingSingleResponse>
 
@@ -97,7 +105,6 @@ interface ApiService {
     @Multipart
     @POST("marketplace")
     suspend fun createListing(
-        @Header("Authorization") bearer: String,
         @Part("name")        name: RequestBody,
         @Part("description") description: RequestBody,
         @Part("price")       price: RequestBody,
@@ -110,7 +117,6 @@ interface ApiService {
     /** DELETE /api/marketplace/{id} — deactivate seller's listing */
     @DELETE("marketplace/{id}")
     suspend fun deleteListing(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<Map<String, String>>
 
@@ -118,7 +124,6 @@ interface ApiService {
     @Multipart
     @POST("marketplace/{id}")
     suspend fun updateListing(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Part("_method")     method: RequestBody,
         @Part("name")        name: RequestBody,
@@ -134,43 +139,42 @@ interface ApiService {
 
     /** GET /api/orders — list buyer's orders */
     @GET("orders")
-    suspend fun getOrders(
-        @Header("Authorization") bearer: String
-    ): Response<OrderListResponse>
+    suspend fun getOrders(): Response<OrderListResponse>
 
     /** POST /api/orders — create an order (buy a listing) */
     @POST("orders")
     suspend fun createOrder(
-        @Header("Authorization") bearer: String,
-        @Body body: CreateOrderRequest
+        @Body body: CreateOrderRequest,
+        @Header("Idempotency-Key") idempotencyKey: String? = null
     ): Response<OrderSingleResponse>
 
     /** GET /api/orders/{id} */
     @GET("orders/{id}")
     suspend fun getOrder(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<OrderSingleResponse>
 
     /** POST /api/orders/{id}/pay — initiate Mayar payment, returns link */
     @POST("orders/{id}/pay")
     suspend fun payOrder(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: EmptyRequest = EmptyRequest()
     ): Response<PayOrderResponse>
 
-    /** GET /api/orders/{id}/payment-status — poll Mayar payment status */
+    /**
+     * GET /api/orders/{id}/payment-status — poll Mayar payment status.
+     * wait > 0 makes it a long-poll: the server holds the request up to
+     * that many seconds and answers as soon as the order leaves "unpaid".
+     */
     @GET("orders/{id}/payment-status")
     suspend fun getPaymentStatus(
-        @Header("Authorization") bearer: String,
-        @Path("id") id: Long
+        @Path("id") id: Long,
+        @Query("wait") wait: Int? = null
     ): Response<PaymentStatusResponse>
 
     /** POST /api/orders/{id}/cancel */
     @POST("orders/{id}/cancel")
     suspend fun cancelOrder(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: CancelOrderRequest = CancelOrderRequest()
     ): Response<OrderSingleResponse>
@@ -178,86 +182,89 @@ interface ApiService {
     /** POST /api/orders/{id}/rate — buyer rates courier + listing after completed */
     @POST("orders/{id}/rate")
     suspend fun rateOrder(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: RateOrderRequest
     ): Response<OrderSingleResponse>
 
     /** GET /api/orders/sales-transactions — Mayar paid+unpaid history (seller) */
     @GET("orders/sales-transactions")
-    suspend fun getSalesTransactions(
-        @Header("Authorization") bearer: String
-    ): Response<SalesTransactionsResponse>
+    suspend fun getSalesTransactions(): Response<SalesTransactionsResponse>
 
     /** POST /api/orders/checkout-cart — cart checkout, 1 Mayar payment for multiple items */
     @POST("orders/checkout-cart")
     suspend fun cartCheckout(
-        @Header("Authorization") bearer: String,
         @Body body: CartCheckoutRequest
     ): Response<CartCheckoutResponse>
 
     /** GET /api/orders/cart-checkouts — list all buyer's cart checkout groups */
     @GET("orders/cart-checkouts")
-    suspend fun getCartCheckouts(
-        @Header("Authorization") bearer: String
-    ): Response<CartCheckoutsListResponse>
+    suspend fun getCartCheckouts(): Response<CartCheckoutsListResponse>
 
-    /** GET /api/orders/cart-checkout/{id}/payment-status */
+    /** GET /api/orders/cart-checkout/{id}/payment-status — same `wait` long-poll as above */
     @GET("orders/cart-checkout/{cartCheckoutId}/payment-status")
     suspend fun getCartCheckoutStatus(
-        @Header("Authorization") bearer: String,
-        @Path("cartCheckoutId") cartCheckoutId: String
+        @Path("cartCheckoutId") cartCheckoutId: String,
+        @Query("wait") wait: Int? = null
     ): Response<CartCheckoutStatusResponse>
 
     /** POST /api/orders/cart-checkout/{id}/cancel */
     @POST("orders/cart-checkout/{cartCheckoutId}/cancel")
     suspend fun cancelCartCheckout(
-        @Header("Authorization") bearer: String,
         @Path("cartCheckoutId") cartCheckoutId: String,
         @Body body: CancelOrderRequest = CancelOrderRequest()
     ): Response<CartCheckoutStatusResponse>
 
+    // ── Cart endpoints ────────────────────────────────────────────
+
+    /** GET /api/cart — synced cart lines with listing snapshots */
+    @GET("cart")
+    suspend fun getCart(): Response<CartResponse>
+
+    /** PUT /api/cart — batched line changes, last writer wins; returns the full cart */
+    @PUT("cart")
+    suspend fun syncCart(
+        @Body body: CartSyncRequest
+    ): Response<CartResponse>
+
     // ── Wishlist endpoints ────────────────────────────────────────
 
     /** GET /api/wishlist — list all wishlisted items */
     @GET("wishlist")
-    suspend fun getWishlist(
-        @Header("Authorization") bearer: String
-    ): Response<WishlistListResponse>
+    suspend fun getWishlist(): Response<WishlistListResponse>
 
     /** POST /api/wishlist/toggle — add or remove from wishlist */
     @POST("wishlist/toggle")
     suspend fun toggleWishlist(
-        @Header("Authorization") bearer: String,
         @Body body: ToggleWishlistRequest
     ): Response<ToggleWishlistResponse>
 
+    /** POST /api/wishlist/batch — final state for many listings at once (write-behind flush) */
+    @POST("wishlist/batch")
+    suspend fun batchWishlist(
+        @Body body: WishlistBatchRequest
+    ): Response<WishlistBatchResponse>
+
     // ── Address endpoints ─────────────────────────────────────────
 
     /** GET /api/addresses — list all user's addresses */
     @GET("addresses")
-    suspend fun getAddresses(
-        @Header("Authorization") bearer: String
-    ): Response<AddressListResponse>
+    suspend fun getAddresses(): Response<AddressListResponse>
 
     /** POST /api/addresses — add a new address */
     @POST("addresses")
     suspend fun addAddress(
-        @Header("Authorization") bearer: String,
         @Body body: AddAddressRequest
     ): Response<AddressSingleResponse>
 
     /** PATCH /api/addresses/{id}/default — set address as default */
     @PATCH("addresses/{id}/default")
     suspend fun setDefaultAddress(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<AddressSingleResponse>
 
     /** DELETE /api/addresses/{id} — delete an address */
     @DELETE("addresses/{id}")
     suspend fun deleteAddress(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<Map<String, String>>
 
@@ -265,62 +272,55 @@ interface ApiService {
 
     /** GET /api/courier/me — courier profile */
     @GET("courier/me")
-    suspend fun getCourierMe(
-        @Header("Authorization") bearer: String
-    ): Response<CourierMeResponse>
+    suspend fun getCourierMe(): Response<CourierMeResponse>
 
     /** GET /api/courier/pickups — pickups assigned to this courier */
     @GET("courier/pickups")
-    suspend fun getCourierPickups(
-        @Header("Authorization") bearer: String
-    ): Response<CourierPickupListResponse>
+    suspend fun getCourierPickups(): Response<CourierPickupListResponse>
 
     /** GET /api/courier/available-pickups — unassigned searching pickups */
     @GET("courier/available-pickups")
-    suspend fun getAvailablePickups(
-        @Header("Authorization") bearer: String
-    ): Response<CourierPickupListResponse>
+    suspend fun getAvailablePickups(): Response<CourierPickupListResponse>
 
     /** POST /api/courier/pickups/{id}/accept — accept a searching pickup */
     @POST("courier/pickups/{id}/accept")
     suspend fun acceptPickup(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long
     ): Response<AcceptPickupResponse>
 
     /** PATCH /api/courier/pickups/{id}/status — update pickup status */
     @PATCH("courier/pickups/{id}/status")
     suspend fun updatePickupStatus(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
-        @Body body: UpdatePickupStatusRequest
+        @Body body: UpdatePickupStatusRequest,
+        @Header("Idempotency-Key") idempotencyKey: String? = null
     ): Response<CourierPickupSingleResponse>
 
     /** PATCH /api/courier/availability — toggle online/offline */
     @PATCH("courier/availability")
     suspend fun updateCourierAvailability(
-        @Header("Authorization") bearer: String,
         @Body body: CourierAvailabilityRequest
     ): Response<CourierAvailabilityResponse>
 
+    /** POST /api/courier/locations/batch — upload buffered GPS fixes (see LocationBatchRequest) */
+    @POST("courier/locations/batch")
+    suspend fun uploadCourierLocations(
+        @Body body: LocationBatchRequest
+    ): Response<LocationBatchResponse>
+
     // ── Courier Order (marketplace delivery) endpoints ────────────
 
     /** GET /api/courier/available-orders — paid orders awaiting a courier */
     @GET("courier/available-orders")
-    suspend fun getAvailableOrders(
-        @Header("Authorization") bearer: String
-    ): Response<CourierOrderListResponse>
+    suspend fun getAvailableOrders(): Response<CourierOrderListResponse>
 
     /** GET /api/courier/orders — orders assigned to this courier */
     @GET("courier/orders")
-    suspend fun getCourierOrders(
-        @Header("Authorization") bearer: String
-    ): Response<CourierOrderListResponse>
+    suspend fun getCourierOrders(): Response<CourierOrderListResponse>
 
     /** POST /api/courier/orders/{id}/accept — accept an order delivery */
     @POST("courier/orders/{id}/accept")
     suspend fun acceptOrder(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
         @Body body: EmptyRequest = EmptyRequest()
     ): Response<CourierOrderSingleResponse>
@@ -328,9 +328,9 @@ interface ApiService {
     /** PATCH /api/courier/orders/{id}/status — update order delivery status */
     @PATCH("courier/orders/{id}/status")
     suspend fun updateOrderStatus(
-        @Header("Authorization") bearer: String,
         @Path("id") id: Long,
-        @Body body: UpdatePickupStatusRequest
+        @Body body: UpdatePickupStatusRequest,
+        @Header("Idempotency-Key") idempotencyKey: String? = null
     ): Response<CourierOrderSingleResponse>
 }
 
@@ -4,9 +4,14 @@ import android.content.Context
 import androidx.datastore.preferences.core.edit
 import androidx.datastore.preferences.core.stringPreferencesKey
 import androidx.datastore.preferences.preferencesDataStore
+import com.kelasxi.myapplication.data.local.SyncStateStore
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.withContext
+import java.io.IOException
 
 // ── DataStore singleton extension ────────────────────────────────
 val Context.authDataStore by preferencesDataStore(name = "auth_prefs")
@@ -24,6 +29,7 @@ object TokenStore {
             prefs[KEY_USER_EMAIL] = user.email
             prefs[KEY_ROLE] = "user"
         }
+        AuthSession.update(token)
     }
 
     suspend fun saveCourier(context: Context, token: String, courier: CourierProfileDto) {
@@ -33,10 +39,18 @@ object TokenStore {
             prefs[KEY_USER_EMAIL] = courier.email
             prefs[KEY_ROLE] = "courier"
         }
+        AuthSession.update(token)
     }
 
+    /** Signs out locally — also drops every per-user cache so the next account starts clean. */
     suspend fun clear(context: Context) {
         context.authDataStore.edit { it.clear() }
+        AuthSession.update(null)
+        SyncStateStore.clear(context)
+        withContext(Dispatchers.IO) {
+            TrashCareDatabase.get(context).clearAllTables()
+            HttpStack.evictCache()
+        }
     }
 
     fun tokenFlow(context: Context): Flow<String?> =
@@ -45,9 +59,6 @@ object TokenStore {
     fun roleFlow(context: Context): Flow<String?> =
         context.authDataStore.data.map { it[KEY_ROLE] }
 
-    suspend fun getToken(context: Context): String? =
-        tokenFlow(context).first()
-
     suspend fun getRole(context: Context): String? =
         roleFlow(context).first()
 }
@@ -57,7 +68,8 @@ object TokenStore {
 // ─────────────────────────────────────────────────────────────────
 sealed class AuthResult<out T> {
     data class Success<T>(val data: T) : AuthResult<T>()
-    data class Error(val message: String) : AuthResult<Nothing>()
+    /** [retryable]: the request may not have reached the server (no network, 5xx) — safe to send again. */
+    data class Error(val message: String, val retryable: Boolean = false) : AuthResult<Nothing>()
     object Loading : AuthResult<Nothing>()
 }
 
@@ -132,14 +144,20 @@ class AuthRepository(private val context: Context) {
 
     suspend fun logout(): AuthResult<Unit> {
         return try {
-            val token = TokenStore.getToken(context) ?: return AuthResult.Error("Belum login.")
-            val response = api.logout("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.logout()
             TokenStore.clear(context)
+            CartRepository.get(context).wipeLocal()
+            WishlistRepository.get(context).wipeLocal()
+            Outbox.get(context).wipeLocal()
             if (response.isSuccessful) AuthResult.Success(Unit)
             else AuthResult.Error(parseError(response.errorBody()?.string()))
         } catch (e: Exception) {
             // Even if the server call fails, clear local token
             TokenStore.clear(context)
+            CartRepository.get(context).wipeLocal()
+            WishlistRepository.get(context).wipeLocal()
+            Outbox.get(context).wipeLocal()
             AuthResult.Success(Unit)
         }
     }
@@ -147,9 +165,8 @@ class AuthRepository(private val context: Context) {
     /** Fetch fresh user profile from GET /api/auth/me */
     suspend fun fetchMe(): AuthResult<UserDto> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.me("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.me()
             if (response.isSuccessful) {
                 val user = response.body()?.user
                     ?: return AuthResult.Error("Data user tidak ditemukan.")
@@ -169,9 +186,8 @@ class AuthRepository(private val context: Context) {
     // ── Courier endpoints ──────────────────────────────────────────
     suspend fun getCourierMe(): AuthResult<CourierProfileDto> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.getCourierMe("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.getCourierMe()
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.courier)
             } else {
@@ -184,9 +200,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun getCourierPickups(): AuthResult<List<CourierPickupDto>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.getCourierPickups("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.getCourierPickups()
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data)
             } else {
@@ -199,9 +214,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun getAvailablePickups(): AuthResult<List<CourierPickupDto>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.getAvailablePickups("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.getAvailablePickups()
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data)
             } else {
@@ -214,9 +228,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun acceptPickup(id: Long): AuthResult<CourierPickupDto> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.acceptPickup("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.acceptPickup(id)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data)
             } else {
@@ -227,13 +240,30 @@ class AuthRepository(private val context: Context) {
         }
     }
 
-    suspend fun updatePickupStatus(id: Long, status: String): AuthResult<CourierPickupDto> {
+    suspend fun updatePickupStatus(
+        id: Long,
+        status: String,
+        idempotencyKey: String? = null
+    ): AuthResult<CourierPickupDto> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.updatePickupStatus("Bearer $token", id, UpdatePickupStatusRequest(status))
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.updatePickupStatus(id, UpdatePickupStatusRequest(status), idempotencyKey)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data)
+            } else {
+                AuthResult.Error(parseError(response.errorBody()?.string()), retryable = response.code() >= 500)
+            }
+        } catch (e: Exception) {
+            AuthResult.Error("Tidak dapat terhubung ke server.", retryable = e is IOException)
+        }
+    }
+
+    suspend fun toggleAvailability(isAvailable: Boolean): AuthResult<CourierAvailabilityResponse> {
+        return try {
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.updateCourierAvailability(CourierAvailabilityRequest(isAvailable))
+            if (response.isSuccessful) {
+                AuthResult.Success(response.body()!!)
             } else {
                 AuthResult.Error(parseError(response.errorBody()?.string()))
             }
@@ -242,11 +272,10 @@ class AuthRepository(private val context: Context) {
         }
     }
 
-    suspend fun toggleAvailability(isAvailable: Boolean): AuthResult<CourierAvailabilityResponse> {
+    suspend fun uploadCourierLocations(batch: LocationBatchRequest): AuthResult<LocationBatchResponse> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login.")
-            val response = api.updateCourierAvailability("Bearer $token", CourierAvailabilityRequest(isAvailable))
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.uploadCourierLocations(batch)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -261,8 +290,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun getAvailableOrders(): AuthResult<List<CourierOrderDto>> {
         return try {
-            val token = TokenStore.getToken(context) ?: return AuthResult.Error("Belum login.")
-            val response = api.getAvailableOrders("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.getAvailableOrders()
             if (response.isSuccessful) AuthResult.Success(response.body()!!.data)
             else AuthResult.Error(parseError(response.errorBody()?.string()))
         } catch (e: Exception) {
@@ -272,8 +301,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun getCourierOrders(): AuthResult<List<CourierOrderDto>> {
         return try {
-            val token = TokenStore.getToken(context) ?: return AuthResult.Error("Belum login.")
-            val response = api.getCourierOrders("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.getCourierOrders()
             if (response.isSuccessful) AuthResult.Success(response.body()!!.data)
             else AuthResult.Error(parseError(response.errorBody()?.string()))
         } catch (e: Exception) {
@@ -283,8 +312,8 @@ class AuthRepository(private val context: Context) {
 
     suspend fun acceptOrder(id: Long): AuthResult<CourierOrderDto> {
         return try {
-            val token = TokenStore.getToken(context) ?: return AuthResult.Error("Belum login.")
-            val response = api.acceptOrder("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.acceptOrder(id)
             if (response.isSuccessful) AuthResult.Success(response.body()!!.data)
             else AuthResult.Error(parseError(response.errorBody()?.string()))
         } catch (e: Exception) {
@@ -292,14 +321,18 @@ class AuthRepository(private val context: Context) {
         }
     }
 
-    suspend fun updateOrderStatus(id: Long, status: String): AuthResult<CourierOrderDto> {
+    suspend fun updateOrderStatus(
+        id: Long,
+        status: String,
+        idempotencyKey: String? = null
+    ): AuthResult<CourierOrderDto> {
         return try {
-            val token = TokenStore.getToken(context) ?: return AuthResult.Error("Belum login.")
-            val response = api.updateOrderStatus("Bearer $token", id, UpdatePickupStatusRequest(status))
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login.")
+            val response = api.updateOrderStatus(id, UpdatePickupStatusRequest(status), idempotencyKey)
             if (response.isSuccessful) AuthResult.Success(response.body()!!.data)
-            else AuthResult.Error(parseError(response.errorBody()?.string()))
+            else AuthResult.Error(parseError(response.errorBody()?.string()), retryable = response.code() >= 500)
         } catch (e: Exception) {
-            AuthResult.Error("Tidak dapat terhubung ke server.")
+            AuthResult.Error("Tidak dapat terhubung ke server.", retryable = e is IOException)
         }
     }
 
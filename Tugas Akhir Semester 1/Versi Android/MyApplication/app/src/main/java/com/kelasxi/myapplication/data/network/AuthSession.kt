@@ -0,0 +1,68 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+
+/**
+ * In-memory copy of the signed-in user's bearer token, so API calls no
+ * longer read DataStore one by one (CourierViewModel.refresh used to fire
+ * five reads at once).
+ *
+ * Hydrated once from TokenStore and kept in sync through tokenFlow; TokenStore
+ * also pushes its own writes here so a request fired right after login or
+ * logout never sees the previous value. RetrofitClient's interceptor adds the
+ * Authorization header from [currentToken].
+ *
+ * [init] is called by NetworkInitializer (App Startup), before Application.onCreate.
+ */
+object AuthSession {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val hydrated = CompletableDeferred<Unit>()
+
+    @Volatile
+    private var token: String? = null
+
+    @Volatile
+    private var started = false
+
+    fun init(context: Context) {
+        synchronized(this) {
+            if (started) return
+            started = true
+        }
+        val app = context.applicationContext
+        scope.launch {
+            TokenStore.tokenFlow(app).collect { value ->
+                token = value
+                hydrated.complete(Unit)
+            }
+        }
+    }
+
+    /** Called by TokenStore right after it saved or cleared the token. */
+    internal fun update(value: String?) {
+        token = value
+        hydrated.complete(Unit)
+    }
+
+    suspend fun token(): String? {
+        hydrated.await()
+        return token
+    }
+
+    suspend fun isSignedIn(): Boolean = token() != null
+
+    /**
+     * Blocking variant for OkHttp threads. Only the very first request of a
+     * process can wait here (for the single DataStore read); afterwards this
+     * is a plain volatile read.
+     */
+    fun currentToken(): String? =
+        if (hydrated.isCompleted) token else runBlocking { token() }
+}
@@ -0,0 +1,270 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import com.kelasxi.myapplication.data.local.CartItemEntity
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import com.kelasxi.myapplication.model.CartItem
+import com.kelasxi.myapplication.model.Product
+import com.kelasxi.myapplication.model.ProductCategory
+import com.kelasxi.myapplication.model.ProductCondition
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.launch
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * The buyer's cart, persisted in Room (cart_items) and mirrored to
+ * GET/PUT /api/cart so it survives process death and follows the user
+ * across devices.
+ *
+ *  - Edits are queued and written by a single coroutine, in call order;
+ *    the caller never waits for disk.
+ *  - Each edit marks its line dirty and (re)starts a [SYNC_DEBOUNCE_MS]
+ *    timer; when it fires, every dirty line goes up in one PUT. Lines carry
+ *    their client timestamp and the server keeps the newest per line.
+ *  - The server answers with the whole cart including listing snapshots,
+ *    which replaces every line that has no newer local edit.
+ *
+ * [serverCart] emits the merged cart after a sync changed it. Each
+ * emission carries the number of edits already applied underneath it, so a
+ * caller holding newer edits in memory can tell it is stale.
+ */
+@OptIn(FlowPreview::class)
+class CartRepository private constructor(context: Context) {
+
+    /** Lines after a server merge; valid while [appliedEdits] == [enqueuedEdits]. */
+    class Snapshot(val items: List<CartItem>, val appliedEdits: Long)
+
+    private sealed interface Op {
+        class SetQuantity(val product: Product, val quantity: Int, val at: Long) : Op
+        class Clear(val at: Long) : Op
+        class Sync(val done: CompletableDeferred<AuthResult<List<CartItem>>>?) : Op
+        class Restore(val done: CompletableDeferred<Snapshot>) : Op
+        data object Wipe : Op
+    }
+
+    private val api = RetrofitClient.api
+    private val dao = TrashCareDatabase.get(context).cartDao()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    private val ops = Channel<Op>(Channel.UNLIMITED)
+    private val syncRequests = MutableSharedFlow<Unit>(
+        extraBufferCapacity = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST
+    )
+    private val enqueued = AtomicLong()
+    private var applied = 0L   // only touched by the writer coroutine
+
+    private val _serverCart = MutableSharedFlow<Snapshot>(
+        replay = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST
+    )
+    val serverCart: SharedFlow<Snapshot> = _serverCart.asSharedFlow()
+
+    val enqueuedEdits: Long get() = enqueued.get()
+
+    init {
+        scope.launch {
+            for (op in ops) {
+                try {
+                    apply(op)
+                } catch (e: Exception) {
+                    if (op is Op.Sync) op.done?.complete(AuthResult.Error("Gagal menyimpan keranjang."))
+                    if (op is Op.Restore) op.done.complete(Snapshot(emptyList(), applied))
+                } finally {
+                    if (op !is Op.Sync && op !is Op.Restore) applied++
+                }
+            }
+        }
+        scope.launch {
+            syncRequests.debounce(SYNC_DEBOUNCE_MS).collect { ops.send(Op.Sync(null)) }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Local edits (fire-and-forget)
+    // ─────────────────────────────────────────────────────────────
+
+    /** Sets [product]'s quantity, capped at [maxQuantityOf]; 0 removes the line. */
+    fun setQuantity(product: Product, quantity: Int) =
+        enqueue(Op.SetQuantity(product, quantity.coerceIn(0, maxQuantityOf(product)), System.currentTimeMillis()))
+
+    /** Empties the cart on this and — after the next sync — every other device. */
+    fun clear() = enqueue(Op.Clear(System.currentTimeMillis()))
+
+    /** Drops the local copy without telling the server (sign-out). */
+    fun wipeLocal() = enqueue(Op.Wipe)
+
+    private fun enqueue(op: Op) {
+        // Counted before it is queued, so a Snapshot taken meanwhile reads as stale
+        enqueued.incrementAndGet()
+        ops.trySend(op)
+        if (op !is Op.Wipe) syncRequests.tryEmit(Unit)
+    }
+
+    /** The cart as persisted on this device, after every edit queued so far (e.g. after process death). */
+    suspend fun restore(): Snapshot {
+        val done = CompletableDeferred<Snapshot>()
+        ops.send(Op.Restore(done))
+        return done.await()
+    }
+
+    private suspend fun load(): List<CartItem> = dao.lines().map { it.toDomain() }
+
+    /** Pushes pending edits (if any) and pulls the server cart, e.g. on app start. */
+    suspend fun sync(): AuthResult<List<CartItem>> {
+        val done = CompletableDeferred<AuthResult<List<CartItem>>>()
+        ops.send(Op.Sync(done))
+        return done.await()
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Writer coroutine
+    // ─────────────────────────────────────────────────────────────
+
+    private suspend fun apply(op: Op) {
+        when (op) {
+            is Op.SetQuantity -> {
+                val current = dao.get(op.product.id)
+                dao.upsert(op.product.toEntity(op.quantity, op.at, addedAt = current?.addedAt ?: op.at))
+            }
+            is Op.Clear -> {
+                dao.upsert(dao.lines().map { it.copy(quantity = 0, updatedAt = op.at, dirty = true) })
+            }
+            Op.Wipe -> dao.clear()
+            is Op.Restore -> op.done.complete(Snapshot(load(), applied))
+            is Op.Sync -> {
+                val result = push()
+                if (result is AuthResult.Success) _serverCart.emit(Snapshot(result.data, applied))
+                op.done?.complete(result)
+            }
+        }
+    }
+
+    private suspend fun push(): AuthResult<List<CartItem>> {
+        return try {
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+
+            val pending = dao.dirty(MAX_BATCH)
+            val response = if (pending.isEmpty()) api.getCart()
+                           else api.syncCart(CartSyncRequest(pending.mapNotNull { it.toRequest() }))
+            if (!response.isSuccessful) {
+                if (pending.isEmpty() || !response.code().isFinalRejection()) {
+                    return AuthResult.Error("Keranjang belum tersinkron.")
+                }
+                // The server will never take this batch as it is: drop the local
+                // edits and take the server's cart, so later syncs are not stuck
+                // resending it
+                pending.forEach { dao.markSynced(it.listingId, it.updatedAt) }
+                val server = api.getCart()
+                if (!server.isSuccessful) return AuthResult.Error("Keranjang belum tersinkron.")
+                dao.applyServerCart(server.body()!!.data.map { it.toEntity() })
+                return AuthResult.Success(load())
+            }
+
+            pending.forEach { dao.markSynced(it.listingId, it.updatedAt) }
+            dao.applyServerCart(response.body()!!.data.map { it.toEntity() })
+            // More than one batch waiting (long offline stretch) → go again
+            if (pending.size == MAX_BATCH) syncRequests.tryEmit(Unit)
+            AuthResult.Success(load())
+        } catch (e: Exception) {
+            AuthResult.Error("Tidak dapat terhubung ke server.")
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Mappers
+    // ─────────────────────────────────────────────────────────────
+
+    private fun Product.toEntity(quantity: Int, at: Long, addedAt: Long) = CartItemEntity(
+        listingId    = id,
+        quantity     = quantity,
+        updatedAt    = at,
+        addedAt      = addedAt,
+        dirty        = true,
+        name         = name,
+        price        = price,
+        sellerName   = sellerName,
+        sellerRating = sellerRating,
+        description  = description,
+        category     = category.name.lowercase(),
+        condition    = condition.name.lowercase(),
+        imageUrl     = imageUrl.ifBlank { null },
+        isSold       = isSold,
+        isActive     = isActive,
+        stock        = stock
+    )
+
+    private fun CartLineDto.toEntity() = CartItemEntity(
+        listingId    = listing_id,
+        quantity     = quantity,
+        updatedAt    = updated_at,
+        addedAt      = updated_at,
+        dirty        = false,
+        name         = listing.name,
+        price        = listing.price,
+        sellerName   = listing.seller_name,
+        sellerRating = listing.seller_rating,
+        description  = listing.description,
+        category     = listing.category.lowercase(),
+        condition    = listing.condition.lowercase(),
+        imageUrl     = listing.image_url,
+        isSold       = listing.is_sold,
+        isActive     = listing.is_active,
+        stock        = listing.stock
+    )
+
+    private fun CartItemEntity.toRequest(): CartLineRequest? =
+        listingId.toLongOrNull()?.let { CartLineRequest(listing_id = it, quantity = quantity, updated_at = updatedAt) }
+
+    private fun CartItemEntity.toDomain() = CartItem(
+        product = Product(
+            id           = listingId,
+            name         = name,
+            price        = price,
+            sellerName   = sellerName,
+            sellerRating = sellerRating,
+            description  = description,
+            category     = ProductCategory.entries.firstOrNull { it.name.equals(category, ignoreCase = true) }
+                ?: ProductCategory.OTHERS,
+            condition    = ProductCondition.entries.firstOrNull { it.name.equals(condition, ignoreCase = true) }
+                ?: ProductCondition.FAIR,
+            imageUrl     = imageUrl ?: "",
+            isSold       = isSold,
+            stock        = stock,
+            isActive     = isActive
+        ),
+        quantity = quantity
+    )
+
+    companion object {
+        private const val SYNC_DEBOUNCE_MS = 1_500L
+        private const val MAX_BATCH        = 100   // CartController::MAX_SYNC_ITEMS
+
+        /** Most of one listing a cart line may hold (CartController::MAX_LINE_QUANTITY). */
+        const val MAX_QUANTITY = 10
+
+        /** [MAX_QUANTITY], or less when the listing has less in stock. */
+        fun maxQuantityOf(product: Product): Int = minOf(MAX_QUANTITY, product.stock.coerceAtLeast(1))
+
+        /** 4xx other than auth, timeout and rate limiting: resending the same batch cannot help. */
+        private fun Int.isFinalRejection(): Boolean = this in 400..499 && this != 401 && this != 408 && this != 429
+
+        @Volatile
+        private var instance: CartRepository? = null
+
+        fun get(context: Context): CartRepository =
+            instance ?: synchronized(this) {
+                instance ?: CartRepository(context.applicationContext).also { instance = it }
+            }
+    }
+}
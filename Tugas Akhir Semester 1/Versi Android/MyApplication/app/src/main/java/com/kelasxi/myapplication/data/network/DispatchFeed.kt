@@ -0,0 +1,175 @@
+package com.kelasxi.myapplication.data.network
+
+import com.google.gson.Gson
+import com.google.gson.JsonElement
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.launch
+import okhttp3.HttpUrl.Companion.toHttpUrl
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import java.io.IOException
+import kotlin.random.Random
+
+/** One message from GET /api/courier/dispatch/stream. [seq] is what the client resumes from. */
+sealed class DispatchEvent {
+    abstract val seq: Long
+
+    /** The server cannot replay what was missed: reload every list, then apply later events. */
+    data class Reset(override val seq: Long) : DispatchEvent()
+
+    /**
+     * One job entered, changed in or left a list. [item] is null for removals;
+     * otherwise it is a [CourierPickupDto] or [CourierOrderDto] per [kind].
+     */
+    data class Job(
+        override val seq: Long,
+        val kind: String,     // pickup | order
+        val action: String,   // added | updated | removed
+        val list: String,     // available | mine
+        val id: Long,
+        val pickup: CourierPickupDto?,
+        val order: CourierOrderDto?
+    ) : DispatchEvent()
+}
+
+/**
+ * Server-sent-events client for the courier dispatch stream.
+ *
+ * The backend closes each stream after ~25 s (PHP workers must not be held
+ * open); [events] reconnects right away, sending the last sequence number it
+ * saw as Last-Event-ID so nothing in between is lost. Network errors back off
+ * exponentially (1 s → 30 s, jittered); 401/403 end the flow.
+ */
+class DispatchFeed(
+    private val client: OkHttpClient,
+    private val streamUrl: String
+) {
+    private val gson = Gson()
+
+    /**
+     * Resumes after [since] (null asks the server for a fresh start, i.e. a
+     * Reset). The cursor advances as events are read, so a reconnect never
+     * depends on how far the collector got.
+     */
+    fun events(since: Long?): Flow<DispatchEvent> = flow {
+        var cursor = since
+        var failures = 0
+        while (true) {
+            val authorized = try {
+                stream(cursor) { event ->
+                    cursor = event.seq
+                    failures = 0
+                    emit(event)
+                }
+            } catch (e: IOException) {
+                failures++
+                delay(backoffMs(failures))
+                continue
+            }
+            if (!authorized) return@flow
+            delay(RECONNECT_DELAY_MS)
+        }
+    }.flowOn(Dispatchers.IO)
+
+    /** Reads one stream until the server closes it; false when the session is not accepted. */
+    private suspend fun stream(since: Long?, onEvent: suspend (DispatchEvent) -> Unit): Boolean {
+        val url = streamUrl.toHttpUrl().newBuilder()
+            .apply { if (since != null) addQueryParameter("since", since.toString()) }
+            .build()
+        val request = Request.Builder()
+            .url(url)
+            .header("Accept", "text/event-stream")
+            .apply { if (since != null) header("Last-Event-ID", since.toString()) }
+            .build()
+
+        val call = client.newCall(request)
+        val response = call.await()
+        return coroutineScope {
+            // readUtf8Line() blocks; cancelling the call is what unblocks it
+            val watchdog = launch(start = CoroutineStart.UNDISPATCHED) {
+                try { awaitCancellation() } finally { call.cancel() }
+            }
+            try {
+                response.use {
+                    if (it.code == 401 || it.code == 403) return@coroutineScope false
+                    if (!it.isSuccessful) throw IOException("dispatch stream HTTP ${it.code}")
+                    val source = it.body?.source() ?: throw IOException("dispatch stream without body")
+
+                    var id: Long? = null
+                    var event = "message"
+                    val data = StringBuilder()
+                    while (true) {
+                        val line = source.readUtf8Line() ?: break
+                        when {
+                            line.isEmpty() -> {
+                                parse(id, event, data.toString())?.let { e -> onEvent(e) }
+                                id = null; event = "message"; data.setLength(0)
+                            }
+                            line.startsWith(":") -> Unit   // heartbeat comment
+                            else -> {
+                                val field = line.substringBefore(':')
+                                val value = line.substringAfter(':', "").removePrefix(" ")
+                                when (field) {
+                                    "id"    -> id = value.toLongOrNull()
+                                    "event" -> event = value
+                                    "data"  -> { if (data.isNotEmpty()) data.append('\n'); data.append(value) }
+                                }
+                            }
+                        }
+                    }
+                }
+                true
+            } finally {
+                watchdog.cancel()
+            }
+        }
+    }
+
+    private fun parse(id: Long?, event: String, data: String): DispatchEvent? {
+        if (id == null) return null
+        return when (event) {
+            "reset" -> DispatchEvent.Reset(id)
+            "job" -> runCatching {
+                val p = gson.fromJson(data, JobPayload::class.java)
+                DispatchEvent.Job(
+                    seq    = id,
+                    kind   = p.kind,
+                    action = p.action,
+                    list   = p.list,
+                    id     = p.id,
+                    pickup = p.item?.takeIf { p.kind == "pickup" && !it.isJsonNull }
+                        ?.let { gson.fromJson(it, CourierPickupDto::class.java) },
+                    order  = p.item?.takeIf { p.kind == "order" && !it.isJsonNull }
+                        ?.let { gson.fromJson(it, CourierOrderDto::class.java) }
+                )
+            }.getOrNull()
+            else -> null
+        }
+    }
+
+    private class JobPayload(
+        val kind: String,
+        val action: String,
+        val list: String,
+        val id: Long,
+        val item: JsonElement?
+    )
+
+    private fun backoffMs(failures: Int): Long {
+        val cap = minOf(MAX_BACKOFF_MS, MIN_BACKOFF_MS shl minOf(failures - 1, 5))
+        return cap / 2 + Random.nextLong(cap / 2 + 1)
+    }
+
+    companion object {
+        private const val RECONNECT_DELAY_MS = 250L
+        private const val MIN_BACKOFF_MS     = 1_000L
+        private const val MAX_BACKOFF_MS     = 30_000L
+    }
+}
@@ -0,0 +1,143 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import android.util.LruCache
+import com.kelasxi.myapplication.data.local.GeocodeCacheEntity
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import com.kelasxi.myapplication.util.Geohash
+import com.kelasxi.myapplication.util.TokenBucket
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.job
+import kotlinx.coroutines.withContext
+import okhttp3.Request
+import okhttp3.Response
+import org.json.JSONObject
+import java.io.IOException
+
+/**
+ * Reverse geocoding through Nominatim, shared by every screen that turns a
+ * coordinate into an address (MapPickerScreen, AddressPickerField).
+ *
+ *  - Coordinates are snapped to a geohash cell ([PRECISION] ≈ 38 × 19 m) and
+ *    Nominatim is asked about the cell centre, so every point in the cell
+ *    maps to the same cached answer.
+ *  - Hits come from an in-memory LRU, then Room (geocode_cache, 30 days).
+ *  - Misses go through one app-wide [TokenBucket] holding Nominatim's
+ *    1 request/second policy; a 429 pauses the bucket for Retry-After.
+ *  - [reverseLatest] cancels the previous lookup of the same caller, so a
+ *    panning map never queues requests for places it already left.
+ */
+class GeocodeRepository private constructor(context: Context) {
+
+    private val dao = TrashCareDatabase.get(context).geocodeCacheDao()
+    private val memory = LruCache<String, String>(MEMORY_ENTRIES)
+    private val limiter = TokenBucket(capacity = 1, refillMs = 1_000L)
+    private val latest = HashMap<String, Job>()
+
+    /**
+     * Short address for the cell containing [lat]/[lng]: blank when Nominatim
+     * knows no address there, null when it could not be reached.
+     */
+    suspend fun reverse(lat: Double, lng: Double): String? {
+        val cell = Geohash.encode(lat, lng, PRECISION)
+        memory.get(cell)?.let { return it }
+
+        val now = System.currentTimeMillis()
+        dao.get(cell, now - DISK_TTL_MS)?.let { row ->
+            memory.put(cell, row.address)
+            return row.address
+        }
+
+        val (cLat, cLng) = Geohash.center(cell)
+        val address = fetch(cLat, cLng) ?: return null
+        memory.put(cell, address)
+        dao.upsert(GeocodeCacheEntity(geohash = cell, address = address, fetchedAt = now))
+        dao.trim(now - DISK_TTL_MS, DISK_ENTRIES)
+        return address
+    }
+
+    /**
+     * Like [reverse], but a newer call with the same [caller] tag cancels this
+     * one (it then throws CancellationException) — whether it is still waiting
+     * for a token or already on the wire.
+     */
+    suspend fun reverseLatest(caller: String, lat: Double, lng: Double): String? = coroutineScope {
+        val self = coroutineContext.job
+        synchronized(latest) { latest.put(caller, self) }?.cancel()
+        try {
+            reverse(lat, lng)
+        } finally {
+            synchronized(latest) { if (latest[caller] === self) latest.remove(caller) }
+        }
+    }
+
+    private suspend fun fetch(lat: Double, lng: Double): String? = withContext(Dispatchers.IO) {
+        val request = Request.Builder()
+            .url("https://nominatim.openstreetmap.org/reverse?lat=$lat&lon=$lng&format=json&accept-language=id")
+            .header("User-Agent", "TrashCareApp/1.0 (android)")
+            .header("Accept", "application/json")
+            .build()
+
+        repeat(MAX_ATTEMPTS) {
+            limiter.acquire()
+            val response = try {
+                HttpStack.external.newCall(request).await()
+            } catch (_: IOException) {
+                return@withContext null
+            }
+            val body = response.use {
+                when {
+                    it.code == 429   -> null
+                    !it.isSuccessful -> return@withContext null
+                    else             -> it.body?.string().orEmpty()
+                }
+            }
+            if (body != null) return@withContext runCatching { parseAddress(body) }.getOrNull()
+            limiter.pause(retryAfterMs(response))
+        }
+        null
+    }
+
+    /** Builds a short, readable Indonesian address from Nominatim's JSON. */
+    private fun parseAddress(json: String): String {
+        val obj = JSONObject(json)
+        // Nominatim returns {"error":"Unable to geocode"} when nothing found
+        if (obj.has("error")) return ""
+
+        val displayName = obj.optString("display_name", "")
+        val addr = obj.optJSONObject("address") ?: return displayName
+
+        fun pick(vararg keys: String) = keys.firstNotNullOfOrNull { k -> addr.optString(k).takeIf { it.isNotBlank() } }
+
+        val road   = pick("road")
+        val suburb = pick("neighbourhood", "suburb", "quarter")
+        val city   = pick("city", "town", "municipality", "county", "village")
+        val state  = pick("state")
+
+        return listOfNotNull(road, suburb, city, state)
+            .joinToString(", ")
+            .ifBlank { displayName }
+    }
+
+    private fun retryAfterMs(response: Response): Long =
+        response.header("Retry-After")?.toLongOrNull()?.times(1_000L) ?: DEFAULT_BACKOFF_MS
+
+    companion object {
+        private const val PRECISION          = 8
+        private const val MEMORY_ENTRIES     = 128
+        private const val DISK_ENTRIES       = 2_000
+        private const val DISK_TTL_MS        = 30L * 24 * 60 * 60 * 1000
+        private const val MAX_ATTEMPTS       = 3
+        private const val DEFAULT_BACKOFF_MS = 2_000L
+
+        @Volatile
+        private var instance: GeocodeRepository? = null
+
+        fun get(context: Context): GeocodeRepository =
+            instance ?: synchronized(this) {
+                instance ?: GeocodeRepository(context.applicationContext).also { instance = it }
+            }
+    }
+}
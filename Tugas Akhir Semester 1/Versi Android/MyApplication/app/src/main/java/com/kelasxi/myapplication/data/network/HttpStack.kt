@@ -0,0 +1,132 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import com.kelasxi.myapplication.BuildConfig
+import kotlinx.coroutines.suspendCancellableCoroutine
+import okhttp3.Cache
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.ConnectionPool
+import okhttp3.Dispatcher
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.Response
+import okhttp3.logging.HttpLoggingInterceptor
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * The one OkHttp stack the app talks through. Every client handed out here
+ * is derived from [base], so they all share one connection pool (kept-alive
+ * TLS / HTTP/2 connections are reused across screens) and one on-disk HTTP
+ * cache (responses carrying Cache-Control / ETag are revalidated instead of
+ * downloaded again).
+ *
+ *  - [api]      → TrashCare backend, used by Retrofit (RetrofitClient)
+ *  - [external] → public OSM services (Nominatim, OSRM, OpenRouteService);
+ *                 own dispatcher with a low per-host limit so a busy map
+ *                 screen cannot flood a free third-party server
+ *  - [images]   → Coil (ImagePipeline); no HTTP cache, Coil keeps its own
+ *                 disk cache of image bytes
+ *
+ * [init] is called by NetworkInitializer (App Startup) so the cache has a
+ * directory; until then clients work without a disk cache.
+ */
+object HttpStack {
+
+    private const val CACHE_DIR        = "http_cache"
+    private const val CACHE_SIZE_BYTES = 20L * 1024 * 1024   // 20 MB
+
+    @Volatile
+    private var cache: Cache? = null
+
+    fun init(context: Context) {
+        if (cache != null) return
+        synchronized(this) {
+            if (cache == null) {
+                cache = Cache(File(context.cacheDir, CACHE_DIR), CACHE_SIZE_BYTES)
+            }
+        }
+    }
+
+    /** Drops every cached response, e.g. on logout (they may carry user data). */
+    fun evictCache() {
+        runCatching { cache?.evictAll() }
+    }
+
+    /** BODY in debug builds only; release builds never buffer payloads for logging. */
+    private val loggingInterceptor = HttpLoggingInterceptor().apply {
+        level = if (BuildConfig.DEBUG) HttpLoggingInterceptor.Level.BODY
+                else HttpLoggingInterceptor.Level.NONE
+        redactHeader("Authorization")
+    }
+
+    private val connectionPool = ConnectionPool(
+        /* maxIdleConnections = */ 8,
+        /* keepAliveDuration  = */ 5, TimeUnit.MINUTES
+    )
+
+    val base: OkHttpClient by lazy {
+        OkHttpClient.Builder()
+            .connectionPool(connectionPool)
+            .protocols(listOf(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .apply { cache?.let { cache(it) } }
+            .retryOnConnectionFailure(true)
+            .build()
+    }
+
+    val api: OkHttpClient by lazy {
+        base.newBuilder()
+            .dispatcher(Dispatcher().apply {
+                maxRequests        = 32
+                maxRequestsPerHost = 8   // everything goes to one host; HTTP/2 multiplexes it
+            })
+            .connectTimeout(30, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
+            .addNetworkInterceptor(loggingInterceptor)
+            .build()
+    }
+
+    val images: OkHttpClient by lazy {
+        base.newBuilder()
+            .cache(null)
+            .connectTimeout(15, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .build()
+    }
+
+    val external: OkHttpClient by lazy {
+        base.newBuilder()
+            .dispatcher(Dispatcher().apply {
+                maxRequests        = 8
+                maxRequestsPerHost = 2
+            })
+            .connectTimeout(12, TimeUnit.SECONDS)
+            .readTimeout(12, TimeUnit.SECONDS)
+            .addNetworkInterceptor(loggingInterceptor)
+            .build()
+    }
+}
+
+/**
+ * Runs the call on the client's dispatcher and suspends until it answers.
+ * Unlike execute() inside withContext(IO), cancelling the coroutine cancels
+ * the HTTP call too — needed wherever requests race or get superseded.
+ * The caller must close the response.
+ */
+suspend fun Call.await(): Response = suspendCancellableCoroutine { cont ->
+    cont.invokeOnCancellation { cancel() }
+    enqueue(object : Callback {
+        override fun onResponse(call: Call, response: Response) {
+            cont.resume(response) { response.close() }
+        }
+
+        override fun onFailure(call: Call, e: IOException) {
+            if (!cont.isCancelled) cont.resumeWithException(e)
+        }
+    })
+}
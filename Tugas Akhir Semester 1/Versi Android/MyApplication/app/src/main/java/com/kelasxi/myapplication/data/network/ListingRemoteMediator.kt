@@ -0,0 +1,89 @@
+package com.kelasxi.myapplication.data.network
+
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.LoadType
+import androidx.paging.PagingState
+import androidx.paging.RemoteMediator
+import com.kelasxi.myapplication.data.local.ListingDao
+import com.kelasxi.myapplication.data.local.ListingEntity
+import java.io.IOException
+
+/**
+ * Fills the local listings table from GET /api/marketplace/feed one cursor
+ * page at a time, as the marketplace grid scrolls towards the end of what
+ * is cached.
+ *
+ * There is only one feed: the unfiltered one, newest first. Category chips
+ * filter the cached rows locally (ListingDao.pagingSource), and a category
+ * that runs out of cached rows pulls further pages of the same feed. This
+ * keeps the cache one contiguous newest-first prefix of the feed, which
+ * both the "all" grid order and the delta sync (syncListings) rely on;
+ * pages fetched per category would land at positions the "all" cursor
+ * never covered.
+ *
+ * An explicit refresh only revalidates the cache through the delta sync
+ * instead of throwing it away.
+ *
+ * Behind a search the matches can be too sparse for that: once
+ * [searchPageLimit] feed pages have been pulled and less than a page of
+ * matches is loaded, it stops appending and calls [onSparseSearch] so the
+ * search can go to the server instead.
+ */
+@OptIn(ExperimentalPagingApi::class)
+class ListingRemoteMediator(
+    private val repository: MarketplaceRepository,
+    private val dao: ListingDao,
+    private val searchPageLimit: Int = 0,
+    private val onSparseSearch: (() -> Unit)? = null
+) : RemoteMediator<Int, ListingEntity>() {
+
+    private val scope = MarketplaceRepository.SCOPE_ALL
+    private var searchAppends = 0
+
+    override suspend fun initialize(): InitializeAction {
+        // Caches filled by the former per-category cursors are not a prefix
+        // of the feed; start those over
+        if (dao.hasForeignScopes(scope)) dao.resetFeed()
+        return if (dao.remoteKey(scope) != null) InitializeAction.SKIP_INITIAL_REFRESH
+               else InitializeAction.LAUNCH_INITIAL_REFRESH
+    }
+
+    override suspend fun load(
+        loadType: LoadType,
+        state: PagingState<Int, ListingEntity>
+    ): MediatorResult {
+        val key = dao.remoteKey(scope)
+
+        val cursor = when (loadType) {
+            LoadType.PREPEND -> return MediatorResult.Success(endOfPaginationReached = true)
+            LoadType.REFRESH -> {
+                if (key != null) {
+                    return when (val result = repository.syncListings()) {
+                        is AuthResult.Success -> MediatorResult.Success(key.endReached)
+                        is AuthResult.Error   -> MediatorResult.Error(IOException(result.message))
+                        else                  -> MediatorResult.Success(key.endReached)
+                    }
+                }
+                null
+            }
+            LoadType.APPEND -> {
+                if (key == null || key.endReached) {
+                    return MediatorResult.Success(endOfPaginationReached = key?.endReached == true)
+                }
+                if (onSparseSearch != null && searchAppends++ >= searchPageLimit &&
+                    state.pages.sumOf { it.data.size } < state.config.pageSize
+                ) {
+                    onSparseSearch.invoke()
+                    return MediatorResult.Success(endOfPaginationReached = true)
+                }
+                key.nextCursor
+            }
+        }
+
+        return when (val result = repository.loadListingFeedPage(cursor)) {
+            is AuthResult.Success -> MediatorResult.Success(endOfPaginationReached = result.data == null)
+            is AuthResult.Error   -> MediatorResult.Error(IOException(result.message))
+            else                  -> MediatorResult.Success(endOfPaginationReached = false)
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kelasxi.myapplication.data.network
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import com.kelasxi.myapplication.model.Product
+import java.io.IOException
+
+/**
+ * Server-side search (GET /api/marketplace?search=), page by page. Used
+ * when the cached feed holds too few matches for a query (see
+ * ListingRemoteMediator); the results are not written to the cache.
+ */
+class ListingSearchPagingSource(
+    private val repository: MarketplaceRepository,
+    private val category: String?,
+    private val query: String
+) : PagingSource<Int, Product>() {
+
+    override fun getRefreshKey(state: PagingState<Int, Product>): Int? =
+        state.anchorPosition?.let { state.closestPageToPosition(it) }?.let { page ->
+            page.prevKey?.plus(1) ?: page.nextKey?.minus(1)
+        }
+
+    override suspend fun load(params: LoadParams<Int>): LoadResult<Int, Product> {
+        val page = params.key ?: 1
+        return when (val result = repository.searchListingsPage(category, query, page)) {
+            is AuthResult.Success -> {
+                val (rows, hasMore) = result.data
+                LoadResult.Page(
+                    data    = rows,
+                    prevKey = (page - 1).takeIf { it >= 1 },
+                    nextKey = (page + 1).takeIf { hasMore }
+                )
+            }
+            is AuthResult.Error -> LoadResult.Error(IOException(result.message))
+            else                -> LoadResult.Error(IOException())
+        }
+    }
+}
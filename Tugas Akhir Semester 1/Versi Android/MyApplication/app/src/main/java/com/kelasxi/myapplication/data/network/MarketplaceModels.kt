@@ -51,7 +51,29 @@ data class UpdateListingRequest(
 // ── Response DTOs ─────────────────────────────────────────────────
 
 data class ListingListResponse(
-    @SerializedName("data") val data: List<ListingDto>
+    @SerializedName("data") val data: List<ListingDto>,
+    @SerializedName("meta") val meta: PageMetaDto? = null
+)
+
+/** Laravel paginator meta returned alongside list endpoints */
+data class PageMetaDto(
+    @SerializedName("current_page") val current_page: Int = 1,
+    @SerializedName("last_page")    val last_page: Int = 1,
+    @SerializedName("per_page")     val per_page: Int = 20,
+    @SerializedName("total")        val total: Int = 0,
+    @SerializedName("server_time")  val server_time: String? = null
+)
+
+/** Response of GET /api/marketplace/feed — cursor-paginated */
+data class ListingFeedResponse(
+    @SerializedName("data") val data: List<ListingDto>,
+    @SerializedName("meta") val meta: CursorMetaDto
+)
+
+data class CursorMetaDto(
+    @SerializedName("per_page")    val per_page: Int = 20,
+    @SerializedName("next_cursor") val next_cursor: String? = null,
+    @SerializedName("server_time") val server_time: String? = null
 )
 
 data class ListingSingleResponse(
@@ -69,12 +91,15 @@ data class ListingDto(
     @SerializedName("category")       val category: String,
     @SerializedName("condition")      val condition: String,
     @SerializedName("image_url")      val image_url: String? = null,
+    @SerializedName("thumbnail_url")  val thumbnail_url: String? = null,
     @SerializedName("is_wishlisted")  val is_wishlisted: Boolean = false,
     @SerializedName("is_sold")        val is_sold: Boolean = false,
     @SerializedName("is_active")      val is_active: Boolean = true,
     @SerializedName("stock")          val stock: Int = 1,
     @SerializedName("views_count")    val views_count: Int = 0,
-    @SerializedName("created_at")     val created_at: String? = null
+    @SerializedName("created_at")     val created_at: String? = null,
+    @SerializedName("updated_at")     val updated_at: String? = null,
+    @SerializedName("is_deleted")     val is_deleted: Boolean = false
 )
 
 data class OrderListResponse(
@@ -148,6 +173,20 @@ data class ToggleWishlistResponse(
     @SerializedName("message")    val message: String
 )
 
+data class WishlistBatchItem(
+    @SerializedName("listing_id") val listing_id: Long,
+    @SerializedName("wishlisted") val wishlisted: Boolean
+)
+
+data class WishlistBatchRequest(
+    @SerializedName("items") val items: List<WishlistBatchItem>
+)
+
+data class WishlistBatchResponse(
+    @SerializedName("wishlisted") val wishlisted: List<String>,
+    @SerializedName("rejected")   val rejected: List<String> = emptyList()   // listing no longer exists
+)
+
 // ─────────────────────────────────────────────────────────────────
 // Mayar Sales Transactions  (GET /api/orders/sales-transactions)
 // ─────────────────────────────────────────────────────────────────
@@ -225,3 +264,29 @@ data class CartCheckoutStatusResponse(
     @SerializedName("order_status")   val order_status: String,
     @SerializedName("orders")         val orders: List<OrderDto>
 )
+
+// ─────────────────────────────────────────────────────────────────
+// Cart sync (GET / PUT /api/cart)
+// ─────────────────────────────────────────────────────────────────
+
+data class CartLineRequest(
+    @SerializedName("listing_id") val listing_id: Long,
+    @SerializedName("quantity")   val quantity: Int,     // 0 = removed
+    @SerializedName("updated_at") val updated_at: Long   // client epoch ms of the change
+)
+
+data class CartSyncRequest(
+    @SerializedName("items") val items: List<CartLineRequest>
+)
+
+data class CartLineDto(
+    @SerializedName("listing_id") val listing_id: String,
+    @SerializedName("quantity")   val quantity: Int,
+    @SerializedName("updated_at") val updated_at: Long,
+    @SerializedName("listing")    val listing: ListingDto
+)
+
+data class CartResponse(
+    @SerializedName("data")        val data: List<CartLineDto>,
+    @SerializedName("server_time") val server_time: String? = null
+)
@@ -2,6 +2,16 @@ package com.kelasxi.myapplication.data.network
 
 import android.content.Context
 import android.net.Uri
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.PagingSource
+import androidx.paging.map
+import com.kelasxi.myapplication.data.local.ListingEntity
+import com.kelasxi.myapplication.data.local.ListingRemoteKey
+import com.kelasxi.myapplication.data.local.SyncStateStore
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
 import com.kelasxi.myapplication.model.CartCheckoutGroup
 import com.kelasxi.myapplication.model.Order
 import com.kelasxi.myapplication.model.OrderStatus
@@ -10,13 +20,194 @@ import com.kelasxi.myapplication.model.ProductCategory
 import com.kelasxi.myapplication.model.ProductCondition
 import com.kelasxi.myapplication.model.SalesSummary
 import com.kelasxi.myapplication.model.SalesTransaction
+import com.kelasxi.myapplication.util.FtsQuery
+import com.kelasxi.myapplication.util.ImageIngest
 import okhttp3.MediaType.Companion.toMediaTypeOrNull
 import okhttp3.MultipartBody
+import okhttp3.RequestBody.Companion.asRequestBody
 import okhttp3.RequestBody.Companion.toRequestBody
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.map
+import java.io.IOException
 
 class MarketplaceRepository(private val context: Context) {
 
     private val api = RetrofitClient.api
+    private val listingDao = TrashCareDatabase.get(context).listingDao()
+
+    // ─────────────────────────────────────────────────────────────
+    // Paged listing feed  →  Room is the single source of truth, the
+    // RemoteMediator pulls feed pages into it as the grid scrolls.
+    // category: furniture|electronics|clothing|books|others, null = all
+    // query: local full-text search (listings_fts) over what is
+    //        already cached — name, description and category. When the
+    //        cache still holds less than a page of matches after
+    //        SEARCH_LOCAL_PAGES more feed pages, the search moves to the
+    //        server (?search=) instead of paging through the whole feed.
+    // ─────────────────────────────────────────────────────────────
+    @OptIn(ExperimentalCoroutinesApi::class)
+    fun listingPager(category: String?, query: String?): Flow<PagingData<Product>> {
+        val match     = query?.let { FtsQuery.matchAll(it) }
+        val nameMatch = query?.let { FtsQuery.matchName(it) }
+        if (query == null || match == null || nameMatch == null) {
+            return cachedListingPager(ListingRemoteMediator(this, listingDao)) {
+                listingDao.pagingSource(category)
+            }
+        }
+
+        val onServer = MutableStateFlow(false)
+        return onServer.flatMapLatest { server ->
+            if (server) {
+                Pager(
+                    config = PagingConfig(pageSize = FEED_PAGE_SIZE, enablePlaceholders = false),
+                    pagingSourceFactory = { ListingSearchPagingSource(this, category, query) }
+                ).flow
+            } else {
+                val mediator = ListingRemoteMediator(this, listingDao, SEARCH_LOCAL_PAGES) {
+                    onServer.value = true
+                }
+                cachedListingPager(mediator) { listingDao.searchPagingSource(category, match, nameMatch) }
+            }
+        }
+    }
+
+    @OptIn(ExperimentalPagingApi::class)
+    private fun cachedListingPager(
+        mediator: ListingRemoteMediator,
+        pagingSourceFactory: () -> PagingSource<Int, ListingEntity>
+    ): Flow<PagingData<Product>> =
+        Pager(
+            config = PagingConfig(
+                pageSize           = FEED_PAGE_SIZE,
+                prefetchDistance   = FEED_PREFETCH_DISTANCE,
+                initialLoadSize    = FEED_PAGE_SIZE * 2,
+                maxSize            = FEED_MAX_IN_MEMORY,
+                enablePlaceholders = false
+            ),
+            remoteMediator = mediator,
+            pagingSourceFactory = pagingSourceFactory
+        ).flow.map { page -> page.map { it.toDomain() } }
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/marketplace/feed  →  one page of the unfiltered feed written
+    // into the cache. Returns the cursor of the next page (null when the
+    // end is reached).
+    // ─────────────────────────────────────────────────────────────
+    suspend fun loadListingFeedPage(cursor: String?): AuthResult<String?> {
+        return try {
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+
+            val response = api.getListingFeed(
+                cursor  = cursor,
+                perPage = FEED_PAGE_SIZE
+            )
+            if (response.isSuccessful) {
+                val body = response.body()!!
+                val next = body.meta.next_cursor
+                listingDao.insertFeedPage(
+                    rows = body.data.map { it.toEntity() },
+                    key  = ListingRemoteKey(
+                        scope      = SCOPE_ALL,
+                        nextCursor = next,
+                        endReached = next == null
+                    )
+                )
+                // The first page ever fetched also starts the delta-sync clock
+                if (SyncStateStore.listingsSyncedAt(context) == null) {
+                    SyncStateStore.saveListingsCursor(context, body.meta.server_time, null)
+                }
+                AuthResult.Success(next)
+            } else {
+                AuthResult.Error(parseError(response.errorBody()?.string()))
+            }
+        } catch (e: Exception) {
+            AuthResult.Error("Tidak dapat terhubung ke server.")
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/marketplace?updated_since=  →  revalidate the cache
+    // Only rows changed since the last server_time come back, and a 304
+    // on the ETag costs no body at all. Changed rows are applied only if
+    // already cached or newer than the newest cached one, so the cache
+    // stays a contiguous prefix of the feed. Nothing to revalidate until
+    // the feed has loaded its first page.
+    // Returns the number of cached rows that actually changed.
+    // ─────────────────────────────────────────────────────────────
+    suspend fun syncListings(): AuthResult<Int> {
+        return try {
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+
+            val since = SyncStateStore.listingsSyncedAt(context)
+                ?: return AuthResult.Success(0)
+            val etag  = SyncStateStore.listingsEtag(context)
+
+            val fetched    = mutableListOf<ListingDto>()
+            var serverTime: String? = since
+            var newEtag: String?    = null
+            var page = 1
+            while (true) {
+                val response = api.getListings(
+                    updatedSince = since,
+                    page         = page,
+                    perPage      = FEED_PAGE_SIZE,
+                    ifNoneMatch  = etag.takeIf { page == 1 }
+                )
+                if (response.code() == 304) return AuthResult.Success(0)
+                if (!response.isSuccessful) {
+                    return AuthResult.Error(parseError(response.errorBody()?.string()))
+                }
+                val body = response.body()!!
+                fetched += body.data
+                if (page == 1) {
+                    serverTime = body.meta?.server_time ?: since
+                    newEtag    = response.headers()["ETag"]
+                }
+                if (page >= (body.meta?.last_page ?: page)) break
+                page++
+            }
+
+            val newest = listingDao.newestId() ?: 0L
+            val (live, gone) = fetched.partition { it.is_active && !it.is_sold && !it.is_deleted }
+            val cachedIds = listingDao.getByIds(live.map { it.id }).map { it.id }.toSet()
+            val relevant = live.filter { it.id in cachedIds || (it.id.toLongOrNull() ?: 0L) > newest }
+            val touched = listingDao.applyDelta(relevant.map { it.toEntity() }, gone.map { it.id })
+            SyncStateStore.saveListingsCursor(context, serverTime, newEtag)
+            AuthResult.Success(touched)
+        } catch (e: Exception) {
+            AuthResult.Error("Tidak dapat terhubung ke server.")
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/marketplace?search=&page=  →  one page of server search
+    // results, for a search the cache holds too few matches for. Not
+    // cached: the rows may sit anywhere in the feed.
+    // Returns the page and whether another one follows.
+    // ─────────────────────────────────────────────────────────────
+    suspend fun searchListingsPage(category: String?, search: String, page: Int): AuthResult<Pair<List<Product>, Boolean>> {
+        return try {
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+
+            val response = api.getListings(
+                category = category,
+                search   = search,
+                page     = page,
+                perPage  = FEED_PAGE_SIZE
+            )
+            if (response.isSuccessful) {
+                val body = response.body()!!
+                AuthResult.Success(body.data.map { it.toDomain() } to (page < (body.meta?.last_page ?: page)))
+            } else {
+                AuthResult.Error(parseError(response.errorBody()?.string()))
+            }
+        } catch (e: Exception) {
+            AuthResult.Error("Tidak dapat terhubung ke server.")
+        }
+    }
 
     // ─────────────────────────────────────────────────────────────
     // GET /api/marketplace  →  list of Product (domain model)
@@ -26,11 +217,9 @@ class MarketplaceRepository(private val context: Context) {
         search: String? = null
     ): AuthResult<List<Product>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val response = api.getListings(
-                bearer   = "Bearer $token",
                 category = category?.lowercase()?.takeIf { it != "all" },
                 search   = search?.ifBlank { null }
             )
@@ -50,10 +239,9 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getListing(id: Long): AuthResult<Product> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.getListing("Bearer $token", id)
+            val response = api.getListing(id)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -76,25 +264,21 @@ class MarketplaceRepository(private val context: Context) {
         imageUri: Uri? = null,
         stock: Int = 1
     ): AuthResult<Product> {
+        var upload: ImageIngest.Prepared? = null
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val textType = "text/plain".toMediaTypeOrNull()
-            val imagePart = imageUri?.let { uri ->
-                val stream = context.contentResolver.openInputStream(uri)
-                    ?: return AuthResult.Error("Tidak bisa membaca file gambar.")
-                val bytes = stream.readBytes()
-                stream.close()
-                val mime = context.contentResolver.getType(uri) ?: "image/jpeg"
-                MultipartBody.Part.createFormData(
-                    "image", "listing.jpg",
-                    bytes.toRequestBody(mime.toMediaTypeOrNull())
-                )
+            upload = imageUri?.let { uri ->
+                try {
+                    ImageIngest.prepareForUpload(context, uri)
+                } catch (e: Exception) {
+                    return AuthResult.Error("Tidak bisa membaca file gambar.")
+                }
             }
+            val imagePart = upload?.toMultipartPart()
 
             val response = api.createListing(
-                bearer      = "Bearer $token",
                 name        = name.toRequestBody(textType),
                 description = description.toRequestBody(textType),
                 price       = price.toString().toRequestBody(textType),
@@ -110,6 +294,8 @@ class MarketplaceRepository(private val context: Context) {
             }
         } catch (e: Exception) {
             AuthResult.Error("Tidak dapat terhubung ke server.")
+        } finally {
+            upload?.file?.delete()
         }
     }
 
@@ -118,10 +304,9 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getOrders(): AuthResult<List<Order>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.getOrders("Bearer $token")
+            val response = api.getOrders()
             if (response.isSuccessful) {
                 val orders = response.body()!!.data.map { it.toDomain() }
                 AuthResult.Success(orders)
@@ -142,11 +327,11 @@ class MarketplaceRepository(private val context: Context) {
         shippingAddress: String,
         notes: String? = null,
         latitude: Double? = null,
-        longitude: Double? = null
+        longitude: Double? = null,
+        idempotencyKey: String? = null
     ): AuthResult<Order> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val body = CreateOrderRequest(
                 listing_id       = listingId,
@@ -157,14 +342,14 @@ class MarketplaceRepository(private val context: Context) {
                 longitude        = longitude
             )
 
-            val response = api.createOrder("Bearer $token", body)
+            val response = api.createOrder(body, idempotencyKey)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
-                AuthResult.Error(parseError(response.errorBody()?.string()))
+                AuthResult.Error(parseError(response.errorBody()?.string()), retryable = response.code() >= 500)
             }
         } catch (e: Exception) {
-            AuthResult.Error("Tidak dapat terhubung ke server.")
+            AuthResult.Error("Tidak dapat terhubung ke server.", retryable = e is IOException)
         }
     }
 
@@ -173,12 +358,8 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun payOrder(id: Long): AuthResult<PayOrderResponse> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.payOrder(
-                bearer = "Bearer $token",
-                id     = id
-            )
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.payOrder(id = id)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -191,12 +372,15 @@ class MarketplaceRepository(private val context: Context) {
 
     // ─────────────────────────────────────────────────────────────
     // GET /api/orders/{id}/payment-status  →  poll Mayar status
+    // waitSeconds > 0 → server long-polls (see PaymentStatusWatcher)
     // ─────────────────────────────────────────────────────────────
-    suspend fun pollPaymentStatus(id: Long): AuthResult<PaymentStatusResponse> {
+    suspend fun pollPaymentStatus(
+        id: Long,
+        waitSeconds: Int = 0
+    ): AuthResult<PaymentStatusResponse> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.getPaymentStatus("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.getPaymentStatus(id, waitSeconds.takeIf { it > 0 })
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -212,10 +396,9 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun cancelOrder(id: Long, reason: String? = null): AuthResult<Order> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.cancelOrder("Bearer $token", id, CancelOrderRequest(reason))
+            val response = api.cancelOrder(id, CancelOrderRequest(reason))
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -238,8 +421,7 @@ class MarketplaceRepository(private val context: Context) {
         listingReview: String?
     ): AuthResult<Order> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val body = RateOrderRequest(
                 courier_rating = courierRating,
@@ -247,7 +429,7 @@ class MarketplaceRepository(private val context: Context) {
                 listing_rating = listingRating,
                 listing_review = listingReview?.ifBlank { null }
             )
-            val response = api.rateOrder("Bearer $token", id, body)
+            val response = api.rateOrder(id, body)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -263,10 +445,9 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getWishlist(): AuthResult<List<Product>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.getWishlist("Bearer $token")
+            val response = api.getWishlist()
             if (response.isSuccessful) {
                 val products = response.body()!!.data.map { it.toDomain() }
                 AuthResult.Success(products)
@@ -278,28 +459,6 @@ class MarketplaceRepository(private val context: Context) {
         }
     }
 
-    // ─────────────────────────────────────────────────────────────
-    // POST /api/wishlist/toggle  →  wishlisted: Boolean
-    // ─────────────────────────────────────────────────────────────
-    suspend fun toggleWishlist(listingId: Long): AuthResult<Boolean> {
-        return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-
-            val response = api.toggleWishlist(
-                bearer = "Bearer $token",
-                body   = ToggleWishlistRequest(listing_id = listingId)
-            )
-            if (response.isSuccessful) {
-                AuthResult.Success(response.body()!!.wishlisted)
-            } else {
-                AuthResult.Error(parseError(response.errorBody()?.string()))
-            }
-        } catch (e: Exception) {
-            AuthResult.Error("Tidak dapat terhubung ke server.")
-        }
-    }
-
     // ─────────────────────────────────────────────────────────────
     // Mappers: DTO  →  Domain
     // ─────────────────────────────────────────────────────────────
@@ -314,12 +473,49 @@ class MarketplaceRepository(private val context: Context) {
         category     = category.toProductCategory(),
         condition    = condition.toProductCondition(),
         imageUrl     = image_url ?: "",
+        thumbnailUrl = thumbnail_url,
         isWishlisted = is_wishlisted,
         isSold       = is_sold,
         stock        = stock,
         isActive     = is_active
     )
 
+    private fun ListingDto.toEntity(): ListingEntity = ListingEntity(
+        id           = id,
+        name         = name,
+        price        = price,
+        sellerName   = seller_name,
+        sellerRating = seller_rating,
+        description  = description,
+        category     = category.lowercase(),
+        condition    = condition.lowercase(),
+        imageUrl     = image_url,
+        thumbnailUrl = thumbnail_url,
+        isWishlisted = is_wishlisted,
+        isSold       = is_sold,
+        isActive     = is_active,
+        stock        = stock,
+        createdAt    = created_at,
+        updatedAt    = updated_at
+    )
+
+    private fun ListingEntity.toDomain(): Product = Product(
+        id           = id,
+        name         = name,
+        price        = price,
+        sellerName   = sellerName,
+        sellerRating = sellerRating,
+        description  = description,
+        category     = category.toProductCategory(),
+        condition    = condition.toProductCondition(),
+        imageUrl     = imageUrl ?: "",
+        thumbnailUrl = thumbnailUrl,
+        isWishlisted = isWishlisted,
+        isSold       = isSold,
+        stock        = stock,
+        isActive     = isActive
+    )
+
     private fun OrderDto.toDomain(): Order {
         val product = listing?.toDomain() ?: Product(
             id          = "unknown",
@@ -399,9 +595,8 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getMyListings(): AuthResult<List<Product>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.getMyListings("Bearer $token")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.getMyListings()
             if (response.isSuccessful) {
                 val listings = response.body()!!.data.map { it.toDomain() }
                 AuthResult.Success(listings)
@@ -418,9 +613,8 @@ class MarketplaceRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun deleteListing(id: Long): AuthResult<String> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
-            val response = api.deleteListing("Bearer $token", id)
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
+            val response = api.deleteListing(id)
             if (response.isSuccessful) {
                 val message = response.body()?.get("message") ?: "Listing dihapus."
                 AuthResult.Success(message)
@@ -445,25 +639,21 @@ class MarketplaceRepository(private val context: Context) {
         imageUri: Uri? = null,
         stock: Int = 1
     ): AuthResult<Product> {
+        var upload: ImageIngest.Prepared? = null
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val textType = "text/plain".toMediaTypeOrNull()
-            val imagePart = imageUri?.let { uri ->
-                val stream = context.contentResolver.openInputStream(uri)
-                    ?: return AuthResult.Error("Tidak bisa membaca file gambar.")
-                val bytes = stream.readBytes()
-                stream.close()
-                val mime = context.contentResolver.getType(uri) ?: "image/jpeg"
-                MultipartBody.Part.createFormData(
-                    "image", "listing.jpg",
-                    bytes.toRequestBody(mime.toMediaTypeOrNull())
-                )
+            upload = imageUri?.let { uri ->
+                try {
+                    ImageIngest.prepareForUpload(context, uri)
+                } catch (e: Exception) {
+                    return AuthResult.Error("Tidak bisa membaca file gambar.")
+                }
             }
+            val imagePart = upload?.toMultipartPart()
 
             val response = api.updateListing(
-                bearer      = "Bearer $token",
                 id          = id,
                 method      = "PUT".toRequestBody(textType),
                 name        = name.toRequestBody(textType),
@@ -481,9 +671,19 @@ class MarketplaceRepository(private val context: Context) {
             }
         } catch (e: Exception) {
             AuthResult.Error("Tidak dapat terhubung ke server.")
+        } finally {
+            upload?.file?.delete()
         }
     }
 
+    // Multipart "image" part streamed from the prepared temp file —
+    // never buffered on the heap.
+    private fun ImageIngest.Prepared.toMultipartPart(): MultipartBody.Part =
+        MultipartBody.Part.createFormData(
+            "image", fileName,
+            file.asRequestBody(mimeType.toMediaTypeOrNull())
+        )
+
     // ─────────────────────────────────────────────────────────────
     // Shared error parser — parses Laravel JSON error responses
     // ─────────────────────────────────────────────────────────────
@@ -515,8 +715,7 @@ class MarketplaceRepository(private val context: Context) {
         latitude: Double? = null,
         longitude: Double? = null
     ): AuthResult<CartCheckoutResponse> {
-        val token = TokenStore.getToken(context)
-            ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+        if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
         return try {
             val body = CartCheckoutRequest(
                 shipping_address = shippingAddress,
@@ -525,7 +724,7 @@ class MarketplaceRepository(private val context: Context) {
                 latitude         = latitude,
                 longitude        = longitude
             )
-            val response = api.cartCheckout("Bearer $token", body)
+            val response = api.cartCheckout(body)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -540,10 +739,9 @@ class MarketplaceRepository(private val context: Context) {
     // GET /api/orders/cart-checkouts → List<CartCheckoutGroup>
     // ─────────────────────────────────────────────────────────
     suspend fun getCartCheckouts(): AuthResult<List<CartCheckoutGroup>> {
-        val token = TokenStore.getToken(context)
-            ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+        if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
         return try {
-            val response = api.getCartCheckouts("Bearer $token")
+            val response = api.getCartCheckouts()
             if (response.isSuccessful) {
                 val groups = response.body()!!.data.map { it.toDomain() }
                 AuthResult.Success(groups)
@@ -557,14 +755,15 @@ class MarketplaceRepository(private val context: Context) {
 
     // ─────────────────────────────────────────────────────────
     // GET /api/orders/cart-checkout/{id}/payment-status
+    // waitSeconds > 0 → server long-polls (see PaymentStatusWatcher)
     // ─────────────────────────────────────────────────────────
     suspend fun pollCartCheckoutStatus(
-        cartCheckoutId: String
+        cartCheckoutId: String,
+        waitSeconds: Int = 0
     ): AuthResult<CartCheckoutStatusResponse> {
-        val token = TokenStore.getToken(context)
-            ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+        if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
         return try {
-            val response = api.getCartCheckoutStatus("Bearer $token", cartCheckoutId)
+            val response = api.getCartCheckoutStatus(cartCheckoutId, waitSeconds.takeIf { it > 0 })
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -581,10 +780,9 @@ class MarketplaceRepository(private val context: Context) {
     suspend fun cancelCartCheckout(
         cartCheckoutId: String
     ): AuthResult<CartCheckoutStatusResponse> {
-        val token = TokenStore.getToken(context)
-            ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+        if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
         return try {
-            val response = api.cancelCartCheckout("Bearer $token", cartCheckoutId)
+            val response = api.cancelCartCheckout(cartCheckoutId)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!)
             } else {
@@ -598,10 +796,9 @@ class MarketplaceRepository(private val context: Context) {
     // Returns Pair<List<SalesTransaction>, SalesSummary>
     // ─────────────────────────────────────────────────────────
     suspend fun getSalesTransactions(): AuthResult<Pair<List<SalesTransaction>, SalesSummary>> {
-        val token = TokenStore.getToken(context)
-            ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+        if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
         return try {
-            val response = api.getSalesTransactions("Bearer $token")
+            val response = api.getSalesTransactions()
             if (response.isSuccessful) {
                 val body = response.body()!!
                 val list = body.data.map { dto ->
@@ -632,4 +829,18 @@ class MarketplaceRepository(private val context: Context) {
             AuthResult.Error("Tidak dapat terhubung ke server.")
         }
     }
+
+    companion object {
+        /** Remote-key scope of the unfiltered feed */
+        const val SCOPE_ALL = "all"
+
+        /** 2-column grid ≈ 6 cards per screen → one page ≈ 3 screens */
+        private const val FEED_PAGE_SIZE = 20
+        /** Feed pages a search may pull while it has under a page of matches */
+        private const val SEARCH_LOCAL_PAGES = 3
+        /** Start fetching the next page ~2 screens before the end */
+        private const val FEED_PREFETCH_DISTANCE = 12
+        /** Pages far from the viewport are dropped so heap stays flat */
+        private const val FEED_MAX_IN_MEMORY = 120
+    }
 }
@@ -0,0 +1,236 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import com.google.gson.Gson
+import com.kelasxi.myapplication.data.local.OutboxEntity
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import com.kelasxi.myapplication.model.Order
+import com.kelasxi.myapplication.model.PickupRequest
+import com.kelasxi.myapplication.model.TrashType
+import com.kelasxi.myapplication.service.OutboxWorker
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.lang.reflect.Type
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * Durable queue for the writes a user must not lose to a dead connection:
+ * new pickups, new orders and courier status changes.
+ *
+ *  - [submit] sends right away while the queue is empty. A request that may
+ *    not have reached the server (no network, 5xx) is stored in the outbox
+ *    table instead, and so is anything submitted behind it — writes always
+ *    reach the server in the order they were made.
+ *  - Every write gets an idempotency key once and keeps it across retries;
+ *    the backend answers a repeated key with the first response, so a
+ *    timeout after the server committed never creates a second pickup.
+ *  - [OutboxWorker] replays the table oldest-first once there is a network,
+ *    with WorkManager's exponential backoff, and also after process death
+ *    or a reboot. Each outcome is announced on [replayed] so an open screen
+ *    can swap its optimistic row for the server's.
+ */
+class Outbox private constructor(context: Context) {
+
+    /** A queued write; [T] is what the server returns for it. */
+    sealed interface Mutation<T> {
+        data class CreatePickup(
+            val address: String,
+            val trashTypes: List<TrashType>,
+            val notes: String?,
+            val estimatedWeightKg: Double?,
+            val latitude: Double?,
+            val longitude: Double?
+        ) : Mutation<PickupRequest>
+
+        data class CreateOrder(
+            val listingId: Long,
+            val quantity: Int,
+            val shippingAddress: String,
+            val notes: String?,
+            val latitude: Double?,
+            val longitude: Double?
+        ) : Mutation<Order>
+
+        data class UpdatePickupStatus(val pickupId: Long, val status: String) : Mutation<CourierPickupDto>
+        data class UpdateOrderStatus(val orderId: Long, val status: String) : Mutation<CourierOrderDto>
+    }
+
+    sealed interface Submission<out T> {
+        /** Reached the server (or was refused by it for good). */
+        data class Sent<T>(val result: AuthResult<T>) : Submission<T>
+        /** Stored for replay; [key] identifies it in [replayed]. */
+        data class Queued(val key: String) : Submission<Nothing>
+    }
+
+    /** Final outcome of a queued write: success, or an error the server will keep giving. */
+    class Replayed(val key: String, val mutation: Mutation<*>, val result: AuthResult<*>) {
+        /** [result] as the type [mutation] returns; call after matching [mutation]'s class. */
+        @Suppress("UNCHECKED_CAST")
+        fun <T> resultAs(): AuthResult<T> = result as AuthResult<T>
+    }
+
+    private val appContext = context.applicationContext
+    private val dao = TrashCareDatabase.get(context).outboxDao()
+    private val pickups = PickupRepository(appContext)
+    private val marketplace = MarketplaceRepository(appContext)
+    private val courier = AuthRepository(appContext)
+    private val gson = Gson()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    // One write on the wire at a time, so "queue is empty" cannot go stale
+    // between the check and the send
+    private val mutex = Mutex()
+
+    private val _replayed = MutableSharedFlow<Replayed>(extraBufferCapacity = 16)
+    val replayed: SharedFlow<Replayed> = _replayed.asSharedFlow()
+
+    init {
+        // Rows left by an earlier run whose work was cancelled (e.g. app update)
+        scope.launch { if (dao.count() > 0) schedule() }
+    }
+
+    suspend fun <T> submit(mutation: Mutation<T>): Submission<T> = mutex.withLock {
+        val key = UUID.randomUUID().toString()
+        val result = if (dao.count() == 0) send(mutation, key) else null
+        if (result == null || (result is AuthResult.Error && result.retryable)) {
+            dao.insert(
+                OutboxEntity(
+                    idempotencyKey = key,
+                    kind           = kindOf(mutation),
+                    payload        = gson.toJson(mutation),
+                    createdAt      = System.currentTimeMillis(),
+                    lastError      = (result as? AuthResult.Error)?.message
+                )
+            )
+            schedule()
+            Submission.Queued(key)
+        } else {
+            Submission.Sent(result)
+        }
+    }
+
+    /**
+     * Sends stored writes oldest-first. Returns false when one still can't
+     * get through — the rest stay behind it and the worker retries later.
+     */
+    suspend fun replay(): Boolean {
+        // Kept for the next sign-in; logout wipes the table anyway
+        if (!AuthSession.isSignedIn()) return true
+        while (true) {
+            val sent = mutex.withLock {
+                val row = dao.oldest() ?: return true
+                val mutation = decode(row)
+                if (mutation == null) {
+                    dao.delete(row.id)   // written by an older app version
+                    return@withLock true
+                }
+                val result = send(mutation, row.idempotencyKey)
+                if (result is AuthResult.Error && result.retryable) {
+                    dao.markFailed(row.id, result.message)
+                    return@withLock false
+                }
+                dao.delete(row.id)
+                _replayed.emit(Replayed(row.idempotencyKey, mutation, result))
+                true
+            }
+            if (!sent) return false
+        }
+    }
+
+    /** Drops unsent writes (sign-out). */
+    fun wipeLocal() {
+        scope.launch {
+            mutex.withLock { dao.clear() }
+            WorkManager.getInstance(appContext).cancelUniqueWork(WORK_NAME)
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Dispatch
+    // ─────────────────────────────────────────────────────────────
+
+    @Suppress("UNCHECKED_CAST")
+    private suspend fun <T> send(mutation: Mutation<T>, key: String): AuthResult<T> = when (mutation) {
+        is Mutation.CreatePickup -> pickups.createPickup(
+            address           = mutation.address,
+            trashTypes        = mutation.trashTypes,
+            notes             = mutation.notes,
+            estimatedWeightKg = mutation.estimatedWeightKg,
+            latitude          = mutation.latitude,
+            longitude         = mutation.longitude,
+            idempotencyKey    = key
+        )
+        is Mutation.CreateOrder -> marketplace.createOrder(
+            listingId       = mutation.listingId,
+            quantity        = mutation.quantity,
+            shippingAddress = mutation.shippingAddress,
+            notes           = mutation.notes,
+            latitude        = mutation.latitude,
+            longitude       = mutation.longitude,
+            idempotencyKey  = key
+        )
+        is Mutation.UpdatePickupStatus -> courier.updatePickupStatus(mutation.pickupId, mutation.status, key)
+        is Mutation.UpdateOrderStatus  -> courier.updateOrderStatus(mutation.orderId, mutation.status, key)
+    } as AuthResult<T>
+
+    private fun schedule() {
+        val request = OneTimeWorkRequestBuilder<OutboxWorker>()
+            .setConstraints(Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, MIN_BACKOFF_S, TimeUnit.SECONDS)
+            .build()
+        // Append rather than keep: a run that is just finishing may already
+        // have seen an empty table. A follow-up run on an empty table is a no-op.
+        WorkManager.getInstance(appContext)
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request)
+    }
+
+    private fun kindOf(mutation: Mutation<*>): String = when (mutation) {
+        is Mutation.CreatePickup       -> KIND_CREATE_PICKUP
+        is Mutation.CreateOrder        -> KIND_CREATE_ORDER
+        is Mutation.UpdatePickupStatus -> KIND_PICKUP_STATUS
+        is Mutation.UpdateOrderStatus  -> KIND_ORDER_STATUS
+    }
+
+    private fun decode(row: OutboxEntity): Mutation<*>? {
+        val type: Type = when (row.kind) {
+            KIND_CREATE_PICKUP -> Mutation.CreatePickup::class.java
+            KIND_CREATE_ORDER  -> Mutation.CreateOrder::class.java
+            KIND_PICKUP_STATUS -> Mutation.UpdatePickupStatus::class.java
+            KIND_ORDER_STATUS  -> Mutation.UpdateOrderStatus::class.java
+            else               -> return null
+        }
+        return runCatching { gson.fromJson<Mutation<*>>(row.payload, type) }.getOrNull()
+    }
+
+    companion object {
+        private const val WORK_NAME     = "outbox-replay"
+        private const val MIN_BACKOFF_S = 15L
+
+        private const val KIND_CREATE_PICKUP = "create_pickup"
+        private const val KIND_CREATE_ORDER  = "create_order"
+        private const val KIND_PICKUP_STATUS = "pickup_status"
+        private const val KIND_ORDER_STATUS  = "order_status"
+
+        @Volatile
+        private var instance: Outbox? = null
+
+        fun get(context: Context): Outbox =
+            instance ?: synchronized(this) {
+                instance ?: Outbox(context.applicationContext).also { instance = it }
+            }
+    }
+}
@@ -0,0 +1,120 @@
+package com.kelasxi.myapplication.data.network
+
+import android.os.SystemClock
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlin.random.Random
+
+/**
+ * Follows the Mayar payment status of one order / cart checkout until it
+ * leaves "unpaid", without firing GET …/payment-status every few seconds.
+ *
+ *  - Every request is a long-poll (`?wait=`): the server holds it open and
+ *    answers as soon as the payment settles, so a paid checkout shows up
+ *    almost immediately while an idle one costs ~3 requests a minute.
+ *  - When the server answers straight away anyway (older backend) or the
+ *    request fails, the next attempt backs off exponentially with jitter.
+ *  - Callers asking about the same id with the same wait at the same time
+ *    share one request. A one-off check ("Cek Status", the deep-link
+ *    callback) never joins the watch loop's long-poll: it asks with no wait
+ *    and gets the current status right away (the server answers it from
+ *    the poll it already shares between waiters).
+ *
+ * Requests run in [scope] so a caller leaving does not cancel the request
+ * other callers are still waiting on.
+ */
+class PaymentStatusWatcher(
+    private val repository: MarketplaceRepository,
+    private val scope: CoroutineScope
+) {
+
+    private val lock = Mutex()
+    private val inFlight = HashMap<String, Deferred<AuthResult<String>>>()
+
+    /**
+     * One status check for an order; waitSeconds > 0 lets the server long-poll.
+     * Joins the request already in flight for the order with the same wait, if any.
+     */
+    suspend fun checkOrder(orderId: Long, waitSeconds: Int = 0): AuthResult<String> =
+        coalesce("order:$orderId:$waitSeconds") {
+            repository.pollPaymentStatus(orderId, waitSeconds).toStatus { it.payment_status }
+        }
+
+    /** One status check for a cart checkout group; see [checkOrder]. */
+    suspend fun checkCartCheckout(cartCheckoutId: String, waitSeconds: Int = 0): AuthResult<String> =
+        coalesce("cart:$cartCheckoutId:$waitSeconds") {
+            repository.pollCartCheckoutStatus(cartCheckoutId, waitSeconds).toStatus { it.payment_status }
+        }
+
+    /** Emits every status seen for the order, completing once it is no longer "unpaid". */
+    fun watchOrder(orderId: Long): Flow<String> =
+        watch { wait -> checkOrder(orderId, wait) }
+
+    /** Emits every status seen for the cart checkout, completing once it is no longer "unpaid". */
+    fun watchCartCheckout(cartCheckoutId: String): Flow<String> =
+        watch { wait -> checkCartCheckout(cartCheckoutId, wait) }
+
+    private fun watch(check: suspend (waitSeconds: Int) -> AuthResult<String>): Flow<String> = flow {
+        var failures = 0
+        while (true) {
+            val startedAt = SystemClock.elapsedRealtime()
+            val result = check(LONG_POLL_WAIT_S)
+            val heldMs = SystemClock.elapsedRealtime() - startedAt
+
+            if (result is AuthResult.Success) {
+                emit(result.data)
+                if (result.data != STATUS_UNPAID) return@flow
+                // The server held the request for us → re-arm right away.
+                if (heldMs >= LONG_POLL_WAIT_S * 1_000L / 2) {
+                    failures = 0
+                    continue
+                }
+            }
+            delay(backoffMs(failures++))
+        }
+    }
+
+    private suspend fun coalesce(
+        key: String,
+        request: suspend () -> AuthResult<String>
+    ): AuthResult<String> {
+        val deferred = lock.withLock {
+            inFlight[key] ?: scope.async {
+                try {
+                    request()
+                } finally {
+                    lock.withLock { inFlight.remove(key) }
+                }
+            }.also { inFlight[key] = it }
+        }
+        return deferred.await()
+    }
+
+    private inline fun <T> AuthResult<T>.toStatus(status: (T) -> String): AuthResult<String> =
+        when (this) {
+            is AuthResult.Success -> AuthResult.Success(status(data))
+            is AuthResult.Error   -> this
+            is AuthResult.Loading -> AuthResult.Loading
+        }
+
+    companion object {
+        /** Kept below RetrofitClient's 30 s read timeout. */
+        const val LONG_POLL_WAIT_S = 20
+
+        private const val STATUS_UNPAID     = "unpaid"
+        private const val BACKOFF_BASE_MS   = 2_000L
+        private const val BACKOFF_MAX_MS    = 30_000L
+
+        /** Full-jitter exponential backoff: random in [base/2, min(max, base·2^n)]. */
+        fun backoffMs(attempt: Int): Long {
+            val ceiling = (BACKOFF_BASE_MS shl attempt.coerceIn(0, 4)).coerceAtMost(BACKOFF_MAX_MS)
+            return Random.nextLong(BACKOFF_BASE_MS / 2, ceiling + 1)
+        }
+    }
+}
@@ -101,6 +101,27 @@ data class CourierAvailabilityResponse(
     val is_available: Boolean
 )
 
+/**
+ * POST /api/courier/locations/batch — delta-encoded GPS trail.
+ * base: absolute start (t = unix seconds, lat/lng = degrees × 1e5);
+ * points: [dt, dlat, dlng, accuracy_m, speed_dm_s], each relative to the previous.
+ */
+data class LocationBatchRequest(
+    val base: LocationBaseDto,
+    val points: List<List<Long>>
+)
+
+data class LocationBaseDto(
+    val t: Long,
+    val lat: Long,
+    val lng: Long
+)
+
+data class LocationBatchResponse(
+    val stored: Int,
+    val last_t: Long
+)
+
 data class CourierMeResponse(
     val courier: CourierProfileDto
 )
@@ -5,6 +5,7 @@ import com.kelasxi.myapplication.model.Courier
 import com.kelasxi.myapplication.model.PickupRequest
 import com.kelasxi.myapplication.model.PickupStatus
 import com.kelasxi.myapplication.model.TrashType
+import java.io.IOException
 
 class PickupRepository(private val context: Context) {
 
@@ -15,10 +16,9 @@ class PickupRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun getPickups(): AuthResult<List<PickupRequest>> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.getPickups("Bearer $token")
+            val response = api.getPickups()
             if (response.isSuccessful) {
                 val body = response.body()!!
                 AuthResult.Success(body.data.map { it.toDomain() })
@@ -39,11 +39,11 @@ class PickupRepository(private val context: Context) {
         notes: String?,
         estimatedWeightKg: Double? = null,
         latitude: Double? = null,
-        longitude: Double? = null
+        longitude: Double? = null,
+        idempotencyKey: String? = null
     ): AuthResult<PickupRequest> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val body = CreatePickupRequest(
                 address                = address,
@@ -54,15 +54,15 @@ class PickupRepository(private val context: Context) {
                 trash_types            = trashTypes.map { it.name.lowercase() }
             )
 
-            val response = api.createPickup("Bearer $token", body)
+            val response = api.createPickup(body, idempotencyKey)
             if (response.isSuccessful) {
                 val dto = response.body()!!.data
                 AuthResult.Success(dto.toDomain())
             } else {
-                AuthResult.Error(parseError(response.errorBody()?.string()))
+                AuthResult.Error(parseError(response.errorBody()?.string()), retryable = response.code() >= 500)
             }
         } catch (e: Exception) {
-            AuthResult.Error("Tidak dapat terhubung ke server.")
+            AuthResult.Error("Tidak dapat terhubung ke server.", retryable = e is IOException)
         }
     }
 
@@ -71,10 +71,9 @@ class PickupRepository(private val context: Context) {
     // ─────────────────────────────────────────────────────────────
     suspend fun cancelPickup(id: Long, reason: String? = null): AuthResult<PickupRequest> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
-            val response = api.cancelPickup("Bearer $token", id, CancelPickupRequest(reason))
+            val response = api.cancelPickup(id, CancelPickupRequest(reason))
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
@@ -94,14 +93,13 @@ class PickupRepository(private val context: Context) {
         courierReview: String?
     ): AuthResult<PickupRequest> {
         return try {
-            val token = TokenStore.getToken(context)
-                ?: return AuthResult.Error("Belum login. Silakan login kembali.")
+            if (!AuthSession.isSignedIn()) return AuthResult.Error("Belum login. Silakan login kembali.")
 
             val body = RatePickupRequest(
                 courier_rating = courierRating,
                 courier_review = courierReview?.ifBlank { null }
             )
-            val response = api.ratePickup("Bearer $token", id, body)
+            val response = api.ratePickup(id, body)
             if (response.isSuccessful) {
                 AuthResult.Success(response.body()!!.data.toDomain())
             } else {
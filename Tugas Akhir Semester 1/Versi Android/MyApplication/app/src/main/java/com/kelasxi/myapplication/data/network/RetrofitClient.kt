@@ -2,10 +2,8 @@ package com.kelasxi.myapplication.data.network
 
 import okhttp3.Interceptor
 import okhttp3.OkHttpClient
-import okhttp3.logging.HttpLoggingInterceptor
 import retrofit2.Retrofit
 import retrofit2.converter.gson.GsonConverterFactory
-import java.util.concurrent.TimeUnit
 
 object RetrofitClient {
 
@@ -15,10 +13,6 @@ object RetrofitClient {
     // Physical device → http://192.168.30.212:8000/api/  (php artisan serve --host=0.0.0.0 --port=8000)
     const val BASE_URL = "https://giving-rebirth-production-b635.up.railway.app/api/"
 
-    private val loggingInterceptor = HttpLoggingInterceptor().apply {
-        level = HttpLoggingInterceptor.Level.BODY
-    }
-    
     /** Forces every request to carry Accept: application/json so Laravel
      *  always returns JSON errors instead of HTML redirects. */
     private val jsonAcceptInterceptor = Interceptor { chain ->
@@ -29,13 +23,26 @@ object RetrofitClient {
         chain.proceed(request)
     }
 
-    private val okHttpClient = OkHttpClient.Builder()
-        .addInterceptor(jsonAcceptInterceptor)   // applied before logging so headers appear in logs
-        .addInterceptor(loggingInterceptor)
-        .connectTimeout(30, TimeUnit.SECONDS)
-        .readTimeout(30, TimeUnit.SECONDS)
-        .writeTimeout(30, TimeUnit.SECONDS)
-        .build()
+    /** Adds the signed-in user's bearer token (from memory, see AuthSession)
+     *  unless the request already carries one. Public endpoints such as
+     *  login / register simply go out without it while signed out. */
+    private val authInterceptor = Interceptor { chain ->
+        val request = chain.request()
+        val token = AuthSession.currentToken()
+        if (token == null || request.header("Authorization") != null) {
+            chain.proceed(request)
+        } else {
+            chain.proceed(request.newBuilder().header("Authorization", "Bearer $token").build())
+        }
+    }
+
+    /** Shared pool / cache / dispatcher / logging come from HttpStack.api. */
+    internal val okHttpClient: OkHttpClient by lazy {
+        HttpStack.api.newBuilder()
+            .addInterceptor(jsonAcceptInterceptor)
+            .addInterceptor(authInterceptor)
+            .build()
+    }
 
     val api: ApiService by lazy {
         Retrofit.Builder()
@@ -0,0 +1,339 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import android.util.LruCache
+import com.kelasxi.myapplication.BuildConfig
+import com.kelasxi.myapplication.data.local.RouteCacheEntity
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.firstOrNull
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.Request
+import okhttp3.RequestBody.Companion.toRequestBody
+import org.json.JSONObject
+import org.osmdroid.util.GeoPoint
+import kotlin.math.roundToLong
+
+/** A driving route as returned by one of the routing providers. */
+data class RouteResult(
+    val points: List<GeoPoint>,
+    val distanceM: Double,
+    val durationS: Double,
+    val provider: String
+)
+
+/**
+ * Pairwise travel costs between route points (index 0 is usually the
+ * courier). [estimated] is true when no routing server answered and every
+ * entry is the straight-line estimate.
+ */
+class TravelMatrix(
+    val durationS: Array<DoubleArray>,
+    val distanceM: Array<DoubleArray>,
+    val estimated: Boolean
+)
+
+/**
+ * Driving routes for the courier screens.
+ *
+ *  - Cached in memory (LRU) and in Room (route_cache), keyed by origin and
+ *    destination snapped to ~110 m cells, so reopening the same pickup from
+ *    roughly the same spot costs no request at all.
+ *  - On a miss the providers are hedged: OpenRouteService starts first, each
+ *    OSRM mirror joins [HEDGE_DELAY_MS] later; the first route wins and the
+ *    remaining calls are cancelled.
+ *  - Concurrent lookups for the same cell pair share one in-flight fetch.
+ *  - Multi-stop tours use [travelMatrix] + [routeThrough] (see TourPlanner).
+ */
+class RouteRepository private constructor(context: Context) {
+
+    private val dao = TrashCareDatabase.get(context).routeCacheDao()
+    private val memory = LruCache<String, RouteResult>(MEMORY_ENTRIES)
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val lock = Mutex()
+    private val inFlight = HashMap<String, Deferred<RouteResult?>>()
+
+    /** Route from → to, or null when no provider answered. */
+    suspend fun route(fromLat: Double, fromLng: Double, toLat: Double, toLng: Double): RouteResult? =
+        routeThrough(listOf(GeoPoint(fromLat, fromLng), GeoPoint(toLat, toLng)))
+
+    /** One route visiting [waypoints] in the given order, or null when no provider answered. */
+    suspend fun routeThrough(waypoints: List<GeoPoint>): RouteResult? {
+        require(waypoints.size >= 2) { "a route needs at least two waypoints" }
+        val key = cellKey(waypoints)
+        memory.get(key)?.let { return it }
+
+        val deferred = lock.withLock {
+            inFlight[key] ?: scope.async {
+                try {
+                    loadOrFetch(key, waypoints)
+                } finally {
+                    lock.withLock { inFlight.remove(key) }
+                }
+            }.also { inFlight[key] = it }
+        }
+        return deferred.await()
+    }
+
+    /**
+     * Travel times / distances between every pair of [points]: OSRM /table
+     * (first mirror to answer), else a straight-line estimate so planning
+     * still works offline. Unreachable pairs are filled with the estimate.
+     */
+    suspend fun travelMatrix(points: List<GeoPoint>): TravelMatrix {
+        val fetched = hedge(OSRM_MIRRORS.map { base -> suspend { fetchOsrmTable(base, points) } })
+        val n = points.size
+        val duration = Array(n) { DoubleArray(n) }
+        val distance = Array(n) { DoubleArray(n) }
+        for (i in 0 until n) for (j in 0 until n) {
+            if (i == j) continue
+            val estM = haversineMeters(points[i].latitude, points[i].longitude,
+                                       points[j].latitude, points[j].longitude) * ROAD_FACTOR
+            distance[i][j] = fetched?.distance?.get(i)?.get(j)?.takeIf { !it.isNaN() } ?: estM
+            duration[i][j] = fetched?.duration?.get(i)?.get(j)?.takeIf { !it.isNaN() } ?: (estM / ESTIMATE_SPEED_MPS)
+        }
+        return TravelMatrix(duration, distance, estimated = fetched == null)
+    }
+
+    private suspend fun loadOrFetch(key: String, waypoints: List<GeoPoint>): RouteResult? {
+        val now = System.currentTimeMillis()
+        dao.get(key, now - DISK_TTL_MS)?.let { row ->
+            val cached = RouteResult(decodePolyline(row.polyline), row.distanceM, row.durationS, row.provider)
+            memory.put(key, cached)
+            return cached
+        }
+
+        val fetched = fetchHedged(waypoints) ?: return null
+        memory.put(key, fetched)
+        dao.upsert(
+            RouteCacheEntity(
+                cellKey   = key,
+                polyline  = encodePolyline(fetched.points),
+                distanceM = fetched.distanceM,
+                durationS = fetched.durationS,
+                provider  = fetched.provider,
+                fetchedAt = now
+            )
+        )
+        dao.trim(now - DISK_TTL_MS, DISK_ENTRIES)
+        return fetched
+    }
+
+    private suspend fun fetchHedged(waypoints: List<GeoPoint>): RouteResult? =
+        hedge(buildList<suspend () -> RouteResult?> {
+            if (BuildConfig.ORS_API_KEY.isNotBlank()) add(suspend { fetchOrs(waypoints) })
+            OSRM_MIRRORS.forEach { base -> add(suspend { fetchOsrm(base, waypoints) }) }
+        })
+
+    /**
+     * Starts [providers] [HEDGE_DELAY_MS] apart and returns the first non-null
+     * answer; firstOrNull() cancels the channelFlow, which cancels every call
+     * still running.
+     */
+    private suspend fun <T : Any> hedge(providers: List<suspend () -> T?>): T? =
+        channelFlow {
+            providers.forEachIndexed { i, provider ->
+                launch {
+                    delay(i * HEDGE_DELAY_MS)
+                    runCatching { provider() }.getOrNull()?.let { send(it) }
+                }
+            }
+        }.firstOrNull()
+
+    // ── OpenRouteService: POST /v2/directions/driving-car (GeoJSON) ──
+    private suspend fun fetchOrs(waypoints: List<GeoPoint>): RouteResult? {
+        val coordinates = waypoints.joinToString(",", "[", "]") { "[${it.longitude},${it.latitude}]" }
+        val body = """{"coordinates":$coordinates}"""
+            .toRequestBody("application/json; charset=utf-8".toMediaType())
+        val request = Request.Builder()
+            .url("https://api.openrouteservice.org/v2/directions/driving-car/geojson")
+            .post(body)
+            .header("Authorization", BuildConfig.ORS_API_KEY)
+            .header("Accept", "application/json, application/geo+json")
+            .build()
+        val text = fetchText(request) ?: return null
+
+        // features[0].geometry.coordinates (lng,lat), properties.summary
+        val feature  = JSONObject(text).getJSONArray("features").getJSONObject(0)
+        val summary  = feature.getJSONObject("properties").getJSONObject("summary")
+        val coords   = feature.getJSONObject("geometry").getJSONArray("coordinates")
+        return RouteResult(
+            points    = (0 until coords.length()).map { i ->
+                val c = coords.getJSONArray(i)
+                GeoPoint(c.getDouble(1), c.getDouble(0))
+            },
+            distanceM = summary.optDouble("distance", 0.0),
+            durationS = summary.optDouble("duration", 0.0),
+            provider  = "ors"
+        )
+    }
+
+    // ── OSRM public mirrors: GET /route/v1/driving (GeoJSON) ──────────
+    private suspend fun fetchOsrm(base: String, waypoints: List<GeoPoint>): RouteResult? {
+        val request = Request.Builder()
+            .url("$base/route/v1/driving/${osrmCoordinates(waypoints)}?overview=full&geometries=geojson")
+            .header("User-Agent",
+                "Mozilla/5.0 (Linux; Android 12) AppleWebKit/537.36 Chrome/120 Safari/537.36")
+            .header("Accept", "application/json")
+            .build()
+        val text = fetchText(request) ?: return null
+
+        val routes = JSONObject(text).getJSONArray("routes")
+        if (routes.length() == 0) return null
+        val route  = routes.getJSONObject(0)
+        val coords = route.getJSONObject("geometry").getJSONArray("coordinates")
+        return RouteResult(
+            points    = (0 until coords.length()).map { i ->
+                val c = coords.getJSONArray(i)
+                GeoPoint(c.getDouble(1), c.getDouble(0))
+            },
+            distanceM = route.getDouble("distance"),
+            durationS = route.getDouble("duration"),
+            provider  = base.substringAfter("://").substringBefore('/')
+        )
+    }
+
+    // ── OSRM table: GET /table/v1/driving (durations + distances) ─────
+    private suspend fun fetchOsrmTable(base: String, points: List<GeoPoint>): RawMatrix? {
+        val request = Request.Builder()
+            .url("$base/table/v1/driving/${osrmCoordinates(points)}?annotations=duration,distance")
+            .header("User-Agent",
+                "Mozilla/5.0 (Linux; Android 12) AppleWebKit/537.36 Chrome/120 Safari/537.36")
+            .header("Accept", "application/json")
+            .build()
+        val json = JSONObject(fetchText(request) ?: return null)
+        if (json.optString("code") != "Ok") return null
+
+        fun table(name: String): Array<DoubleArray>? {
+            val rows = json.optJSONArray(name) ?: return null
+            return Array(rows.length()) { i ->
+                val row = rows.getJSONArray(i)
+                // null = no road connection → NaN, filled with the estimate later
+                DoubleArray(row.length()) { j -> if (row.isNull(j)) Double.NaN else row.getDouble(j) }
+            }
+        }
+        return RawMatrix(table("durations") ?: return null, table("distances") ?: return null)
+    }
+
+    private class RawMatrix(val duration: Array<DoubleArray>, val distance: Array<DoubleArray>)
+
+    private fun osrmCoordinates(points: List<GeoPoint>): String =
+        points.joinToString(";") { "${it.longitude},${it.latitude}" }
+
+    /** Body of a 2xx response, null otherwise. Cancelling the caller cancels the call. */
+    private suspend fun fetchText(request: Request): String? =
+        HttpStack.external.newCall(request).await().use { response ->
+            if (!response.isSuccessful) null
+            else withContext(Dispatchers.IO) { response.body?.string() }
+        }
+
+    companion object {
+        private val OSRM_MIRRORS = listOf(
+            "https://router.project-osrm.org",
+            "https://routing.openstreetmap.de/routed-car"
+        )
+
+        private const val HEDGE_DELAY_MS = 1_500L
+        private const val MEMORY_ENTRIES = 32
+        private const val DISK_ENTRIES   = 200
+        private const val DISK_TTL_MS    = 7L * 24 * 60 * 60 * 1000   // roads rarely change within a week
+
+        /** ~110 m at the equator; small enough that the cached line still starts "here". */
+        private const val CELL_DEG = 0.001
+
+        @Volatile
+        private var instance: RouteRepository? = null
+
+        fun get(context: Context): RouteRepository =
+            instance ?: synchronized(this) {
+                instance ?: RouteRepository(context.applicationContext).also { instance = it }
+            }
+
+        /** Road distance ≈ straight line × 1.4, driven at ~30 km/h — used when offline. */
+        const val ROAD_FACTOR        = 1.4
+        const val ESTIMATE_SPEED_MPS = 30_000.0 / 3600.0
+
+        fun cellKey(waypoints: List<GeoPoint>): String {
+            fun snap(v: Double) = (v / CELL_DEG).roundToLong()
+            return waypoints.joinToString(">") { "${snap(it.latitude)}:${snap(it.longitude)}" }
+        }
+
+        /** Straight-line distance in metres (Haversine). */
+        fun haversineMeters(fromLat: Double, fromLng: Double, toLat: Double, toLng: Double): Double {
+            val r    = 6_371_000.0
+            val dLat = Math.toRadians(toLat - fromLat)
+            val dLon = Math.toRadians(toLng - fromLng)
+            val a    = Math.sin(dLat / 2).let { it * it } +
+                       Math.cos(Math.toRadians(fromLat)) *
+                       Math.cos(Math.toRadians(toLat)) *
+                       Math.sin(dLon / 2).let { it * it }
+            return 2 * r * Math.asin(Math.sqrt(a))
+        }
+
+        // ── Encoded polyline (Google format, precision 5) ───────────────
+
+        fun encodePolyline(points: List<GeoPoint>): String {
+            val sb = StringBuilder(points.size * 6)
+            var prevLat = 0L
+            var prevLng = 0L
+            for (p in points) {
+                val lat = Math.round(p.latitude * 1e5)
+                val lng = Math.round(p.longitude * 1e5)
+                encodeValue(lat - prevLat, sb)
+                encodeValue(lng - prevLng, sb)
+                prevLat = lat
+                prevLng = lng
+            }
+            return sb.toString()
+        }
+
+        fun decodePolyline(encoded: String): List<GeoPoint> {
+            val points = ArrayList<GeoPoint>(encoded.length / 4)
+            var index = 0
+            var lat = 0L
+            var lng = 0L
+            while (index < encoded.length) {
+                val (dLat, afterLat) = decodeValue(encoded, index)
+                val (dLng, afterLng) = decodeValue(encoded, afterLat)
+                index = afterLng
+                lat += dLat
+                lng += dLng
+                points.add(GeoPoint(lat / 1e5, lng / 1e5))
+            }
+            return points
+        }
+
+        private fun encodeValue(value: Long, sb: StringBuilder) {
+            var v = if (value < 0) (value shl 1).inv() else value shl 1
+            while (v >= 0x20) {
+                sb.append(((0x20 or (v and 0x1f).toInt()) + 63).toChar())
+                v = v shr 5
+            }
+            sb.append((v.toInt() + 63).toChar())
+        }
+
+        private fun decodeValue(encoded: String, start: Int): Pair<Long, Int> {
+            var result = 0L
+            var shift = 0
+            var i = start
+            var b: Int
+            do {
+                b = encoded[i++].code - 63
+                result = result or ((b and 0x1f).toLong() shl shift)
+                shift += 5
+            } while (b >= 0x20)
+            val value = if (result and 1L != 0L) (result shr 1).inv() else result shr 1
+            return value to i
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.kelasxi.myapplication.data.network
+
+import android.content.Context
+import android.util.Log
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.launch
+import java.io.IOException
+import kotlin.random.Random
+
+/**
+ * Write-behind wishlist. A tap only records the new heart state in
+ * wishlist_pending (Room, so it survives restarts); after [FLUSH_DEBOUNCE_MS]
+ * without taps everything pending goes to POST /api/wishlist/batch in one
+ * request.
+ *
+ *  - Taps on the same listing coalesce: a second tap before the flush
+ *    deletes the pending row, so heart-unheart sends nothing.
+ *  - Taps and flushes run on one writer coroutine, in order; a tap made
+ *    while a batch is in flight is queued behind it and starts from the
+ *    state the server just confirmed.
+ *  - Network errors, 5xx and unexpected errors keep the rows and retry
+ *    with backoff (the latter are logged). A rejected change (4xx, or a
+ *    listing that no longer exists) is dropped and announced on
+ *    [rollbacks] so the UI can put the heart back.
+ */
+@OptIn(FlowPreview::class)
+class WishlistRepository private constructor(context: Context) {
+
+    /** Server state to restore per listing id, plus why. */
+    class Rollback(val states: Map<String, Boolean>, val message: String)
+
+    private sealed interface Op {
+        class Toggle(val listingId: String, val wishlisted: Boolean, val at: Long) : Op
+        data object Flush : Op
+        data object Wipe : Op
+    }
+
+    private val api = RetrofitClient.api
+    private val db = TrashCareDatabase.get(context)
+    private val dao = db.wishlistPendingDao()
+    private val listingDao = db.listingDao()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    private val ops = Channel<Op>(Channel.UNLIMITED)
+    private val flushRequests = MutableSharedFlow<Unit>(
+        extraBufferCapacity = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST
+    )
+    private var failures = 0   // only touched by the writer coroutine
+
+    private val _rollbacks = MutableSharedFlow<Rollback>(extraBufferCapacity = 8)
+    val rollbacks: SharedFlow<Rollback> = _rollbacks.asSharedFlow()
+
+    init {
+        scope.launch {
+            for (op in ops) {
+                try {
+                    apply(op)
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Exception) {
+                    Log.w(TAG, "Wishlist ${op::class.simpleName} failed", e)
+                    recover(op)
+                }
+            }
+        }
+        scope.launch {
+            flushRequests.debounce(FLUSH_DEBOUNCE_MS).collect { ops.send(Op.Flush) }
+        }
+        // Changes left over from an earlier run go out as soon as possible
+        flushRequests.tryEmit(Unit)
+    }
+
+    /** Records the heart state the user just chose for [listingId]. */
+    fun set(listingId: String, wishlisted: Boolean) {
+        ops.trySend(Op.Toggle(listingId, wishlisted, System.currentTimeMillis()))
+        flushRequests.tryEmit(Unit)
+    }
+
+    /** Unconfirmed states to lay over a wishlist fetched from the server. */
+    suspend fun pending(): Map<String, Boolean> =
+        dao.all().associate { it.listingId to it.wishlisted }
+
+    /** Drops unsent changes (sign-out). */
+    fun wipeLocal() {
+        ops.trySend(Op.Wipe)
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Writer coroutine
+    // ─────────────────────────────────────────────────────────────
+
+    private suspend fun apply(op: Op) {
+        when (op) {
+            is Op.Toggle -> dao.toggle(op.listingId, op.wishlisted, op.at)
+            Op.Wipe      -> dao.clear()
+            Op.Flush     -> flush()
+        }
+    }
+
+    private suspend fun flush() {
+        if (!AuthSession.isSignedIn()) return
+        val batch = dao.oldest(MAX_BATCH)
+        if (batch.isEmpty()) return
+
+        val items = batch.mapNotNull { row ->
+            row.listingId.toLongOrNull()?.let { WishlistBatchItem(listing_id = it, wishlisted = row.wishlisted) }
+        }
+        val response = try {
+            api.batchWishlist(WishlistBatchRequest(items))
+        } catch (e: IOException) {
+            retryLater()
+            return
+        }
+
+        when {
+            response.isSuccessful -> {
+                failures = 0
+                val rejected = response.body()?.rejected.orEmpty().toSet()
+                batch.forEach { row ->
+                    if (row.listingId !in rejected) listingDao.setWishlisted(row.listingId, row.wishlisted)
+                }
+                dao.delete(batch.map { it.listingId })
+                if (rejected.isNotEmpty()) {
+                    _rollbacks.emit(
+                        Rollback(rejected.associateWith { false }, "Barang sudah tidak tersedia.")
+                    )
+                }
+                if (batch.size == MAX_BATCH) flushRequests.tryEmit(Unit)
+            }
+            response.code() == 401 -> Unit   // kept until the user signs in again (or out)
+            response.code() >= 500 -> retryLater()
+            else -> {
+                // The server will never take this batch — undo it locally
+                failures = 0
+                dao.delete(batch.map { it.listingId })
+                _rollbacks.emit(
+                    Rollback(batch.associate { it.listingId to !it.wishlisted }, "Wishlist gagal disimpan.")
+                )
+            }
+        }
+    }
+
+    /**
+     * After an unexpected error (bad response body, database error): a flush
+     * keeps its pending rows and is retried; a tap that was never recorded
+     * is rolled back so the heart shows what will actually be sent.
+     */
+    private suspend fun recover(op: Op) {
+        when (op) {
+            is Op.Toggle -> _rollbacks.emit(Rollback(mapOf(op.listingId to !op.wishlisted), "Wishlist gagal disimpan."))
+            Op.Flush     -> retryLater()
+            Op.Wipe      -> Unit
+        }
+    }
+
+    /** Re-queues a flush after an exponential, jittered delay (2 s → 2 min). */
+    private fun retryLater() {
+        failures++
+        val cap = minOf(MAX_RETRY_MS, MIN_RETRY_MS shl minOf(failures - 1, 6))
+        scope.launch {
+            delay(cap / 2 + Random.nextLong(cap / 2 + 1))
+            ops.send(Op.Flush)
+        }
+    }
+
+    companion object {
+        private const val TAG               = "WishlistRepository"
+        private const val FLUSH_DEBOUNCE_MS = 800L
+        private const val MAX_BATCH         = 100   // WishlistController::MAX_BATCH_ITEMS
+        private const val MIN_RETRY_MS      = 2_000L
+        private const val MAX_RETRY_MS      = 120_000L
+
+        @Volatile
+        private var instance: WishlistRepository? = null
+
+        fun get(context: Context): WishlistRepository =
+            instance ?: synchronized(this) {
+                instance ?: WishlistRepository(context.applicationContext).also { instance = it }
+            }
+    }
+}
@@ -56,6 +56,8 @@ data class Product(
     val category: ProductCategory,
     val condition: ProductCondition,
     val imageUrl: String = "",
+    /** Small server-made JPEG for lists and grids; null for older listings. */
+    val thumbnailUrl: String? = null,
     val isWishlisted: Boolean = false,
     val isSold: Boolean = false,
     val stock: Int = 1,
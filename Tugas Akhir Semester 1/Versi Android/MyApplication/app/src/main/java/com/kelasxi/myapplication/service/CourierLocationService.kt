@@ -0,0 +1,314 @@
+package com.kelasxi.myapplication.service
+
+import android.Manifest
+import android.app.NotificationChannel
+import android.app.NotificationManager
+import android.app.PendingIntent
+import android.app.Service
+import android.content.Context
+import android.content.Intent
+import android.content.pm.PackageManager
+import android.content.pm.ServiceInfo
+import android.location.Location
+import android.os.BatteryManager
+import android.os.Build
+import android.os.IBinder
+import android.os.Looper
+import androidx.core.app.NotificationCompat
+import androidx.core.app.ServiceCompat
+import androidx.core.content.ContextCompat
+import com.google.android.gms.location.FusedLocationProviderClient
+import com.google.android.gms.location.LocationCallback
+import com.google.android.gms.location.LocationRequest
+import com.google.android.gms.location.LocationResult
+import com.google.android.gms.location.LocationServices
+import com.google.android.gms.location.Priority
+import com.kelasxi.myapplication.MainActivity
+import com.kelasxi.myapplication.R
+import com.kelasxi.myapplication.data.local.LocationFixEntity
+import com.kelasxi.myapplication.data.local.TrashCareDatabase
+import com.kelasxi.myapplication.data.network.AuthRepository
+import com.kelasxi.myapplication.data.network.AuthResult
+import com.kelasxi.myapplication.data.network.LocationBaseDto
+import com.kelasxi.myapplication.data.network.LocationBatchRequest
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlin.math.roundToInt
+import kotlin.math.roundToLong
+
+/**
+ * Keeps the courier's position flowing to the backend while they are online,
+ * without one HTTP call per GPS fix:
+ *
+ *  - sampling interval adapts to speed (parked / walking / driving) and is
+ *    stretched when the battery is low and not charging
+ *  - fixes closer than [MIN_DISTANCE_M] to the last kept one are dropped,
+ *    unless [MAX_SILENCE_S] passed (so a parked courier still shows as live)
+ *  - kept fixes go to a Room ring log (location_log, [LOG_CAPACITY] rows)
+ *  - every [UPLOAD_INTERVAL_MS] the log is sent delta-encoded to
+ *    POST /api/courier/locations/batch and the accepted rows are dropped
+ *
+ * Started / stopped by CourierViewModel as the courier goes on- and offline;
+ * only started while the courier screen is in the foreground, since API 31+
+ * refuses foreground-service starts from the background.
+ */
+class CourierLocationService : Service() {
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val uploadLock = Mutex()
+
+    private lateinit var fused: FusedLocationProviderClient
+    private val logDao by lazy { TrashCareDatabase.get(this).locationLogDao() }
+    private val repository by lazy { AuthRepository(applicationContext) }
+
+    private var lastKept: Location? = null
+    private var currentMode: SamplingMode? = null
+    private var uploadJob: Job? = null
+
+    private val callback = object : LocationCallback() {
+        override fun onLocationResult(result: LocationResult) {
+            result.locations.forEach(::onFix)
+        }
+    }
+
+    override fun onBind(intent: Intent?): IBinder? = null
+
+    override fun onCreate() {
+        super.onCreate()
+        fused = LocationServices.getFusedLocationProviderClient(this)
+        createChannel()
+    }
+
+    override fun onStartCommand(intent: Intent?, flags: Int, startId: Int): Int {
+        if (intent?.action == ACTION_STOP) {
+            scope.launch {
+                uploadPending()
+                stopSelf()
+            }
+            return START_NOT_STICKY
+        }
+        if (!hasLocationPermission(this)) {
+            stopSelf()
+            return START_NOT_STICKY
+        }
+
+        ServiceCompat.startForeground(
+            this, NOTIFICATION_ID, buildNotification(),
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) ServiceInfo.FOREGROUND_SERVICE_TYPE_LOCATION else 0
+        )
+        applyMode(SamplingMode.DRIVING)
+        if (uploadJob?.isActive != true) {
+            uploadJob = scope.launch {
+                while (isActive) {
+                    delay(if (isBatteryLow()) UPLOAD_INTERVAL_MS * 3 else UPLOAD_INTERVAL_MS)
+                    uploadPending()
+                }
+            }
+        }
+        return START_STICKY
+    }
+
+    override fun onDestroy() {
+        fused.removeLocationUpdates(callback)
+        scope.cancel()
+        super.onDestroy()
+    }
+
+    // ── Sampling ─────────────────────────────────────────────────
+
+    /** Interval/priority per movement bucket; re-requested only when the bucket changes. */
+    private enum class SamplingMode(val intervalMs: Long, val priority: Int) {
+        PARKED (30_000L, Priority.PRIORITY_BALANCED_POWER_ACCURACY),
+        WALKING(10_000L, Priority.PRIORITY_HIGH_ACCURACY),
+        DRIVING( 5_000L, Priority.PRIORITY_HIGH_ACCURACY)
+    }
+
+    private fun applyMode(mode: SamplingMode) {
+        if (mode == currentMode) return
+        currentMode = mode
+        val lowBattery = isBatteryLow()
+        val interval = if (lowBattery) mode.intervalMs * 2 else mode.intervalMs
+        val priority = if (lowBattery) Priority.PRIORITY_BALANCED_POWER_ACCURACY else mode.priority
+
+        // No distance filter: a parked courier must keep getting fixes so
+        // onFix can keep one every MAX_SILENCE_S
+        val request = LocationRequest.Builder(priority, interval)
+            .setMinUpdateIntervalMillis(interval / 2)
+            .build()
+        try {
+            fused.removeLocationUpdates(callback)
+            fused.requestLocationUpdates(request, callback, Looper.getMainLooper())
+        } catch (_: SecurityException) {
+            stopSelf()
+        }
+    }
+
+    private fun onFix(fix: Location) {
+        if (fix.hasAccuracy() && fix.accuracy > MAX_ACCURACY_M) return
+
+        val speed = if (fix.hasSpeed()) fix.speed else 0f
+        applyMode(
+            when {
+                speed >= DRIVING_SPEED_MPS -> SamplingMode.DRIVING
+                speed >= WALKING_SPEED_MPS -> SamplingMode.WALKING
+                else                       -> SamplingMode.PARKED
+            }
+        )
+
+        val previous = lastKept
+        if (previous != null) {
+            val movedM   = previous.distanceTo(fix)
+            val silenceS = (fix.time - previous.time) / 1000
+            if (movedM < MIN_DISTANCE_M && silenceS < MAX_SILENCE_S) return
+        }
+        lastKept = fix
+
+        val entity = LocationFixEntity(
+            latE5      = (fix.latitude * 1e5).roundToLong(),
+            lngE5      = (fix.longitude * 1e5).roundToLong(),
+            accuracyM  = if (fix.hasAccuracy()) fix.accuracy.roundToInt() else 0,
+            speedDmS   = (speed * 10).roundToInt(),
+            recordedAt = fix.time / 1000
+        )
+        scope.launch {
+            logDao.append(entity, LOG_CAPACITY)
+            if (logDao.count() >= UPLOAD_EARLY_AT) uploadPending()
+        }
+    }
+
+    // ── Upload ───────────────────────────────────────────────────
+
+    private suspend fun uploadPending() = uploadLock.withLock {
+        while (true) {
+            val batch = logDao.oldest(BATCH_SIZE)
+            if (batch.isEmpty()) return@withLock
+            when (repository.uploadCourierLocations(encodeBatch(batch))) {
+                is AuthResult.Success -> logDao.deleteThrough(batch.last().id)
+                else                  -> return@withLock   // keep them; retry next round
+            }
+            if (batch.size < BATCH_SIZE) return@withLock
+        }
+    }
+
+    private fun isBatteryLow(): Boolean {
+        val bm = getSystemService(Context.BATTERY_SERVICE) as BatteryManager
+        val level = bm.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY)
+        return level in 1 until LOW_BATTERY_PERCENT && !bm.isCharging
+    }
+
+    // ── Notification ─────────────────────────────────────────────
+
+    private fun createChannel() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return
+        val nm = getSystemService(NotificationManager::class.java)
+        nm.createNotificationChannel(
+            NotificationChannel(CHANNEL_ID, "Lokasi Kurir", NotificationManager.IMPORTANCE_LOW).apply {
+                description = "Berbagi lokasi dengan pembeli selama kamu online"
+            }
+        )
+    }
+
+    private fun buildNotification() =
+        NotificationCompat.Builder(this, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_launcher_foreground)
+            .setContentTitle("TrashCare Kurir")
+            .setContentText("Lokasi dibagikan selama kamu online")
+            .setOngoing(true)
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .setContentIntent(
+                PendingIntent.getActivity(
+                    this, 0, Intent(this, MainActivity::class.java),
+                    PendingIntent.FLAG_IMMUTABLE
+                )
+            )
+            .build()
+
+    companion object {
+        private const val ACTION_STOP     = "com.kelasxi.myapplication.action.STOP_LOCATION"
+        private const val CHANNEL_ID      = "courier_location"
+        private const val NOTIFICATION_ID = 4101
+
+        private const val MIN_DISTANCE_M      = 25f
+        private const val MAX_SILENCE_S       = 120L
+        private const val MAX_ACCURACY_M      = 100f
+        private const val WALKING_SPEED_MPS   = 1.0f
+        private const val DRIVING_SPEED_MPS   = 4.0f
+        private const val LOW_BATTERY_PERCENT = 20
+
+        private const val LOG_CAPACITY       = 5_000
+        private const val BATCH_SIZE         = 300
+        private const val UPLOAD_EARLY_AT    = 100
+        private const val UPLOAD_INTERVAL_MS = 60_000L
+
+        fun hasLocationPermission(context: Context): Boolean =
+            ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION) ==
+                PackageManager.PERMISSION_GRANTED
+
+        /**
+         * Permissions to ask for before going online: location, and on API 33+
+         * the ongoing notification, which is hidden without it.
+         */
+        fun missingTrackingPermissions(context: Context): List<String> =
+            buildList {
+                add(Manifest.permission.ACCESS_FINE_LOCATION)
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) add(Manifest.permission.POST_NOTIFICATIONS)
+            }.filter {
+                ContextCompat.checkSelfPermission(context, it) != PackageManager.PERMISSION_GRANTED
+            }
+
+        /** Returns false when tracking could not start (no permission, or the app is in the background). */
+        fun start(context: Context): Boolean {
+            if (!hasLocationPermission(context)) return false
+            return try {
+                ContextCompat.startForegroundService(context, Intent(context, CourierLocationService::class.java))
+                true
+            } catch (_: IllegalStateException) {
+                // ForegroundServiceStartNotAllowedException (API 31+): the caller retries on resume
+                false
+            }
+        }
+
+        /** Flushes what is buffered, then stops. */
+        fun stop(context: Context) {
+            // startService() is refused while the app is in the background; the
+            // rows stay in location_log and go up with the next session.
+            runCatching {
+                context.startService(
+                    Intent(context, CourierLocationService::class.java).setAction(ACTION_STOP)
+                )
+            }
+        }
+
+        /**
+         * Delta-encodes fixes (oldest first) for the batch endpoint: the first
+         * point is relative to base, every other one to its predecessor, so
+         * most numbers on the wire are one or two digits.
+         */
+        fun encodeBatch(fixes: List<LocationFixEntity>): LocationBatchRequest {
+            val first = fixes.first()
+            var t = first.recordedAt
+            var lat = first.latE5
+            var lng = first.lngE5
+            val points = fixes.map { f ->
+                listOf(
+                    f.recordedAt - t, f.latE5 - lat, f.lngE5 - lng,
+                    f.accuracyM.toLong(), f.speedDmS.toLong()
+                ).also {
+                    t = f.recordedAt; lat = f.latE5; lng = f.lngE5
+                }
+            }
+            return LocationBatchRequest(
+                base   = LocationBaseDto(t = first.recordedAt, lat = first.latE5, lng = first.lngE5),
+                points = points
+            )
+        }
+    }
+}
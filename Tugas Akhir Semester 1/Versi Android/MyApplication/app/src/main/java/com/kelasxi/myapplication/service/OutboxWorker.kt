@@ -0,0 +1,20 @@
+package com.kelasxi.myapplication.service
+
+import android.content.Context
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import com.kelasxi.myapplication.data.network.Outbox
+
+/**
+ * Replays the outbox once the device is online. Scheduled by Outbox with a
+ * CONNECTED constraint and exponential backoff; [Result.retry] leaves the
+ * remaining writes for the next attempt.
+ */
+class OutboxWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result =
+        if (Outbox.get(applicationContext).replay()) Result.success() else Result.retry()
+}
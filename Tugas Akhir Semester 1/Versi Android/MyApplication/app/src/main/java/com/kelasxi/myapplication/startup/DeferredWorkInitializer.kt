@@ -0,0 +1,33 @@
+package com.kelasxi.myapplication.startup
+
+import android.content.Context
+import androidx.startup.Initializer
+import androidx.tracing.trace
+import androidx.work.WorkManager
+import com.kelasxi.myapplication.data.network.Outbox
+import com.kelasxi.myapplication.data.network.WishlistRepository
+
+/**
+ * Startup work that can wait until the first screen is fully drawn. Not
+ * registered in the manifest; MainActivity runs it off the main thread via
+ * AppInitializer.initializeComponent once fullyDrawnReporter fires (or after
+ * a timeout), so none of it competes with the first frame.
+ *
+ *  - WorkManager, initialised on demand (TrashCareApplication is its
+ *    Configuration.Provider) instead of by its own startup provider; this
+ *    reschedules work left from before a reboot or force-stop.
+ *  - Outbox and WishlistRepository, whose init resumes writes queued by an
+ *    earlier run even when no screen that uses them gets opened.
+ */
+class DeferredWorkInitializer : Initializer<Unit> {
+
+    override fun create(context: Context) = trace("TrashCare.deferredWork") {
+        WorkManager.getInstance(context)
+        Outbox.get(context)
+        WishlistRepository.get(context)
+        Unit
+    }
+
+    // The outbox and wishlist replay need the session
+    override fun dependencies(): List<Class<out Initializer<*>>> = listOf(NetworkInitializer::class.java)
+}
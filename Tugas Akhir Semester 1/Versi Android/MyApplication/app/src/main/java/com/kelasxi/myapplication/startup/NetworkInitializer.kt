@@ -0,0 +1,23 @@
+package com.kelasxi.myapplication.startup
+
+import android.content.Context
+import androidx.startup.Initializer
+import androidx.tracing.trace
+import com.kelasxi.myapplication.data.network.AuthSession
+import com.kelasxi.myapplication.data.network.HttpStack
+
+/**
+ * Eager startup work, run by androidx.startup's InitializationProvider before
+ * Application.onCreate: the HTTP disk cache and the auth session must exist
+ * before the first request. Both are cheap — the cache directory is opened
+ * lazily and the token is read on a background coroutine.
+ */
+class NetworkInitializer : Initializer<Unit> {
+
+    override fun create(context: Context) = trace("TrashCare.initNetwork") {
+        HttpStack.init(context)
+        AuthSession.init(context)
+    }
+
+    override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
+}
@@ -1,29 +1,41 @@
 package com.kelasxi.myapplication.ui.common
 
+import android.Manifest
+import android.content.Context
+import android.content.pm.PackageManager
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.foundation.*
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.*
 import androidx.compose.foundation.shape.*
 import androidx.compose.material.icons.Icons
 import androidx.compose.material.icons.filled.LocationOn
+import androidx.compose.material.icons.filled.MyLocation
 import androidx.compose.material.icons.outlined.*
 import androidx.compose.material3.*
 import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.*
+import androidx.core.content.ContextCompat
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
+import com.google.android.gms.location.LocationServices
 import com.kelasxi.myapplication.data.network.Address
+import com.kelasxi.myapplication.data.network.GeocodeRepository
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.AddressViewModel
+import kotlinx.coroutines.launch
 
 /**
  * A reusable address field that lets the user either:
  *  - type an address manually, OR
- *  - pick one of their saved addresses from a bottom-sheet
+ *  - pick one of their saved addresses from a bottom-sheet, OR
+ *  - fill it from their current GPS position (reverse-geocoded)
  *
  * @param value          Current address string value
  * @param onValueChange  Called whenever the address text changes
@@ -45,6 +57,36 @@ fun AddressPickerField(
 
     var showSheet by remember { mutableStateOf(false) }
 
+    val context = LocalContext.current
+    val scope = rememberCoroutineScope()
+    var isLocating by remember { mutableStateOf(false) }
+
+    fun fillFromCurrentLocation() {
+        isLocating = true
+        currentLocation(context) { lat, lng ->
+            if (lat == null || lng == null) {
+                isLocating = false
+                return@currentLocation
+            }
+            scope.launch {
+                try {
+                    GeocodeRepository.get(context)
+                        .reverseLatest(GEOCODE_CALLER, lat, lng)
+                        ?.takeIf { it.isNotBlank() }
+                        ?.let(onValueChange)
+                } finally {
+                    isLocating = false
+                }
+            }
+        }
+    }
+
+    val permLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.RequestMultiplePermissions()
+    ) { grants ->
+        if (grants.values.any { it }) fillFromCurrentLocation()
+    }
+
     // Load addresses on first composition if not yet loaded
     LaunchedEffect(Unit) {
         if (addresses.isEmpty()) addressViewModel.loadAddresses()
@@ -64,25 +106,49 @@ fun AddressPickerField(
                 )
             },
             trailingIcon = {
-                // "Pilih Alamat" button — only show if user has saved addresses
-                if (addresses.isNotEmpty() || isLoading) {
-                    TextButton(
-                        onClick = { showSheet = true },
-                        contentPadding = PaddingValues(horizontal = 8.dp)
-                    ) {
-                        Icon(
-                            Icons.Outlined.List,
-                            contentDescription = null,
-                            tint = GreenDeep,
-                            modifier = Modifier.size(16.dp)
-                        )
-                        Spacer(Modifier.width(4.dp))
-                        Text(
-                            "Pilih",
-                            color = GreenDeep,
-                            fontSize = 12.sp,
-                            fontWeight = FontWeight.Bold
+                Row(verticalAlignment = Alignment.CenterVertically) {
+                    // "Lokasi saya" — reverse-geocode the current GPS position
+                    if (isLocating) {
+                        CircularProgressIndicator(
+                            modifier = Modifier.padding(horizontal = 12.dp).size(18.dp),
+                            strokeWidth = 2.dp,
+                            color = GreenDeep
                         )
+                    } else {
+                        IconButton(onClick = {
+                            val granted = ContextCompat.checkSelfPermission(
+                                context, Manifest.permission.ACCESS_FINE_LOCATION
+                            ) == PackageManager.PERMISSION_GRANTED
+                            if (granted) fillFromCurrentLocation()
+                            else permLauncher.launch(arrayOf(
+                                Manifest.permission.ACCESS_FINE_LOCATION,
+                                Manifest.permission.ACCESS_COARSE_LOCATION
+                            ))
+                        }) {
+                            Icon(Icons.Filled.MyLocation, contentDescription = "Lokasi saya", tint = GreenDeep)
+                        }
+                    }
+
+                    // "Pilih Alamat" button — only show if user has saved addresses
+                    if (addresses.isNotEmpty() || isLoading) {
+                        TextButton(
+                            onClick = { showSheet = true },
+                            contentPadding = PaddingValues(horizontal = 8.dp)
+                        ) {
+                            Icon(
+                                Icons.Outlined.List,
+                                contentDescription = null,
+                                tint = GreenDeep,
+                                modifier = Modifier.size(16.dp)
+                            )
+                            Spacer(Modifier.width(4.dp))
+                            Text(
+                                "Pilih",
+                                color = GreenDeep,
+                                fontSize = 12.sp,
+                                fontWeight = FontWeight.Bold
+                            )
+                        }
                     }
                 }
             },
@@ -409,6 +475,19 @@ private fun AddressQuickChip(
 // Helpers
 // ─────────────────────────────────────────────────────────────────
 
+private const val GEOCODE_CALLER = "address_field"
+
+/** Last known GPS fix; (null, null) when there is none or permission is missing. */
+private fun currentLocation(context: Context, onResult: (Double?, Double?) -> Unit) {
+    try {
+        LocationServices.getFusedLocationProviderClient(context).lastLocation
+            .addOnSuccessListener { loc -> onResult(loc?.latitude, loc?.longitude) }
+            .addOnFailureListener { onResult(null, null) }
+    } catch (_: SecurityException) {
+        onResult(null, null)
+    }
+}
+
 /** Builds the full one-line address string that goes into the text field */
 fun buildAddressString(address: Address): String =
     "${address.fullAddress}, ${address.city}, ${address.province} ${address.postalCode}"
@@ -0,0 +1,167 @@
+package com.kelasxi.myapplication.ui.common
+
+import android.content.Context
+import androidx.compose.foundation.lazy.grid.LazyGridState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.remember
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.layout.ContentScale
+import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.LocalDensity
+import androidx.compose.ui.unit.DpSize
+import coil.ImageLoader
+import coil.compose.AsyncImage
+import coil.disk.DiskCache
+import coil.imageLoader
+import coil.memory.MemoryCache
+import coil.request.ImageRequest
+import coil.size.Precision
+import com.kelasxi.myapplication.data.network.HttpStack
+import kotlinx.coroutines.flow.distinctUntilChanged
+
+/**
+ * The app's one Coil [ImageLoader] (TrashCareApplication hands it out as
+ * the ImageLoaderFactory) and the requests listing photos go through.
+ *
+ *  - Memory cache capped at [MEMORY_CACHE_PERCENT] of the app's heap, disk
+ *    cache at [DISK_CACHE_BYTES]; image bytes come over HttpStack.images,
+ *    sharing the API's connection pool.
+ *  - Listing photos never change under a URL (a new upload gets a new file
+ *    name), so the disk cache keeps them regardless of the server's cache
+ *    headers instead of revalidating.
+ *  - Thumbnails use the server's thumbnail_url when the listing has one and
+ *    are decoded at the view's size (AsyncImage measures it), inexactly,
+ *    as hardware bitmaps on API 26+ and RGB_565 below.
+ */
+object ImagePipeline {
+
+    private const val MEMORY_CACHE_PERCENT = 0.20
+    private const val DISK_CACHE_DIR       = "image_cache"
+    private const val DISK_CACHE_BYTES     = 100L * 1024 * 1024   // 100 MB
+
+    /** Grid items ahead of the last visible one whose images are fetched early. */
+    const val PREFETCH_AHEAD = 8
+
+    fun newImageLoader(context: Context): ImageLoader =
+        ImageLoader.Builder(context)
+            .okHttpClient { HttpStack.images }
+            .memoryCache {
+                MemoryCache.Builder(context)
+                    .maxSizePercent(MEMORY_CACHE_PERCENT)
+                    .build()
+            }
+            .diskCache {
+                DiskCache.Builder()
+                    .directory(context.cacheDir.resolve(DISK_CACHE_DIR))
+                    .maxSizeBytes(DISK_CACHE_BYTES)
+                    .build()
+            }
+            .respectCacheHeaders(false)
+            .build()
+
+    /** A list/grid-sized request; [ImageRequest.Builder.size] unset lets AsyncImage use its constraints. */
+    fun thumbnail(context: Context, imageUrl: String?, thumbnailUrl: String?): ImageRequest.Builder =
+        ImageRequest.Builder(context)
+            .data(thumbnailUrl ?: imageUrl)
+            .precision(Precision.INEXACT)
+            .allowRgb565(true)
+
+    /** Warms the caches for a thumbnail about to scroll in, at roughly its on-screen size. */
+    fun prefetch(context: Context, imageUrl: String?, thumbnailUrl: String?, widthPx: Int, heightPx: Int) {
+        if (thumbnailUrl.isNullOrBlank() && imageUrl.isNullOrBlank()) return
+        context.imageLoader.enqueue(
+            thumbnail(context, imageUrl, thumbnailUrl)
+                .size(widthPx, heightPx)
+                .build()
+        )
+    }
+}
+
+/**
+ * A listing photo in a list or grid cell. Falls back to the full image (still
+ * decoded at cell size) when the listing has no thumbnail.
+ */
+@Composable
+fun ListingThumbnail(
+    imageUrl: String?,
+    thumbnailUrl: String?,
+    contentDescription: String?,
+    modifier: Modifier = Modifier,
+    contentScale: ContentScale = ContentScale.Crop
+) {
+    val context = LocalContext.current
+    val request = remember(imageUrl, thumbnailUrl) {
+        ImagePipeline.thumbnail(context, imageUrl, thumbnailUrl).build()
+    }
+    AsyncImage(
+        model              = request,
+        contentDescription = contentDescription,
+        contentScale       = contentScale,
+        modifier           = modifier
+    )
+}
+
+/**
+ * The full-size photo (detail screen). Shows the thumbnail meanwhile if the
+ * grid already has it in memory.
+ */
+@Composable
+fun ListingPhoto(
+    imageUrl: String,
+    thumbnailUrl: String?,
+    contentDescription: String?,
+    modifier: Modifier = Modifier,
+    contentScale: ContentScale = ContentScale.Crop
+) {
+    val context = LocalContext.current
+    val request = remember(imageUrl, thumbnailUrl) {
+        ImageRequest.Builder(context)
+            .data(imageUrl)
+            .placeholderMemoryCacheKey(thumbnailUrl ?: imageUrl)
+            .build()
+    }
+    AsyncImage(
+        model              = request,
+        contentDescription = contentDescription,
+        contentScale       = contentScale,
+        modifier           = modifier
+    )
+}
+
+/**
+ * While [state] scrolls, fetches the thumbnails of the next
+ * [ImagePipeline.PREFETCH_AHEAD] items — including a freshly appended page —
+ * so they are decoded before their cells appear. [urlsAt] must not trigger
+ * loads (use LazyPagingItems.peek); it returns (imageUrl, thumbnailUrl).
+ */
+@Composable
+fun PrefetchListingImages(
+    state: LazyGridState,
+    itemCount: Int,
+    cellSize: DpSize,
+    urlsAt: (Int) -> Pair<String?, String?>?
+) {
+    val context = LocalContext.current
+    val density = LocalDensity.current
+    val currentUrlsAt by rememberUpdatedState(urlsAt)
+    LaunchedEffect(state, itemCount, cellSize) {
+        val widthPx = with(density) { cellSize.width.roundToPx() }
+        val heightPx = with(density) { cellSize.height.roundToPx() }
+        var prefetchedUpTo = -1
+        snapshotFlow { state.layoutInfo.visibleItemsInfo.lastOrNull()?.index ?: -1 }
+            .distinctUntilChanged()
+            .collect { lastVisible ->
+                if (lastVisible < 0) return@collect
+                val end = minOf(lastVisible + ImagePipeline.PREFETCH_AHEAD, itemCount - 1)
+                for (index in maxOf(lastVisible + 1, prefetchedUpTo + 1)..end) {
+                    val (imageUrl, thumbnailUrl) = currentUrlsAt(index) ?: continue
+                    ImagePipeline.prefetch(context, imageUrl, thumbnailUrl, widthPx, heightPx)
+                }
+                prefetchedUpTo = maxOf(prefetchedUpTo, end)
+            }
+    }
+}
@@ -2,11 +2,15 @@ package com.kelasxi.myapplication.ui.courier
 
 import android.Manifest
 import android.location.Location
+import androidx.activity.compose.ReportDrawnWhen
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.animation.animateColorAsState
 import androidx.compose.foundation.background
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyColumn
 import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.material.icons.Icons
@@ -20,15 +24,21 @@ import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.Brush
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.core.content.ContextCompat
+import androidx.lifecycle.compose.LifecycleResumeEffect
 import com.kelasxi.myapplication.data.network.CourierOrderDto
 import com.kelasxi.myapplication.data.network.CourierPickupDto
 import com.kelasxi.myapplication.data.network.CourierProfileDto
+import com.kelasxi.myapplication.service.CourierLocationService
 import com.kelasxi.myapplication.ui.theme.*
+import com.kelasxi.myapplication.util.RecompositionCounter
+import com.kelasxi.myapplication.util.TrackScreen
+import com.kelasxi.myapplication.util.TrackScrolling
 import com.kelasxi.myapplication.viewmodel.CourierViewModel
 
 @OptIn(ExperimentalMaterial3Api::class)
@@ -36,11 +46,19 @@ import com.kelasxi.myapplication.viewmodel.CourierViewModel
 fun CourierHomeScreen(
     viewModel: CourierViewModel,
     onLogout: () -> Unit,
-    onNavigateRoute: (lat: Double, lng: Double, address: String) -> Unit = { _, _, _ -> }
+    onNavigateRoute: (lat: Double, lng: Double, address: String) -> Unit = { _, _, _ -> },
+    onPlanTour: () -> Unit = {}
 ) {
     val uiState by viewModel.uiState.collectAsState()
     val context = LocalContext.current
 
+    // Time to full display: the dispatch reset (or fallback load) filled the lists
+    ReportDrawnWhen { uiState.profile != null }
+    TrackScreen("CourierHome")
+    RecompositionCounter("CourierHomeScreen")
+    val listState = rememberLazyListState()
+    TrackScrolling(listState, "courier")
+
     // ── Courier's current location (for distance display) ────────
     var courierLat by remember { mutableStateOf<Double?>(null) }
     var courierLng by remember { mutableStateOf<Double?>(null) }
@@ -61,6 +79,18 @@ fun CourierHomeScreen(
         }
     }
 
+    // Location tracking may only start while this screen is in the foreground
+    LifecycleResumeEffect(viewModel) {
+        viewModel.onScreenResumed()
+        onPauseOrDispose { viewModel.onScreenPaused() }
+    }
+
+    // Going online asks for location (and, on API 33+, the tracking
+    // notification) first; the toggle goes through whatever is granted
+    val trackingPermLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.RequestMultiplePermissions()
+    ) { viewModel.toggleAvailability(true) }
+
     // Handle logout event
     LaunchedEffect(Unit) {
         viewModel.logoutEvent.collect { onLogout() }
@@ -93,7 +123,8 @@ fun CourierHomeScreen(
                 .padding(padding)
         ) {
             LazyColumn(
-                modifier = Modifier.fillMaxSize(),
+                state = listState,
+                modifier = Modifier.fillMaxSize().testTag("courier_list"),
                 verticalArrangement = Arrangement.spacedBy(0.dp)
             ) {
             // ── Header ───────────────────────────────────────────
@@ -101,7 +132,11 @@ fun CourierHomeScreen(
                 CourierHeader(
                     profile = uiState.profile,
                     isAvailable = uiState.isAvailable,
-                    onToggleAvailability = { viewModel.toggleAvailability(it) },
+                    onToggleAvailability = { online ->
+                        val missing = CourierLocationService.missingTrackingPermissions(context)
+                        if (online && missing.isNotEmpty()) trackingPermLauncher.launch(missing.toTypedArray())
+                        else viewModel.toggleAvailability(online)
+                    },
                     onLogout = { viewModel.logout() }
                 )
             }
@@ -115,6 +150,24 @@ fun CourierHomeScreen(
                 )
             }
 
+            // ── Multi-stop tour (≥ 2 active stops with coordinates) ─
+            val tourStopCount = viewModel.activeStops(uiState).size
+            if (tourStopCount >= 2) {
+                item {
+                    OutlinedButton(
+                        onClick = onPlanTour,
+                        shape = RoundedCornerShape(10.dp),
+                        modifier = Modifier
+                            .fillMaxWidth()
+                            .padding(horizontal = 16.dp)
+                    ) {
+                        Icon(Icons.Default.Route, contentDescription = null, tint = GreenDeep, modifier = Modifier.size(18.dp))
+                        Spacer(modifier = Modifier.width(8.dp))
+                        Text("Rute Semua Tugas ($tourStopCount)", color = GreenDeep, fontWeight = FontWeight.SemiBold)
+                    }
+                }
+            }
+
             // ── Available Pickups (searching) ────────────────────
             if (uiState.availablePickups.isNotEmpty()) {
                 item {
@@ -613,8 +666,10 @@ fun CourierPickupCard(
     pickup: CourierPickupDto,
     onUpdateStatus: (String) -> Unit,
     modifier: Modifier = Modifier,
-    onNavigateRoute: (lat: Double, lng: Double, address: String) -> Unit = { _, _, _ -> }
+    onNavigateRoute: (lat: Double, lng: Double, address: String) -> Unit = { _, _, _ -> },
+    onPlanTour: () -> Unit = {}
 ) {
+    RecompositionCounter("CourierPickupCard")
     val statusColor = when (pickup.status) {
         "pending" -> StatusPending
         "on_the_way" -> StatusOnTheWay
@@ -877,6 +932,7 @@ fun AvailablePickupCard(
     courierLng: Double? = null,
     modifier: Modifier = Modifier
 ) {
+    RecompositionCounter("AvailablePickupCard")
     // Compute distance only when all 4 coordinates are available
     val distanceText: String? = remember(courierLat, courierLng, pickup.latitude, pickup.longitude) {
         if (courierLat != null && courierLng != null &&
@@ -1094,6 +1150,7 @@ fun AvailableOrderCard(
     onIgnore: () -> Unit,
     modifier: Modifier = Modifier
 ) {
+    RecompositionCounter("AvailableOrderCard")
     Card(
         modifier = modifier.fillMaxWidth(),
         shape = RoundedCornerShape(14.dp),
@@ -1256,6 +1313,7 @@ fun CourierOrderCard(
     onNavigateRoute: (lat: Double, lng: Double, address: String) -> Unit = { _, _, _ -> },
     modifier: Modifier = Modifier
 ) {
+    RecompositionCounter("CourierOrderCard")
     val statusColor = when (order.status) {
         "confirmed" -> StatusPending
         "pending"   -> StatusPending
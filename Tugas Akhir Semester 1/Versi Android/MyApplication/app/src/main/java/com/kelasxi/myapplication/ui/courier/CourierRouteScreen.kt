@@ -23,10 +23,8 @@ import androidx.compose.ui.viewinterop.AndroidView
 import androidx.core.content.ContextCompat
 import androidx.navigation.NavController
 import com.kelasxi.myapplication.ui.theme.*
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
-import org.json.JSONObject
+import com.kelasxi.myapplication.data.network.RouteRepository
 import org.osmdroid.config.Configuration
 import org.osmdroid.tileprovider.tilesource.TileSourceFactory
 import org.osmdroid.util.BoundingBox
@@ -34,8 +32,6 @@ import org.osmdroid.util.GeoPoint
 import org.osmdroid.views.MapView
 import org.osmdroid.views.overlay.Marker
 import org.osmdroid.views.overlay.Polyline
-import java.net.HttpURLConnection
-import java.net.URL
 
 // ─────────────────────────────────────────────────────────────────
 // CourierRouteScreen
@@ -77,7 +73,7 @@ fun CourierRouteScreen(
                 coroutineScope.launch {
                     isLoadingRoute = true
                     routeError = null
-                    fetchOsrmRoute(lat, lng, destLat, destLng) { points, dist, dur, err ->
+                    fetchOsrmRoute(context, lat, lng, destLat, destLng) { points, dist, dur, err ->
                         routePoints = points
                         distanceText = dist
                         durationText = dur
@@ -116,7 +112,7 @@ fun CourierRouteScreen(
                         isLoadingRoute = false
                         return@launch
                     }
-                    fetchOsrmRoute(lat, lng, destLat, destLng) { points, dist, dur, err ->
+                    fetchOsrmRoute(context, lat, lng, destLat, destLng) { points, dist, dur, err ->
                         routePoints = points
                         distanceText = dist
                         durationText = dur
@@ -258,7 +254,7 @@ fun CourierRouteScreen(
                                     getLastLocation(context) { lat, lng ->
                                         courierLat = lat; courierLng = lng
                                         coroutineScope.launch {
-                                            fetchOsrmRoute(lat, lng, destLat, destLng) { pts, d, t, e ->
+                                            fetchOsrmRoute(context, lat, lng, destLat, destLng) { pts, d, t, e ->
                                                 routePoints = pts
                                                 distanceText = d
                                                 durationText = t
@@ -286,7 +282,7 @@ fun CourierRouteScreen(
 }
 
 @Composable
-private fun RouteStatChip(
+internal fun RouteStatChip(
     icon: androidx.compose.ui.graphics.vector.ImageVector,
     label: String,
     value: String
@@ -300,162 +296,42 @@ private fun RouteStatChip(
 }
 
 // ─────────────────────────────────────────────────────────────────
-// Routing — OpenRouteService (primary) + OSRM fallback + straight-line
-//
-// Priority:
-//   1. OpenRouteService API  (api.openrouteservice.org) — reliable, free 2k/day
-//   2. OSRM demo server      (router.project-osrm.org)  — fallback
-//   3. OSRM OSM mirror       (routing.openstreetmap.de) — fallback
-//   4. Straight-line estimate (Haversine)               — always works
+// Routing — RouteRepository (cache → hedged ORS / OSRM mirrors),
+// straight-line estimate (Haversine) when no provider answers.
 // ─────────────────────────────────────────────────────────────────
 private suspend fun fetchOsrmRoute(
+    context: Context,
     fromLat: Double, fromLng: Double,
     toLat: Double, toLng: Double,
     onResult: (points: List<GeoPoint>, distance: String, duration: String, error: String?) -> Unit
 ) {
-    // ── 1. OpenRouteService (POST /v2/directions/driving-car) ─────
-    val orsKey = com.kelasxi.myapplication.BuildConfig.ORS_API_KEY
-    if (orsKey.isNotBlank()) {
-        try {
-            val result = withContext(Dispatchers.IO) {
-                val url  = "https://api.openrouteservice.org/v2/directions/driving-car"
-                val body = """{"coordinates":[[$fromLng,$fromLat],[$toLng,$toLat]]}"""
-                    .toByteArray(Charsets.UTF_8)
-
-                val conn = (URL(url).openConnection() as HttpURLConnection).apply {
-                    requestMethod = "POST"
-                    doOutput      = true
-                    setRequestProperty("Authorization", orsKey)
-                    setRequestProperty("Content-Type", "application/json; charset=utf-8")
-                    setRequestProperty("Accept", "application/json, application/geo+json")
-                    connectTimeout = 12_000
-                    readTimeout    = 12_000
-                }
-                conn.outputStream.use { it.write(body) }
-
-                val code = conn.responseCode
-                if (code != HttpURLConnection.HTTP_OK) {
-                    conn.disconnect()
-                    return@withContext null
-                }
-                val text = conn.inputStream.bufferedReader().readText()
-                conn.disconnect()
-                text
-            } ?: throw Exception("ORS non-200")
-
-            // ORS GeoJSON response: routes[0].geometry.coordinates (lng,lat)
-            val json     = JSONObject(result)
-            val route    = json.getJSONArray("routes").getJSONObject(0)
-            val summary  = route.getJSONObject("summary")
-            val distanceM = summary.getDouble("distance")
-            val durationS = summary.getDouble("duration")
-
-            val distText = if (distanceM >= 1000)
-                "${"%.1f".format(distanceM / 1000)} km" else "${distanceM.toInt()} m"
-            val durText  = if (durationS >= 3600) {
-                val h = (durationS / 3600).toInt()
-                val m = ((durationS % 3600) / 60).toInt()
-                "${h} jam ${m} mnt"
-            } else "${(durationS / 60).toInt()} mnt"
-
-            val coords = route
-                .getJSONObject("geometry")
-                .getJSONArray("coordinates")
-            val points = (0 until coords.length()).map { i ->
-                val c = coords.getJSONArray(i)
-                GeoPoint(c.getDouble(1), c.getDouble(0))   // [lng,lat] → GeoPoint(lat,lng)
-            }
-
-            onResult(points, distText, durText, null)
-            return   // ✓ done
-
-        } catch (_: Exception) {
-            // ORS failed — fall through to OSRM
-        }
+    val route = RouteRepository.get(context).route(fromLat, fromLng, toLat, toLng)
+    if (route != null) {
+        onResult(route.points, formatDistance(route.distanceM), formatDuration(route.durationS), null)
+        return
     }
 
-    // ── 2 & 3. OSRM public mirrors ────────────────────────────────
-    val osrmEndpoints = listOf(
-        "https://router.project-osrm.org",
-        "https://routing.openstreetmap.de/routed-car"
-    )
-    for (base in osrmEndpoints) {
-        try {
-            val url = "$base/route/v1/driving/" +
-                    "$fromLng,$fromLat;$toLng,$toLat" +
-                    "?overview=full&geometries=geojson"
-
-            val response = withContext(Dispatchers.IO) {
-                val conn = (URL(url).openConnection() as HttpURLConnection).apply {
-                    requestMethod = "GET"
-                    setRequestProperty("User-Agent",
-                        "Mozilla/5.0 (Linux; Android 12) AppleWebKit/537.36 Chrome/120 Safari/537.36")
-                    setRequestProperty("Accept", "application/json")
-                    connectTimeout = 12_000
-                    readTimeout    = 12_000
-                    instanceFollowRedirects = true
-                }
-                val code = conn.responseCode
-                if (code != HttpURLConnection.HTTP_OK) { conn.disconnect(); return@withContext null }
-                val body = conn.inputStream.bufferedReader().readText()
-                conn.disconnect()
-                body
-            } ?: continue
-
-            val json      = JSONObject(response)
-            val routes    = json.getJSONArray("routes")
-            if (routes.length() == 0) continue
-
-            val route     = routes.getJSONObject(0)
-            val distanceM = route.getDouble("distance")
-            val durationS = route.getDouble("duration")
-
-            val distText = if (distanceM >= 1000)
-                "${"%.1f".format(distanceM / 1000)} km" else "${distanceM.toInt()} m"
-            val durText  = if (durationS >= 3600) {
-                val h = (durationS / 3600).toInt()
-                val m = ((durationS % 3600) / 60).toInt()
-                "${h} jam ${m} mnt"
-            } else "${(durationS / 60).toInt()} mnt"
-
-            val coords = route.getJSONObject("geometry").getJSONArray("coordinates")
-            val points = (0 until coords.length()).map { i ->
-                val c = coords.getJSONArray(i)
-                GeoPoint(c.getDouble(1), c.getDouble(0))
-            }
-            onResult(points, distText, durText, null)
-            return
-
-        } catch (_: Exception) { /* try next */ }
-    }
-
-    // ── 4. Straight-line fallback (Haversine) ─────────────────────
-    val r     = 6_371_000.0
-    val dLat  = Math.toRadians(toLat - fromLat)
-    val dLon  = Math.toRadians(toLng - fromLng)
-    val a     = Math.sin(dLat / 2).let { it * it } +
-                Math.cos(Math.toRadians(fromLat)) *
-                Math.cos(Math.toRadians(toLat)) *
-                Math.sin(dLon / 2).let { it * it }
-    val straightM  = 2 * r * Math.asin(Math.sqrt(a))
-    val drivingM   = straightM * 1.4
-    val drivingSec = drivingM / (30_000.0 / 3600.0)
-
-    val distText = if (drivingM >= 1000)
-        "~${"%.1f".format(drivingM / 1000)} km" else "~${drivingM.toInt()} m"
-    val durText  = if (drivingSec >= 3600) {
-        val h = (drivingSec / 3600).toInt()
-        val m = ((drivingSec % 3600) / 60).toInt()
-        "~${h} jam ${m} mnt"
-    } else "~${(drivingSec / 60).toInt()} mnt"
+    val straightM  = RouteRepository.haversineMeters(fromLat, fromLng, toLat, toLng)
+    val drivingM   = straightM * RouteRepository.ROAD_FACTOR
+    val drivingSec = drivingM / RouteRepository.ESTIMATE_SPEED_MPS
 
     onResult(
         listOf(GeoPoint(fromLat, fromLng), GeoPoint(toLat, toLng)),
-        distText, durText,
+        "~" + formatDistance(drivingM), "~" + formatDuration(drivingSec),
         "Server rute tidak tersedia — menampilkan estimasi jarak lurus"
     )
 }
 
+internal fun formatDistance(meters: Double): String =
+    if (meters >= 1000) "${"%.1f".format(meters / 1000)} km" else "${meters.toInt()} m"
+
+internal fun formatDuration(seconds: Double): String =
+    if (seconds >= 3600) {
+        val h = (seconds / 3600).toInt()
+        val m = ((seconds % 3600) / 60).toInt()
+        "${h} jam ${m} mnt"
+    } else "${(seconds / 60).toInt()} mnt"
+
 // ─────────────────────────────────────────────────────────────────
 // Update map overlays: courier marker, destination marker, polyline
 // ─────────────────────────────────────────────────────────────────
@@ -511,7 +387,7 @@ private fun updateMapRoute(
 // lastLocation on emulator returns null if GPS has never been used,
 // causing "0.0,0.0" or the emulator's default San Francisco coords.
 // ─────────────────────────────────────────────────────────────────
-private fun getLastLocation(context: Context, onResult: (Double, Double) -> Unit) {
+internal fun getLastLocation(context: Context, onResult: (Double, Double) -> Unit) {
     try {
         val client = com.google.android.gms.location.LocationServices
             .getFusedLocationProviderClient(context)
@@ -0,0 +1,255 @@
+package com.kelasxi.myapplication.ui.courier
+
+import android.Manifest
+import android.content.Context
+import android.content.pm.PackageManager
+import androidx.compose.foundation.background
+import androidx.compose.foundation.layout.*
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.itemsIndexed
+import androidx.compose.foundation.shape.CircleShape
+import androidx.compose.foundation.shape.RoundedCornerShape
+import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.automirrored.filled.ArrowBack
+import androidx.compose.material.icons.filled.*
+import androidx.compose.material3.*
+import androidx.compose.runtime.*
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.text.style.TextOverflow
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import androidx.compose.ui.viewinterop.AndroidView
+import androidx.core.content.ContextCompat
+import androidx.navigation.NavController
+import com.kelasxi.myapplication.ui.theme.*
+import com.kelasxi.myapplication.viewmodel.CourierTour
+import com.kelasxi.myapplication.viewmodel.CourierViewModel
+import com.kelasxi.myapplication.viewmodel.TourStop
+import org.osmdroid.config.Configuration
+import org.osmdroid.tileprovider.tilesource.TileSourceFactory
+import org.osmdroid.util.BoundingBox
+import org.osmdroid.util.GeoPoint
+import org.osmdroid.views.MapView
+import org.osmdroid.views.overlay.Marker
+import org.osmdroid.views.overlay.Polyline
+
+// ─────────────────────────────────────────────────────────────────
+// CourierTourScreen
+// Every active pickup + delivery in one planned driving order,
+// drawn as a single polyline from the courier's position.
+// ─────────────────────────────────────────────────────────────────
+
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun CourierTourScreen(
+    viewModel: CourierViewModel,
+    navController: NavController
+) {
+    val context = LocalContext.current
+    val uiState by viewModel.uiState.collectAsState()
+    val tour = uiState.tour
+
+    var courierLat by remember { mutableDoubleStateOf(0.0) }
+    var courierLng by remember { mutableDoubleStateOf(0.0) }
+    var mapViewRef by remember { mutableStateOf<MapView?>(null) }
+
+    fun replan() {
+        getLastLocation(context) { lat, lng ->
+            courierLat = lat
+            courierLng = lng
+            viewModel.planTour(lat, lng)
+        }
+    }
+
+    LaunchedEffect(Unit) {
+        Configuration.getInstance().load(context, context.getSharedPreferences("osmdroid", Context.MODE_PRIVATE))
+        Configuration.getInstance().userAgentValue = context.packageName
+
+        val hasPerm = ContextCompat.checkSelfPermission(
+            context, Manifest.permission.ACCESS_FINE_LOCATION
+        ) == PackageManager.PERMISSION_GRANTED
+        if (hasPerm) replan()
+    }
+
+    LaunchedEffect(tour, mapViewRef) {
+        val mv = mapViewRef ?: return@LaunchedEffect
+        if (tour != null) updateMapTour(mv, courierLat, courierLng, tour)
+    }
+
+    Scaffold(
+        topBar = {
+            TopAppBar(
+                title = { Text("Rute Semua Tugas", fontWeight = FontWeight.SemiBold) },
+                navigationIcon = {
+                    IconButton(onClick = { navController.popBackStack() }) {
+                        Icon(Icons.AutoMirrored.Filled.ArrowBack, "Kembali")
+                    }
+                },
+                colors = TopAppBarDefaults.topAppBarColors(
+                    containerColor = GreenDeep,
+                    titleContentColor = Color.White,
+                    navigationIconContentColor = Color.White
+                )
+            )
+        }
+    ) { padding ->
+        Column(
+            modifier = Modifier
+                .fillMaxSize()
+                .padding(padding)
+        ) {
+            AndroidView(
+                factory = { ctx ->
+                    MapView(ctx).also { mv ->
+                        mv.setTileSource(TileSourceFactory.MAPNIK)
+                        mv.setMultiTouchControls(true)
+                        mv.controller.setZoom(13.0)
+                        tour?.stops?.firstOrNull()?.let { mv.controller.setCenter(GeoPoint(it.lat, it.lng)) }
+                        mapViewRef = mv
+                    }
+                },
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .weight(1f)
+            )
+
+            Card(
+                modifier = Modifier.fillMaxWidth(),
+                shape = RoundedCornerShape(topStart = 20.dp, topEnd = 20.dp),
+                colors = CardDefaults.cardColors(containerColor = Color.White),
+                elevation = CardDefaults.cardElevation(12.dp)
+            ) {
+                Column(modifier = Modifier.padding(20.dp)) {
+                    when {
+                        uiState.isPlanningTour -> {
+                            Row(
+                                verticalAlignment = Alignment.CenterVertically,
+                                horizontalArrangement = Arrangement.Center,
+                                modifier = Modifier.fillMaxWidth()
+                            ) {
+                                CircularProgressIndicator(
+                                    modifier = Modifier.size(20.dp),
+                                    strokeWidth = 2.dp,
+                                    color = GreenDeep
+                                )
+                                Spacer(modifier = Modifier.width(10.dp))
+                                Text("Menyusun urutan rute…", color = TextSecondary, fontSize = 13.sp)
+                            }
+                        }
+                        tour != null -> {
+                            Row(
+                                modifier = Modifier.fillMaxWidth(),
+                                horizontalArrangement = Arrangement.SpaceEvenly
+                            ) {
+                                val prefix = if (tour.estimated) "~" else ""
+                                RouteStatChip(Icons.Default.Place, "Tujuan", "${tour.stops.size}")
+                                RouteStatChip(Icons.Default.Straighten, "Jarak", prefix + formatDistance(tour.distanceM))
+                                RouteStatChip(Icons.Default.Schedule, "Estimasi", prefix + formatDuration(tour.durationS))
+                            }
+                            if (tour.estimated) {
+                                Spacer(modifier = Modifier.height(8.dp))
+                                Text(
+                                    "⚠️ Server rute tidak tersedia — urutan & jarak berdasarkan estimasi garis lurus",
+                                    color = StatusCancelled,
+                                    fontSize = 12.sp
+                                )
+                            }
+                            Spacer(modifier = Modifier.height(12.dp))
+                            LazyColumn(
+                                modifier = Modifier.heightIn(max = 220.dp),
+                                verticalArrangement = Arrangement.spacedBy(8.dp)
+                            ) {
+                                itemsIndexed(tour.stops, key = { _, s -> "${s.kind}_${s.id}" }) { index, stop ->
+                                    TourStopRow(index + 1, stop)
+                                }
+                            }
+                        }
+                    }
+
+                    if (!uiState.isPlanningTour) {
+                        Spacer(modifier = Modifier.height(12.dp))
+                        Button(
+                            onClick = { replan() },
+                            colors = ButtonDefaults.buttonColors(containerColor = GreenDeep),
+                            shape = RoundedCornerShape(10.dp),
+                            modifier = Modifier.fillMaxWidth().height(46.dp)
+                        ) {
+                            Icon(Icons.Default.Refresh, contentDescription = null, modifier = Modifier.size(18.dp))
+                            Spacer(modifier = Modifier.width(8.dp))
+                            Text("Susun Ulang Rute", fontWeight = FontWeight.SemiBold)
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun TourStopRow(number: Int, stop: TourStop) {
+    Row(verticalAlignment = Alignment.CenterVertically) {
+        Box(
+            modifier = Modifier
+                .size(24.dp)
+                .background(GreenDeep, CircleShape),
+            contentAlignment = Alignment.Center
+        ) {
+            Text("$number", color = Color.White, fontSize = 12.sp, fontWeight = FontWeight.Bold)
+        }
+        Spacer(modifier = Modifier.width(10.dp))
+        Column {
+            Text(
+                text = if (stop.kind == TourStop.Kind.PICKUP) "Pickup #${stop.id}" else "Antar Pesanan #${stop.id}",
+                fontSize = 12.sp,
+                color = TextHint
+            )
+            Text(
+                text = stop.address,
+                fontSize = 13.sp,
+                color = TextPrimary,
+                maxLines = 1,
+                overflow = TextOverflow.Ellipsis
+            )
+        }
+    }
+}
+
+// ─────────────────────────────────────────────────────────────────
+// Map overlays: one polyline for the whole tour + numbered stops
+// ─────────────────────────────────────────────────────────────────
+private fun updateMapTour(mv: MapView, courierLat: Double, courierLng: Double, tour: CourierTour) {
+    mv.overlays.clear()
+
+    if (tour.points.isNotEmpty()) {
+        mv.overlays.add(Polyline(mv).apply {
+            setPoints(tour.points)
+            outlinePaint.color = android.graphics.Color.parseColor("#2E7D32")
+            outlinePaint.strokeWidth = 10f
+        })
+    }
+
+    if (courierLat != 0.0 || courierLng != 0.0) {
+        mv.overlays.add(Marker(mv).apply {
+            position = GeoPoint(courierLat, courierLng)
+            setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM)
+            title = "Posisi Kurir"
+        })
+    }
+
+    tour.stops.forEachIndexed { i, stop ->
+        mv.overlays.add(Marker(mv).apply {
+            position = GeoPoint(stop.lat, stop.lng)
+            setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM)
+            title = "${i + 1}. ${stop.address}"
+        })
+    }
+
+    if (tour.points.size >= 2) {
+        mv.zoomToBoundingBox(BoundingBox.fromGeoPoints(tour.points).increaseByScale(1.3f), true, 80)
+    }
+    mv.invalidate()
+}
@@ -1,5 +1,6 @@
 package com.kelasxi.myapplication.ui.home
 
+import androidx.activity.compose.ReportDrawnWhen
 import androidx.compose.animation.*
 import androidx.compose.animation.core.*
 import androidx.compose.foundation.*
@@ -15,6 +16,7 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.*
 import androidx.compose.ui.graphics.*
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.tooling.preview.Preview
@@ -25,6 +27,9 @@ import androidx.lifecycle.viewmodel.compose.viewModel
 import com.kelasxi.myapplication.model.*
 import com.kelasxi.myapplication.ui.common.AddressPickerField
 import com.kelasxi.myapplication.ui.theme.*
+import com.kelasxi.myapplication.util.RecompositionCounter
+import com.kelasxi.myapplication.util.TrackScreen
+import com.kelasxi.myapplication.util.TrackScrolling
 import com.kelasxi.myapplication.viewmodel.AddressViewModel
 import com.kelasxi.myapplication.viewmodel.HomeViewModel
 
@@ -46,10 +51,19 @@ fun HomeScreen(
     val pickupsError        by viewModel.pickupsError.collectAsStateWithLifecycle()
     val isSubmitting        by viewModel.isSubmitting.collectAsStateWithLifecycle()
     val submitError         by viewModel.submitError.collectAsStateWithLifecycle()
+    val submitNotice        by viewModel.submitNotice.collectAsStateWithLifecycle()
     val estimatedWeightKg   by viewModel.estimatedWeightKg.collectAsStateWithLifecycle()
     val userName            by viewModel.userName.collectAsStateWithLifecycle()
     val latitude            by viewModel.latitude.collectAsStateWithLifecycle()
     val longitude           by viewModel.longitude.collectAsStateWithLifecycle()
+    val pickupsLoaded       by viewModel.pickupsLoaded.collectAsStateWithLifecycle()
+
+    // Time to full display: the pickup list (or its error) is on screen
+    ReportDrawnWhen { pickupsLoaded }
+    TrackScreen("Home")
+    RecompositionCounter("HomeScreen")
+    val listState = rememberLazyListState()
+    TrackScrolling(listState, "home")
 
     // Show submit-error snackbar
     val snackbarHostState = remember { SnackbarHostState() }
@@ -59,6 +73,12 @@ fun HomeScreen(
             viewModel.dismissError()
         }
     }
+    LaunchedEffect(submitNotice) {
+        if (submitNotice != null) {
+            snackbarHostState.showSnackbar(submitNotice!!)
+            viewModel.dismissNotice()
+        }
+    }
 
     Scaffold(
         snackbarHost = { SnackbarHost(snackbarHostState) },
@@ -66,7 +86,8 @@ fun HomeScreen(
     ) { innerPadding ->
     Box(modifier = Modifier.fillMaxSize().padding(innerPadding).background(BackgroundGreen)) {
         LazyColumn(
-            modifier = Modifier.fillMaxSize(),
+            state = listState,
+            modifier = Modifier.fillMaxSize().testTag("home_list"),
             contentPadding = PaddingValues(bottom = 24.dp)
         ) {
             // Gradient Header
@@ -347,6 +368,7 @@ fun PickupRequestCard(
     longitude: Double? = null,
     onPickLocationClick: () -> Unit = {}
 ) {
+    RecompositionCounter("PickupRequestCard")
     // Weight picker local state
     val weightPresets = listOf(1.0, 2.0, 5.0, 10.0, 20.0)
     var showCustomWeight by remember { mutableStateOf(false) }
@@ -811,6 +833,7 @@ fun SimpleTimePickerDialog(
 
 @Composable
 fun RecentPickupCard(pickup: PickupRequest, onClick: () -> Unit = {}) {
+    RecompositionCounter("RecentPickupCard")
     Card(
         modifier = Modifier
             .fillMaxWidth()
@@ -25,19 +25,14 @@ import androidx.compose.ui.unit.sp
 import androidx.compose.ui.viewinterop.AndroidView
 import androidx.core.content.ContextCompat
 import androidx.navigation.NavController
+import com.kelasxi.myapplication.data.network.GeocodeRepository
 import com.kelasxi.myapplication.ui.theme.*
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.delay
-import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
 import org.osmdroid.config.Configuration
 import org.osmdroid.tileprovider.tilesource.TileSourceFactory
 import org.osmdroid.util.GeoPoint
 import org.osmdroid.views.MapView
 import org.osmdroid.views.overlay.Marker
-import org.json.JSONObject
-import java.net.HttpURLConnection
-import java.net.URL
 
 // ─────────────────────────────────────────────────────────────────
 // MapPickerScreen
@@ -62,7 +57,6 @@ fun MapPickerScreen(
     initialLng: Double = 106.8456
 ) {
     val context = LocalContext.current
-    val coroutineScope = rememberCoroutineScope()
 
     // ── State ──────────────────────────────────────────────────────
     var centerLat by remember { mutableDoubleStateOf(initialLat) }
@@ -83,28 +77,29 @@ fun MapPickerScreen(
         if (grants[Manifest.permission.ACCESS_FINE_LOCATION] == true ||
             grants[Manifest.permission.ACCESS_COARSE_LOCATION] == true
         ) {
+            // the centre change below re-runs the geocode effect
             moveToCurrentLocation(context, mapViewRef) { lat, lng ->
                 centerLat = lat; centerLng = lng
-                coroutineScope.launch { reverseGeocode(lat, lng) { resolvedAddress = it } }
             }
         }
     }
 
-    // ── Initial geocode for the default centre ─────────────────────
-    LaunchedEffect(Unit) {
-        reverseGeocode(centerLat, centerLng) { resolvedAddress = it }
-        // configure osmdroid user-agent once
+    // ── osmdroid config ────────────────────────────────────────────
+    // Synchronously, before the MapView below fetches its first tile:
+    // the OSM tile policy blocks requests without a user agent.
+    remember {
         Configuration.getInstance().load(context, context.getSharedPreferences("osmdroid", Context.MODE_PRIVATE))
         Configuration.getInstance().userAgentValue = context.packageName
     }
 
     // ── Debounce geocode when user stops scrolling ─────────────────
-    // Nominatim rate limit: 1 req/second per IP.
-    // Wait 1200 ms before calling — prevents 429 on emulator (shared IP).
+    // Also resolves the starting centre. Nominatim's 1 req/second limit
+    // is enforced by GeocodeRepository; the debounce only skips
+    // positions the user merely scrolled past.
     LaunchedEffect(centerLat, centerLng) {
         isGeocoding = true
-        delay(1200L)  // debounce — cancels if lat/lng changes again within 1.2s
-        reverseGeocode(centerLat, centerLng) {
+        delay(600L)  // debounce — cancels if lat/lng changes again within 0.6s
+        reverseGeocode(context, centerLat, centerLng) {
             resolvedAddress = it
             isGeocoding = false
         }
@@ -284,98 +279,21 @@ fun MapPickerScreen(
 }
 
 // ─────────────────────────────────────────────────────────────────
-// Nominatim reverse-geocoding (free, no API key required)
-// GET https://nominatim.openstreetmap.org/reverse?lat=&lon=&format=json
-//
-// Nominatim rate limit: 1 request/second per IP.
-// On emulator, all instances share the same public IP → 429 is common.
-// Solution: debounce 1200 ms in LaunchedEffect + retry up to 3× on 429.
+// Reverse-geocoding via GeocodeRepository (Nominatim behind a geohash
+// cache and the app-wide 1 req/s limiter). A newer call from this
+// screen cancels the previous one instead of queuing behind it.
 // ─────────────────────────────────────────────────────────────────
-private suspend fun reverseGeocode(lat: Double, lng: Double, onResult: (String) -> Unit) {
-    val maxRetries = 3
-    var lastError = "Tidak dapat memuat alamat"
-
-    for (attempt in 1..maxRetries) {
-        try {
-            val address = withContext(Dispatchers.IO) {
-                val urlStr = "https://nominatim.openstreetmap.org/reverse" +
-                        "?lat=$lat&lon=$lng&format=json&accept-language=id"
-                val conn = (URL(urlStr).openConnection() as HttpURLConnection).apply {
-                    requestMethod = "GET"
-                    setRequestProperty("User-Agent", "TrashCareApp/1.0 (android)")
-                    setRequestProperty("Accept", "application/json")
-                    connectTimeout = 10000
-                    readTimeout = 10000
-                    instanceFollowRedirects = true
-                }
-
-                val responseCode = conn.responseCode
-
-                // 429 Too Many Requests — Nominatim rate limit hit (common on emulator)
-                if (responseCode == 429) {
-                    conn.disconnect()
-                    return@withContext null  // null = should retry
-                }
-
-                if (responseCode != HttpURLConnection.HTTP_OK) {
-                    conn.disconnect()
-                    return@withContext "Lokasi tidak dikenali"
-                }
-
-                val json = conn.inputStream.bufferedReader().readText()
-                conn.disconnect()
-
-                val obj = JSONObject(json)
-
-                // Nominatim returns {"error":"Unable to geocode"} when nothing found
-                if (obj.has("error")) {
-                    return@withContext "Lokasi tidak dikenali"
-                }
-
-                val displayName = obj.optString("display_name", "")
-                val addr = obj.optJSONObject("address")
-
-                if (addr != null) {
-                    // Build a short, readable Indonesian address
-                    val road = addr.optString("road").takeIf { it.isNotBlank() }
-                    val suburb = addr.optString("neighbourhood").takeIf { it.isNotBlank() }
-                        ?: addr.optString("suburb").takeIf { it.isNotBlank() }
-                        ?: addr.optString("quarter").takeIf { it.isNotBlank() }
-                    val city = addr.optString("city").takeIf { it.isNotBlank() }
-                        ?: addr.optString("town").takeIf { it.isNotBlank() }
-                        ?: addr.optString("municipality").takeIf { it.isNotBlank() }
-                        ?: addr.optString("county").takeIf { it.isNotBlank() }
-                        ?: addr.optString("village").takeIf { it.isNotBlank() }
-                    val state = addr.optString("state").takeIf { it.isNotBlank() }
-
-                    listOfNotNull(road, suburb, city, state)
-                        .joinToString(", ")
-                        .ifBlank { displayName }
-                } else {
-                    displayName
-                }
-            }
-
-            if (address != null) {
-                // Success — got a valid response
-                onResult(address.ifBlank { "Lokasi tidak dikenali" })
-                return
-            }
-
-            // null means 429 — wait before retrying (exponential backoff: 2s, 4s, 8s)
-            if (attempt < maxRetries) {
-                delay(2000L * attempt)
-            } else {
-                lastError = "Lokasi tidak dikenali"
-            }
-
-        } catch (e: Exception) {
-            lastError = "Tidak dapat memuat alamat"
-            if (attempt < maxRetries) delay(2000L * attempt)
+private const val GEOCODE_CALLER = "map_picker"
+
+private suspend fun reverseGeocode(context: Context, lat: Double, lng: Double, onResult: (String) -> Unit) {
+    val address = GeocodeRepository.get(context).reverseLatest(GEOCODE_CALLER, lat, lng)
+    onResult(
+        when {
+            address == null    -> "Tidak dapat memuat alamat"
+            address.isBlank()  -> "Lokasi tidak dikenali"
+            else               -> address
         }
-    }
-
-    onResult(lastError)
+    )
 }
 
 // ─────────────────────────────────────────────────────────────────
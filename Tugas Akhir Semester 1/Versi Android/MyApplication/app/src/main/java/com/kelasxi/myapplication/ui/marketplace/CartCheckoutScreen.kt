@@ -22,17 +22,15 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.Color
-import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.input.KeyboardCapitalization
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
-import coil.compose.AsyncImage
 import com.kelasxi.myapplication.model.CartItem
+import com.kelasxi.myapplication.ui.common.ListingThumbnail
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
-import kotlinx.coroutines.delay
 
 private val GreenPrimary = Color(0xFF2E7D32)
 private val GreenLight   = Color(0xFFE8F5E9)
@@ -56,6 +54,7 @@ fun CartCheckoutScreen(
     val context          = LocalContext.current
     val cartItems        by viewModel.cartItems.collectAsState()
     val cartTotal        by viewModel.cartTotal.collectAsState()
+    val cartCount        by viewModel.cartCount.collectAsState()
     val isCheckingOut    by viewModel.isCheckingOut.collectAsState()
     val checkoutError    by viewModel.checkoutError.collectAsState()
     val polledStatus     by viewModel.cartCheckoutPolledStatus.collectAsState()
@@ -69,13 +68,10 @@ fun CartCheckoutScreen(
     var addressError     by remember { mutableStateOf<String?>(null) }
     var paymentOpened    by remember { mutableStateOf(false) }
 
-    // Auto-poll every 4 seconds when in polling mode
+    // Watch payment status in polling mode (server long-poll, backoff fallback)
     LaunchedEffect(isPollingMode) {
         if (isPollingMode) {
-            while (true) {
-                delay(4_000)
-                viewModel.pollCartCheckoutStatus(cartCheckoutId!!)
-            }
+            viewModel.watchCartCheckoutStatus(cartCheckoutId!!)
         }
     }
 
@@ -252,7 +248,7 @@ fun CartCheckoutScreen(
                             Text("Ringkasan Pembayaran", fontWeight = FontWeight.SemiBold)
                             HorizontalDivider()
                             Row(Modifier.fillMaxWidth(), horizontalArrangement = Arrangement.SpaceBetween) {
-                                Text("Subtotal (${cartItems.sumOf { it.quantity }} item)")
+                                Text("Subtotal ($cartCount item)")
                                 Text("Rp ${"%,d".format(cartTotal)}")
                             }
                             Row(Modifier.fillMaxWidth(), horizontalArrangement = Arrangement.SpaceBetween) {
@@ -339,14 +335,14 @@ private fun CartCheckoutItemRow(ci: CartItem) {
             verticalAlignment = Alignment.CenterVertically,
             horizontalArrangement = Arrangement.spacedBy(12.dp)
         ) {
-            AsyncImage(
-                model = ci.product.imageUrl,
+            ListingThumbnail(
+                imageUrl = ci.product.imageUrl,
+                thumbnailUrl = ci.product.thumbnailUrl,
                 contentDescription = ci.product.name,
                 modifier = Modifier
                     .size(60.dp)
                     .clip(RoundedCornerShape(8.dp))
-                    .background(Color(0xFFEEEEEE)),
-                contentScale = ContentScale.Crop
+                    .background(Color(0xFFEEEEEE))
             )
             Column(Modifier.weight(1f), verticalArrangement = Arrangement.spacedBy(4.dp)) {
                 Text(
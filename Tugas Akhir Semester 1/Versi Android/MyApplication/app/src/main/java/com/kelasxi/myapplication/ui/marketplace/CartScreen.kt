@@ -16,16 +16,16 @@ import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.Brush
 import androidx.compose.ui.graphics.Color
-import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
-import coil.compose.AsyncImage
+import com.kelasxi.myapplication.data.network.CartRepository
 import com.kelasxi.myapplication.model.CartItem
 import com.kelasxi.myapplication.model.Product
+import com.kelasxi.myapplication.ui.common.ListingThumbnail
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
 import java.text.NumberFormat
@@ -40,6 +40,7 @@ fun CartScreen(
 ) {
     val cartItems by viewModel.cartItems.collectAsStateWithLifecycle()
     val cartTotal by viewModel.cartTotal.collectAsStateWithLifecycle()
+    val cartCount by viewModel.cartCount.collectAsStateWithLifecycle()
 
     var showClearDialog by remember { mutableStateOf(false) }
 
@@ -60,7 +61,7 @@ fun CartScreen(
                                 shape = RoundedCornerShape(12.dp)
                             ) {
                                 Text(
-                                    text = "${cartItems.sumOf { it.quantity }} item",
+                                    text = "$cartCount item",
                                     modifier = Modifier.padding(horizontal = 8.dp, vertical = 2.dp),
                                     color = Color.White,
                                     style = MaterialTheme.typography.labelSmall
@@ -110,6 +111,7 @@ fun CartScreen(
                 items(cartItems, key = { it.product.id }) { item ->
                     CartItemCard(
                         item = item,
+                        canIncrease = item.quantity < CartRepository.maxQuantityOf(item.product),
                         onIncrease = { viewModel.updateCartQuantity(item.product.id, item.quantity + 1) },
                         onDecrease = { viewModel.updateCartQuantity(item.product.id, item.quantity - 1) },
                         onRemove = { viewModel.removeFromCart(item.product.id) }
@@ -150,6 +152,7 @@ fun CartScreen(
 @Composable
 private fun CartItemCard(
     item: CartItem,
+    canIncrease: Boolean,
     onIncrease: () -> Unit,
     onDecrease: () -> Unit,
     onRemove: () -> Unit
@@ -175,10 +178,10 @@ private fun CartItemCard(
                 contentAlignment = Alignment.Center
             ) {
                 if (!item.product.imageUrl.isNullOrBlank()) {
-                    AsyncImage(
-                        model = item.product.imageUrl,
+                    ListingThumbnail(
+                        imageUrl = item.product.imageUrl,
+                        thumbnailUrl = item.product.thumbnailUrl,
                         contentDescription = item.product.name,
-                        contentScale = ContentScale.Crop,
                         modifier = Modifier.fillMaxSize()
                     )
                 } else {
@@ -272,6 +275,7 @@ private fun CartItemCard(
                         )
                         FilledIconButton(
                             onClick = onIncrease,
+                            enabled = canIncrease,
                             modifier = Modifier.size(28.dp),
                             colors = IconButtonDefaults.filledIconButtonColors(
                                 containerColor = GreenDeep,
@@ -17,7 +17,7 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.*
-import androidx.compose.ui.layout.ContentScale
+import androidx.compose.ui.platform.LocalConfiguration
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.style.TextOverflow
@@ -25,8 +25,12 @@ import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.*
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import androidx.lifecycle.viewmodel.compose.viewModel
-import coil.compose.AsyncImage
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import com.kelasxi.myapplication.model.*
+import com.kelasxi.myapplication.ui.common.ListingThumbnail
+import com.kelasxi.myapplication.ui.common.PrefetchListingImages
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
 
@@ -37,12 +41,10 @@ fun MarketplaceScreen(
     onProductClick: (Product) -> Unit = {},
     onCartClick: () -> Unit = {}
 ) {
-    val filteredProducts  by viewModel.filteredProducts.collectAsStateWithLifecycle()
+    val products          = viewModel.pagedProducts.collectAsLazyPagingItems()
     val selectedCategory  by viewModel.selectedCategory.collectAsStateWithLifecycle()
     val searchQuery       by viewModel.searchQuery.collectAsStateWithLifecycle()
     val wishlist          by viewModel.wishlist.collectAsStateWithLifecycle()
-    val isLoading         by viewModel.isLoadingProducts.collectAsStateWithLifecycle()
-    val productsError     by viewModel.productsError.collectAsStateWithLifecycle()
     val cartCount         by viewModel.cartCount.collectAsStateWithLifecycle()
     val cartAddedMessage  by viewModel.cartAddedMessage.collectAsStateWithLifecycle()
 
@@ -68,7 +70,7 @@ fun MarketplaceScreen(
         MarketplaceHeader(
             searchQuery = searchQuery,
             onSearchChange = viewModel::updateSearch,
-            onRefresh = viewModel::loadProducts,
+            onRefresh = products::refresh,
             cartCount = cartCount,
             onCartClick = onCartClick
         )
@@ -79,9 +81,11 @@ fun MarketplaceScreen(
             onCategorySelect = viewModel::selectCategory
         )
 
-        // Content
+        // Content — cached pages render immediately; spinner / error only
+        // while nothing is cached yet
+        val refreshState = products.loadState.refresh
         when {
-            isLoading -> {
+            products.itemCount == 0 && refreshState is LoadState.Loading -> {
                 Box(modifier = Modifier.fillMaxSize(), contentAlignment = Alignment.Center) {
                     Column(horizontalAlignment = Alignment.CenterHorizontally) {
                         CircularProgressIndicator(color = GreenDeep)
@@ -90,30 +94,46 @@ fun MarketplaceScreen(
                     }
                 }
             }
-            productsError != null -> {
+            products.itemCount == 0 && refreshState is LoadState.Error -> {
                 Box(modifier = Modifier.fillMaxSize().padding(24.dp), contentAlignment = Alignment.Center) {
                     Column(horizontalAlignment = Alignment.CenterHorizontally) {
                         Text("⚠️", fontSize = 48.sp)
                         Spacer(modifier = Modifier.height(8.dp))
-                        Text(productsError ?: "", color = TextSecondary, textAlign = TextAlign.Center)
+                        Text(refreshState.error.message ?: "", color = TextSecondary, textAlign = TextAlign.Center)
                         Spacer(modifier = Modifier.height(12.dp))
                         OutlinedButton(
-                            onClick = viewModel::loadProducts,
+                            onClick = products::retry,
                             shape = RoundedCornerShape(20.dp)
                         ) { Text("Coba Lagi", color = GreenDeep) }
                     }
                 }
             }
-            filteredProducts.isEmpty() -> EmptyState()
+            products.itemCount == 0 -> EmptyState()
             else -> {
+                val gridState = rememberLazyGridState()
+                // Cells are half the width and PRODUCT_IMAGE_HEIGHT tall; a little
+                // over is fine, the cache serves a bigger bitmap to a smaller cell
+                val screenWidth = LocalConfiguration.current.screenWidthDp.dp
+                PrefetchListingImages(
+                    state     = gridState,
+                    itemCount = products.itemCount,
+                    cellSize  = DpSize(screenWidth / 2, PRODUCT_IMAGE_HEIGHT)
+                ) { index ->
+                    products.peek(index)?.let { it.imageUrl.ifBlank { null } to it.thumbnailUrl }
+                }
                 LazyVerticalGrid(
                     columns = GridCells.Fixed(2),
+                    state = gridState,
                     contentPadding = PaddingValues(horizontal = 12.dp, vertical = 8.dp),
                     horizontalArrangement = Arrangement.spacedBy(10.dp),
                     verticalArrangement = Arrangement.spacedBy(10.dp),
                     modifier = Modifier.fillMaxSize()
                 ) {
-                    items(filteredProducts) { product ->
+                    items(
+                        count = products.itemCount,
+                        key = products.itemKey { it.id }
+                    ) { index ->
+                        val product = products[index] ?: return@items
                         ProductCard(
                             product = product,
                             isWishlisted = wishlist.contains(product.id),
@@ -122,6 +142,20 @@ fun MarketplaceScreen(
                             onAddToCart = { viewModel.addToCart(product) }
                         )
                     }
+                    if (products.loadState.append is LoadState.Loading) {
+                        item(span = { GridItemSpan(2) }) {
+                            Box(
+                                modifier = Modifier.fillMaxWidth().padding(12.dp),
+                                contentAlignment = Alignment.Center
+                            ) {
+                                CircularProgressIndicator(
+                                    color = GreenDeep,
+                                    strokeWidth = 2.dp,
+                                    modifier = Modifier.size(24.dp)
+                                )
+                            }
+                        }
+                    }
                     item(span = { GridItemSpan(2) }) {
                         Spacer(modifier = Modifier.height(16.dp))
                     }
@@ -286,6 +320,8 @@ fun CategoryChips(
     }
 }
 
+private val PRODUCT_IMAGE_HEIGHT = 140.dp
+
 @Composable
 fun ProductCard(
     product: Product,
@@ -307,14 +343,14 @@ fun ProductCard(
             Box(
                 modifier = Modifier
                     .fillMaxWidth()
-                    .height(140.dp)
+                    .height(PRODUCT_IMAGE_HEIGHT)
                     .clip(RoundedCornerShape(topStart = 16.dp, topEnd = 16.dp))
             ) {
                 if (!product.imageUrl.isNullOrBlank()) {
-                    AsyncImage(
-                        model              = product.imageUrl,
+                    ListingThumbnail(
+                        imageUrl           = product.imageUrl,
+                        thumbnailUrl       = product.thumbnailUrl,
                         contentDescription = product.name,
-                        contentScale       = ContentScale.Crop,
                         modifier           = Modifier.fillMaxSize()
                     )
                 } else {
@@ -23,10 +23,9 @@ import androidx.compose.ui.unit.*
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
-import kotlinx.coroutines.delay
+import kotlinx.coroutines.withTimeoutOrNull
 
-private const val POLL_INTERVAL_MS = 3_000L
-private const val TIMEOUT_MS       = 10 * 60 * 1000L  // 10 minutes
+private const val TIMEOUT_MS = 10 * 60 * 1000L  // 10 minutes
 
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
@@ -42,20 +41,15 @@ fun PaymentScreen(
     val polledStatus by viewModel.polledPaymentStatus.collectAsStateWithLifecycle()
     val paySuccess   by viewModel.paySuccess.collectAsStateWithLifecycle()
 
-    var elapsedMs   by remember { mutableLongStateOf(0L) }
     var isTimedOut  by remember { mutableStateOf(false) }
     var isCheckingManually by remember { mutableStateOf(false) }
 
     val snackbarHostState = remember { SnackbarHostState() }
 
-    // ── Auto-polling every 3 seconds ──────────────────────────────
+    // ── Watch status (server long-poll, backoff fallback) ─────────
     LaunchedEffect(orderId) {
-        while (elapsedMs < TIMEOUT_MS) {
-            delay(POLL_INTERVAL_MS)
-            elapsedMs += POLL_INTERVAL_MS
-            viewModel.pollPaymentStatus(orderId)
-        }
-        isTimedOut = true
+        val settled = withTimeoutOrNull(TIMEOUT_MS) { viewModel.watchPaymentStatus(orderId) }
+        if (settled == null) isTimedOut = true
     }
 
     // ── React to paid status ──────────────────────────────────────
@@ -16,16 +16,15 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.*
-import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.*
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import androidx.lifecycle.viewmodel.compose.viewModel
-import coil.compose.AsyncImage
 import com.kelasxi.myapplication.model.*
 import com.kelasxi.myapplication.ui.common.AddressPickerField
+import com.kelasxi.myapplication.ui.common.ListingPhoto
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.AddressViewModel
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
@@ -42,9 +41,9 @@ fun ProductDetailScreen(
     val product         by viewModel.selectedProduct.collectAsStateWithLifecycle()
     val wishlist        by viewModel.wishlist.collectAsStateWithLifecycle()
     val isSubmitting    by viewModel.isSubmittingOrder.collectAsStateWithLifecycle()
-    val isToggling      by viewModel.isTogglingWishlist.collectAsStateWithLifecycle()
     val orderSuccess    by viewModel.orderSuccess.collectAsStateWithLifecycle()
     val orderError      by viewModel.orderError.collectAsStateWithLifecycle()
+    val orderNotice     by viewModel.orderNotice.collectAsStateWithLifecycle()
     val wishlistError   by viewModel.wishlistError.collectAsStateWithLifecycle()
     val cartAddedMessage by viewModel.cartAddedMessage.collectAsStateWithLifecycle()
 
@@ -85,6 +84,12 @@ fun ProductDetailScreen(
             viewModel.dismissOrderError()
         }
     }
+    LaunchedEffect(orderNotice) {
+        if (orderNotice != null) {
+            snackbarHostState.showSnackbar(orderNotice!!)
+            viewModel.dismissOrderNotice()
+        }
+    }
     LaunchedEffect(wishlistError) {
         if (wishlistError != null) {
             snackbarHostState.showSnackbar(wishlistError!!)
@@ -354,29 +359,20 @@ fun ProductDetailScreen(
                                 .fillMaxWidth()
                                 .height(52.dp),
                             shape = RoundedCornerShape(24.dp),
-                            border = BorderStroke(1.5.dp, if (isWishlisted) StatusCancelled else GreenDeep),
-                            enabled = !isToggling
+                            border = BorderStroke(1.5.dp, if (isWishlisted) StatusCancelled else GreenDeep)
                         ) {
-                            if (isToggling) {
-                                CircularProgressIndicator(
-                                    color = GreenDeep,
-                                    modifier = Modifier.size(20.dp),
-                                    strokeWidth = 2.dp
-                                )
-                            } else {
-                                Icon(
-                                    imageVector = if (isWishlisted) Icons.Filled.Favorite else Icons.Outlined.FavoriteBorder,
-                                    contentDescription = null,
-                                    tint = if (isWishlisted) StatusCancelled else GreenDeep
-                                )
-                                Spacer(modifier = Modifier.width(8.dp))
-                                Text(
-                                    text = if (isWishlisted) "Hapus dari Wishlist" else "Tambah ke Wishlist 🤍",
-                                    color = if (isWishlisted) StatusCancelled else GreenDeep,
-                                    fontWeight = FontWeight.Bold,
-                                    style = MaterialTheme.typography.titleSmall
-                                )
-                            }
+                            Icon(
+                                imageVector = if (isWishlisted) Icons.Filled.Favorite else Icons.Outlined.FavoriteBorder,
+                                contentDescription = null,
+                                tint = if (isWishlisted) StatusCancelled else GreenDeep
+                            )
+                            Spacer(modifier = Modifier.width(8.dp))
+                            Text(
+                                text = if (isWishlisted) "Hapus dari Wishlist" else "Tambah ke Wishlist 🤍",
+                                color = if (isWishlisted) StatusCancelled else GreenDeep,
+                                fontWeight = FontWeight.Bold,
+                                style = MaterialTheme.typography.titleSmall
+                            )
                         }
                     }
                 }
@@ -538,10 +534,10 @@ fun ProductImageCarousel(product: Product) {
                 .height(280.dp)
                 .background(Color.White)
         ) {
-            AsyncImage(
-                model              = product.imageUrl,
+            ListingPhoto(
+                imageUrl           = product.imageUrl,
+                thumbnailUrl       = product.thumbnailUrl,
                 contentDescription = product.name,
-                contentScale       = ContentScale.Crop,
                 modifier           = Modifier.fillMaxSize()
             )
             // Condition badge
@@ -22,6 +22,7 @@ import androidx.compose.runtime.*
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.scale
 import androidx.compose.ui.graphics.vector.ImageVector
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.res.stringResource
 import androidx.lifecycle.viewmodel.compose.viewModel
 import androidx.navigation.NavDestination.Companion.hierarchy
@@ -51,9 +52,11 @@ import com.kelasxi.myapplication.ui.profile.ProfileScreen
 import com.kelasxi.myapplication.ui.profile.WishlistScreen
 import com.kelasxi.myapplication.ui.courier.CourierHomeScreen
 import com.kelasxi.myapplication.ui.courier.CourierRouteScreen
+import com.kelasxi.myapplication.ui.courier.CourierTourScreen
 import com.kelasxi.myapplication.ui.map.MapPickerScreen
 import com.kelasxi.myapplication.ui.map.MapPickerResult
 import androidx.navigation.navDeepLink
+import kotlinx.coroutines.flow.first
 import android.net.Uri
 import com.kelasxi.myapplication.viewmodel.AddressViewModel
 import com.kelasxi.myapplication.viewmodel.HomeViewModel
@@ -104,17 +107,19 @@ fun TrashCareNavGraph() {
                 popUpTo(Screen.Login.route) { inclusive = true }
                 launchSingleTop = true
             }
-            // Token is now stored — load courier data immediately
-            courierViewModel.refresh()
+            // Token is now stored — open the dispatch stream (it loads every list)
+            courierViewModel.start()
         }
     }
 
-    // Reload data for Home & Marketplace as soon as user login is confirmed
-    // This handles the case where Google Sign-In completes after ViewModels are already created
+    // Load data for Home & Marketplace as soon as user login is confirmed — the
+    // ViewModels fetch nothing on their own, so a cold start sends each request once.
+    // Marketplace waits for Home's first load: it is a tab away, Home is on screen.
     LaunchedEffect(authUiState.isLoggedIn) {
         if (authUiState.isLoggedIn) {
             homeViewModel.loadPickups()
-            marketplaceViewModel.loadProducts()
+            homeViewModel.pickupsLoaded.first { it }
+            marketplaceViewModel.loadAfterSignIn()
         }
     }
 
@@ -156,6 +161,7 @@ fun TrashCareNavGraph() {
                                 )
                             },
                             selected = isSelected,
+                            modifier = Modifier.testTag("nav_${item.route}"),
                             onClick = {
                                 navController.navigate(item.route) {
                                     popUpTo(navController.graph.findStartDestination().id) {
@@ -518,7 +524,14 @@ fun TrashCareNavGraph() {
                     },
                     onNavigateRoute = { lat, lng, address ->
                         navController.navigate(Screen.CourierRoute.createRoute(lat, lng, address))
-                    }
+                    },
+                    onPlanTour = { navController.navigate(Screen.CourierTour.route) }
+                )
+            }
+            composable(Screen.CourierTour.route) {
+                CourierTourScreen(
+                    viewModel = courierViewModel,
+                    navController = navController
                 )
             }
             composable(Screen.MapPicker.route) {
@@ -25,6 +25,7 @@ sealed class Screen(val route: String) {
     }
     object CourierHome : Screen("courier_home")
     object MapPicker : Screen("map_picker")
+    object CourierTour : Screen("courier_tour")
     object CourierRoute : Screen("courier_route/{lat}/{lng}/{address}") {
         fun createRoute(lat: Double, lng: Double, address: String): String {
             val encoded = java.net.URLEncoder.encode(address, "UTF-8")
@@ -14,17 +14,20 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.*
-import androidx.compose.ui.layout.ContentScale
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.*
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import androidx.lifecycle.viewmodel.compose.viewModel
-import coil.compose.AsyncImage
 import com.kelasxi.myapplication.model.*
 import com.kelasxi.myapplication.model.CartCheckoutGroup
+import com.kelasxi.myapplication.ui.common.ListingThumbnail
 import com.kelasxi.myapplication.ui.theme.*
+import com.kelasxi.myapplication.util.RecompositionCounter
+import com.kelasxi.myapplication.util.TrackScreen
+import com.kelasxi.myapplication.util.TrackScrolling
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
 
 @OptIn(ExperimentalMaterial3Api::class)
@@ -52,6 +55,9 @@ fun MyOrdersScreen(
     @Suppress("UNUSED_VARIABLE")
     val isLoadingCartCheckouts by viewModel.isLoadingCartCheckouts.collectAsStateWithLifecycle()
 
+    TrackScreen("MyOrders")
+    RecompositionCounter("MyOrdersScreen")
+
     val snackbarHostState = remember { SnackbarHostState() }
 
     // 0 = Pembelian (My Orders), 1 = Penjualan (Sales)
@@ -278,7 +284,11 @@ private fun PembelianTab(
         if (filtered.isEmpty() && cartCheckoutGroups.isEmpty()) {
             OrderEmptyState()
         } else {
+            val listState = rememberLazyListState()
+            TrackScrolling(listState, "orders")
             LazyColumn(
+                state               = listState,
+                modifier            = Modifier.testTag("orders_list"),
                 contentPadding      = PaddingValues(horizontal = 16.dp, vertical = 8.dp),
                 verticalArrangement = Arrangement.spacedBy(10.dp)
             ) {
@@ -349,7 +359,11 @@ private fun PenjualanTab(
         return
     }
 
+    val listState = rememberLazyListState()
+    TrackScrolling(listState, "sales")
     LazyColumn(
+        state               = listState,
+        modifier            = Modifier.testTag("sales_list"),
         contentPadding      = PaddingValues(horizontal = 16.dp, vertical = 12.dp),
         verticalArrangement = Arrangement.spacedBy(12.dp)
     ) {
@@ -483,6 +497,7 @@ private fun SalesDivider() {
 // ─────────────────────────────────────────────────────────────────
 @Composable
 private fun SalesTransactionCard(trx: SalesTransaction) {
+    RecompositionCounter("SalesTransactionCard")
     val isPaid = trx.mayarStatus == "paid" || trx.status.uppercase() == "SUCCESS"
     val statusColor  = if (isPaid) StatusDone else StatusPending
     val statusLabel  = if (isPaid) "Lunas ✅" else "Pending ⏳"
@@ -686,10 +701,10 @@ private fun OrderDetailBottomSheet(
                     contentAlignment = Alignment.Center
                 ) {
                     if (!order.product.imageUrl.isNullOrBlank()) {
-                        AsyncImage(
-                            model              = order.product.imageUrl,
+                        ListingThumbnail(
+                            imageUrl           = order.product.imageUrl,
+                            thumbnailUrl       = order.product.thumbnailUrl,
                             contentDescription = order.product.name,
-                            contentScale       = ContentScale.Crop,
                             modifier           = Modifier.fillMaxSize()
                         )
                     } else {
@@ -935,6 +950,7 @@ private fun CartGroupCard(
     onPay: () -> Unit,
     onCancel: () -> Unit
 ) {
+    RecompositionCounter("CartGroupCard")
     val canPay    = group.paymentStatus == "unpaid" && group.orderStatus == OrderStatus.WAITING_PAYMENT
     val canCancel = group.orderStatus !in listOf(OrderStatus.CANCELLED, OrderStatus.DELIVERED)
     var showCancelDialog by remember { mutableStateOf(false) }
@@ -1005,14 +1021,14 @@ private fun CartGroupCard(
                         horizontalAlignment = Alignment.CenterHorizontally,
                         modifier = Modifier.width(64.dp)
                     ) {
-                        AsyncImage(
-                            model = order.product.imageUrl,
+                        ListingThumbnail(
+                            imageUrl = order.product.imageUrl,
+                            thumbnailUrl = order.product.thumbnailUrl,
                             contentDescription = order.product.name,
                             modifier = Modifier
                                 .size(56.dp)
                                 .clip(RoundedCornerShape(8.dp))
-                                .background(Color(0xFFEEEEEE)),
-                            contentScale = ContentScale.Crop
+                                .background(Color(0xFFEEEEEE))
                         )
                         Spacer(Modifier.height(2.dp))
                         Text(
@@ -1211,6 +1227,7 @@ fun OrderCard(
     onOrderClick: () -> Unit = {},
     isPayingThis: Boolean = false
 ) {
+    RecompositionCounter("OrderCard")
     Card(
         modifier = Modifier
             .fillMaxWidth()
@@ -1251,10 +1268,10 @@ fun OrderCard(
                     contentAlignment = Alignment.Center
                 ) {
                     if (!order.product.imageUrl.isNullOrBlank()) {
-                        AsyncImage(
-                            model              = order.product.imageUrl,
+                        ListingThumbnail(
+                            imageUrl           = order.product.imageUrl,
+                            thumbnailUrl       = order.product.thumbnailUrl,
                             contentDescription = order.product.name,
-                            contentScale       = ContentScale.Crop,
                             modifier           = Modifier.fillMaxSize()
                         )
                     } else {
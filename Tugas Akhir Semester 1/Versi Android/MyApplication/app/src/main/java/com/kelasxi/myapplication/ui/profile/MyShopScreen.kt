@@ -22,13 +22,12 @@ import androidx.compose.ui.unit.*
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import androidx.lifecycle.viewmodel.compose.viewModel
 import com.kelasxi.myapplication.model.*
+import com.kelasxi.myapplication.ui.common.ListingThumbnail
 import com.kelasxi.myapplication.ui.theme.*
 import com.kelasxi.myapplication.viewmodel.MarketplaceViewModel
 import java.text.SimpleDateFormat
 import java.util.Locale as JavaLocale
 import java.util.Locale.forLanguageTag
-import coil.compose.AsyncImage
-import androidx.compose.ui.layout.ContentScale
 import java.text.NumberFormat
 
 @OptIn(ExperimentalMaterial3Api::class)
@@ -532,10 +531,10 @@ fun MyShopListingCard(
                     contentAlignment = Alignment.Center
                 ) {
                     if (!product.imageUrl.isNullOrBlank()) {
-                        AsyncImage(
-                            model              = product.imageUrl,
+                        ListingThumbnail(
+                            imageUrl           = product.imageUrl,
+                            thumbnailUrl       = product.thumbnailUrl,
                             contentDescription = product.name,
-                            contentScale       = ContentScale.Crop,
                             modifier           = Modifier.fillMaxSize()
                         )
                     } else {
@@ -14,6 +14,7 @@ import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.*
 import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.res.stringResource
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.tooling.preview.Preview
@@ -79,7 +80,7 @@ fun ProfileScreen(
         ProfileMenuSection(
             title = stringResource(R.string.section_account),
             items = listOf(
-                MenuItemData(stringResource(R.string.menu_my_orders), "📦", Color.Unspecified) { onMyOrders() },
+                MenuItemData(stringResource(R.string.menu_my_orders), "📦", Color.Unspecified, testTag = "menu_my_orders") { onMyOrders() },
                 MenuItemData(stringResource(R.string.menu_my_shop), "🛍️", Color.Unspecified) { onMyShop() },
                 MenuItemData(stringResource(R.string.menu_wishlist), "🧡", Color.Unspecified) { onWishlist() },
                 MenuItemData(stringResource(R.string.menu_addresses), "📍", Color.Unspecified) { onAddresses() }
@@ -481,6 +482,7 @@ data class MenuItemData(
     val title: String,
     val emoji: String,
     val titleColor: Color,
+    val testTag: String? = null,
     val onClick: () -> Unit
 )
 
@@ -504,12 +506,14 @@ fun ProfileMenuSection(title: String, items: List<MenuItemData>) {
             )
             HorizontalDivider(color = DividerColor, modifier = Modifier.padding(horizontal = 16.dp))
             items.forEachIndexed { idx, item ->
-                MenuRow(
-                    emoji = item.emoji,
-                    title = item.title,
-                    titleColor = item.titleColor,
-                    onClick = item.onClick
-                )
+                Box(if (item.testTag != null) Modifier.testTag(item.testTag) else Modifier) {
+                    MenuRow(
+                        emoji = item.emoji,
+                        title = item.title,
+                        titleColor = item.titleColor,
+                        onClick = item.onClick
+                    )
+                }
                 if (idx < items.size - 1) {
                     HorizontalDivider(
                         color = DividerColor,
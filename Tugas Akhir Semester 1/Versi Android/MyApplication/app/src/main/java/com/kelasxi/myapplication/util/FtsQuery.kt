@@ -0,0 +1,26 @@
+package com.kelasxi.myapplication.util
+
+/**
+ * Turns what the user typed into FTS4 MATCH expressions. Everything but
+ * letters and digits is dropped (so quotes, '-', '*' or ':' can never make
+ * the query invalid), and every word becomes a prefix term: "kurs kay"
+ * finds "Kursi Kayu Jati".
+ */
+object FtsQuery {
+
+    private const val MAX_TERMS = 6
+
+    private fun terms(input: String): List<String> =
+        input.lowercase()
+            .split(Regex("[^\\p{L}\\p{N}]+"))
+            .filter { it.isNotEmpty() }
+            .take(MAX_TERMS)
+
+    /** All words must match somewhere (name, description or category); null = nothing to search. */
+    fun matchAll(input: String): String? =
+        terms(input).takeIf { it.isNotEmpty() }?.joinToString(" ") { "$it*" }
+
+    /** Same words restricted to the name column — used to rank name hits first. */
+    fun matchName(input: String): String? =
+        terms(input).takeIf { it.isNotEmpty() }?.joinToString(" ") { "name:$it*" }
+}
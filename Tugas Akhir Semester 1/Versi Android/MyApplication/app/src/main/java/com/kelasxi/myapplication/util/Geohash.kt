@@ -0,0 +1,62 @@
+package com.kelasxi.myapplication.util
+
+/**
+ * Standard base-32 geohash. Nearby points share a prefix, so a hash of fixed
+ * length names a grid cell — used as a cache key for reverse geocoding.
+ *
+ * Cell size by precision (at the equator): 7 ≈ 153 × 153 m, 8 ≈ 38 × 19 m.
+ */
+object Geohash {
+
+    private const val BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz"
+
+    fun encode(lat: Double, lng: Double, precision: Int): String {
+        var latMin = -90.0;  var latMax = 90.0
+        var lngMin = -180.0; var lngMax = 180.0
+        val sb = StringBuilder(precision)
+        var evenBit = true
+        var bit = 0
+        var ch = 0
+
+        while (sb.length < precision) {
+            if (evenBit) {
+                val mid = (lngMin + lngMax) / 2
+                if (lng >= mid) { ch = ch shl 1 or 1; lngMin = mid } else { ch = ch shl 1; lngMax = mid }
+            } else {
+                val mid = (latMin + latMax) / 2
+                if (lat >= mid) { ch = ch shl 1 or 1; latMin = mid } else { ch = ch shl 1; latMax = mid }
+            }
+            evenBit = !evenBit
+            if (++bit == 5) {
+                sb.append(BASE32[ch])
+                bit = 0
+                ch = 0
+            }
+        }
+        return sb.toString()
+    }
+
+    /** Centre of the cell named by [hash], as (lat, lng). */
+    fun center(hash: String): Pair<Double, Double> {
+        var latMin = -90.0;  var latMax = 90.0
+        var lngMin = -180.0; var lngMax = 180.0
+        var evenBit = true
+
+        for (c in hash) {
+            val idx = BASE32.indexOf(c)
+            require(idx >= 0) { "invalid geohash character '$c'" }
+            for (shift in 4 downTo 0) {
+                val set = (idx shr shift) and 1 == 1
+                if (evenBit) {
+                    val mid = (lngMin + lngMax) / 2
+                    if (set) lngMin = mid else lngMax = mid
+                } else {
+                    val mid = (latMin + latMax) / 2
+                    if (set) latMin = mid else latMax = mid
+                }
+                evenBit = !evenBit
+            }
+        }
+        return Pair((latMin + latMax) / 2, (lngMin + lngMax) / 2)
+    }
+}
@@ -0,0 +1,120 @@
+package com.kelasxi.myapplication.util
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.Matrix
+import android.media.ExifInterface
+import android.net.Uri
+import android.os.Build
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import java.io.File
+import java.io.IOException
+
+/**
+ * Turns a picked gallery / camera image into an upload-ready file without
+ * ever holding the full-resolution photo in memory:
+ *
+ *  1. read only the bounds, pick a power-of-two inSampleSize so the decoded
+ *     bitmap is at most ~2× [MAX_EDGE_PX] on its long edge
+ *  2. scale down to [MAX_EDGE_PX] and apply the EXIF rotation/flip
+ *     (the server never sees EXIF, so portrait photos stay portrait)
+ *  3. re-encode (WebP on API 30+, JPEG before) into a temp file in cacheDir,
+ *     lowering quality until it fits [TARGET_BYTES]
+ *
+ * The caller streams the file (okhttp `asRequestBody`) and deletes it after
+ * the upload.
+ */
+object ImageIngest {
+
+    const val MAX_EDGE_PX  = 1600
+    const val TARGET_BYTES = 600L * 1024          // server accepts up to 5 MB
+
+    private const val QUALITY_START = 85
+    private const val QUALITY_MIN   = 55
+    private const val QUALITY_STEP  = 10
+
+    class Prepared(val file: File, val mimeType: String, val fileName: String)
+
+    suspend fun prepareForUpload(context: Context, uri: Uri): Prepared = withContext(Dispatchers.IO) {
+        val resolver = context.contentResolver
+
+        // 1. Bounds only — no pixel memory yet
+        val bounds = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        val boundsStream = resolver.openInputStream(uri)
+            ?: throw IOException("Tidak bisa membaca file gambar.")
+        boundsStream.use { BitmapFactory.decodeStream(it, null, bounds) }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw IOException("File bukan gambar yang valid.")
+        }
+
+        val decoded = resolver.openInputStream(uri)?.use {
+            BitmapFactory.decodeStream(it, null, BitmapFactory.Options().apply {
+                inSampleSize = sampleSizeFor(bounds.outWidth, bounds.outHeight, MAX_EDGE_PX)
+            })
+        } ?: throw IOException("Tidak bisa membaca file gambar.")
+
+        // 2. Final size + EXIF orientation in one transform
+        val orientation = resolver.openInputStream(uri)?.use {
+            runCatching {
+                ExifInterface(it).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL
+                )
+            }.getOrDefault(ExifInterface.ORIENTATION_NORMAL)
+        } ?: ExifInterface.ORIENTATION_NORMAL
+
+        val bitmap = transform(decoded, orientation, MAX_EDGE_PX)
+        if (bitmap !== decoded) decoded.recycle()
+
+        // 3. Re-encode into a temp file at a target size
+        val (format, mime, ext) = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            Triple(Bitmap.CompressFormat.WEBP_LOSSY, "image/webp", "webp")
+        } else {
+            Triple(Bitmap.CompressFormat.JPEG, "image/jpeg", "jpg")
+        }
+        val out = File.createTempFile("upload_", ".$ext", context.cacheDir)
+        try {
+            var quality = QUALITY_START
+            while (true) {
+                out.outputStream().buffered().use { bitmap.compress(format, quality, it) }
+                if (out.length() <= TARGET_BYTES || quality <= QUALITY_MIN) break
+                quality -= QUALITY_STEP
+            }
+        } catch (e: Exception) {
+            out.delete()
+            throw e
+        } finally {
+            bitmap.recycle()
+        }
+        Prepared(out, mime, "listing.$ext")
+    }
+
+    /** Largest power of two that keeps the decoded long edge ≥ [maxEdge]. */
+    internal fun sampleSizeFor(width: Int, height: Int, maxEdge: Int): Int {
+        var sample = 1
+        val longEdge = maxOf(width, height)
+        while (longEdge / (sample * 2) >= maxEdge) sample *= 2
+        return sample
+    }
+
+    private fun transform(src: Bitmap, orientation: Int, maxEdge: Int): Bitmap {
+        val matrix = Matrix()
+        val longEdge = maxOf(src.width, src.height)
+        if (longEdge > maxEdge) {
+            val scale = maxEdge.toFloat() / longEdge
+            matrix.postScale(scale, scale)
+        }
+        when (orientation) {
+            ExifInterface.ORIENTATION_ROTATE_90       -> matrix.postRotate(90f)
+            ExifInterface.ORIENTATION_ROTATE_180      -> matrix.postRotate(180f)
+            ExifInterface.ORIENTATION_ROTATE_270      -> matrix.postRotate(270f)
+            ExifInterface.ORIENTATION_FLIP_HORIZONTAL -> matrix.postScale(-1f, 1f)
+            ExifInterface.ORIENTATION_FLIP_VERTICAL   -> matrix.postScale(1f, -1f)
+            ExifInterface.ORIENTATION_TRANSPOSE       -> { matrix.postRotate(90f); matrix.postScale(-1f, 1f) }
+            ExifInterface.ORIENTATION_TRANSVERSE      -> { matrix.postRotate(270f); matrix.postScale(-1f, 1f) }
+        }
+        if (matrix.isIdentity) return src
+        return Bitmap.createBitmap(src, 0, 0, src.width, src.height, matrix, true)
+    }
+}
@@ -0,0 +1,48 @@
+package com.kelasxi.myapplication.util
+
+/**
+ * Copy-on-write helpers for the immutable lists held in UI state. Each one
+ * touches a single row and returns the receiver itself when nothing changed,
+ * so StateFlow skips the emission and Compose keeps every other item as is.
+ */
+object ListDiff {
+
+    /** The list without the first row whose key is [key]. */
+    inline fun <T, K> List<T>.removeKey(key: K, keyOf: (T) -> K): List<T> {
+        val index = indexOfFirst { keyOf(it) == key }
+        if (index < 0) return this
+        val out = ArrayList<T>(size - 1)
+        for (i in indices) if (i != index) out.add(this[i])
+        return out
+    }
+
+    /** The row with [item]'s key replaced by [item]; unchanged when no row has that key. */
+    inline fun <T, K> List<T>.replaceKey(item: T, keyOf: (T) -> K): List<T> {
+        val index = indexOfFirst { keyOf(it) == keyOf(item) }
+        return if (index < 0) this else replaceAt(index, item)
+    }
+
+    /**
+     * Replaces the row with [item]'s key in place or, if there is none, adds
+     * [item] at the end ([append]) or the top.
+     */
+    inline fun <T, K> List<T>.upsertKey(item: T, append: Boolean, keyOf: (T) -> K): List<T> {
+        val index = indexOfFirst { keyOf(it) == keyOf(item) }
+        return when {
+            index >= 0 -> replaceAt(index, item)
+            append     -> this + item
+            else       -> ArrayList<T>(size + 1).also { it.add(item); it.addAll(this) }
+        }
+    }
+
+    /** Updates the first row whose key is [key] with [transform]. */
+    inline fun <T, K> List<T>.updateKey(key: K, keyOf: (T) -> K, transform: (T) -> T): List<T> {
+        val index = indexOfFirst { keyOf(it) == key }
+        return if (index < 0) this else replaceAt(index, transform(this[index]))
+    }
+
+    fun <T> List<T>.replaceAt(index: Int, item: T): List<T> {
+        if (this[index] == item) return this
+        return ArrayList(this).also { it[index] = item }
+    }
+}
@@ -0,0 +1,121 @@
+package com.kelasxi.myapplication.util
+
+import android.os.Process
+import android.os.SystemClock
+import android.util.Log
+import android.view.Window
+import androidx.compose.foundation.gestures.ScrollableState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.DisposableEffect
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.NonRestartableComposable
+import androidx.compose.runtime.SideEffect
+import androidx.compose.runtime.snapshotFlow
+import androidx.compose.ui.platform.LocalView
+import androidx.metrics.performance.JankStats
+import androidx.metrics.performance.PerformanceMetricsState
+import com.kelasxi.myapplication.BuildConfig
+
+/**
+ * Frame-time and recomposition instrumentation for the heavy screens
+ * (MyOrdersScreen, CourierHomeScreen, HomeScreen).
+ *
+ *  - MainActivity runs JankStats on its window; each janky frame is logged
+ *    with the UI state at that moment — which screen ([TrackScreen]) and
+ *    which list was scrolling ([TrackScrolling]).
+ *  - [RecompositionCounter] counts recompositions per composable in debug
+ *    builds and logs every [LOG_EVERY]th one, so a card that recomposes on
+ *    every list emission stands out.
+ *
+ * MainActivity also logs the startup milestones ([logStartup]): first frame
+ * and fully drawn, measured from process start.
+ *
+ * Everything goes to logcat under [TAG]: `adb logcat -s TrashCarePerf`.
+ * The Macrobenchmark module (:benchmark) measures the same screens.
+ */
+object PerfTracking {
+
+    const val TAG = "TrashCarePerf"
+    private const val LOG_EVERY = 50
+
+    // Main thread only (composition, effects and JankStats callbacks)
+    private val screens = ArrayList<String>()
+    private val recompositions = HashMap<String, Int>()
+
+    fun track(window: Window): JankStats =
+        JankStats.createAndTrack(window) { frame ->
+            if (frame.isJank) {
+                Log.w(
+                    TAG,
+                    "jank ${frame.frameDurationUiNanos / 1_000_000} ms " +
+                        frame.states.joinToString { "${it.key}=${it.value}" }
+                )
+            }
+        }
+
+    /** Logs how long after process start [milestone] was reached. */
+    fun logStartup(milestone: String) {
+        Log.i(TAG, "startup $milestone after ${SystemClock.uptimeMillis() - Process.getStartUptimeMillis()} ms")
+    }
+
+    /** Recompositions counted so far, by name (always empty in release builds). */
+    fun recompositions(): Map<String, Int> = HashMap(recompositions)
+
+    internal fun countRecomposition(name: String) {
+        val count = (recompositions[name] ?: 0) + 1
+        recompositions[name] = count
+        if (count % LOG_EVERY == 0) Log.d(TAG, "$name recomposed $count×")
+    }
+
+    // Screens overlap during navigation transitions: the newest one wins and
+    // the previous name comes back when it is disposed
+    internal fun enterScreen(state: PerformanceMetricsState?, name: String) {
+        screens.add(name)
+        state?.putState(STATE_SCREEN, name)
+    }
+
+    internal fun leaveScreen(state: PerformanceMetricsState?, name: String) {
+        val index = screens.lastIndexOf(name)
+        if (index >= 0) screens.removeAt(index)
+        val top = screens.lastOrNull()
+        if (top == null) state?.removeState(STATE_SCREEN) else state?.putState(STATE_SCREEN, top)
+    }
+
+    internal const val STATE_SCREEN = "screen"
+    internal const val STATE_SCROLL = "scroll"
+}
+
+/** Tags every frame drawn while this is in composition with screen=[name]. */
+@Composable
+fun TrackScreen(name: String) {
+    val view = LocalView.current
+    DisposableEffect(view, name) {
+        val state = PerformanceMetricsState.getHolderForHierarchy(view).state
+        PerfTracking.enterScreen(state, name)
+        onDispose { PerfTracking.leaveScreen(state, name) }
+    }
+}
+
+/** Tags frames with scroll=[name] while [scrollState] is being scrolled or flung. */
+@Composable
+fun TrackScrolling(scrollState: ScrollableState, name: String) {
+    val view = LocalView.current
+    LaunchedEffect(scrollState, view, name) {
+        val state = PerformanceMetricsState.getHolderForHierarchy(view).state
+        snapshotFlow { scrollState.isScrollInProgress }.collect { scrolling ->
+            if (scrolling) state?.putState(PerfTracking.STATE_SCROLL, name)
+            else state?.removeState(PerfTracking.STATE_SCROLL)
+        }
+    }
+}
+
+/**
+ * Counts each (re)composition of the calling composable. Non-restartable so
+ * it runs whenever its caller does instead of being skipped.
+ */
+@Composable
+@NonRestartableComposable
+fun RecompositionCounter(name: String) {
+    if (!BuildConfig.DEBUG) return
+    SideEffect { PerfTracking.countRecomposition(name) }
+}
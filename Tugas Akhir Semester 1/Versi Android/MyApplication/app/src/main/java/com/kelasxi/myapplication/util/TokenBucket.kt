@@ -0,0 +1,45 @@
+package com.kelasxi.myapplication.util
+
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+
+/**
+ * Suspending rate limiter: at most [capacity] calls in a burst, refilled at
+ * one token every [refillMs]. Waiters queue on a fair mutex, and a waiter
+ * that gets cancelled leaves the queue without consuming a token.
+ */
+class TokenBucket(
+    private val capacity: Int,
+    private val refillMs: Long
+) {
+    private val mutex = Mutex()
+    private var tokens = capacity.toDouble()
+    private var lastRefillMs = nowMs()
+    private var pausedUntilMs = 0L
+
+    suspend fun acquire() = mutex.withLock {
+        while (true) {
+            val now = nowMs()
+            if (now < pausedUntilMs) {
+                delay(pausedUntilMs - now)
+                continue
+            }
+            tokens = minOf(capacity.toDouble(), tokens + (now - lastRefillMs).toDouble() / refillMs)
+            lastRefillMs = now
+            if (tokens >= 1.0) {
+                tokens -= 1.0
+                return@withLock
+            }
+            delay(((1.0 - tokens) * refillMs).toLong().coerceAtLeast(1L))
+        }
+    }
+
+    /** The server asked us to back off (429 / Retry-After): hand out nothing for [ms]. */
+    suspend fun pause(ms: Long) = mutex.withLock {
+        pausedUntilMs = maxOf(pausedUntilMs, nowMs() + ms)
+        tokens = 0.0
+    }
+
+    private fun nowMs() = System.nanoTime() / 1_000_000
+}
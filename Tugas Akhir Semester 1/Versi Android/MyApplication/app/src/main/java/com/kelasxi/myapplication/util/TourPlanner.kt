@@ -0,0 +1,101 @@
+package com.kelasxi.myapplication.util
+
+/**
+ * Orders a courier's stops for one shift (open tour: starts at the courier,
+ * ends at the last stop, no return leg).
+ *
+ * Nearest-neighbour gives a starting order, then 2-opt (reverse a segment)
+ * and Or-opt (move a run of 1–3 stops elsewhere) are applied until neither
+ * improves the tour or [budgetMs] runs out. Costs may be asymmetric (OSRM
+ * durations are), so every move is scored on the whole path rather than
+ * with the symmetric 4-edge shortcut — cheap at 8–15 stops.
+ */
+object TourPlanner {
+
+    const val DEFAULT_BUDGET_MS = 150L
+
+    /**
+     * [cost] is an n×n matrix where index 0 is the start; returns the visiting
+     * order of the stops 1 until n. [nanoTime] is the clock the budget is
+     * measured on (replaced in tests).
+     */
+    fun solve(
+        cost: Array<DoubleArray>,
+        budgetMs: Long = DEFAULT_BUDGET_MS,
+        nanoTime: () -> Long = System::nanoTime
+    ): IntArray {
+        val n = cost.size
+        if (n <= 1) return IntArray(0)
+        if (n == 2) return intArrayOf(1)
+
+        val deadline = nanoTime() + budgetMs * 1_000_000
+        var tour = nearestNeighbour(cost)
+        var best = pathCost(cost, tour)
+
+        var improved = true
+        while (improved && nanoTime() < deadline) {
+            improved = false
+
+            // 2-opt: reverse tour[i..j]
+            for (i in 0 until tour.size - 1) {
+                for (j in i + 1 until tour.size) {
+                    val candidate = tour.copyOf().also { it.reverse(i, j + 1) }
+                    val c = pathCost(cost, candidate)
+                    if (c + EPSILON < best) { tour = candidate; best = c; improved = true }
+                }
+                if (nanoTime() >= deadline) break
+            }
+
+            // Or-opt: move a run of 1..3 stops to another position
+            orOpt@ for (len in 1..minOf(3, tour.size - 1)) {
+                for (from in 0..tour.size - len) {
+                    for (to in 0..tour.size - len) {
+                        if (to == from) continue
+                        val candidate = moveRun(tour, from, len, to)
+                        val c = pathCost(cost, candidate)
+                        if (c + EPSILON < best) { tour = candidate; best = c; improved = true }
+                    }
+                    if (nanoTime() >= deadline) break@orOpt
+                }
+            }
+        }
+        return tour
+    }
+
+    /** Total cost of start → tour[0] → … → tour.last. */
+    fun pathCost(cost: Array<DoubleArray>, tour: IntArray): Double {
+        if (tour.isEmpty()) return 0.0
+        var total = cost[0][tour[0]]
+        for (k in 1 until tour.size) total += cost[tour[k - 1]][tour[k]]
+        return total
+    }
+
+    /** The greedy starting order [solve] improves on. */
+    internal fun nearestNeighbour(cost: Array<DoubleArray>): IntArray {
+        val n = cost.size
+        val visited = BooleanArray(n).also { it[0] = true }
+        val tour = IntArray(n - 1)
+        var current = 0
+        for (k in tour.indices) {
+            var next = -1
+            for (candidate in 1 until n) {
+                if (!visited[candidate] && (next == -1 || cost[current][candidate] < cost[current][next])) {
+                    next = candidate
+                }
+            }
+            tour[k] = next
+            visited[next] = true
+            current = next
+        }
+        return tour
+    }
+
+    /** Removes tour[from until from+len] and re-inserts it so it starts at index [to] of the result. */
+    private fun moveRun(tour: IntArray, from: Int, len: Int, to: Int): IntArray {
+        val run = tour.copyOfRange(from, from + len)
+        val rest = tour.copyOfRange(0, from) + tour.copyOfRange(from + len, tour.size)
+        return rest.copyOfRange(0, to) + run + rest.copyOfRange(to, rest.size)
+    }
+
+    private const val EPSILON = 1e-6
+}
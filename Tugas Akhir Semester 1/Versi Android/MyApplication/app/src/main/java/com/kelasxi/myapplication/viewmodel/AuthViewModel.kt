@@ -24,6 +24,8 @@ data class AuthUiState(
     val isLoading: Boolean = false,
     val isLoggedIn: Boolean = false,
     val isCourierLoggedIn: Boolean = false,
+    /** The persisted session has been read; until then the flags above are not final. */
+    val isSessionRestored: Boolean = false,
     val user: UserDto? = null,
     val courier: CourierProfileDto? = null,
     val errorMessage: String? = null,
@@ -50,19 +52,22 @@ class AuthViewModel(application: Application) : AndroidViewModel(application) {
                     if (role == "courier") {
                         _uiState.value = _uiState.value.copy(
                             isLoggedIn = false,
-                            isCourierLoggedIn = true
+                            isCourierLoggedIn = true,
+                            isSessionRestored = true
                         )
                     } else {
                         _uiState.value = _uiState.value.copy(
                             isLoggedIn = true,
-                            isCourierLoggedIn = false
+                            isCourierLoggedIn = false,
+                            isSessionRestored = true
                         )
                         loadUserProfile()
                     }
                 } else {
                     _uiState.value = _uiState.value.copy(
                         isLoggedIn = false,
-                        isCourierLoggedIn = false
+                        isCourierLoggedIn = false,
+                        isSessionRestored = true
                     )
                 }
             }
@@ -0,0 +1,142 @@
+package com.kelasxi.myapplication.viewmodel
+
+import com.kelasxi.myapplication.data.network.CourierOrderDto
+import com.kelasxi.myapplication.data.network.CourierPickupDto
+import com.kelasxi.myapplication.data.network.CourierProfileDto
+import com.kelasxi.myapplication.data.network.DispatchEvent
+import com.kelasxi.myapplication.util.ListDiff.removeKey
+import com.kelasxi.myapplication.util.ListDiff.replaceKey
+import com.kelasxi.myapplication.util.ListDiff.upsertKey
+
+/**
+ * Everything that changes [CourierUiState]. CourierViewModel never writes
+ * the state directly: API results, dispatch events and user actions become
+ * intents, and [CourierReducer.reduce] is applied inside
+ * MutableStateFlow.update, so concurrent coroutines cannot overwrite each
+ * other's changes.
+ */
+sealed interface CourierIntent {
+    data class Loading(val active: Boolean) : CourierIntent
+    data class Refreshing(val active: Boolean) : CourierIntent
+
+    /** Any subset of the five lists; null = that request failed, keep what is shown. */
+    data class Loaded(
+        val profile: CourierProfileDto? = null,
+        val pickups: List<CourierPickupDto>? = null,
+        val availablePickups: List<CourierPickupDto>? = null,
+        val availableOrders: List<CourierOrderDto>? = null,
+        val myOrders: List<CourierOrderDto>? = null
+    ) : CourierIntent
+
+    data class PickupAccepted(val pickup: CourierPickupDto) : CourierIntent
+    data class PickupIgnored(val pickupId: Long) : CourierIntent
+    data class PickupCancelled(val pickupId: Long) : CourierIntent
+    data class PickupUpdated(val pickup: CourierPickupDto, val message: String) : CourierIntent
+
+    data class OrderAccepted(val order: CourierOrderDto) : CourierIntent
+    data class OrderIgnored(val orderId: Long) : CourierIntent
+    data class OrderUpdated(val order: CourierOrderDto, val message: String) : CourierIntent
+
+    data class AvailabilityChanged(val isAvailable: Boolean) : CourierIntent
+    data class Dispatched(val job: DispatchEvent.Job) : CourierIntent
+
+    data object TourPlanning : CourierIntent
+    data class TourPlanned(val tour: CourierTour?, val errorMessage: String? = null) : CourierIntent
+
+    data class Failed(val message: String) : CourierIntent
+    data class Notified(val message: String) : CourierIntent
+    data object MessagesShown : CourierIntent
+    data object SignedOut : CourierIntent
+}
+
+/**
+ * Pure (state, intent) → state. Must stay free of side effects: update {}
+ * may run it more than once when another coroutine won the race. Lists are
+ * shared with the previous state; only the touched row is copied.
+ */
+object CourierReducer {
+
+    fun reduce(state: CourierUiState, intent: CourierIntent): CourierUiState = when (intent) {
+        is CourierIntent.Loading    -> state.copy(isLoading = intent.active)
+        is CourierIntent.Refreshing -> state.copy(isRefreshing = intent.active)
+
+        is CourierIntent.Loaded -> state.copy(
+            profile          = intent.profile ?: state.profile,
+            isAvailable      = intent.profile?.is_available ?: state.isAvailable,
+            pickups          = intent.pickups ?: state.pickups,
+            availablePickups = intent.availablePickups ?: state.availablePickups,
+            availableOrders  = intent.availableOrders ?: state.availableOrders,
+            myOrders         = intent.myOrders ?: state.myOrders
+        )
+
+        // The stream may already have moved the job; upsert instead of prepending twice
+        is CourierIntent.PickupAccepted -> state.copy(
+            availablePickups = state.availablePickups.removeKey(intent.pickup.id) { it.id },
+            pickups          = state.pickups.upsertKey(intent.pickup, append = false) { it.id },
+            successMessage   = "Pickup diterima! Segera hubungi pelanggan."
+        )
+        is CourierIntent.PickupIgnored -> state.copy(
+            availablePickups = state.availablePickups.removeKey(intent.pickupId) { it.id }
+        )
+        is CourierIntent.PickupCancelled -> state.copy(
+            pickups        = state.pickups.removeKey(intent.pickupId) { it.id },
+            successMessage = "Pickup dibatalkan. Pickup kembali ke antrian pencarian."
+        )
+        is CourierIntent.PickupUpdated -> state.copy(
+            pickups        = state.pickups.replaceKey(intent.pickup) { it.id },
+            successMessage = intent.message
+        )
+
+        is CourierIntent.OrderAccepted -> state.copy(
+            availableOrders = state.availableOrders.removeKey(intent.order.id) { it.id },
+            myOrders        = state.myOrders.upsertKey(intent.order, append = false) { it.id },
+            successMessage  = "Order diterima! Segera kirim ke pembeli."
+        )
+        is CourierIntent.OrderIgnored -> state.copy(
+            availableOrders = state.availableOrders.removeKey(intent.orderId) { it.id }
+        )
+        is CourierIntent.OrderUpdated -> state.copy(
+            myOrders       = state.myOrders.replaceKey(intent.order) { it.id },
+            successMessage = intent.message
+        )
+
+        is CourierIntent.AvailabilityChanged -> state.copy(
+            isAvailable      = intent.isAvailable,
+            availablePickups = if (intent.isAvailable) state.availablePickups else emptyList()
+        )
+        is CourierIntent.Dispatched -> applyJob(state, intent.job)
+
+        CourierIntent.TourPlanning -> state.copy(isPlanningTour = true)
+        is CourierIntent.TourPlanned -> state.copy(
+            isPlanningTour = false,
+            tour           = intent.tour,
+            errorMessage   = intent.errorMessage ?: state.errorMessage
+        )
+
+        is CourierIntent.Failed -> state.copy(errorMessage = intent.message)
+        is CourierIntent.Notified -> state.copy(successMessage = intent.message)
+        CourierIntent.MessagesShown -> state.copy(errorMessage = null, successMessage = null)
+        CourierIntent.SignedOut -> CourierUiState()
+    }
+
+    private fun applyJob(state: CourierUiState, job: DispatchEvent.Job): CourierUiState {
+        val available = job.list == "available"
+        if (available && !state.isAvailable) return state   // offline couriers see no open jobs
+        return when (job.kind) {
+            "pickup" ->
+                if (available) state.copy(availablePickups = state.availablePickups.applyDiff(job.id, job.pickup, append = true) { it.id })
+                else state.copy(pickups = state.pickups.applyDiff(job.id, job.pickup, append = false) { it.id })
+            "order" ->
+                if (available) state.copy(availableOrders = state.availableOrders.applyDiff(job.id, job.order, append = true) { it.id })
+                else state.copy(myOrders = state.myOrders.applyDiff(job.id, job.order, append = false) { it.id })
+            else -> state
+        }
+    }
+
+    /**
+     * [item] == null removes the row; otherwise it replaces the row in place or,
+     * if new, goes to the end (open jobs are oldest-first) or the top (own jobs).
+     */
+    private inline fun <T> List<T>.applyDiff(id: Long, item: T?, append: Boolean, idOf: (T) -> Long): List<T> =
+        if (item == null) removeKey(id, idOf) else upsertKey(item, append, idOf)
+}
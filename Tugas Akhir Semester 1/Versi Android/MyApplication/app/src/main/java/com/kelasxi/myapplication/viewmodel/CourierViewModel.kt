@@ -5,17 +5,31 @@ import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
 import com.kelasxi.myapplication.data.network.AuthRepository
 import com.kelasxi.myapplication.data.network.AuthResult
+import com.kelasxi.myapplication.data.network.AuthSession
 import com.kelasxi.myapplication.data.network.CourierOrderDto
 import com.kelasxi.myapplication.data.network.CourierPickupDto
 import com.kelasxi.myapplication.data.network.CourierProfileDto
-import com.kelasxi.myapplication.data.network.TokenStore
+import com.kelasxi.myapplication.data.network.DispatchEvent
+import com.kelasxi.myapplication.data.network.DispatchFeed
+import com.kelasxi.myapplication.data.network.Outbox
+import com.kelasxi.myapplication.data.network.RetrofitClient
+import com.kelasxi.myapplication.data.network.RouteRepository
+import com.kelasxi.myapplication.service.CourierLocationService
+import com.kelasxi.myapplication.util.TourPlanner
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.async
 import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.receiveAsFlow
+import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import org.osmdroid.util.GeoPoint
 
 data class CourierUiState(
     val isLoading: Boolean = false,
@@ -28,13 +42,42 @@ data class CourierUiState(
     val myOrders: List<CourierOrderDto> = emptyList(),
     // ────────────────────────────────────────────────────────────
     val isAvailable: Boolean = true,
+    // ── multi-stop tour (pickups + deliveries) ───────────────────
+    val tour: CourierTour? = null,
+    val isPlanningTour: Boolean = false,
+    // ────────────────────────────────────────────────────────────
     val errorMessage: String? = null,
     val successMessage: String? = null
 )
 
+/** One active task with coordinates — a pickup to collect or an order to deliver. */
+data class TourStop(
+    val kind: Kind,
+    val id: Long,
+    val address: String,
+    val lat: Double,
+    val lng: Double
+) {
+    enum class Kind { PICKUP, ORDER }
+}
+
+/**
+ * The courier's planned shift: [stops] in driving order and the whole tour
+ * as one polyline. [estimated] = no routing server answered, distances are
+ * straight-line estimates and [points] just connects the stops.
+ */
+data class CourierTour(
+    val stops: List<TourStop>,
+    val points: List<GeoPoint>,
+    val distanceM: Double,
+    val durationS: Double,
+    val estimated: Boolean
+)
+
 class CourierViewModel(application: Application) : AndroidViewModel(application) {
 
     private val repository = AuthRepository(application.applicationContext)
+    private val outbox = Outbox.get(application)
 
     private val _uiState = MutableStateFlow(CourierUiState())
     val uiState: StateFlow<CourierUiState> = _uiState.asStateFlow()
@@ -42,15 +85,73 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     private val _logoutEvent = Channel<Unit>(Channel.BUFFERED)
     val logoutEvent = _logoutEvent.receiveAsFlow()
 
+    private val dispatchFeed = DispatchFeed(
+        RetrofitClient.okHttpClient,
+        RetrofitClient.BASE_URL + "courier/dispatch/stream"
+    )
+    /** Last dispatch sequence number applied; null until the first reset arrived. */
+    private var dispatchSeq: Long? = null
+    private var dispatchJob: Job? = null
+    private var trackingWanted = false
+    private var screenResumed = false
+
     init {
+        // Status changes made offline, confirmed (or refused) later by OutboxWorker
         viewModelScope.launch {
-            val token = TokenStore.getToken(getApplication())
-            if (token != null) {
-                loadProfile()
-                loadPickups()
-                loadAvailablePickups()
-                loadAvailableOrders()
-                loadMyOrders()
+            outbox.replayed.collect { event ->
+                when (val m = event.mutation) {
+                    is Outbox.Mutation.UpdatePickupStatus -> onPickupStatus(m.pickupId, m.status, event.resultAs())
+                    is Outbox.Mutation.UpdateOrderStatus  -> onOrderStatus(m.status, event.resultAs())
+                    else -> Unit
+                }
+            }
+        }
+    }
+
+    /** The only writer of [_uiState]: a CAS loop around [CourierReducer.reduce]. */
+    private fun dispatch(intent: CourierIntent) {
+        _uiState.update { CourierReducer.reduce(it, intent) }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Dispatch stream: a "reset" loads every list once, after that
+    // jobs arrive as diffs instead of five full-list GETs.
+    // ─────────────────────────────────────────────────────────────
+    /**
+     * Opens the dispatch stream for the signed-in courier. Called by NavGraph
+     * once the courier role is known (cold start or login) — never for a
+     * user session, which has no business on the courier endpoints.
+     */
+    fun start() {
+        if (dispatchJob?.isActive == true) return
+        viewModelScope.launch {
+            if (!AuthSession.isSignedIn()) return@launch
+            startDispatch()
+            // Stream not reachable (no network, older backend) → one plain load;
+            // pull-to-refresh keeps working either way.
+            delay(DISPATCH_FALLBACK_MS)
+            if (dispatchSeq == null) {
+                dispatch(CourierIntent.Loading(true))
+                reloadAll()
+                dispatch(CourierIntent.Loading(false))
+            }
+        }
+    }
+
+    private fun startDispatch() {
+        if (dispatchJob?.isActive == true) return
+        dispatchJob = viewModelScope.launch {
+            dispatchFeed.events(dispatchSeq).collect { event ->
+                when (event) {
+                    is DispatchEvent.Reset -> {
+                        // Events after the reset wait in the flow until the lists are loaded
+                        if (_uiState.value.profile == null) dispatch(CourierIntent.Loading(true))
+                        reloadAll()
+                        dispatch(CourierIntent.Loading(false))
+                    }
+                    is DispatchEvent.Job -> dispatch(CourierIntent.Dispatched(event))
+                }
+                dispatchSeq = event.seq
             }
         }
     }
@@ -58,13 +159,11 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     fun loadProfile() {
         viewModelScope.launch {
             when (val result = repository.getCourierMe()) {
-                is AuthResult.Success -> _uiState.value = _uiState.value.copy(
-                    profile = result.data,
-                    isAvailable = result.data.is_available
-                )
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
-                )
+                is AuthResult.Success -> {
+                    dispatch(CourierIntent.Loaded(profile = result.data))
+                    syncTracking(result.data.is_available)
+                }
+                is AuthResult.Error -> dispatch(CourierIntent.Failed(result.message))
                 else -> Unit
             }
         }
@@ -72,27 +171,20 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
 
     fun loadPickups() {
         viewModelScope.launch {
-            _uiState.value = _uiState.value.copy(isLoading = true)
+            dispatch(CourierIntent.Loading(true))
             when (val result = repository.getCourierPickups()) {
-                is AuthResult.Success -> _uiState.value = _uiState.value.copy(
-                    isLoading = false,
-                    pickups = result.data
-                )
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    isLoading = false,
-                    errorMessage = result.message
-                )
+                is AuthResult.Success -> dispatch(CourierIntent.Loaded(pickups = result.data))
+                is AuthResult.Error -> dispatch(CourierIntent.Failed(result.message))
                 else -> Unit
             }
+            dispatch(CourierIntent.Loading(false))
         }
     }
 
     fun loadAvailablePickups() {
         viewModelScope.launch {
             when (val result = repository.getAvailablePickups()) {
-                is AuthResult.Success -> _uiState.value = _uiState.value.copy(
-                    availablePickups = result.data
-                )
+                is AuthResult.Success -> dispatch(CourierIntent.Loaded(availablePickups = result.data))
                 is AuthResult.Error -> Unit // silently ignore
                 else -> Unit
             }
@@ -102,9 +194,7 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     fun loadAvailableOrders() {
         viewModelScope.launch {
             when (val result = repository.getAvailableOrders()) {
-                is AuthResult.Success -> _uiState.value = _uiState.value.copy(
-                    availableOrders = result.data
-                )
+                is AuthResult.Success -> dispatch(CourierIntent.Loaded(availableOrders = result.data))
                 is AuthResult.Error -> Unit
                 else -> Unit
             }
@@ -114,9 +204,7 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     fun loadMyOrders() {
         viewModelScope.launch {
             when (val result = repository.getCourierOrders()) {
-                is AuthResult.Success -> _uiState.value = _uiState.value.copy(
-                    myOrders = result.data
-                )
+                is AuthResult.Success -> dispatch(CourierIntent.Loaded(myOrders = result.data))
                 is AuthResult.Error -> Unit
                 else -> Unit
             }
@@ -126,31 +214,31 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     /** Called by PullToRefreshBox — runs all loads in parallel */
     fun refresh() {
         viewModelScope.launch {
-            _uiState.value = _uiState.value.copy(isRefreshing = true)
+            dispatch(CourierIntent.Refreshing(true))
+            reloadAll()
+            dispatch(CourierIntent.Refreshing(false))
+        }
+    }
+
+    private suspend fun reloadAll() {
+        coroutineScope {
             val profileJob       = async { repository.getCourierMe() }
             val pickupsJob       = async { repository.getCourierPickups() }
             val availableJob     = async { repository.getAvailablePickups() }
             val availOrdersJob   = async { repository.getAvailableOrders() }
             val myOrdersJob      = async { repository.getCourierOrders() }
 
-            val profileResult    = profileJob.await()
-            val pickupsResult    = pickupsJob.await()
-            val availableResult  = availableJob.await()
-            val availOrdersResult = availOrdersJob.await()
-            val myOrdersResult   = myOrdersJob.await()
-
-            var newState = _uiState.value.copy(isRefreshing = false)
-            if (profileResult is AuthResult.Success)
-                newState = newState.copy(profile = profileResult.data, isAvailable = profileResult.data.is_available)
-            if (pickupsResult is AuthResult.Success)
-                newState = newState.copy(pickups = pickupsResult.data)
-            if (availableResult is AuthResult.Success)
-                newState = newState.copy(availablePickups = availableResult.data)
-            if (availOrdersResult is AuthResult.Success)
-                newState = newState.copy(availableOrders = availOrdersResult.data)
-            if (myOrdersResult is AuthResult.Success)
-                newState = newState.copy(myOrders = myOrdersResult.data)
-            _uiState.value = newState
+            val profile = (profileJob.await() as? AuthResult.Success)?.data
+            dispatch(
+                CourierIntent.Loaded(
+                    profile          = profile,
+                    pickups          = (pickupsJob.await() as? AuthResult.Success)?.data,
+                    availablePickups = (availableJob.await() as? AuthResult.Success)?.data,
+                    availableOrders  = (availOrdersJob.await() as? AuthResult.Success)?.data,
+                    myOrders         = (myOrdersJob.await() as? AuthResult.Success)?.data
+                )
+            )
+            if (profile != null) syncTracking(profile.is_available)
         }
     }
 
@@ -159,16 +247,10 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
             when (val result = repository.acceptPickup(pickupId)) {
                 is AuthResult.Success -> {
                     // Remove from available, add to assigned pickups
-                    _uiState.value = _uiState.value.copy(
-                        availablePickups = _uiState.value.availablePickups.filter { it.id != pickupId },
-                        pickups = listOf(result.data) + _uiState.value.pickups,
-                        successMessage = "Pickup diterima! Segera hubungi pelanggan."
-                    )
+                    dispatch(CourierIntent.PickupAccepted(result.data))
                     loadProfile() // refresh total_deliveries
                 }
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
-                )
+                is AuthResult.Error -> dispatch(CourierIntent.Failed(result.message))
                 else -> Unit
             }
         }
@@ -176,47 +258,59 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
 
     fun ignorePickup(pickupId: Long) {
         // Just remove from local list without calling API — courier simply doesn't accept
-        _uiState.value = _uiState.value.copy(
-            availablePickups = _uiState.value.availablePickups.filter { it.id != pickupId }
-        )
+        dispatch(CourierIntent.PickupIgnored(pickupId))
     }
 
     fun updateStatus(pickupId: Long, status: String) {
         viewModelScope.launch {
-            when (val result = repository.updatePickupStatus(pickupId, status)) {
-                is AuthResult.Success -> {
-                    val updated = result.data
+            when (val submission = outbox.submit(Outbox.Mutation.UpdatePickupStatus(pickupId, status))) {
+                is Outbox.Submission.Sent -> onPickupStatus(pickupId, status, submission.result)
+                is Outbox.Submission.Queued -> {
+                    // Shown right away; the server's copy replaces it once the outbox got through
                     if (status == "cancelled") {
-                        // Courier cancelled → pickup goes back to 'searching', remove from our list
-                        _uiState.value = _uiState.value.copy(
-                            pickups = _uiState.value.pickups.filter { it.id != pickupId },
-                            successMessage = "Pickup dibatalkan. Pickup kembali ke antrian pencarian."
-                        )
-                        // Reload available pickups — the cancelled one may re-appear
-                        loadAvailablePickups()
-                        loadProfile()
+                        dispatch(CourierIntent.PickupCancelled(pickupId))
+                        dispatch(CourierIntent.Notified(QUEUED_MESSAGE))
                     } else {
-                        // Replace the updated pickup in the list
-                        val newList = _uiState.value.pickups.map {
-                            if (it.id == updated.id) updated else it
+                        _uiState.value.pickups.firstOrNull { it.id == pickupId }?.let { pickup ->
+                            dispatch(CourierIntent.PickupUpdated(pickup.copy(status = status), QUEUED_MESSAGE))
                         }
-                        _uiState.value = _uiState.value.copy(
-                            pickups = newList,
-                            successMessage = when (status) {
+                    }
+                }
+            }
+        }
+    }
+
+    private fun onPickupStatus(pickupId: Long, status: String, result: AuthResult<CourierPickupDto>) {
+        when (result) {
+            is AuthResult.Success -> {
+                if (status == "cancelled") {
+                    // Courier cancelled → pickup goes back to 'searching', remove from our list
+                    dispatch(CourierIntent.PickupCancelled(pickupId))
+                    // Reload available pickups — the cancelled one may re-appear
+                    loadAvailablePickups()
+                    loadProfile()
+                } else {
+                    // Replace the updated pickup in the list
+                    dispatch(
+                        CourierIntent.PickupUpdated(
+                            pickup  = result.data,
+                            message = when (status) {
                                 "on_the_way" -> "Pengiriman dimulai!"
                                 "done" -> "Pickup selesai! Poin diberikan ke pelanggan."
                                 else -> "Status diperbarui."
                             }
                         )
-                        // If done, refresh profile (total_deliveries may change)
-                        if (status == "done") loadProfile()
-                    }
+                    )
+                    // If done, refresh profile (total_deliveries may change)
+                    if (status == "done") loadProfile()
                 }
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
-                )
-                else -> Unit
             }
+            is AuthResult.Error -> {
+                dispatch(CourierIntent.Failed(result.message))
+                // A refused offline change leaves an optimistic row behind
+                loadPickups()
+            }
+            else -> Unit
         }
     }
 
@@ -225,47 +319,46 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
     fun acceptOrder(orderId: Long) {
         viewModelScope.launch {
             when (val result = repository.acceptOrder(orderId)) {
-                is AuthResult.Success -> {
-                    _uiState.value = _uiState.value.copy(
-                        availableOrders = _uiState.value.availableOrders.filter { it.id != orderId },
-                        myOrders = listOf(result.data) + _uiState.value.myOrders,
-                        successMessage = "Order diterima! Segera kirim ke pembeli."
-                    )
-                }
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
-                )
+                is AuthResult.Success -> dispatch(CourierIntent.OrderAccepted(result.data))
+                is AuthResult.Error -> dispatch(CourierIntent.Failed(result.message))
                 else -> Unit
             }
         }
     }
 
     fun ignoreOrder(orderId: Long) {
-        _uiState.value = _uiState.value.copy(
-            availableOrders = _uiState.value.availableOrders.filter { it.id != orderId }
-        )
+        dispatch(CourierIntent.OrderIgnored(orderId))
     }
 
     fun updateOrderStatus(orderId: Long, status: String) {
         viewModelScope.launch {
-            when (val result = repository.updateOrderStatus(orderId, status)) {
-                is AuthResult.Success -> {
-                    val updated = result.data
-                    val newList = _uiState.value.myOrders.map { if (it.id == updated.id) updated else it }
-                    _uiState.value = _uiState.value.copy(
-                        myOrders = newList,
-                        successMessage = when (status) {
-                            "shipped"   -> "Pengiriman dimulai!"
-                            "completed" -> "Order selesai dikirim!"
-                            else        -> "Status diperbarui."
-                        }
-                    )
-                }
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
+            when (val submission = outbox.submit(Outbox.Mutation.UpdateOrderStatus(orderId, status))) {
+                is Outbox.Submission.Sent -> onOrderStatus(status, submission.result)
+                is Outbox.Submission.Queued ->
+                    _uiState.value.myOrders.firstOrNull { it.id == orderId }?.let { order ->
+                        dispatch(CourierIntent.OrderUpdated(order.copy(status = status), QUEUED_MESSAGE))
+                    }
+            }
+        }
+    }
+
+    private fun onOrderStatus(status: String, result: AuthResult<CourierOrderDto>) {
+        when (result) {
+            is AuthResult.Success -> dispatch(
+                CourierIntent.OrderUpdated(
+                    order   = result.data,
+                    message = when (status) {
+                        "shipped"   -> "Pengiriman dimulai!"
+                        "completed" -> "Order selesai dikirim!"
+                        else        -> "Status diperbarui."
+                    }
                 )
-                else -> Unit
+            )
+            is AuthResult.Error -> {
+                dispatch(CourierIntent.Failed(result.message))
+                loadMyOrders()
             }
+            else -> Unit
         }
     }
 
@@ -275,16 +368,13 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
         viewModelScope.launch {
             when (val result = repository.toggleAvailability(isAvailable)) {
                 is AuthResult.Success -> {
-                    _uiState.value = _uiState.value.copy(
-                        isAvailable = result.data.is_available
-                    )
+                    // Going offline also clears the open pickups
+                    dispatch(CourierIntent.AvailabilityChanged(result.data.is_available))
+                    syncTracking(result.data.is_available, userAction = true)
                     // When going online, load available pickups immediately
                     if (result.data.is_available) loadAvailablePickups()
-                    else _uiState.value = _uiState.value.copy(availablePickups = emptyList())
                 }
-                is AuthResult.Error -> _uiState.value = _uiState.value.copy(
-                    errorMessage = result.message
-                )
+                is AuthResult.Error -> dispatch(CourierIntent.Failed(result.message))
                 else -> Unit
             }
         }
@@ -292,13 +382,95 @@ class CourierViewModel(application: Application) : AndroidViewModel(application)
 
     fun logout() {
         viewModelScope.launch {
+            dispatchJob?.cancel()
+            dispatchSeq = null
+            syncTracking(false)
             repository.logout()
-            _uiState.value = CourierUiState()
+            dispatch(CourierIntent.SignedOut)
             _logoutEvent.send(Unit)
         }
     }
 
+    /**
+     * Location is shared with buyers only while the courier is online. Loads
+     * that finish in the background (dispatch reset) only record that tracking
+     * is wanted; the service is started by a user action or on resume, since
+     * a foreground service can't be started from the background on API 31+.
+     */
+    private fun syncTracking(isAvailable: Boolean, userAction: Boolean = false) {
+        val app = getApplication<Application>()
+        trackingWanted = isAvailable
+        if (!isAvailable) {
+            CourierLocationService.stop(app)
+        } else if (userAction || screenResumed) {
+            // Refused (app went to the background meanwhile) → retried on the next resume
+            CourierLocationService.start(app)
+        }
+    }
+
+    /** CourierHomeScreen resumed: starts tracking that a background load deferred. */
+    fun onScreenResumed() {
+        screenResumed = true
+        if (trackingWanted) syncTracking(true)
+    }
+
+    fun onScreenPaused() {
+        screenResumed = false
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Multi-stop tour: travel matrix (OSRM table, Haversine offline)
+    // → TourPlanner ordering → one route through every stop.
+    // ─────────────────────────────────────────────────────────────
+    fun activeStops(state: CourierUiState = _uiState.value): List<TourStop> =
+        state.pickups
+            .filter { it.status == "pending" || it.status == "on_the_way" }
+            .mapNotNull { p ->
+                if (p.latitude == null || p.longitude == null) null
+                else TourStop(TourStop.Kind.PICKUP, p.id, p.address, p.latitude, p.longitude)
+            } +
+        state.myOrders
+            .filter { it.status == "confirmed" || it.status == "shipped" }
+            .mapNotNull { o ->
+                if (o.latitude == null || o.longitude == null) null
+                else TourStop(TourStop.Kind.ORDER, o.id, o.shipping_address, o.latitude, o.longitude)
+            }
+
+    fun planTour(originLat: Double, originLng: Double) {
+        val stops = activeStops()
+        if (stops.isEmpty()) {
+            dispatch(CourierIntent.TourPlanned(tour = null, errorMessage = "Tidak ada tugas aktif dengan lokasi."))
+            return
+        }
+        viewModelScope.launch {
+            dispatch(CourierIntent.TourPlanning)
+            val routes = RouteRepository.get(getApplication())
+            val origin = GeoPoint(originLat, originLng)
+            val matrix = routes.travelMatrix(listOf(origin) + stops.map { GeoPoint(it.lat, it.lng) })
+
+            val order   = withContext(Dispatchers.Default) { TourPlanner.solve(matrix.durationS) }
+            val ordered = order.map { stops[it - 1] }
+            val waypoints = listOf(origin) + ordered.map { GeoPoint(it.lat, it.lng) }
+
+            val tour = routes.routeThrough(waypoints)?.let { route ->
+                CourierTour(ordered, route.points, route.distanceM, route.durationS, estimated = false)
+            } ?: CourierTour(
+                stops     = ordered,
+                points    = waypoints,
+                distanceM = TourPlanner.pathCost(matrix.distanceM, order),
+                durationS = TourPlanner.pathCost(matrix.durationS, order),
+                estimated = true
+            )
+            dispatch(CourierIntent.TourPlanned(tour))
+        }
+    }
+
     fun clearMessage() {
-        _uiState.value = _uiState.value.copy(errorMessage = null, successMessage = null)
+        dispatch(CourierIntent.MessagesShown)
+    }
+
+    private companion object {
+        const val DISPATCH_FALLBACK_MS = 5_000L
+        const val QUEUED_MESSAGE = "Tidak ada koneksi. Perubahan disimpan dan dikirim otomatis."
     }
 }
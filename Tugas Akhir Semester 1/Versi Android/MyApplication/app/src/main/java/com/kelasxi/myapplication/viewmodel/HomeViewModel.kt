@@ -5,17 +5,25 @@ import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
 import com.kelasxi.myapplication.data.network.AuthRepository
 import com.kelasxi.myapplication.data.network.AuthResult
+import com.kelasxi.myapplication.data.network.Outbox
 import com.kelasxi.myapplication.data.network.PickupRepository
 import com.kelasxi.myapplication.model.*
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.launch
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
 
 class HomeViewModel(application: Application) : AndroidViewModel(application) {
 
     private val repository     = PickupRepository(application.applicationContext)
     private val authRepository = AuthRepository(application.applicationContext)
+    private val outbox         = Outbox.get(application)
+
+    /** Pickups created offline, by outbox key, shown on top until the server has them. */
+    private val queuedPickups = LinkedHashMap<String, PickupRequest>()
 
     // ── User info ─────────────────────────────────────────────────
     private val _userName = MutableStateFlow("")
@@ -31,6 +39,10 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
     private val _pickupsError = MutableStateFlow<String?>(null)
     val pickupsError: StateFlow<String?> = _pickupsError.asStateFlow()
 
+    /** True once the first pickup load finished either way — HomeScreen reports "fully drawn" on it. */
+    private val _pickupsLoaded = MutableStateFlow(false)
+    val pickupsLoaded: StateFlow<Boolean> = _pickupsLoaded.asStateFlow()
+
     // ── Stats (derived from live data + user profile) ─────────────
     private val _statsCards = MutableStateFlow<List<StatCard>>(emptyList())
     val statsCards: StateFlow<List<StatCard>> = _statsCards.asStateFlow()
@@ -65,6 +77,9 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
     private val _submitError = MutableStateFlow<String?>(null)
     val submitError: StateFlow<String?> = _submitError.asStateFlow()
 
+    private val _submitNotice = MutableStateFlow<String?>(null)
+    val submitNotice: StateFlow<String?> = _submitNotice.asStateFlow()
+
     private val _showSuccessDialog = MutableStateFlow(false)
     val showSuccessDialog: StateFlow<Boolean> = _showSuccessDialog.asStateFlow()
 
@@ -76,21 +91,19 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
     fun clearSelectedPickup() { _selectedPickup.value = null }
 
     // ─────────────────────────────────────────────────────────────
+    // Nothing is fetched here: NavGraph calls loadPickups() once a user (not a
+    // courier, not signed out) is restored, so cold start sends each request once
     init {
-        loadPickupsAndStats()
-    }
-
-    // ── Load pickups + user data (called on login and manual refresh) ─
-    fun loadPickups() {
         viewModelScope.launch {
-            launch { loadPickupsInternal() }
-            launch { loadUserData() }
+            outbox.replayed.collect { event ->
+                if (event.mutation is Outbox.Mutation.CreatePickup) onQueuedPickupSent(event.key, event.resultAs())
+            }
         }
     }
 
-    private fun loadPickupsAndStats() {
+    // ── Load pickups + user data (called on login and manual refresh) ─
+    fun loadPickups() {
         viewModelScope.launch {
-            // Fire both in parallel
             launch { loadPickupsInternal() }
             launch { loadUserData() }
         }
@@ -101,13 +114,14 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
         _pickupsError.value = null
         when (val result = repository.getPickups()) {
             is AuthResult.Success -> {
-                _recentPickups.value = result.data
+                _recentPickups.value = queuedPickups.values.reversed() + result.data
                 refreshStats()
             }
             is AuthResult.Error -> _pickupsError.value = result.message
             else -> Unit
         }
         _isLoadingPickups.value = false
+        _pickupsLoaded.value = true
     }
 
     /** Sum estimated_weight_kg of non-cancelled pickups and update the recycled stat card. */
@@ -184,6 +198,8 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
 
     fun dismissError() { _submitError.value = null }
 
+    fun dismissNotice() { _submitNotice.value = null }
+
     // ── Submit pickup ─────────────────────────────────────────────
     fun submitPickup() {
         val addr  = _address.value.trim()
@@ -196,28 +212,70 @@ class HomeViewModel(application: Application) : AndroidViewModel(application) {
             _isSubmitting.value = true
             _submitError.value  = null
 
-            when (val result = repository.createPickup(
+            val mutation = Outbox.Mutation.CreatePickup(
                 address             = addr,
                 trashTypes          = types,
                 notes               = _notes.value.ifBlank { null },
                 estimatedWeightKg   = _estimatedWeightKg.value,
                 latitude            = _latitude.value,
                 longitude           = _longitude.value
-            )) {
-                is AuthResult.Success -> {
-                    // Prepend the new pickup to the list so it appears at the top
-                    _recentPickups.value = listOf(result.data) + _recentPickups.value
+            )
+            when (val submission = outbox.submit(mutation)) {
+                is Outbox.Submission.Sent -> when (val result = submission.result) {
+                    is AuthResult.Success -> {
+                        // Prepend the new pickup to the list so it appears at the top
+                        _recentPickups.value = listOf(result.data) + _recentPickups.value
+                        _showSuccessDialog.value = true
+                        // Refresh stats so total_pickups reflects the increment on the server
+                        loadUserData()
+                    }
+                    is AuthResult.Error -> _submitError.value = result.message
+                    else -> Unit
+                }
+                is Outbox.Submission.Queued -> {
+                    // Offline: show it as waiting; OutboxWorker sends it once there is a network
+                    val placeholder = mutation.toPlaceholder(submission.key)
+                    queuedPickups[submission.key] = placeholder
+                    _recentPickups.value = listOf(placeholder) + _recentPickups.value
+                    _submitNotice.value = "Tidak ada koneksi. Pickup disimpan dan dikirim otomatis."
                     _showSuccessDialog.value = true
-                    // Refresh stats so total_pickups reflects the increment on the server
-                    loadUserData()
                 }
-                is AuthResult.Error -> _submitError.value = result.message
-                else -> Unit
             }
             _isSubmitting.value = false
         }
     }
 
+    /** Swaps a queued pickup's placeholder for the server's row, or drops it if it was refused. */
+    private fun onQueuedPickupSent(key: String, result: AuthResult<PickupRequest>) {
+        if (queuedPickups.remove(key) == null) return
+        when (result) {
+            is AuthResult.Success -> {
+                _recentPickups.value = _recentPickups.value.map { if (it.id == key) result.data else it }
+                loadUserData()
+            }
+            is AuthResult.Error -> {
+                _recentPickups.value = _recentPickups.value.filterNot { it.id == key }
+                _submitError.value = result.message
+            }
+            else -> Unit
+        }
+        refreshStats()
+    }
+
+    private fun Outbox.Mutation.CreatePickup.toPlaceholder(key: String): PickupRequest {
+        val now = Date()
+        return PickupRequest(
+            id                = key,
+            date              = SimpleDateFormat("yyyy-MM-dd", Locale.US).format(now),
+            time              = SimpleDateFormat("HH:mm", Locale.US).format(now),
+            address           = address,
+            trashTypes        = trashTypes,
+            status            = PickupStatus.PENDING,
+            notes             = notes ?: "",
+            estimatedWeightKg = estimatedWeightKg
+        )
+    }
+
     fun dismissSuccessDialog() {
         _showSuccessDialog.value = false
         _selectedTrashTypes.value = emptySet()
@@ -7,7 +7,11 @@ import androidx.lifecycle.viewModelScope
 import com.kelasxi.myapplication.data.network.AuthResult
 import com.kelasxi.myapplication.data.network.CartCheckoutItemRequest
 import com.kelasxi.myapplication.data.network.CartCheckoutResponse
+import com.kelasxi.myapplication.data.network.CartRepository
 import com.kelasxi.myapplication.data.network.MarketplaceRepository
+import com.kelasxi.myapplication.data.network.Outbox
+import com.kelasxi.myapplication.data.network.PaymentStatusWatcher
+import com.kelasxi.myapplication.data.network.WishlistRepository
 import com.kelasxi.myapplication.model.CartCheckoutGroup
 import com.kelasxi.myapplication.model.CartItem
 import com.kelasxi.myapplication.model.Order
@@ -15,25 +19,30 @@ import com.kelasxi.myapplication.model.Product
 import com.kelasxi.myapplication.model.ProductCategory
 import com.kelasxi.myapplication.model.SalesSummary
 import com.kelasxi.myapplication.model.SalesTransaction
+import com.kelasxi.myapplication.util.ListDiff.removeKey
+import com.kelasxi.myapplication.util.ListDiff.replaceAt
+import com.kelasxi.myapplication.util.ListDiff.replaceKey
+import com.kelasxi.myapplication.util.ListDiff.updateKey
+import com.kelasxi.myapplication.util.ListDiff.upsertKey
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.update
 
 class MarketplaceViewModel(application: Application) : AndroidViewModel(application) {
 
     private val repository = MarketplaceRepository(application.applicationContext)
-
-    // ── Product list ──────────────────────────────────────────────
-    private val _allProducts     = MutableStateFlow<List<Product>>(emptyList())
-    private val _filteredProducts = MutableStateFlow<List<Product>>(emptyList())
-    val filteredProducts: StateFlow<List<Product>> = _filteredProducts.asStateFlow()
-
-    private val _isLoadingProducts = MutableStateFlow(false)
-    val isLoadingProducts: StateFlow<Boolean> = _isLoadingProducts.asStateFlow()
-
-    private val _productsError = MutableStateFlow<String?>(null)
-    val productsError: StateFlow<String?> = _productsError.asStateFlow()
+    private val paymentWatcher = PaymentStatusWatcher(repository, viewModelScope)
 
     // ── Filters ───────────────────────────────────────────────────
     private val _selectedCategory = MutableStateFlow(ProductCategory.ALL)
@@ -42,17 +51,33 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     private val _searchQuery = MutableStateFlow("")
     val searchQuery: StateFlow<String> = _searchQuery.asStateFlow()
 
+    // ── Product list (paged, served from the local cache) ────────
+    // Loading / error state comes from LazyPagingItems.loadState.
+    @OptIn(ExperimentalCoroutinesApi::class, FlowPreview::class)
+    val pagedProducts: Flow<PagingData<Product>> =
+        combine(
+            _selectedCategory,
+            _searchQuery.debounce { if (it.isEmpty()) 0L else SEARCH_DEBOUNCE_MS }
+        ) { category, query -> category to query }
+            .distinctUntilChanged()
+            .flatMapLatest { (category, query) ->
+                repository.listingPager(
+                    category = category.name.lowercase().takeIf { it != "all" },
+                    query    = query.trim()
+                )
+            }
+            .cachedIn(viewModelScope)
+
     // ── Selected product (detail screen) ─────────────────────────
     private val _selectedProduct = MutableStateFlow<Product?>(null)
     val selectedProduct: StateFlow<Product?> = _selectedProduct.asStateFlow()
 
-    // ── Wishlist (set of product IDs) ─────────────────────────────
+    // ── Wishlist (set of product IDs, write-behind via WishlistRepository) ──
+    private val wishlistRepository = WishlistRepository.get(application)
+
     private val _wishlist = MutableStateFlow<Set<String>>(emptySet())
     val wishlist: StateFlow<Set<String>> = _wishlist.asStateFlow()
 
-    private val _isTogglingWishlist = MutableStateFlow(false)
-    val isTogglingWishlist: StateFlow<Boolean> = _isTogglingWishlist.asStateFlow()
-
     private val _wishlistError = MutableStateFlow<String?>(null)
     val wishlistError: StateFlow<String?> = _wishlistError.asStateFlow()
 
@@ -82,6 +107,12 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     private val _orderError = MutableStateFlow<String?>(null)
     val orderError: StateFlow<String?> = _orderError.asStateFlow()
 
+    /** Informational snackbar for orders made offline (queued, then sent). */
+    private val _orderNotice = MutableStateFlow<String?>(null)
+    val orderNotice: StateFlow<String?> = _orderNotice.asStateFlow()
+
+    private val outbox = Outbox.get(application)
+
     private val _isPayingOrder = MutableStateFlow(false)
     val isPayingOrder: StateFlow<Boolean> = _isPayingOrder.asStateFlow()
 
@@ -137,7 +168,9 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     private val _updateListingError = MutableStateFlow<String?>(null)
     val updateListingError: StateFlow<String?> = _updateListingError.asStateFlow()
 
-    // ── Cart (local, in-memory) ───────────────────────────────────
+    // ── Cart (persisted + synced through CartRepository) ──────────
+    private val cartRepository = CartRepository.get(application)
+
     private val _cartItems = MutableStateFlow<List<CartItem>>(emptyList())
     val cartItems: StateFlow<List<CartItem>> = _cartItems.asStateFlow()
 
@@ -222,10 +255,24 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     val salesError: StateFlow<String?> = _salesError.asStateFlow()
 
     // ─────────────────────────────────────────────────────────────
-    // Init — load products on ViewModel creation
+    // Init — local state only; network loads wait for loadAfterSignIn()
     // ─────────────────────────────────────────────────────────────
     init {
-        loadProducts()
+        restoreCart()
+        viewModelScope.launch {
+            wishlistRepository.rollbacks.collect { rollback ->
+                applyWishlisted(rollback.states)
+                _wishlistError.value = rollback.message
+                // Un-hearted products are gone from the list; fetch them back
+                if (rollback.states.containsValue(true)) loadWishlist()
+            }
+        }
+        viewModelScope.launch {
+            outbox.replayed.collect { event ->
+                val mutation = event.mutation as? Outbox.Mutation.CreateOrder ?: return@collect
+                onQueuedOrderSent(mutation, event.resultAs())
+            }
+        }
     }
 
     // ───────────────────────────────────────────────────────────────
@@ -248,51 +295,36 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     }
 
     // ───────────────────────────────────────────────────────────────
-    // Load all listings from API
+    // Revalidate the local listing cache against the API.
+    // The grid picks up changed rows through pagedProducts; paging
+    // errors surface there, so a failed background sync stays silent.
     // ───────────────────────────────────────────────────────────────
     fun loadProducts() {
         viewModelScope.launch {
-            _isLoadingProducts.value = true
-            _productsError.value = null
-
-            val category = _selectedCategory.value
-                .name.lowercase().takeIf { it != "all" }
-            val search = _searchQuery.value.ifBlank { null }
-
-            when (val result = repository.getListings(category, search)) {
-                is AuthResult.Success -> {
-                    _allProducts.value      = result.data
-                    _filteredProducts.value = result.data
-                }
-                is AuthResult.Error -> _productsError.value = result.message
-                else -> {}
-            }
-            _isLoadingProducts.value = false
+            repository.syncListings()
         }
     }
 
+    /**
+     * Revalidates listings, wishlist and cart against the server. NavGraph
+     * calls this after a user signs in — on cold start only once Home's first
+     * load is done, so the tab on screen gets the connection first.
+     */
+    fun loadAfterSignIn() {
+        loadProducts()
+        loadWishlist()
+        viewModelScope.launch { cartRepository.sync() }
+    }
+
     // ─────────────────────────────────────────────────────────────
-    // Filter controls
+    // Filter controls — both are applied by the cache query, no API call
     // ─────────────────────────────────────────────────────────────
     fun selectCategory(category: ProductCategory) {
         _selectedCategory.value = category
-        loadProducts()
     }
 
     fun updateSearch(query: String) {
         _searchQuery.value = query
-        applyLocalFilters()
-    }
-
-    /** Fast local filter on already-loaded products (no API call) */
-    private fun applyLocalFilters() {
-        val query    = _searchQuery.value.lowercase()
-        val category = _selectedCategory.value
-        _filteredProducts.value = _allProducts.value.filter { p ->
-            val matchCat = category == ProductCategory.ALL || p.category == category
-            val matchSearch = query.isEmpty() || p.name.lowercase().contains(query)
-            matchCat && matchSearch
-        }
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -308,41 +340,35 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     }
 
     // ─────────────────────────────────────────────────────────────
-    // Wishlist toggle — calls API, updates local Set & product list
+    // Wishlist toggle — optimistic: the heart flips at once, the
+    // server write is batched by WishlistRepository (rolled back via
+    // its rollbacks flow if the server refuses it)
     // ─────────────────────────────────────────────────────────────
     fun toggleWishlist(productId: String) {
-        val listingId = productId.toLongOrNull() ?: return
-
-        viewModelScope.launch {
-            _isTogglingWishlist.value = true
-            _wishlistError.value = null
+        if (productId.toLongOrNull() == null) return
+        _wishlistError.value = null
 
-            when (val result = repository.toggleWishlist(listingId)) {
-                is AuthResult.Success -> {
-                    val isNowWishlisted = result.data
-                    val current = _wishlist.value.toMutableSet()
-                    if (isNowWishlisted) current.add(productId) else current.remove(productId)
-                    _wishlist.value = current
-
-                    // Update isWishlisted flag on selectedProduct
-                    _selectedProduct.value = _selectedProduct.value?.copy(
-                        isWishlisted = isNowWishlisted
-                    )
-
-                    // Update in the filtered product list
-                    _filteredProducts.value = _filteredProducts.value.map { p ->
-                        if (p.id == productId) p.copy(isWishlisted = isNowWishlisted) else p
-                    }
+        var isNowWishlisted = false
+        _wishlist.update { set ->
+            isNowWishlisted = productId !in set
+            if (isNowWishlisted) set + productId else set - productId
+        }
+        applyWishlisted(mapOf(productId to isNowWishlisted))
+        wishlistRepository.set(productId, isNowWishlisted)
+    }
 
-                    // Update wishlist product list
-                    if (!isNowWishlisted) {
-                        _wishlistProducts.value = _wishlistProducts.value.filter { it.id != productId }
-                    }
-                }
-                is AuthResult.Error -> _wishlistError.value = result.message
-                else -> {}
-            }
-            _isTogglingWishlist.value = false
+    /** Puts the given heart states into the set, the open product and the wishlist screen. */
+    private fun applyWishlisted(states: Map<String, Boolean>) {
+        // Cards read the heart from this set, so nothing else is rebuilt
+        _wishlist.update { set ->
+            states.entries.fold(set) { acc, (id, on) -> if (on) acc + id else acc - id }
+        }
+        _selectedProduct.update { p ->
+            val on = p?.let { states[it.id] }
+            if (p != null && on != null) p.copy(isWishlisted = on) else p
+        }
+        for ((id, on) in states) {
+            if (!on) _wishlistProducts.update { list -> list.removeKey(id) { it.id } }
         }
     }
 
@@ -354,9 +380,13 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             _isLoadingWishlist.value = true
             when (val result = repository.getWishlist()) {
                 is AuthResult.Success -> {
-                    _wishlistProducts.value = result.data
+                    // Taps not flushed yet win over the server's answer
+                    val pending = wishlistRepository.pending()
+                    _wishlistProducts.value = result.data.filter { pending[it.id] != false }
                     // Rebuild wishlist Set from server response
-                    _wishlist.value = result.data.map { it.id }.toSet()
+                    _wishlist.value = result.data.mapTo(HashSet()) { it.id }.apply {
+                        pending.forEach { (id, on) -> if (on) add(id) else remove(id) }
+                    }
                 }
                 is AuthResult.Error -> _wishlistError.value = result.message
                 else -> {}
@@ -406,32 +436,47 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             _isSubmittingOrder.value = true
             _orderError.value = null
 
-            when (val result = repository.createOrder(
+            val mutation = Outbox.Mutation.CreateOrder(
                 listingId       = listingId,
                 quantity        = quantity,
                 shippingAddress = shippingAddress,
                 notes           = notes,
                 latitude        = lat,
                 longitude       = lng
-            )) {
-                is AuthResult.Success -> {
-                    _orderSuccess.value = result.data
-                    clearBuyNowLocation()
-                    // Clear ordered product from cart if present
-                    removeFromCart(productId)
-
-                    // Mark product as sold in local list
-                    _filteredProducts.value = _filteredProducts.value.map { p ->
-                        if (p.id == productId) p.copy(isWishlisted = p.isWishlisted) else p
+            )
+            when (val submission = outbox.submit(mutation)) {
+                is Outbox.Submission.Sent -> when (val result = submission.result) {
+                    is AuthResult.Success -> {
+                        _orderSuccess.value = result.data
+                        clearBuyNowLocation()
+                        // Clear ordered product from cart if present
+                        removeFromCart(productId)
                     }
+                    is AuthResult.Error -> _orderError.value = result.message
+                    else -> {}
+                }
+                is Outbox.Submission.Queued -> {
+                    // Payment needs the server's order, so the buyer is told to wait instead of navigating
+                    clearBuyNowLocation()
+                    _orderNotice.value = "Tidak ada koneksi. Pesanan disimpan dan dikirim otomatis."
                 }
-                is AuthResult.Error -> _orderError.value = result.message
-                else -> {}
             }
             _isSubmittingOrder.value = false
         }
     }
 
+    private fun onQueuedOrderSent(mutation: Outbox.Mutation.CreateOrder, result: AuthResult<Order>) {
+        when (result) {
+            is AuthResult.Success -> {
+                _orders.update { it.upsertKey(result.data, append = false) { o -> o.id } }
+                removeFromCart(mutation.listingId.toString())
+                _orderNotice.value = "Pesanan terkirim. Selesaikan pembayaran di Pesanan Saya."
+            }
+            is AuthResult.Error -> _orderError.value = result.message
+            else -> {}
+        }
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Pay order — calls Mayar, returns payment link for Chrome Tab
     // ─────────────────────────────────────────────────────────────
@@ -446,14 +491,14 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
                     // Store pending payment info
                     _pendingPayment.value = PendingPayment(id, resp.payment_link, resp.payment_id)
                     // Update the order in the local list with fresh data
-                    _orders.value = _orders.value.map { o ->
-                        if (o.id == orderId) resp.data.let {
+                    _orders.update { list ->
+                        list.updateKey(orderId, { it.id }) { o ->
                             o.copy(
                                 mayarPaymentLink = resp.payment_link,
                                 mayarPaymentId   = resp.payment_id,
                                 paymentStatus    = "unpaid"
                             )
-                        } else o
+                        }
                     }
                     onPaymentReady(id, resp.payment_link, resp.payment_id)
                 }
@@ -465,26 +510,34 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     }
 
     // ─────────────────────────────────────────────────────────────
-    // Poll payment status — called from PaymentScreen every 3s
+    // Payment status — PaymentScreen watches (long-poll + backoff),
+    // "Cek Status" / deep-link callback do a one-off check that answers
+    // right away. Overlapping one-off checks share one request.
     // ─────────────────────────────────────────────────────────────
     fun pollPaymentStatus(orderId: Long) {
         viewModelScope.launch {
-            when (val result = repository.pollPaymentStatus(orderId)) {
-                is AuthResult.Success -> {
-                    val status = result.data.payment_status
-                    _polledPaymentStatus.value = status
-                    if (status == "paid") {
-                        // Refresh orders list to show updated status
-                        loadOrders()
-                        _paySuccess.value = "Pembayaran berhasil dikonfirmasi! 🎉"
-                    }
-                }
+            when (val result = paymentWatcher.checkOrder(orderId)) {
+                is AuthResult.Success -> onPaymentStatus(result.data)
                 is AuthResult.Error -> { /* silently ignore polling errors */ }
                 else -> {}
             }
         }
     }
 
+    /** Suspends until the order leaves "unpaid"; cancel to stop watching. */
+    suspend fun watchPaymentStatus(orderId: Long) {
+        paymentWatcher.watchOrder(orderId).collect { onPaymentStatus(it) }
+    }
+
+    private fun onPaymentStatus(status: String) {
+        _polledPaymentStatus.value = status
+        if (status == "paid") {
+            // Refresh orders list to show updated status
+            loadOrders()
+            _paySuccess.value = "Pembayaran berhasil dikonfirmasi! 🎉"
+        }
+    }
+
     fun clearPendingPayment()       { _pendingPayment.value = null }
     fun clearPolledPaymentStatus()  { _polledPaymentStatus.value = null }
 
@@ -496,9 +549,7 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
         viewModelScope.launch {
             when (val result = repository.cancelOrder(id, reason)) {
                 is AuthResult.Success -> {
-                    _orders.value = _orders.value.map { o ->
-                        if (o.id == orderId) result.data else o
-                    }
+                    _orders.update { list -> list.replaceKey(result.data) { it.id } }
                 }
                 is AuthResult.Error -> _ordersError.value = result.message
                 else -> {}
@@ -527,9 +578,7 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             _isRatingOrder.value = true
             when (val result = repository.rateOrder(id, courierRating, courierReview, listingRating, listingReview)) {
                 is AuthResult.Success -> {
-                    _orders.value = _orders.value.map { o ->
-                        if (o.id == orderId) result.data else o
-                    }
+                    _orders.update { list -> list.replaceKey(result.data) { it.id } }
                     _rateOrderSuccess.value = "Rating berhasil diberikan! ⭐"
                 }
                 is AuthResult.Error -> _ordersError.value = result.message
@@ -567,7 +616,7 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             when (val result = repository.deleteListing(id)) {
                 is AuthResult.Success -> {
                     // Remove from local list immediately
-                    _myListings.value = _myListings.value.filter { it.id != productId }
+                    _myListings.update { list -> list.removeKey(productId) { it.id } }
                     _deleteSuccess.value = "Listing berhasil dihapus. 🗑️"
                 }
                 is AuthResult.Error -> _myListingsError.value = result.message
@@ -598,7 +647,7 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             when (val result = repository.createListing(name, description, price, category, condition, imageUri, stock)) {
                 is AuthResult.Success -> {
                     // Prepend new listing to myListings list
-                    _myListings.value = listOf(result.data) + _myListings.value
+                    _myListings.update { list -> list.upsertKey(result.data, append = false) { it.id } }
                     _createListingSuccess.value = "Barang berhasil dipasang! 🎉"
                     onSuccess()
                 }
@@ -635,9 +684,7 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
             when (val result = repository.updateListing(id, name, description, price, category, condition, imageUri, stock)) {
                 is AuthResult.Success -> {
                     // Replace the updated listing in myListings
-                    _myListings.value = _myListings.value.map { p ->
-                        if (p.id == productId) result.data else p
-                    }
+                    _myListings.update { list -> list.replaceKey(result.data) { it.id } }
                     _updateListingSuccess.value = "Listing berhasil diperbarui! ✅"
                     onSuccess()
                 }
@@ -652,8 +699,8 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     // Dismiss helpers
     // ─────────────────────────────────────────────────────────────
     fun dismissOrderError()          { _orderError.value = null }
+    fun dismissOrderNotice()         { _orderNotice.value = null }
     fun dismissWishlistError()       { _wishlistError.value = null }
-    fun dismissProductsError()       { _productsError.value = null }
     fun clearOrderSuccess()          { _orderSuccess.value = null }
     fun dismissPaySuccess()          { _paySuccess.value = null }
     fun dismissDeleteSuccess()       { _deleteSuccess.value = null }
@@ -668,48 +715,88 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     // Cart operations
     // ─────────────────────────────────────────────────────────────
     fun addToCart(product: Product) {
-        val current = _cartItems.value.toMutableList()
-        val idx = current.indexOfFirst { it.product.id == product.id }
-        if (idx >= 0) {
-            current[idx] = current[idx].copy(quantity = current[idx].quantity + 1)
+        _cartAddedMessage.value = if (changeCartLine(product) { it + 1 }) {
+            "${product.name} ditambahkan ke keranjang"
         } else {
-            current.add(CartItem(product = product, quantity = 1))
+            "Jumlah ${product.name} di keranjang sudah maksimal"
         }
-        _cartItems.value = current
-        recalcCart(current)
-        _cartAddedMessage.value = "${product.name} ditambahkan ke keranjang"
     }
 
     fun removeFromCart(productId: String) {
-        val current = _cartItems.value.filter { it.product.id != productId }
-        _cartItems.value = current
-        recalcCart(current)
+        val line = _cartItems.value.firstOrNull { it.product.id == productId } ?: return
+        changeCartLine(line.product) { 0 }
     }
 
     fun updateCartQuantity(productId: String, quantity: Int) {
-        if (quantity <= 0) { removeFromCart(productId); return }
-        val current = _cartItems.value.toMutableList()
-        val idx = current.indexOfFirst { it.product.id == productId }
-        if (idx >= 0) {
-            current[idx] = current[idx].copy(quantity = quantity)
-            _cartItems.value = current
-            recalcCart(current)
-        }
+        val line = _cartItems.value.firstOrNull { it.product.id == productId } ?: return
+        changeCartLine(line.product) { quantity }
     }
 
     fun clearCart() {
         _cartItems.value = emptyList()
         _cartCount.value = 0
         _cartTotal.value = 0L
+        cartRepository.clear()
     }
 
     fun dismissCartMessage() { _cartAddedMessage.value = null }
 
-    private fun recalcCart(items: List<CartItem>) {
+    /**
+     * Moves one line to [quantityOf] its current quantity (0 removes it),
+     * capped at CartRepository.maxQuantityOf — the same limit the server
+     * cart enforces. Count and total shift by the difference instead of
+     * being summed again, and the change is queued for Room and the server
+     * cart. Returns false when the quantity did not change.
+     */
+    private fun changeCartLine(product: Product, quantityOf: (Int) -> Int): Boolean {
+        var before = 0
+        var after = 0
+        var price = product.price
+        _cartItems.update { items ->
+            val idx = items.indexOfFirst { it.product.id == product.id }
+            before = if (idx >= 0) items[idx].quantity else 0
+            val line = if (idx >= 0) items[idx].product else product
+            after  = quantityOf(before).coerceIn(0, CartRepository.maxQuantityOf(line))
+            price  = line.price
+            when {
+                after == before -> items
+                after == 0      -> items.removeKey(product.id) { it.product.id }
+                idx >= 0        -> items.replaceAt(idx, items[idx].copy(quantity = after))
+                else            -> items + CartItem(product = product, quantity = after)
+            }
+        }
+        val delta = after - before
+        if (delta == 0) return false
+        _cartCount.update { it + delta }
+        _cartTotal.update { it + delta * price }
+        cartRepository.setQuantity(product, after)
+        return true
+    }
+
+    /** Only for whole-cart replacements (restore, server merge): totals are summed once here. */
+    private fun setCart(items: List<CartItem>) {
+        _cartItems.value = items
         _cartCount.value = items.sumOf { it.quantity }
         _cartTotal.value = items.sumOf { it.subtotal }
     }
 
+    /**
+     * Brings back the cart from Room (e.g. after process death), then
+     * merges the server cart. A merged cart is taken only while no edit
+     * made here since is still on its way to disk.
+     */
+    private fun restoreCart() {
+        viewModelScope.launch {
+            val local = cartRepository.restore()
+            if (local.appliedEdits == cartRepository.enqueuedEdits) setCart(local.items)
+        }
+        viewModelScope.launch {
+            cartRepository.serverCart.collect { merged ->
+                if (merged.appliedEdits == cartRepository.enqueuedEdits) setCart(merged.items)
+            }
+        }
+    }
+
     // Legacy no-arg kept for backward compat (ProductCard uses this via old lambda)
     fun addToCart() { /* no-op – use addToCart(product) */ }
 
@@ -771,25 +858,31 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     }
 
     // ─────────────────────────────────────────────────────────────
-    // Poll cart checkout payment status
+    // Cart checkout payment status — same watch / one-off split as above
     // ─────────────────────────────────────────────────────────────
     fun pollCartCheckoutStatus(cartCheckoutId: String) {
         viewModelScope.launch {
-            when (val result = repository.pollCartCheckoutStatus(cartCheckoutId)) {
-                is AuthResult.Success -> {
-                    val status = result.data.payment_status
-                    _cartCheckoutPolledStatus.value = status
-                    if (status == "paid") {
-                        loadCartCheckouts()
-                        _paySuccess.value = "Pembayaran cart berhasil dikonfirmasi! 🎉"
-                    }
-                }
+            when (val result = paymentWatcher.checkCartCheckout(cartCheckoutId)) {
+                is AuthResult.Success -> onCartCheckoutStatus(result.data)
                 is AuthResult.Error -> { /* ignore polling errors */ }
                 else -> {}
             }
         }
     }
 
+    /** Suspends until the cart checkout leaves "unpaid"; cancel to stop watching. */
+    suspend fun watchCartCheckoutStatus(cartCheckoutId: String) {
+        paymentWatcher.watchCartCheckout(cartCheckoutId).collect { onCartCheckoutStatus(it) }
+    }
+
+    private fun onCartCheckoutStatus(status: String) {
+        _cartCheckoutPolledStatus.value = status
+        if (status == "paid") {
+            loadCartCheckouts()
+            _paySuccess.value = "Pembayaran cart berhasil dikonfirmasi! 🎉"
+        }
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Cancel cart checkout
     // ─────────────────────────────────────────────────────────────
@@ -809,6 +902,8 @@ class MarketplaceViewModel(application: Application) : AndroidViewModel(applicat
     fun dismissCheckoutError()  { _checkoutError.value = null }
     fun clearCheckoutResult()   { _checkoutResult.value = null }
     fun clearCartCheckoutPolledStatus() { _cartCheckoutPolledStatus.value = null }
-}
-
 
+    companion object {
+        private const val SEARCH_DEBOUNCE_MS = 250L
+    }
+}
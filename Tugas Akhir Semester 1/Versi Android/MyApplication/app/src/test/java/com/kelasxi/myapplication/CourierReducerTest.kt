@@ -0,0 +1,111 @@
+package com.kelasxi.myapplication
+
+import com.kelasxi.myapplication.data.network.CourierOrderDto
+import com.kelasxi.myapplication.data.network.CourierPickupDto
+import com.kelasxi.myapplication.data.network.DispatchEvent
+import com.kelasxi.myapplication.viewmodel.CourierIntent
+import com.kelasxi.myapplication.viewmodel.CourierReducer
+import com.kelasxi.myapplication.viewmodel.CourierUiState
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.joinAll
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.Assert.*
+import org.junit.Test
+
+/**
+ * CourierReducer applied through MutableStateFlow.update from many threads
+ * at once, the way CourierViewModel's coroutines and the dispatch stream
+ * hit it: every intent must survive.
+ */
+class CourierReducerTest {
+
+    private fun pickup(id: Long, status: String = "pending") = CourierPickupDto(
+        id = id, status = status, address = "Jl. $id", latitude = null, longitude = null,
+        pickup_date = "2026-01-01", pickup_time = "08:00", notes = null,
+        estimated_weight_kg = null, points_awarded = 0, completed_at = null,
+        cancelled_at = null, cancellation_reason = null, created_at = null,
+        customer = null, trash_types = emptyList()
+    )
+
+    private fun order(id: Long, status: String = "confirmed") = CourierOrderDto(
+        id = id, status = status, shipping_address = "Jl. $id", latitude = null,
+        longitude = null, notes = null, quantity = 1, total_price = 1_000L,
+        created_at = null, buyer = null, product_name = null
+    )
+
+    private fun added(seq: Long, pickup: CourierPickupDto) = CourierIntent.Dispatched(
+        DispatchEvent.Job(seq, "pickup", "added", "available", pickup.id, pickup, null)
+    )
+
+    private fun MutableStateFlow<CourierUiState>.dispatch(intent: CourierIntent) =
+        update { CourierReducer.reduce(it, intent) }
+
+    @Test
+    fun concurrentIntents_loseNoUpdate() = runBlocking {
+        val state = MutableStateFlow(CourierUiState(availablePickups = (1L..200L).map { pickup(it) }))
+        val n = 500L
+
+        val jobs = (1L..n).flatMap { i ->
+            listOf(
+                // new open jobs from the stream
+                launch(Dispatchers.Default) { yield(); state.dispatch(added(i, pickup(1_000 + i))) },
+                // deliveries accepted by the courier
+                launch(Dispatchers.Default) { yield(); state.dispatch(CourierIntent.OrderAccepted(order(i))) }
+            ) + if (i <= 200) listOf(
+                // the first 200 open pickups accepted, each in its own coroutine
+                launch(Dispatchers.Default) { yield(); state.dispatch(CourierIntent.PickupAccepted(pickup(i, "accepted"))) }
+            ) else emptyList()
+        }
+        jobs.joinAll()
+
+        val s = state.value
+        assertEquals((1_001L..1_000L + n).toSet(), s.availablePickups.map { it.id }.toSet())
+        assertEquals(n.toInt(), s.availablePickups.size)
+        assertEquals((1L..200L).toSet(), s.pickups.map { it.id }.toSet())
+        assertEquals(200, s.pickups.size)
+        assertEquals((1L..n).toSet(), s.myOrders.map { it.id }.toSet())
+        assertEquals(n.toInt(), s.myOrders.size)
+    }
+
+    @Test
+    fun concurrentStatusUpdates_touchOnlyTheirRow() = runBlocking {
+        val state = MutableStateFlow(CourierUiState(pickups = (1L..300L).map { pickup(it) }))
+
+        (1L..300L).map { i ->
+            launch(Dispatchers.Default) {
+                yield()
+                state.dispatch(CourierIntent.PickupUpdated(pickup(i, "on_the_way"), "Pengiriman dimulai!"))
+            }
+        }.joinAll()
+
+        val pickups = state.value.pickups
+        assertEquals((1L..300L).toList(), pickups.map { it.id })
+        assertTrue(pickups.all { it.status == "on_the_way" })
+    }
+
+    @Test
+    fun noOpIntents_keepListInstances() {
+        val before = CourierUiState(
+            pickups = listOf(pickup(1), pickup(2)),
+            availableOrders = listOf(order(7))
+        )
+
+        val ignored = CourierReducer.reduce(before, CourierIntent.OrderIgnored(99))
+        assertSame(before.availableOrders, ignored.availableOrders)
+        assertEquals(before, ignored)
+
+        // Same row again (e.g. the stream echoing our own change)
+        val echoed = CourierReducer.reduce(before, CourierIntent.PickupUpdated(pickup(2), "Status diperbarui."))
+        assertSame(before.pickups, echoed.pickups)
+
+        // A real change copies the list but keeps every other row
+        val changed = CourierReducer.reduce(before, CourierIntent.PickupUpdated(pickup(2, "done"), "Selesai"))
+        assertNotSame(before.pickups, changed.pickups)
+        assertSame(before.pickups[0], changed.pickups[0])
+        assertSame(before.availableOrders, changed.availableOrders)
+    }
+}
@@ -0,0 +1,86 @@
+package com.kelasxi.myapplication
+
+import com.kelasxi.myapplication.data.network.DispatchEvent
+import com.kelasxi.myapplication.data.network.DispatchFeed
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * DispatchFeed against a local stand-in for GET /api/courier/dispatch/stream:
+ * SSE parsing, and resuming from the last sequence number after the server
+ * closes the stream.
+ */
+class DispatchFeedTest {
+
+    private lateinit var server: MockWebServer
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    private fun sse(body: String) = MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody(body)
+
+    @Test
+    fun parsesEvents_andResumesFromLastSeq() = runBlocking {
+        server.enqueue(sse(
+            "id: 10\nevent: reset\ndata: {}\n\n" +
+            ": ping\n\n" +
+            "id: 11\nevent: job\n" +
+            "data: {\"kind\":\"pickup\",\"action\":\"removed\",\"list\":\"available\",\"id\":7,\"item\":null}\n\n"
+        ))
+        server.enqueue(sse(
+            "id: 12\nevent: job\n" +
+            "data: {\"kind\":\"order\",\"action\":\"removed\",\"list\":\"mine\",\"id\":3,\"item\":null}\n\n"
+        ))
+
+        val feed = DispatchFeed(OkHttpClient(), server.url("/api/courier/dispatch/stream").toString())
+        val events = withTimeout(5_000) { feed.events(null).take(3).toList() }
+
+        assertEquals(DispatchEvent.Reset(10), events[0])
+
+        val pickup = events[1] as DispatchEvent.Job
+        assertEquals("pickup", pickup.kind)
+        assertEquals("available", pickup.list)
+        assertEquals(7L, pickup.id)
+        assertNull(pickup.pickup)
+
+        val order = events[2] as DispatchEvent.Job
+        assertEquals(12L, order.seq)
+        assertEquals(3L, order.id)
+
+        val first = server.takeRequest()
+        assertNull(first.getHeader("Last-Event-ID"))
+        val second = server.takeRequest()
+        assertEquals("11", second.getHeader("Last-Event-ID"))
+        assertEquals("11", second.requestUrl?.queryParameter("since"))
+    }
+
+    @Test
+    fun stopsOnUnauthorized() = runBlocking {
+        server.enqueue(MockResponse().setResponseCode(401))
+
+        val feed = DispatchFeed(OkHttpClient(), server.url("/api/courier/dispatch/stream").toString())
+        val events = withTimeout(5_000) { feed.events(5).toList() }
+
+        assertTrue(events.isEmpty())
+        assertEquals("5", server.takeRequest().getHeader("Last-Event-ID"))
+    }
+}
@@ -0,0 +1,99 @@
+package com.kelasxi.myapplication
+
+import com.kelasxi.myapplication.util.TourPlanner
+import org.junit.Assert.*
+import org.junit.Test
+import kotlin.math.abs
+import kotlin.math.hypot
+import kotlin.random.Random
+
+/**
+ * TourPlanner on random stop sets: the order is always a permutation of the
+ * stops, never costs more than the nearest-neighbour seed it starts from,
+ * and stops searching once its time budget is spent.
+ */
+class TourPlannerTest {
+
+    /** Euclidean distances between random points; index 0 is the courier. */
+    private fun euclidean(n: Int, random: Random): Array<DoubleArray> {
+        val x = DoubleArray(n) { random.nextDouble(0.0, 10_000.0) }
+        val y = DoubleArray(n) { random.nextDouble(0.0, 10_000.0) }
+        return Array(n) { i -> DoubleArray(n) { j -> hypot(x[i] - x[j], y[i] - y[j]) } }
+    }
+
+    /** Asymmetric costs, like OSRM durations (one-way streets, turns). */
+    private fun asymmetric(n: Int, random: Random): Array<DoubleArray> =
+        Array(n) { i -> DoubleArray(n) { j -> if (i == j) 0.0 else random.nextDouble(60.0, 1_800.0) } }
+
+    private fun assertPermutation(n: Int, tour: IntArray) {
+        assertEquals((1 until n).toList(), tour.sorted())
+    }
+
+    @Test
+    fun smallInputs() {
+        assertArrayEquals(IntArray(0), TourPlanner.solve(emptyArray()))
+        assertArrayEquals(IntArray(0), TourPlanner.solve(arrayOf(doubleArrayOf(0.0))))
+        assertArrayEquals(intArrayOf(1), TourPlanner.solve(arrayOf(doubleArrayOf(0.0, 5.0), doubleArrayOf(5.0, 0.0))))
+    }
+
+    @Test
+    fun tourIsAPermutationOfTheStops() {
+        val random = Random(7)
+        for (n in 3..16) {
+            repeat(20) {
+                val cost = if (it % 2 == 0) euclidean(n, random) else asymmetric(n, random)
+                assertPermutation(n, TourPlanner.solve(cost))
+            }
+        }
+    }
+
+    @Test
+    fun neverLongerThanNearestNeighbour() {
+        val random = Random(11)
+        var strictlyBetter = 0
+        repeat(200) {
+            val n = random.nextInt(3, 16)
+            val cost = if (it % 2 == 0) euclidean(n, random) else asymmetric(n, random)
+            val seed = TourPlanner.pathCost(cost, TourPlanner.nearestNeighbour(cost))
+            val solved = TourPlanner.pathCost(cost, TourPlanner.solve(cost))
+            assertTrue("n=$n: $solved > nearest-neighbour $seed", solved <= seed + 1e-6)
+            if (solved < seed - 1e-6) strictlyBetter++
+        }
+        // The local search has to actually improve some of them
+        assertTrue(strictlyBetter > 0)
+    }
+
+    @Test
+    fun solvesAKnownLine() {
+        // Stops on a line at 1, 2, 3, 10 from the courier at 0, given out of order:
+        // nearest-neighbour is already optimal here and must be kept
+        val positions = doubleArrayOf(0.0, 3.0, 10.0, 1.0, 2.0)
+        val cost = Array(positions.size) { i -> DoubleArray(positions.size) { j -> abs(positions[i] - positions[j]) } }
+        assertArrayEquals(intArrayOf(3, 4, 1, 2), TourPlanner.solve(cost))
+        assertEquals(10.0, TourPlanner.pathCost(cost, TourPlanner.solve(cost)), 1e-9)
+    }
+
+    @Test
+    fun stopsOnceTheBudgetIsSpent() {
+        // Far more stops than a shift has, so the search is still improving at the deadline
+        val cost = asymmetric(250, Random(3))
+        // A fake clock that moves one millisecond every time it is read
+        var reads = 0L
+        val clock = { reads++ * 1_000_000 }
+
+        val budgetMs = 20L
+        val tour = TourPlanner.solve(cost, budgetMs, clock)
+
+        assertPermutation(cost.size, tour)
+        // Read 0 sets the deadline and read budgetMs is the first one past it; after
+        // that at most one Or-opt row and the loop condition read the clock again
+        assertTrue("stopped after $reads reads", reads > budgetMs)
+        assertTrue("kept searching for ${reads - budgetMs - 1} reads past the deadline", reads <= budgetMs + 3)
+    }
+
+    @Test
+    fun zeroBudgetReturnsTheSeed() {
+        val cost = euclidean(12, Random(5))
+        assertArrayEquals(TourPlanner.nearestNeighbour(cost), TourPlanner.solve(cost, budgetMs = 0))
+    }
+}
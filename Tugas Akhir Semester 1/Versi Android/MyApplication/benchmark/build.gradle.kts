@@ -0,0 +1,44 @@
+plugins {
+    id("com.android.test")
+    alias(libs.plugins.kotlin.android)
+    alias(libs.plugins.baselineprofile)
+}
+
+// Macrobenchmarks and the Baseline Profile generator for :app.
+//
+//   ./gradlew :benchmark:connectedBenchmarkReleaseAndroidTest   frame timing / startup numbers
+//   ./gradlew :app:generateBaselineProfile                      refreshes app/src/main/generated/baselineProfiles
+//
+// The journeys sign in through the login screen; pass test accounts with
+//   -Pandroid.testInstrumentationRunnerArguments.userEmail=…    (and userPassword)
+//   -Pandroid.testInstrumentationRunnerArguments.courierEmail=… (and courierPassword)
+android {
+    namespace = "com.kelasxi.myapplication.benchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 36
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+    kotlinOptions {
+        jvmTarget = "11"
+    }
+
+    targetProjectPath = ":app"
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.androidx.junit)
+    implementation(libs.androidx.uiautomator)
+    implementation(libs.androidx.benchmark.macro.junit4)
+}
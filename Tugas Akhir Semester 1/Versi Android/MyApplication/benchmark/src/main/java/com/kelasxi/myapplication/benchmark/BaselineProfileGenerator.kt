@@ -0,0 +1,37 @@
+package com.kelasxi.myapplication.benchmark
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Records the code paths of the journeys StartupBenchmarks and
+ * ScrollBenchmarks measure — app start into Home / CourierHome (also kept as
+ * the startup profile, laid out first in the dex), then the scrolls — so
+ * they ship AOT-compiled. Run `./gradlew :app:generateBaselineProfile` after UI
+ * changes to these screens and commit the regenerated profile.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val rule = BaselineProfileRule()
+
+    @Test
+    fun userJourneys() = rule.collect(packageName = PACKAGE_NAME, includeInStartupProfile = true) {
+        launchSignedIn(Role.USER)
+        scrollList("home_list")
+        openMyOrders()
+        scrollList("orders_list")
+    }
+
+    @Test
+    fun courierJourneys() = rule.collect(packageName = PACKAGE_NAME, includeInStartupProfile = true) {
+        launchSignedIn(Role.COURIER)
+        scrollList("courier_list")
+    }
+}
@@ -0,0 +1,64 @@
+package com.kelasxi.myapplication.benchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Frame timing while opening and scrolling the three heaviest screens, with
+ * and without the Baseline Profile. Compare frameDurationCpuMs and
+ * frameOverrunMs (P50/P90/P99) between runs to catch regressions.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class ScrollBenchmarks(private val compilationMode: CompilationMode) {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun homeScroll() = measureFrames(Role.USER) { scrollList("home_list") }
+
+    @Test
+    fun myOrdersOpen() = measureFrames(Role.USER) { openMyOrders() }
+
+    @Test
+    fun myOrdersScroll() = measureFrames(Role.USER, setup = { openMyOrders() }) { scrollList("orders_list") }
+
+    @Test
+    fun courierHomeScroll() = measureFrames(Role.COURIER) { scrollList("courier_list") }
+
+    private fun measureFrames(
+        role: Role,
+        setup: MacrobenchmarkScope.() -> Unit = {},
+        measure: MacrobenchmarkScope.() -> Unit
+    ) = rule.measureRepeated(
+        packageName     = PACKAGE_NAME,
+        metrics         = listOf(FrameTimingMetric()),
+        compilationMode = compilationMode,
+        iterations      = ITERATIONS,
+        setupBlock      = {
+            launchSignedIn(role)
+            setup()
+        },
+        measureBlock    = measure
+    )
+
+    companion object {
+        private const val ITERATIONS = 10
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}")
+        fun compilationModes(): List<CompilationMode> = listOf(
+            CompilationMode.None(),
+            CompilationMode.Partial(BaselineProfileMode.Require)
+        )
+    }
+}
@@ -0,0 +1,73 @@
+package com.kelasxi.myapplication.benchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.ExperimentalMetricApi
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.TraceSectionMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Cold start into a restored session, with and without the Baseline
+ * Profile. StartupTimingMetric reports time to initial display (first
+ * frame) and time to full display (the start screen's ReportDrawnWhen);
+ * the trace sections split the app's own share of it.
+ */
+@OptIn(ExperimentalMetricApi::class)
+@LargeTest
+@RunWith(Parameterized::class)
+class StartupBenchmarks(private val compilationMode: CompilationMode) {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun userColdStart() = coldStart(Role.USER)
+
+    @Test
+    fun courierColdStart() = coldStart(Role.COURIER)
+
+    private fun coldStart(role: Role) = rule.measureRepeated(
+        packageName     = PACKAGE_NAME,
+        metrics         = listOf(StartupTimingMetric()) + TRACE_SECTIONS.map { TraceSectionMetric(it) },
+        compilationMode = compilationMode,
+        startupMode     = StartupMode.COLD,
+        iterations      = ITERATIONS,
+        setupBlock      = {
+            launchSignedIn(role)
+            killProcess()
+        }
+    ) {
+        startActivityAndWait()
+        waitFor(role.homeList)
+        // Let the first load land so reportFullyDrawn falls inside the trace
+        device.waitForIdle()
+    }
+
+    companion object {
+        private const val ITERATIONS = 10
+
+        // Set by TrashCareApplication, NetworkInitializer and MainActivity
+        private val TRACE_SECTIONS = listOf(
+            "TrashCare.applyLocale",
+            "TrashCare.initNetwork",
+            "TrashCare.setContent",
+            "TrashCare.composeNavGraph",
+            "TrashCare.firstFrame",
+            "TrashCare.fullyDrawn"
+        )
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}")
+        fun compilationModes(): List<CompilationMode> = listOf(
+            CompilationMode.None(),
+            CompilationMode.Partial(BaselineProfileMode.Require)
+        )
+    }
+}
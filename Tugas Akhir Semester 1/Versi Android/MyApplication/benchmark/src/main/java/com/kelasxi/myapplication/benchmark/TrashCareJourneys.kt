@@ -0,0 +1,86 @@
+package com.kelasxi.myapplication.benchmark
+
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+
+/**
+ * UI steps shared by the benchmarks and the Baseline Profile generator.
+ * Elements are found through Compose test tags, which MainActivity exposes
+ * as resource ids.
+ */
+
+internal const val PACKAGE_NAME = "com.kelasxi.myapplication"
+
+private const val UI_TIMEOUT_MS    = 10_000L
+private const val LOGIN_TIMEOUT_MS = 30_000L
+
+/** Which account a journey runs as, and the list that marks its home screen. */
+internal enum class Role(val homeList: String, val emailArg: String, val passwordArg: String) {
+    USER("home_list", "userEmail", "userPassword"),
+    COURIER("courier_list", "courierEmail", "courierPassword")
+}
+
+/**
+ * Starts the app on [role]'s home screen. Logs in only when needed — the
+ * session survives between iterations — and clears the app data first if
+ * the other role is signed in.
+ */
+internal fun MacrobenchmarkScope.launchSignedIn(role: Role) {
+    startActivityAndWait()
+    val other = Role.entries.first { it != role }
+    when (waitForAny(role.homeList, other.homeList, "login_email")) {
+        role.homeList  -> return
+        other.homeList -> {
+            killProcess()
+            device.executeShellCommand("pm clear $packageName")
+            startActivityAndWait()
+            waitFor("login_email")
+        }
+    }
+
+    val args = InstrumentationRegistry.getArguments()
+    val email = checkNotNull(args.getString(role.emailArg)) { "Missing instrumentation argument ${role.emailArg}" }
+    val password = checkNotNull(args.getString(role.passwordArg)) { "Missing instrumentation argument ${role.passwordArg}" }
+    device.findObject(By.res("login_email")).text = email
+    device.findObject(By.res("login_password")).text = password
+    device.findObject(By.res("login_submit")).click()
+    waitFor(role.homeList, LOGIN_TIMEOUT_MS)
+}
+
+/** Profile tab → My Orders; the account needs at least one order. */
+internal fun MacrobenchmarkScope.openMyOrders() {
+    waitFor("nav_profile").click()
+    waitFor("menu_my_orders").click()
+    waitFor("orders_list")
+}
+
+/** A few flings down and back up [tag]'s list. */
+internal fun MacrobenchmarkScope.scrollList(tag: String) {
+    val list = waitFor(tag)
+    // Keep flings off the system gesture areas
+    list.setGestureMargin(device.displayWidth / 5)
+    repeat(3) {
+        list.fling(Direction.DOWN)
+        device.waitForIdle()
+    }
+    repeat(3) {
+        list.fling(Direction.UP)
+        device.waitForIdle()
+    }
+}
+
+internal fun MacrobenchmarkScope.waitFor(tag: String, timeoutMs: Long = UI_TIMEOUT_MS): UiObject2 =
+    checkNotNull(device.wait(Until.findObject(By.res(tag)), timeoutMs)) { "\"$tag\" not shown within $timeoutMs ms" }
+
+private fun MacrobenchmarkScope.waitForAny(vararg tags: String): String {
+    val deadline = System.currentTimeMillis() + LOGIN_TIMEOUT_MS
+    while (System.currentTimeMillis() < deadline) {
+        tags.firstOrNull { device.hasObject(By.res(it)) }?.let { return it }
+        Thread.sleep(100)
+    }
+    error("None of ${tags.joinToString()} shown within $LOGIN_TIMEOUT_MS ms")
+}
@@ -146,6 +146,9 @@ public function checkout(Request $request): JsonResponse
                 'mayar_payment_link' => $result['link'],
             ]);
 
+            // Bought lines leave the synced cart on every device
+            CartController::removeCheckedOut($buyer->id, array_keys($listings));
+
             DB::commit();
 
             // Reload fresh orders after update
@@ -171,45 +174,76 @@ public function checkout(Request $request): JsonResponse
     }
 
     // ─────────────────────────────────────────────────────────────
-    // GET /api/orders/cart-checkout/{cartCheckoutId}/payment-status
+    // GET /api/orders/cart-checkout/{cartCheckoutId}/payment-status?wait=
     // Poll Mayar payment status for a whole cart checkout group.
     // If paid → confirm all orders in the group.
+    // wait → long-poll, same contract as OrderController::paymentStatus.
     // ─────────────────────────────────────────────────────────────
     public function paymentStatus(Request $request, string $cartCheckoutId): JsonResponse
     {
-        $orders = Order::with('listing')
-            ->where('cart_checkout_id', $cartCheckoutId)
-            ->where('buyer_id', $request->user()->id)
-            ->get();
+        $wait     = min(max((int) $request->query('wait', 0), 0), OrderController::PAYMENT_LONG_POLL_MAX_S);
+        $deadline = microtime(true) + $wait;
+        $buyerId  = $request->user()->id;
+
+        $orders = $this->groupOrders($cartCheckoutId, $buyerId);
 
         if ($orders->isEmpty()) {
             return response()->json(['message' => 'Cart checkout tidak ditemukan.'], 404);
         }
 
-        $firstOrder = $orders->first();
-        $mayarId    = $firstOrder->mayar_payment_id;
+        while (true) {
+            $orders     = $this->syncGroupPaymentFromMayar($cartCheckoutId, $buyerId, $orders);
+            $firstOrder = $orders->first();
 
-        if (!$mayarId) {
-            return response()->json([
-                'payment_status' => 'unpaid',
-                'order_status'   => $firstOrder->status,
-                'orders'         => $orders->map(fn($o) => $this->formatOrder($o))->values(),
-            ]);
+            $settled = $firstOrder->payment_status !== 'unpaid'
+                || !$firstOrder->isPending()
+                || !$firstOrder->mayar_payment_id;
+
+            if ($settled || microtime(true) + OrderController::PAYMENT_LONG_POLL_STEP_S > $deadline) {
+                break;
+            }
+
+            sleep(OrderController::PAYMENT_LONG_POLL_STEP_S);
+            $orders = $this->groupOrders($cartCheckoutId, $buyerId);
+            if ($orders->isEmpty()) {
+                return response()->json(['message' => 'Cart checkout tidak ditemukan.'], 404);
+            }
         }
 
-        // If already confirmed/beyond pending, no need to call Mayar again
-        if (!$firstOrder->isPending()) {
-            return response()->json([
-                'payment_status' => $firstOrder->payment_status,
-                'order_status'   => $firstOrder->status,
-                'orders'         => $orders->map(fn($o) => $this->formatOrder($o))->values(),
-            ]);
+        $firstOrder = $orders->first();
+
+        return response()->json([
+            'payment_status' => $firstOrder->mayar_payment_id ? $firstOrder->payment_status : 'unpaid',
+            'order_status'   => $firstOrder->status,
+            'orders'         => $orders->map(fn($o) => $this->formatOrder($o))->values(),
+        ]);
+    }
+
+    private function groupOrders(string $cartCheckoutId, int $buyerId)
+    {
+        return Order::with('listing')
+            ->where('cart_checkout_id', $cartCheckoutId)
+            ->where('buyer_id', $buyerId)
+            ->get();
+    }
+
+    /**
+     * Reads the group's Mayar payment state (one shared poll, see
+     * MayarService::cachedPaymentStatus) and confirms every order in it
+     * when paid. Returns the (possibly reloaded) group.
+     */
+    private function syncGroupPaymentFromMayar(string $cartCheckoutId, int $buyerId, $orders)
+    {
+        $firstOrder = $orders->first();
+
+        // No Mayar request, or already confirmed/beyond pending → no need to call Mayar
+        if (!$firstOrder->mayar_payment_id || !$firstOrder->isPending()) {
+            return $orders;
         }
 
         try {
-            $mayar  = new MayarService();
-            $detail = $mayar->getPaymentDetail($mayarId);
-            $status = $detail['status'] ?? 'unpaid';
+            $status = (new MayarService())
+                ->cachedPaymentStatus($firstOrder->mayar_payment_id, OrderController::PAYMENT_LONG_POLL_STEP_S);
 
             if ($status === 'paid') {
                 $now = now();
@@ -224,25 +258,13 @@ public function paymentStatus(Request $request, string $cartCheckoutId): JsonRes
                 // AutoComplete is not dispatched immediately — order goes to courier first
                 // It will be dispatched when courier marks order 'completed'
 
-                $orders = Order::with('listing')
-                    ->where('cart_checkout_id', $cartCheckoutId)
-                    ->where('buyer_id', $request->user()->id)
-                    ->get();
+                $orders = $this->groupOrders($cartCheckoutId, $buyerId);
             }
-
-            return response()->json([
-                'payment_status' => $orders->first()->payment_status,
-                'order_status'   => $orders->first()->status,
-                'orders'         => $orders->map(fn($o) => $this->formatOrder($o))->values(),
-            ]);
-
         } catch (\Throwable $e) {
-            return response()->json([
-                'payment_status' => $firstOrder->payment_status,
-                'order_status'   => $firstOrder->status,
-                'orders'         => $orders->map(fn($o) => $this->formatOrder($o))->values(),
-            ]);
+            // Keep the stored status; the client simply asks again.
         }
+
+        return $orders;
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -386,6 +408,9 @@ private function formatOrder(Order $order): array
                 'image_url'     => $listing->image_path
                     ? Storage::disk('public')->url($listing->image_path)
                     : null,
+                'thumbnail_url' => $listing->thumbnail_path
+                    ? Storage::disk('public')->url($listing->thumbnail_path)
+                    : null,
                 'is_wishlisted' => false,
                 'is_sold'       => $listing->is_sold,
             ] : null,
@@ -0,0 +1,160 @@
+<?php
+
+namespace App\Http\Controllers\Api;
+
+use App\Http\Controllers\Controller;
+use App\Models\CartItem;
+use App\Models\MarketplaceListing;
+use Illuminate\Http\JsonResponse;
+use Illuminate\Http\Request;
+use Illuminate\Support\Facades\DB;
+use Illuminate\Support\Facades\Storage;
+
+class CartController extends Controller
+{
+    /** Lines accepted per PUT /api/cart; the app sends at most this many per batch. */
+    public const MAX_SYNC_ITEMS = 100;
+    /** Most of one listing a line may hold; larger quantities are capped per line, not rejected. */
+    public const MAX_LINE_QUANTITY = 10;
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/cart
+    // The user's cart with a listing snapshot per line, so the app can
+    // show it right away without fetching each listing.
+    //
+    // Returns:
+    // {
+    //   "data": [ { "listing_id": "5", "quantity": 2, "updated_at": 1710000000000, "listing": {...} } ],
+    //   "server_time": "2026-03-17 10:00:00"
+    // }
+    // ─────────────────────────────────────────────────────────────
+    public function index(Request $request): JsonResponse
+    {
+        return response()->json($this->cartPayload($request->user()->id));
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // PUT /api/cart
+    // Batched changes from the app (debounced, only lines touched since
+    // the last sync). Each line carries the client time of the change;
+    // a line older than what is stored is ignored (last writer wins), so
+    // two devices editing the same cart converge. quantity 0 removes; a
+    // quantity above MAX_LINE_QUANTITY or the listing's stock is capped
+    // for that line instead of failing the whole batch.
+    //
+    // Body:
+    // { "items": [ { "listing_id": 5, "quantity": 2, "updated_at": 1710000000000 } ] }
+    //
+    // Returns the full cart, same shape as index().
+    // ─────────────────────────────────────────────────────────────
+    public function sync(Request $request): JsonResponse
+    {
+        $validated = $request->validate([
+            'items'              => ['present', 'array', 'max:' . self::MAX_SYNC_ITEMS],
+            'items.*.listing_id' => ['required', 'integer'],
+            'items.*.quantity'   => ['required', 'integer', 'min:0'],
+            'items.*.updated_at' => ['required', 'integer', 'min:0'],
+        ]);
+
+        $userId = $request->user()->id;
+        $items  = collect($validated['items']);
+
+        // Lines for listings that no longer exist are dropped instead of failing the batch
+        $stock = MarketplaceListing::withTrashed()
+            ->whereIn('id', $items->pluck('listing_id'))
+            ->pluck('stock', 'id')
+            ->all();
+        $known = array_keys($stock);
+
+        DB::transaction(function () use ($items, $known, $stock, $userId) {
+            $stored = CartItem::where('user_id', $userId)
+                ->whereIn('listing_id', $known)
+                ->lockForUpdate()
+                ->get()
+                ->keyBy('listing_id');
+
+            foreach ($items as $item) {
+                if (!in_array($item['listing_id'], $known)) {
+                    continue;
+                }
+                $line = $stored->get($item['listing_id']);
+                if ($line && $line->client_updated_at >= $item['updated_at']) {
+                    continue;
+                }
+                // At least 1 while the line exists, so a sold-out listing stays visible in the cart
+                $limit = min(self::MAX_LINE_QUANTITY, max((int) ($stock[$item['listing_id']] ?? 1), 1));
+                CartItem::updateOrCreate(
+                    ['user_id' => $userId, 'listing_id' => $item['listing_id']],
+                    ['quantity' => min($item['quantity'], $limit), 'client_updated_at' => $item['updated_at']]
+                );
+            }
+        });
+
+        return response()->json($this->cartPayload($userId));
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Called by CartCheckoutController once the orders exist: bought
+    // lines become tombstones so every device drops them on next sync.
+    // ─────────────────────────────────────────────────────────────
+    public static function removeCheckedOut(int $userId, array $listingIds): void
+    {
+        CartItem::where('user_id', $userId)
+            ->whereIn('listing_id', $listingIds)
+            ->update([
+                'quantity'          => 0,
+                'client_updated_at' => (int) floor(microtime(true) * 1000),
+            ]);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+    private function cartPayload(int $userId): array
+    {
+        $lines = CartItem::where('user_id', $userId)
+            ->where('quantity', '>', 0)
+            ->with(['listing' => fn ($q) => $q->withTrashed()])
+            ->orderBy('created_at')
+            ->get()
+            ->filter(fn ($line) => $line->listing !== null);
+
+        $wishlistedIds = DB::table('wishlists')
+            ->where('user_id', $userId)
+            ->pluck('listing_id')
+            ->toArray();
+
+        return [
+            'data' => $lines->map(fn ($line) => [
+                'listing_id' => (string) $line->listing_id,
+                'quantity'   => $line->quantity,
+                'updated_at' => $line->client_updated_at,
+                'listing'    => $this->formatListing($line->listing, $wishlistedIds),
+            ])->values(),
+            'server_time' => now()->toDateTimeString(),
+        ];
+    }
+
+    private function formatListing(MarketplaceListing $listing, array $wishlistedIds): array
+    {
+        return [
+            'id'            => (string) $listing->id,
+            'name'          => $listing->name,
+            'price'         => $listing->price,
+            'seller_name'   => $listing->seller_name,
+            'seller_rating' => $listing->seller_rating,
+            'description'   => $listing->description,
+            'category'      => $listing->category,
+            'condition'     => $listing->condition,
+            'image_url'     => $listing->image_path
+                ? Storage::disk('public')->url($listing->image_path)
+                : null,
+            'is_wishlisted' => in_array($listing->id, $wishlistedIds),
+            'is_sold'       => $listing->is_sold,
+            'is_active'     => $listing->is_active,
+            'stock'         => $listing->stock,
+            'updated_at'    => $listing->updated_at?->toDateTimeString(),
+            'is_deleted'    => $listing->trashed(),
+        ];
+    }
+}
@@ -4,16 +4,31 @@
 
 use App\Http\Controllers\Controller;
 use App\Models\Courier;
+use App\Models\CourierLocation;
+use App\Models\DispatchEvent;
 use App\Models\Order;
 use App\Models\PickupRequest;
 use Illuminate\Http\JsonResponse;
 use Illuminate\Http\Request;
+use Illuminate\Support\Carbon;
 use Illuminate\Support\Facades\DB;
 use Illuminate\Support\Facades\Storage;
 use Illuminate\Validation\Rule;
+use Symfony\Component\HttpFoundation\StreamedResponse;
 
 class CourierController extends Controller
 {
+    /** One dispatch stream stays open this long, then the client reconnects with Last-Event-ID. */
+    public const DISPATCH_STREAM_MAX_S  = 25;
+    /** Poll interval of dispatch_events while a stream is open (also the heartbeat). */
+    public const DISPATCH_STREAM_STEP_S = 2;
+    /**
+     * Events are only sent once they are this old. An event whose transaction
+     * took a lower id but committed after a higher one was read would
+     * otherwise be skipped for good, since the cursor only moves forward.
+     */
+    public const DISPATCH_COMMIT_LAG_S  = 3;
+
     // ─────────────────────────────────────────────────────────────
     // GET /api/courier/me
     // Returns the authenticated courier's profile.
@@ -202,6 +217,136 @@ public function availability(Request $request): JsonResponse
         ]);
     }
 
+    // ─────────────────────────────────────────────────────────────
+    // POST /api/courier/locations/batch
+    // GPS trail from the app's foreground tracking service, delta-encoded:
+    //   { base: { t, lat, lng }, points: [[dt, dlat, dlng, acc?, speed?], …] }
+    // t = unix seconds, lat/lng = degrees × 1e5; every point is relative to
+    // the previous one (the first to base). acc in metres, speed in dm/s.
+    // ─────────────────────────────────────────────────────────────
+    public function storeLocations(Request $request): JsonResponse
+    {
+        /** @var Courier $courier */
+        $courier = $request->user();
+
+        $validated = $request->validate([
+            'base'       => ['required', 'array'],
+            'base.t'     => ['required', 'integer', 'min:0'],
+            'base.lat'   => ['required', 'integer', 'between:-9000000,9000000'],
+            'base.lng'   => ['required', 'integer', 'between:-18000000,18000000'],
+            'points'     => ['required', 'array', 'min:1', 'max:500'],
+            'points.*'   => ['array', 'min:3', 'max:5'],
+            'points.*.*' => ['nullable', 'integer'],
+        ]);
+
+        $t   = $validated['base']['t'];
+        $lat = $validated['base']['lat'];
+        $lng = $validated['base']['lng'];
+        $now = now();
+        $rows = [];
+
+        foreach ($validated['points'] as $p) {
+            $t   += $p[0];
+            $lat += $p[1];
+            $lng += $p[2];
+            if (abs($lat) > 9000000 || abs($lng) > 18000000) {
+                return response()->json(['message' => 'Koordinat tidak valid.'], 422);
+            }
+            $rows[] = [
+                'courier_id'  => $courier->id,
+                'latitude'    => $lat / 1e5,
+                'longitude'   => $lng / 1e5,
+                'accuracy_m'  => $p[3] ?? null,
+                'speed_mps'   => isset($p[4]) ? $p[4] / 10 : null,
+                'recorded_at' => Carbon::createFromTimestamp($t),
+                'created_at'  => $now,
+            ];
+        }
+
+        CourierLocation::insert($rows);
+
+        return response()->json([
+            'stored'  => count($rows),
+            'last_t'  => $t,
+        ], 201);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/courier/dispatch/stream?since={seq}   (text/event-stream)
+    // Job diffs for the courier app instead of re-fetching five lists:
+    //   event: job   data: { kind, action, list, id, item }
+    //     kind   = pickup | order
+    //     action = added | updated | removed   (item is null on removed)
+    //     list   = available | mine
+    //   event: reset → the client must reload its lists (first connect,
+    //                  or it was away longer than the log is kept)
+    // Every event's "id:" is its sequence number; the client resumes with
+    // Last-Event-ID (or ?since=). Events are sent once they are
+    // DISPATCH_COMMIT_LAG_S old, so ids that commit out of order are not
+    // skipped. The stream closes after DISPATCH_STREAM_MAX_S so PHP workers
+    // are not held forever; each open stream holds one php-fpm worker
+    // (docker/php-fpm-pool.conf sizes the pool for that).
+    // ─────────────────────────────────────────────────────────────
+    public function dispatchStream(Request $request): StreamedResponse
+    {
+        /** @var Courier $courier */
+        $courier = $request->user();
+        $cursor  = $request->header('Last-Event-ID') ?? $request->query('since');
+
+        return response()->stream(function () use ($courier, $cursor) {
+            $seq    = (int) $cursor;
+            $oldest = DispatchEvent::min('id');
+            $latest = (int) DispatchEvent::max('id');
+
+            // No cursor, events already pruned, a cursor from another database,
+            // or a cursor left over from a log that has since been emptied
+            $pruned  = $oldest !== null && $seq < $oldest - 1;
+            $foreign = $oldest !== null && $seq > $latest;
+            $emptied = $oldest === null && $seq > 0;
+            if ($cursor === null || $pruned || $foreign || $emptied) {
+                $seq = $this->dispatchWatermark() ?? 0;
+                $this->sendEvent($seq, 'reset', (object) []);
+            }
+
+            $deadline = microtime(true) + self::DISPATCH_STREAM_MAX_S;
+            while (! connection_aborted()) {
+                $online    = (bool) Courier::whereKey($courier->id)->value('is_available');
+                $watermark = $this->dispatchWatermark();
+                $events    = $watermark === null || $watermark <= $seq
+                    ? collect()
+                    : DispatchEvent::where('id', '>', $seq)
+                        ->where('id', '<=', $watermark)
+                        ->visibleTo($courier->id, $online)
+                        ->orderBy('id')
+                        ->limit(100)
+                        ->get();
+
+                if ($events->isEmpty()) {
+                    echo ": ping\n\n";
+                } else {
+                    foreach ($this->dispatchPayloads($events) as $eventId => $payload) {
+                        $this->sendEvent($eventId, 'job', $payload);
+                    }
+                    $seq = $events->last()->id;
+                }
+                if ($events->count() < 100 && $watermark !== null && $watermark > $seq) {
+                    // Nothing visible to this courier up to the watermark
+                    $seq = $watermark;
+                }
+                $this->flushStream();
+
+                if (microtime(true) + self::DISPATCH_STREAM_STEP_S > $deadline) {
+                    break;
+                }
+                sleep(self::DISPATCH_STREAM_STEP_S);
+            }
+        }, 200, [
+            'Content-Type'      => 'text/event-stream',
+            'Cache-Control'     => 'no-cache',
+            'X-Accel-Buffering' => 'no',   // nginx: do not buffer the stream
+        ]);
+    }
+
     // ─────────────────────────────────────────────────────────────
     // GET /api/courier/available-orders
     // Returns paid marketplace orders with status='searching' (no courier yet).
@@ -362,6 +507,64 @@ private function formatOrder(Order $order): array
     }
 
 
+    /**
+     * Builds the "job" payloads for a page of events, loading every pickup /
+     * order the page mentions in two queries. Rows deleted in the meantime
+     * go out as "removed".
+     */
+    private function dispatchPayloads($events): array
+    {
+        $pickupIds = $events->where('kind', 'pickup')->pluck('entity_id')->unique();
+        $orderIds  = $events->where('kind', 'order')->pluck('entity_id')->unique();
+
+        $pickups = PickupRequest::with(['items.wasteCategory', 'user'])->whereIn('id', $pickupIds)->get()->keyBy('id');
+        $orders  = Order::with(['listing', 'buyer'])->whereIn('id', $orderIds)->get()->keyBy('id');
+
+        $payloads = [];
+        foreach ($events as $event) {
+            $model = $event->kind === 'order' ? $orders->get($event->entity_id) : $pickups->get($event->entity_id);
+            $item  = null;
+            if ($event->action !== 'removed' && $model) {
+                $item = $event->kind === 'order' ? $this->formatOrder($model) : $this->formatPickup($model);
+            }
+            $payloads[$event->id] = [
+                'kind'   => $event->kind,
+                'action' => $item === null ? 'removed' : $event->action,
+                'list'   => $event->list,
+                'id'     => $event->entity_id,
+                'item'   => $item,
+            ];
+        }
+        return $payloads;
+    }
+
+    /**
+     * Highest event id that is at least DISPATCH_COMMIT_LAG_S old, or null
+     * when there is none yet. Everything up to it has committed, so the
+     * stream reads up to here and never past an id that may still fill in.
+     */
+    private function dispatchWatermark(): ?int
+    {
+        $id = DispatchEvent::where('created_at', '<=', now()->subSeconds(self::DISPATCH_COMMIT_LAG_S))
+            ->orderByDesc('id')
+            ->value('id');
+
+        return $id === null ? null : (int) $id;
+    }
+
+    private function sendEvent(int $id, string $event, $data): void
+    {
+        echo "id: {$id}\nevent: {$event}\ndata: " . json_encode($data) . "\n\n";
+    }
+
+    private function flushStream(): void
+    {
+        if (ob_get_level() > 0) {
+            ob_flush();
+        }
+        flush();
+    }
+
     private function courierResource(Courier $courier): array
     {
         return [
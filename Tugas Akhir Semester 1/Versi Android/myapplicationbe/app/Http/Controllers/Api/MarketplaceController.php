@@ -4,32 +4,62 @@
 
 use App\Http\Controllers\Controller;
 use App\Models\MarketplaceListing;
+use App\Services\ListingThumbnailService;
 use Illuminate\Http\JsonResponse;
 use Illuminate\Http\Request;
+use Illuminate\Http\Response;
+use Illuminate\Support\Carbon;
 use Illuminate\Support\Facades\Storage;
 
 class MarketplaceController extends Controller
 {
     // ─────────────────────────────────────────────────────────────
     // GET /api/marketplace
-    // Query params: category (optional), search (optional)
-    // Returns paginated active listings with wishlisted flag per user
+    // Query params: category (optional), search (optional),
+    //               updated_since (optional, delta sync for the app cache)
+    // Returns paginated active listings with wishlisted flag per user.
+    // With updated_since, also returns sold/inactive/deleted rows changed
+    // at or after that time so the client can evict them (>=: updated_at
+    // has one-second precision, so a row written in the same second as the
+    // previous server_time comes back again; the client upsert is
+    // idempotent). The response carries an ETag over the whole catalog
+    // state; a matching If-None-Match → 304.
     // ─────────────────────────────────────────────────────────────
-    public function index(Request $request): JsonResponse
+    public function index(Request $request): JsonResponse|Response
     {
-        $user     = $request->user();
-        $category = $request->query('category');
-        $search   = $request->query('search');
+        $user         = $request->user();
+        $category     = $request->query('category');
+        $search       = $request->query('search');
+        $updatedSince = $request->query('updated_since');
+        $serverTime   = Carbon::now();
 
         // Get user's wishlist listing IDs for isWishlisted flag
         $wishlistedIds = $user->wishlists()->pluck('listing_id')->toArray();
 
+        $etag = '"' . md5(json_encode([
+            MarketplaceListing::withTrashed()->max('updated_at'),
+            MarketplaceListing::withTrashed()->count(),
+            $wishlistedIds,
+            $category,
+            $search,
+        ])) . '"';
+
+        if ($updatedSince && in_array($etag, $request->getETags(), true)) {
+            return response('', 304)->setEtag(trim($etag, '"'));
+        }
+
         $perPage = min((int) $request->query('per_page', 20), 50);
 
-        $paginator = MarketplaceListing::active()
+        $query = $updatedSince
+            ? MarketplaceListing::withTrashed()
+                ->where('updated_at', '>=', Carbon::parse($updatedSince))
+                ->orderBy('updated_at')
+                ->orderBy('id')
+            : MarketplaceListing::active()->latest();
+
+        $paginator = $query
             ->byCategory($category)
             ->when($search, fn ($q, $s) => $q->where('name', 'like', "%{$s}%"))
-            ->latest()
             ->paginate($perPage);
 
         $listings = $paginator->getCollection()->map(
@@ -43,6 +73,40 @@ public function index(Request $request): JsonResponse
                 'last_page'    => $paginator->lastPage(),
                 'per_page'     => $paginator->perPage(),
                 'total'        => $paginator->total(),
+                'server_time'  => $serverTime->toDateTimeString(),
+            ],
+        ])->setEtag(trim($etag, '"'));
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/marketplace/feed
+    // Query params: category (optional), cursor (optional), per_page (optional)
+    // Keyset-paginated active listings, newest first, for the app's paged
+    // grid. Cost per page stays constant however deep the client scrolls;
+    // pass meta.next_cursor back as ?cursor= (null = no more pages).
+    // ─────────────────────────────────────────────────────────────
+    public function feed(Request $request): JsonResponse
+    {
+        $category = $request->query('category');
+        $perPage  = min((int) $request->query('per_page', 20), 50);
+
+        $wishlistedIds = $request->user()->wishlists()->pluck('listing_id')->toArray();
+
+        $paginator = MarketplaceListing::active()
+            ->byCategory($category)
+            ->orderByDesc('id')
+            ->cursorPaginate($perPage);
+
+        $listings = collect($paginator->items())->map(
+            fn (MarketplaceListing $listing) => $this->formatListing($listing, $wishlistedIds)
+        );
+
+        return response()->json([
+            'data' => $listings,
+            'meta' => [
+                'per_page'    => $paginator->perPage(),
+                'next_cursor' => $paginator->nextCursor()?->encode(),
+                'server_time' => Carbon::now()->toDateTimeString(),
             ],
         ]);
     }
@@ -83,8 +147,10 @@ public function store(Request $request): JsonResponse
         ]);
 
         $imagePath = null;
+        $thumbnailPath = null;
         if ($request->hasFile('image')) {
             $imagePath = $request->file('image')->store('listings', 'public');
+            $thumbnailPath = (new ListingThumbnailService())->make($imagePath);
         }
 
         $stock = $validated['stock'] ?? 1;
@@ -102,6 +168,7 @@ public function store(Request $request): JsonResponse
             'is_sold'      => false,
             'is_active'    => true,
             'image_path'   => $imagePath,
+            'thumbnail_path' => $thumbnailPath,
         ]);
 
         $user->increment('items_sold');
@@ -168,11 +235,14 @@ public function update(Request $request, int $id): JsonResponse
         ]);
 
         if ($request->hasFile('image')) {
-            // Delete old image if exists
+            $thumbnails = new ListingThumbnailService();
+            // Delete old image (and its thumbnail) if exists
             if ($listing->image_path) {
                 Storage::disk('public')->delete($listing->image_path);
             }
+            $thumbnails->delete($listing->thumbnail_path);
             $validated['image_path'] = $request->file('image')->store('listings', 'public');
+            $validated['thumbnail_path'] = $thumbnails->make($validated['image_path']);
         }
 
         // When stock is set to 0 → auto mark as sold out
@@ -236,12 +306,17 @@ private function formatListing(MarketplaceListing $listing, array $wishlistedIds
             'image_url'     => $listing->image_path
                 ? Storage::disk('public')->url($listing->image_path)
                 : null,
+            'thumbnail_url' => $listing->thumbnail_path
+                ? Storage::disk('public')->url($listing->thumbnail_path)
+                : null,
             'is_wishlisted' => in_array($listing->id, $wishlistedIds),
             'is_sold'       => $listing->is_sold,
             'is_active'     => $listing->is_active,
             'stock'         => $listing->stock,
             'views_count'   => $listing->views_count,
             'created_at'    => $listing->created_at?->toDateTimeString(),
+            'updated_at'    => $listing->updated_at?->toDateTimeString(),
+            'is_deleted'    => $listing->trashed(),
         ];
     }
 }
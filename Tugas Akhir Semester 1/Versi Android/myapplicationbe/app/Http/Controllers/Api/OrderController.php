@@ -14,6 +14,11 @@
 
 class OrderController extends Controller
 {
+    /** Upper bound for ?wait= on payment-status (client read timeout is 30 s). */
+    public const PAYMENT_LONG_POLL_MAX_S  = 25;
+    /** How often a held payment-status request re-checks; at most one Mayar poll per payment per step. */
+    public const PAYMENT_LONG_POLL_STEP_S = 3;
+
     // ─────────────────────────────────────────────────────────────
     // GET /api/orders
     // Returns all orders for the authenticated buyer, newest first
@@ -125,6 +130,32 @@ public function show(Request $request, int $id): JsonResponse
         return response()->json(['data' => $this->formatOrder($order)]);
     }
 
+    // ─────────────────────────────────────────────────────────────
+    // GET /api/orders/{id}/courier-location
+    // Live tracking for the buyer: the courier's latest uploaded fix
+    // while the order is on its way (status shipped).
+    // ─────────────────────────────────────────────────────────────
+    public function courierLocation(Request $request, int $id): JsonResponse
+    {
+        $order = $request->user()->orders()->findOrFail($id);
+
+        if ($order->status !== 'shipped' || !$order->courier_id) {
+            return response()->json(['data' => null]);
+        }
+
+        $fix = $order->courier?->latestLocation;
+
+        return response()->json([
+            'data' => $fix ? [
+                'latitude'    => $fix->latitude,
+                'longitude'   => $fix->longitude,
+                'accuracy_m'  => $fix->accuracy_m,
+                'speed_mps'   => $fix->speed_mps,
+                'recorded_at' => $fix->recorded_at?->toIso8601String(),
+            ] : null,
+        ]);
+    }
+
     // ─────────────────────────────────────────────────────────────
     // POST /api/orders/{id}/pay
     // Creates a Mayar payment request and returns the payment link.
@@ -187,35 +218,64 @@ public function pay(Request $request, int $id): JsonResponse
     }
 
     // ─────────────────────────────────────────────────────────────
-    // GET /api/orders/{id}/payment-status
-    // Android polls this every 3 seconds to check if user has paid.
-    // If Mayar returns status=paid → update order to confirmed.
+    // GET /api/orders/{id}/payment-status?wait=
+    // Android watches this until the user has paid.
+    // If Mayar returns status=paid → update order to searching.
+    // wait (seconds, max 25) turns it into a long-poll: while the order
+    // is still unpaid the request re-checks every few seconds and only
+    // answers once the status changes or the wait runs out. Concurrent
+    // waiters share one Mayar poll; without wait it answers right away.
     // ─────────────────────────────────────────────────────────────
     public function paymentStatus(Request $request, int $id): JsonResponse
     {
+        $wait     = min(max((int) $request->query('wait', 0), 0), self::PAYMENT_LONG_POLL_MAX_S);
+        $deadline = microtime(true) + $wait;
+
         $order = $request->user()->orders()->with('listing')->findOrFail($id);
 
-        // Already confirmed / beyond pending → just return current state
-        if (!$order->isPending()) {
-            return response()->json([
-                'payment_status' => $order->payment_status,
-                'order_status'   => $order->status,
-                'data'           => $this->formatOrder($order),
-            ]);
+        while (true) {
+            $order = $this->syncPaymentFromMayar($order);
+
+            $settled = $order->payment_status !== 'unpaid'
+                || !$order->isPending()
+                || !$order->mayar_payment_id;
+
+            if ($settled || microtime(true) + self::PAYMENT_LONG_POLL_STEP_S > $deadline) {
+                break;
+            }
+
+            sleep(self::PAYMENT_LONG_POLL_STEP_S);
+            // Webhook-less: the order may also be cancelled meanwhile.
+            $order->refresh()->load('listing');
         }
 
-        if (!$order->mayar_payment_id) {
-            return response()->json([
-                'payment_status' => 'unpaid',
-                'order_status'   => $order->status,
-                'data'           => $this->formatOrder($order),
-            ]);
+        // No Mayar request yet → nothing to pay against
+        $paymentStatus = ($order->isPending() && !$order->mayar_payment_id)
+            ? 'unpaid'
+            : $order->payment_status;
+
+        return response()->json([
+            'payment_status' => $paymentStatus,
+            'order_status'   => $order->status,
+            'data'           => $this->formatOrder($order),
+        ]);
+    }
+
+    /**
+     * Reads the Mayar payment state of a pending order (shared with the
+     * other requests watching it, see MayarService::cachedPaymentStatus)
+     * and confirms the order when it has been paid. Mayar errors leave it
+     * untouched.
+     */
+    private function syncPaymentFromMayar(Order $order): Order
+    {
+        if (!$order->isPending() || !$order->mayar_payment_id) {
+            return $order;
         }
 
         try {
-            $mayar  = new MayarService();
-            $detail = $mayar->getPaymentDetail($order->mayar_payment_id);
-            $status = $detail['status'] ?? 'unpaid';
+            $status = (new MayarService())
+                ->cachedPaymentStatus($order->mayar_payment_id, self::PAYMENT_LONG_POLL_STEP_S);
 
             if ($status === 'paid' && $order->payment_status !== 'paid') {
                 // Payment confirmed by Mayar → set searching (waiting for courier)
@@ -230,19 +290,11 @@ public function paymentStatus(Request $request, int $id): JsonResponse
 
                 $order->refresh()->load('listing');
             }
-
-            return response()->json([
-                'payment_status' => $order->payment_status,
-                'order_status'   => $order->status,
-                'data'           => $this->formatOrder($order),
-            ]);
         } catch (\Throwable $e) {
-            return response()->json([
-                'payment_status' => $order->payment_status,
-                'order_status'   => $order->status,
-                'data'           => $this->formatOrder($order),
-            ]);
+            // Keep the stored status; the client simply asks again.
         }
+
+        return $order;
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -424,6 +476,9 @@ private function formatOrder(Order $order): array
                 'image_url'     => $listing->image_path
                     ? Storage::disk('public')->url($listing->image_path)
                     : null,
+                'thumbnail_url' => $listing->thumbnail_path
+                    ? Storage::disk('public')->url($listing->thumbnail_path)
+                    : null,
                 'is_wishlisted' => false,
                 'is_sold'       => $listing->is_sold,
             ] : null,
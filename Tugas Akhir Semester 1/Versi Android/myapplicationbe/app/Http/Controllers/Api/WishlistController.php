@@ -7,10 +7,14 @@
 use App\Models\Wishlist;
 use Illuminate\Http\JsonResponse;
 use Illuminate\Http\Request;
+use Illuminate\Support\Facades\DB;
 use Illuminate\Support\Facades\Storage;
 
 class WishlistController extends Controller
 {
+    /** Listings accepted per POST /api/wishlist/batch. */
+    public const MAX_BATCH_ITEMS = 100;
+
     // ─────────────────────────────────────────────────────────────
     // GET /api/wishlist
     // Returns all wishlisted listings for the authenticated user
@@ -73,6 +77,51 @@ public function toggle(Request $request): JsonResponse
         ]);
     }
 
+    // ─────────────────────────────────────────────────────────────
+    // POST /api/wishlist/batch
+    // Write-behind flush from the app: the final state per listing after
+    // the user's taps were coalesced. Absolute states instead of toggles,
+    // so a retried batch changes nothing the second time.
+    //
+    // Body:
+    // { "items": [ { "listing_id": 5, "wishlisted": true }, { "listing_id": 9, "wishlisted": false } ] }
+    //
+    // Returns:
+    // { "wishlisted": ["5"], "rejected": ["12"] }   // rejected = listing no longer exists
+    // ─────────────────────────────────────────────────────────────
+    public function batch(Request $request): JsonResponse
+    {
+        $validated = $request->validate([
+            'items'              => ['required', 'array', 'min:1', 'max:' . self::MAX_BATCH_ITEMS],
+            'items.*.listing_id' => ['required', 'integer'],
+            'items.*.wishlisted' => ['required', 'boolean'],
+        ]);
+
+        $userId = $request->user()->id;
+        $items  = collect($validated['items'])->keyBy('listing_id');
+
+        $known = MarketplaceListing::whereIn('id', $items->keys())->pluck('id')->all();
+        $add    = $items->filter(fn ($i) => $i['wishlisted'] && in_array($i['listing_id'], $known))->keys();
+        $remove = $items->filter(fn ($i) => !$i['wishlisted'])->keys();
+
+        DB::transaction(function () use ($userId, $add, $remove) {
+            if ($remove->isNotEmpty()) {
+                Wishlist::where('user_id', $userId)->whereIn('listing_id', $remove)->delete();
+            }
+            foreach ($add as $listingId) {
+                Wishlist::firstOrCreate(['user_id' => $userId, 'listing_id' => $listingId]);
+            }
+        });
+
+        return response()->json([
+            'wishlisted' => $add->map(fn ($id) => (string) $id)->values(),
+            'rejected'   => $items->keys()
+                ->filter(fn ($id) => $items[$id]['wishlisted'] && !in_array($id, $known))
+                ->map(fn ($id) => (string) $id)
+                ->values(),
+        ]);
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Helper: format listing with isWishlisted flag
     // ─────────────────────────────────────────────────────────────
@@ -90,6 +139,9 @@ private function formatListing(MarketplaceListing $listing, array $wishlistedIds
             'image_url'     => $listing->image_path
                 ? Storage::disk('public')->url($listing->image_path)
                 : null,
+            'thumbnail_url' => $listing->thumbnail_path
+                ? Storage::disk('public')->url($listing->thumbnail_path)
+                : null,
             'is_wishlisted' => in_array($listing->id, $wishlistedIds),
             'is_sold'       => $listing->is_sold,
         ];
@@ -0,0 +1,87 @@
+<?php
+
+namespace App\Http\Middleware;
+
+use App\Models\IdempotencyKey;
+use Closure;
+use Illuminate\Database\UniqueConstraintViolationException;
+use Illuminate\Http\Request;
+use Symfony\Component\HttpFoundation\Response;
+use Throwable;
+
+/**
+ * Makes a write safe to retry. The app's outbox sends an Idempotency-Key
+ * header and keeps it across retries; the first response for a key is
+ * stored and every repeat gets that response back instead of running the
+ * controller again (a second pickup, a second order, ...).
+ *
+ * Keys are scoped to the authenticated user or courier. A 5xx or an
+ * exception forgets the key, so the retry runs for real. Requests without
+ * the header pass straight through.
+ */
+class IdempotentRequest
+{
+    public const MAX_KEY_LENGTH = 100;
+
+    public function handle(Request $request, Closure $next): Response
+    {
+        $key   = $request->header('Idempotency-Key');
+        $owner = $request->user();
+        if ($key === null || $owner === null) {
+            return $next($request);
+        }
+        if (strlen($key) > self::MAX_KEY_LENGTH) {
+            return response()->json(['message' => 'Idempotency-Key terlalu panjang.'], 422);
+        }
+
+        $scope = [
+            'owner_type' => $owner->getMorphClass(),
+            'owner_id'   => $owner->getKey(),
+            'key'        => $key,
+        ];
+        $fingerprint = hash('sha256', $request->method().' '.$request->path().' '.$request->getContent());
+
+        try {
+            $record = IdempotencyKey::create($scope + ['fingerprint' => $fingerprint]);
+        } catch (UniqueConstraintViolationException) {
+            return $this->replay(IdempotencyKey::where($scope)->first(), $fingerprint);
+        }
+
+        try {
+            $response = $next($request);
+        } catch (Throwable $e) {
+            $record->delete();
+            throw $e;
+        }
+
+        if ($response->getStatusCode() >= 500) {
+            $record->delete();
+        } else {
+            $record->update([
+                'status_code'   => $response->getStatusCode(),
+                'response_body' => $response->getContent(),
+            ]);
+        }
+
+        return $response;
+    }
+
+    private function replay(?IdempotencyKey $record, string $fingerprint): Response
+    {
+        // Deleted in between (the first attempt failed) or still running: try again shortly
+        if ($record === null || $record->status_code === null) {
+            return response()
+                ->json(['message' => 'Permintaan yang sama sedang diproses.'], 503)
+                ->header('Retry-After', '2');
+        }
+        if (! hash_equals($record->fingerprint, $fingerprint)) {
+            return response()->json([
+                'message' => 'Idempotency-Key sudah dipakai untuk permintaan lain.',
+            ], 422);
+        }
+
+        return response($record->response_body, $record->status_code)
+            ->header('Content-Type', 'application/json')
+            ->header('Idempotent-Replayed', 'true');
+    }
+}
@@ -0,0 +1,33 @@
+<?php
+
+namespace App\Models;
+
+use Illuminate\Database\Eloquent\Model;
+use Illuminate\Database\Eloquent\Relations\BelongsTo;
+
+class CartItem extends Model
+{
+    protected $fillable = [
+        'user_id',
+        'listing_id',
+        'quantity',
+        'client_updated_at',
+    ];
+
+    protected $casts = [
+        'quantity'          => 'integer',
+        'client_updated_at' => 'integer',
+    ];
+
+    // ── Relationships ─────────────────────────────────────────────
+
+    public function user(): BelongsTo
+    {
+        return $this->belongsTo(User::class);
+    }
+
+    public function listing(): BelongsTo
+    {
+        return $this->belongsTo(MarketplaceListing::class, 'listing_id');
+    }
+}
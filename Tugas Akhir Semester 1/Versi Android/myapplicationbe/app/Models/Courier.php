@@ -4,6 +4,7 @@
 
 use Illuminate\Database\Eloquent\Factories\HasFactory;
 use Illuminate\Database\Eloquent\Relations\HasMany;
+use Illuminate\Database\Eloquent\Relations\HasOne;
 use Illuminate\Database\Eloquent\SoftDeletes;
 use Illuminate\Foundation\Auth\User as Authenticatable;
 use Illuminate\Notifications\Notifiable;
@@ -52,4 +53,16 @@ public function activePickups(): HasMany
         return $this->hasMany(PickupRequest::class, 'courier_id')
                     ->whereIn('status', ['pending', 'on_the_way']);
     }
+
+    /** GPS trail uploaded by the courier app */
+    public function locations(): HasMany
+    {
+        return $this->hasMany(CourierLocation::class, 'courier_id');
+    }
+
+    /** Most recent GPS fix (live tracking) */
+    public function latestLocation(): HasOne
+    {
+        return $this->hasOne(CourierLocation::class, 'courier_id')->latestOfMany('recorded_at');
+    }
 }
@@ -0,0 +1,36 @@
+<?php
+
+namespace App\Models;
+
+use Illuminate\Database\Eloquent\Model;
+use Illuminate\Database\Eloquent\Relations\BelongsTo;
+
+class CourierLocation extends Model
+{
+    // Append-only trail: only created_at is kept
+    const UPDATED_AT = null;
+
+    protected $fillable = [
+        'courier_id',
+        'latitude',
+        'longitude',
+        'accuracy_m',
+        'speed_mps',
+        'recorded_at',
+    ];
+
+    protected $casts = [
+        'latitude'    => 'float',
+        'longitude'   => 'float',
+        'accuracy_m'  => 'float',
+        'speed_mps'   => 'float',
+        'recorded_at' => 'datetime',
+    ];
+
+    // ── Relationships ─────────────────────────────────────────────
+
+    public function courier(): BelongsTo
+    {
+        return $this->belongsTo(Courier::class);
+    }
+}
@@ -0,0 +1,58 @@
+<?php
+
+namespace App\Models;
+
+use Illuminate\Database\Eloquent\Builder;
+use Illuminate\Database\Eloquent\MassPrunable;
+use Illuminate\Database\Eloquent\Model;
+
+class DispatchEvent extends Model
+{
+    use MassPrunable;
+
+    // Append-only log: only created_at is kept
+    const UPDATED_AT = null;
+
+    /** Couriers offline for longer than this get a "reset" and reload their lists. */
+    const RETENTION_HOURS = 24;
+
+    protected $fillable = [
+        'courier_id',
+        'kind',
+        'action',
+        'list',
+        'entity_id',
+    ];
+
+    protected $casts = [
+        'courier_id' => 'integer',
+        'entity_id'  => 'integer',
+    ];
+
+    public static function record(?int $courierId, string $kind, string $action, string $list, int $entityId): void
+    {
+        static::create([
+            'courier_id' => $courierId,
+            'kind'       => $kind,
+            'action'     => $action,
+            'list'       => $list,
+            'entity_id'  => $entityId,
+        ]);
+    }
+
+    /** Events one courier should see: broadcasts (if online) plus its own. */
+    public function scopeVisibleTo(Builder $query, int $courierId, bool $includeBroadcast): Builder
+    {
+        return $query->where(function (Builder $q) use ($courierId, $includeBroadcast) {
+            $q->where('courier_id', $courierId);
+            if ($includeBroadcast) {
+                $q->orWhereNull('courier_id');
+            }
+        });
+    }
+
+    public function prunable(): Builder
+    {
+        return static::where('created_at', '<', now()->subHours(self::RETENTION_HOURS));
+    }
+}
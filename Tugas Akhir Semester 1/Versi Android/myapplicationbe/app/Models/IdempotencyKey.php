@@ -0,0 +1,34 @@
+<?php
+
+namespace App\Models;
+
+use Illuminate\Database\Eloquent\Builder;
+use Illuminate\Database\Eloquent\MassPrunable;
+use Illuminate\Database\Eloquent\Model;
+
+class IdempotencyKey extends Model
+{
+    use MassPrunable;
+
+    /** The app's outbox retries for hours at most; a key older than this may be reused. */
+    const RETENTION_HOURS = 72;
+
+    protected $fillable = [
+        'owner_type',
+        'owner_id',
+        'key',
+        'fingerprint',
+        'status_code',
+        'response_body',
+    ];
+
+    protected $casts = [
+        'owner_id'    => 'integer',
+        'status_code' => 'integer',
+    ];
+
+    public function prunable(): Builder
+    {
+        return static::where('created_at', '<', now()->subHours(self::RETENTION_HOURS));
+    }
+}
@@ -20,6 +20,7 @@ class MarketplaceListing extends Model
         'category',
         'condition',
         'image_path',
+        'thumbnail_path',
         'seller_name',
         'seller_rating',
         'is_sold',
@@ -80,4 +80,9 @@ public function addresses(): HasMany
     {
         return $this->hasMany(UserAddress::class);
     }
+
+    public function cartItems(): HasMany
+    {
+        return $this->hasMany(CartItem::class);
+    }
 }
@@ -0,0 +1,78 @@
+<?php
+
+namespace App\Observers;
+
+use App\Models\DispatchEvent;
+use App\Models\Order;
+use App\Models\PickupRequest;
+use Illuminate\Database\Eloquent\Model;
+
+/**
+ * Turns pickup / order changes into dispatch_events rows, so couriers get
+ * diffs over GET /api/courier/dispatch/stream instead of re-fetching every
+ * list. Mirrors the list queries in CourierController:
+ *
+ *  - available: no courier yet, status 'searching' (orders also paid)
+ *  - mine:      assigned to the courier, any status
+ *
+ * Only model events are seen — query-builder mass updates bypass this, and
+ * clients recover from that through the stream's "reset".
+ */
+class DispatchObserver
+{
+    public function saved(Model $model): void
+    {
+        $kind = $this->kind($model);
+        $id   = (int) $model->getKey();
+
+        // ── available list (broadcast) ────────────────────────────
+        $isAvailable  = $this->isAvailable($model, $model->getAttributes());
+        $wasAvailable = ! $model->wasRecentlyCreated && $this->isAvailable($model, $model->getOriginal());
+
+        if ($isAvailable && ! $wasAvailable) {
+            DispatchEvent::record(null, $kind, 'added', 'available', $id);
+        } elseif (! $isAvailable && $wasAvailable) {
+            DispatchEvent::record(null, $kind, 'removed', 'available', $id);
+        } elseif ($isAvailable && $model->wasChanged()) {
+            DispatchEvent::record(null, $kind, 'updated', 'available', $id);
+        }
+
+        // ── courier's own list ────────────────────────────────────
+        $newCourier = $model->courier_id;
+        $oldCourier = $model->wasRecentlyCreated ? null : $model->getOriginal('courier_id');
+
+        if ($oldCourier && $oldCourier != $newCourier) {
+            DispatchEvent::record((int) $oldCourier, $kind, 'removed', 'mine', $id);
+        }
+        if ($newCourier && ($oldCourier != $newCourier || $model->wasChanged())) {
+            $action = $oldCourier == $newCourier ? 'updated' : 'added';
+            DispatchEvent::record((int) $newCourier, $kind, $action, 'mine', $id);
+        }
+    }
+
+    public function deleted(Model $model): void
+    {
+        $kind = $this->kind($model);
+        $id   = (int) $model->getKey();
+
+        if ($this->isAvailable($model, $model->getAttributes())) {
+            DispatchEvent::record(null, $kind, 'removed', 'available', $id);
+        }
+        if ($model->courier_id) {
+            DispatchEvent::record((int) $model->courier_id, $kind, 'removed', 'mine', $id);
+        }
+    }
+
+    private function kind(Model $model): string
+    {
+        return $model instanceof Order ? 'order' : 'pickup';
+    }
+
+    private function isAvailable(Model $model, array $attributes): bool
+    {
+        if (($attributes['courier_id'] ?? null) !== null || ($attributes['status'] ?? null) !== 'searching') {
+            return false;
+        }
+        return $model instanceof PickupRequest || ($attributes['payment_status'] ?? null) === 'paid';
+    }
+}
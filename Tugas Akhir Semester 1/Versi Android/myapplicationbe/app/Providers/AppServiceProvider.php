@@ -2,6 +2,9 @@
 
 namespace App\Providers;
 
+use App\Models\Order;
+use App\Models\PickupRequest;
+use App\Observers\DispatchObserver;
 use Illuminate\Support\ServiceProvider;
 
 class AppServiceProvider extends ServiceProvider
@@ -19,6 +22,8 @@ public function register(): void
      */
     public function boot(): void
     {
-        //
+        // Courier dispatch feed (see DispatchObserver / CourierController::dispatchStream)
+        PickupRequest::observe(DispatchObserver::class);
+        Order::observe(DispatchObserver::class);
     }
 }
@@ -0,0 +1,121 @@
+<?php
+
+namespace App\Services;
+
+use Illuminate\Support\Facades\Log;
+use Illuminate\Support\Facades\Storage;
+
+/**
+ * ListingThumbnailService
+ *
+ * Makes a small JPEG next to every uploaded listing photo so the app's
+ * grids and order cards download a few dozen KB instead of the 5 MB
+ * original. Stored on the public disk under listings/thumbs/ and exposed
+ * as `thumbnail_url` beside `image_url`.
+ *
+ * Uses GD. Without it (or for a file GD cannot decode) no thumbnail is
+ * made and the app falls back to the full image, requested at view size.
+ * Phone JPEGs are stored sideways with an EXIF Orientation tag, which GD
+ * ignores; the thumbnail is turned upright first (needs the exif extension).
+ */
+class ListingThumbnailService
+{
+    /** Longest side in px — a half-width grid card on an xxhdpi phone. */
+    public const MAX_SIDE = 480;
+
+    public const JPEG_QUALITY = 80;
+
+    /** Returns the thumbnail's path on the public disk, or null if none could be made. */
+    public function make(string $imagePath): ?string
+    {
+        if (!function_exists('imagecreatefromstring')) {
+            return null;
+        }
+
+        $disk = Storage::disk('public');
+        $bytes = $disk->get($imagePath);
+        $source = $bytes !== null ? @imagecreatefromstring($bytes) : false;
+        if ($source === false) {
+            Log::warning('Listing thumbnail skipped: cannot decode image', ['path' => $imagePath]);
+            return null;
+        }
+
+        $source = $this->orient($source, $bytes);
+
+        try {
+            $width = imagesx($source);
+            $height = imagesy($source);
+            $scale = min(1, self::MAX_SIDE / max($width, $height));
+            $thumb = $scale < 1
+                ? imagescale($source, max(1, (int) round($width * $scale)), max(1, (int) round($height * $scale)))
+                : $source;
+
+            ob_start();
+            imagejpeg($thumb, null, self::JPEG_QUALITY);
+            $jpeg = ob_get_clean();
+
+            if ($thumb !== $source) {
+                imagedestroy($thumb);
+            }
+
+            $thumbPath = 'listings/thumbs/' . pathinfo($imagePath, PATHINFO_FILENAME) . '.jpg';
+            $disk->put($thumbPath, $jpeg);
+
+            return $thumbPath;
+        } finally {
+            imagedestroy($source);
+        }
+    }
+
+    /**
+     * Applies a JPEG's EXIF Orientation (values 2–8) to the decoded image.
+     * Returns the upright image; the one passed in is destroyed if replaced.
+     */
+    private function orient(\GdImage $image, string $bytes): \GdImage
+    {
+        if (!function_exists('exif_read_data') || !str_starts_with($bytes, "\xFF\xD8")) {
+            return $image;
+        }
+
+        $stream = fopen('php://memory', 'r+b');
+        fwrite($stream, $bytes);
+        rewind($stream);
+        $exif = @exif_read_data($stream);
+        fclose($stream);
+
+        $orientation = (int) ($exif['Orientation'] ?? 1);
+        if ($orientation < 2 || $orientation > 8) {
+            return $image;
+        }
+
+        // imagerotate turns counter-clockwise: 6 needs 90° clockwise, 8 needs 90° counter-clockwise
+        $angle = match ($orientation) {
+            3, 4    => 180,
+            5, 6    => -90,
+            7, 8    => 90,
+            default => 0,
+        };
+        if ($angle !== 0) {
+            $rotated = imagerotate($image, $angle, 0);
+            if ($rotated === false) {
+                return $image;
+            }
+            imagedestroy($image);
+            $image = $rotated;
+        }
+
+        // 2, 4, 5 and 7 are mirrored: 4 is a 180° turn plus a horizontal flip (= vertical flip)
+        if (in_array($orientation, [2, 4, 5, 7], true)) {
+            imageflip($image, IMG_FLIP_HORIZONTAL);
+        }
+
+        return $image;
+    }
+
+    public function delete(?string $thumbnailPath): void
+    {
+        if ($thumbnailPath) {
+            Storage::disk('public')->delete($thumbnailPath);
+        }
+    }
+}
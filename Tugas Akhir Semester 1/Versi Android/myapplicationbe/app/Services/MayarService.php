@@ -2,6 +2,7 @@
 
 namespace App\Services;
 
+use Illuminate\Support\Facades\Cache;
 use Illuminate\Support\Facades\Http;
 use Illuminate\Support\Facades\Log;
 
@@ -115,6 +116,32 @@ public function getPaymentDetail(string $paymentId): array
         return $response->json('data', []);
     }
 
+    // ─────────────────────────────────────────────────────────────
+    // Payment status shared by every request watching the payment
+    // Only the caller that gets the lock asks Mayar (at most once per
+    // $maxAgeS); everyone else reads the status it cached.
+    // Returns 'unpaid' | 'paid' | 'closed', or null before the first answer
+    // ─────────────────────────────────────────────────────────────
+    public function cachedPaymentStatus(string $paymentId, int $maxAgeS): ?string
+    {
+        $key = "mayar:payment-status:{$paymentId}";
+
+        // Never released: the lock expiring is what allows the next upstream poll
+        if (!Cache::lock("{$key}:poll", $maxAgeS)->get()) {
+            return Cache::get($key);
+        }
+
+        try {
+            $status = $this->getPaymentDetail($paymentId)['status'] ?? 'unpaid';
+        } catch (\Throwable $e) {
+            return Cache::get($key);
+        }
+
+        Cache::put($key, $status, now()->addHour());
+
+        return $status;
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Get all PAID transactions (sales history)
     // GET /hl/v1/transaction/paid
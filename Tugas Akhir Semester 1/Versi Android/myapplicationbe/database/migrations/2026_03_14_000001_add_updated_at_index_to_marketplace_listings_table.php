@@ -0,0 +1,23 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // GET /api/marketplace?updated_since= (app cache delta sync) filters and sorts on updated_at
+        Schema::table('marketplace_listings', function (Blueprint $table) {
+            $table->index('updated_at');
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::table('marketplace_listings', function (Blueprint $table) {
+            $table->dropIndex(['updated_at']);
+        });
+    }
+};
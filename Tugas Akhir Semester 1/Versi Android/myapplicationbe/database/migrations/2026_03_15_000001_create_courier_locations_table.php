@@ -0,0 +1,31 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // GPS trail uploaded in batches by the courier app (POST /api/courier/locations/batch)
+        Schema::create('courier_locations', function (Blueprint $table) {
+            $table->id();
+            $table->foreignId('courier_id')->constrained('couriers')->cascadeOnDelete();
+            $table->double('latitude');
+            $table->double('longitude');
+            $table->float('accuracy_m')->nullable();
+            $table->float('speed_mps')->nullable();
+            $table->timestamp('recorded_at');
+            $table->timestamp('created_at')->nullable();
+
+            // latest fix per courier → live tracking lookups
+            $table->index(['courier_id', 'recorded_at']);
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::dropIfExists('courier_locations');
+    }
+};
@@ -0,0 +1,32 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // Ordered change log behind GET /api/courier/dispatch/stream.
+        // id doubles as the sequence number couriers resume from.
+        Schema::create('dispatch_events', function (Blueprint $table) {
+            $table->id();
+            // null = broadcast (available-jobs list), else the courier whose own list changed
+            $table->foreignId('courier_id')->nullable()->constrained('couriers')->cascadeOnDelete();
+            $table->string('kind', 16);     // pickup | order
+            $table->string('action', 16);   // added | updated | removed
+            $table->string('list', 16);     // available | mine
+            $table->unsignedBigInteger('entity_id');
+            $table->timestamp('created_at')->nullable();
+
+            $table->index(['courier_id', 'id']);
+            $table->index('created_at');
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::dropIfExists('dispatch_events');
+    }
+};
@@ -0,0 +1,32 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // Server copy of the app cart (PUT /api/cart). quantity 0 is a tombstone, kept so
+        // a removal on one device wins over an older add replayed by another.
+        Schema::create('cart_items', function (Blueprint $table) {
+            $table->id();
+            $table->foreignId('user_id')->constrained()->cascadeOnDelete();
+            $table->foreignId('listing_id')
+                ->constrained('marketplace_listings')
+                ->cascadeOnDelete();
+            $table->unsignedSmallInteger('quantity');
+            // Client clock (epoch ms) of the change — last writer wins per line
+            $table->unsignedBigInteger('client_updated_at');
+            $table->timestamps();
+
+            $table->unique(['user_id', 'listing_id']);
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::dropIfExists('cart_items');
+    }
+};
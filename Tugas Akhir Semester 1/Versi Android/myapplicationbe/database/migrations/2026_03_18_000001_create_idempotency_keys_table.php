@@ -0,0 +1,31 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // First response per Idempotency-Key (App\Http\Middleware\IdempotentRequest).
+        // status_code stays null while the first request is still running.
+        Schema::create('idempotency_keys', function (Blueprint $table) {
+            $table->id();
+            $table->morphs('owner');
+            $table->string('key', 100);
+            $table->char('fingerprint', 64);
+            $table->unsignedSmallInteger('status_code')->nullable();
+            $table->longText('response_body')->nullable();
+            $table->timestamps();
+
+            $table->unique(['owner_type', 'owner_id', 'key']);
+            $table->index('created_at');
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::dropIfExists('idempotency_keys');
+    }
+};
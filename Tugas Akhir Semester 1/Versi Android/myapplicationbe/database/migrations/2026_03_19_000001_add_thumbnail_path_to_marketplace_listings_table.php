@@ -0,0 +1,23 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    public function up(): void
+    {
+        // Small JPEG made on upload (App\Services\ListingThumbnailService); null for older listings
+        Schema::table('marketplace_listings', function (Blueprint $table) {
+            $table->string('thumbnail_path')->nullable()->after('image_path');
+        });
+    }
+
+    public function down(): void
+    {
+        Schema::table('marketplace_listings', function (Blueprint $table) {
+            $table->dropColumn('thumbnail_path');
+        });
+    }
+};
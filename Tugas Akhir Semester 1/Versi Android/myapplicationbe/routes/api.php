@@ -2,12 +2,14 @@
 
 use App\Http\Controllers\AuthController;
 use App\Http\Controllers\Api\AddressController;
+use App\Http\Controllers\Api\CartController;
 use App\Http\Controllers\Api\CartCheckoutController;
 use App\Http\Controllers\Api\CourierController;
 use App\Http\Controllers\Api\MarketplaceController;
 use App\Http\Controllers\Api\OrderController;
 use App\Http\Controllers\Api\PickupController;
 use App\Http\Controllers\Api\WishlistController;
+use App\Http\Middleware\IdempotentRequest;
 use App\Models\Admin;
 use Illuminate\Http\Request;
 use Illuminate\Support\Facades\Route;
@@ -74,7 +76,7 @@
     // POST /api/pickups/{id}/rate   → rate courier after done
     Route::prefix('pickups')->group(function () {
         Route::get('/',                 [PickupController::class, 'index']);
-        Route::post('/',                [PickupController::class, 'store']);
+        Route::post('/',                [PickupController::class, 'store'])->middleware(IdempotentRequest::class);
         Route::get('/{id}',             [PickupController::class, 'show'])->whereNumber('id');
         Route::post('/{id}/cancel',     [PickupController::class, 'cancel'])->whereNumber('id');
         Route::post('/{id}/rate',       [PickupController::class, 'rate'])->whereNumber('id');
@@ -82,10 +84,12 @@
 
     // Marketplace routes
     // GET  /api/marketplace         → list active listings (with ?category= & ?search=)
+    // GET  /api/marketplace/feed    → cursor-paginated listings for the app grid (?cursor=)
     // POST /api/marketplace         → create a new listing (seller)
     // GET  /api/marketplace/{id}    → listing detail
     Route::prefix('marketplace')->group(function () {
         Route::get('/mine',         [MarketplaceController::class, 'myListings']);
+        Route::get('/feed',         [MarketplaceController::class, 'feed']);
         Route::get('/',             [MarketplaceController::class, 'index']);
         Route::post('/',            [MarketplaceController::class, 'store']);
         Route::get('/{id}',         [MarketplaceController::class, 'show'])->whereNumber('id');
@@ -103,18 +107,29 @@
         Route::post('/cart-checkout/{cartCheckoutId}/cancel',      [CartCheckoutController::class, 'cancel']);
         // ── Single order routes ──────────────────────────────────
         Route::get('/',                        [OrderController::class, 'index']);
-        Route::post('/',                       [OrderController::class, 'store']);
+        Route::post('/',                       [OrderController::class, 'store'])->middleware(IdempotentRequest::class);
         Route::get('/{id}',                    [OrderController::class, 'show'])->whereNumber('id');
         Route::post('/{id}/pay',               [OrderController::class, 'pay'])->whereNumber('id');
         Route::get('/{id}/payment-status',     [OrderController::class, 'paymentStatus'])->whereNumber('id');
         Route::post('/{id}/cancel',            [OrderController::class, 'cancel'])->whereNumber('id');
         Route::post('/{id}/rate',              [OrderController::class, 'rate'])->whereNumber('id');
+        Route::get('/{id}/courier-location',   [OrderController::class, 'courierLocation'])->whereNumber('id');
     });    // Wishlist routes
     // GET  /api/wishlist         → list user's wishlisted items
     // POST /api/wishlist/toggle  → toggle wishlist (add or remove)
+    // POST /api/wishlist/batch   → set the final state of many listings at once
     Route::prefix('wishlist')->group(function () {
         Route::get('/',       [WishlistController::class, 'index']);
         Route::post('/toggle', [WishlistController::class, 'toggle']);
+        Route::post('/batch',  [WishlistController::class, 'batch']);
+    });
+
+    // Cart routes
+    // GET /api/cart  → cart lines with listing snapshots
+    // PUT /api/cart  → batched line changes (last writer wins per line)
+    Route::prefix('cart')->group(function () {
+        Route::get('/', [CartController::class, 'index']);
+        Route::put('/', [CartController::class, 'sync']);
     });
 
     // Address routes
@@ -136,6 +151,8 @@
 // GET  /api/courier/pickups                 → assigned pickups
 // PATCH /api/courier/pickups/{id}/status   → update pickup status
 // PATCH /api/courier/availability          → toggle online/offline
+// POST /api/courier/locations/batch         → delta-encoded GPS trail
+// GET  /api/courier/dispatch/stream         → SSE job diffs (resume via Last-Event-ID)
 // ─────────────────────────────────────────────────────────────────
 Route::middleware(['auth:sanctum', \App\Http\Middleware\EnsureIsCourier::class])
     ->prefix('courier')
@@ -144,11 +161,13 @@
         Route::get('/available-pickups',               [CourierController::class, 'availablePickups']);
         Route::post('/pickups/{id}/accept',            [CourierController::class, 'acceptPickup'])->whereNumber('id');
         Route::get('/pickups',                         [CourierController::class, 'pickups']);
-        Route::patch('/pickups/{id}/status',           [CourierController::class, 'updateStatus'])->whereNumber('id');
+        Route::patch('/pickups/{id}/status',           [CourierController::class, 'updateStatus'])->whereNumber('id')->middleware(IdempotentRequest::class);
         Route::patch('/availability',                  [CourierController::class, 'availability']);
+        Route::post('/locations/batch',                [CourierController::class, 'storeLocations']);
+        Route::get('/dispatch/stream',                 [CourierController::class, 'dispatchStream']);
         // ── Marketplace order delivery ────────────────────────────
         Route::get('/available-orders',                [CourierController::class, 'availableOrders']);
         Route::get('/orders',                          [CourierController::class, 'courierOrders']);
         Route::post('/orders/{id}/accept',             [CourierController::class, 'acceptOrder'])->whereNumber('id');
-        Route::patch('/orders/{id}/status',            [CourierController::class, 'updateOrderStatus'])->whereNumber('id');
+        Route::patch('/orders/{id}/status',            [CourierController::class, 'updateOrderStatus'])->whereNumber('id')->middleware(IdempotentRequest::class);
     });
@@ -2,7 +2,37 @@
 
 use Illuminate\Foundation\Inspiring;
 use Illuminate\Support\Facades\Artisan;
+use Illuminate\Support\Facades\Schedule;
 
 Artisan::command('inspire', function () {
     $this->comment(Inspiring::quote());
 })->purpose('Display an inspiring quote');
+
+// One-off backfill for listings uploaded before thumbnails existed. Bumps
+// updated_at, so the app's delta sync picks up the new thumbnail_url.
+// --all also remakes existing thumbnails (those made before EXIF
+// orientation was applied show phone photos sideways).
+Artisan::command('listings:thumbnails {--all : Remake existing thumbnails too}', function () {
+    $thumbnails = new \App\Services\ListingThumbnailService();
+    $made = 0;
+    \App\Models\MarketplaceListing::withTrashed()
+        ->whereNotNull('image_path')
+        ->when(!$this->option('all'), fn ($q) => $q->whereNull('thumbnail_path'))
+        ->chunkById(100, function ($listings) use ($thumbnails, &$made) {
+            foreach ($listings as $listing) {
+                if ($path = $thumbnails->make($listing->image_path)) {
+                    // touch() also when the path is unchanged (--all), so the app refetches it
+                    $listing->thumbnail_path = $path;
+                    $listing->touch();
+                    $made++;
+                }
+            }
+        });
+    $this->info("Thumbnails created: {$made}");
+})->purpose('Create thumbnails for listings uploaded without one');
+
+// Keep the courier dispatch log short (App\Models\DispatchEvent::RETENTION_HOURS)
+Schedule::command('model:prune', ['--model' => [\App\Models\DispatchEvent::class]])->hourly();
+
+// Stored responses for retried writes (App\Models\IdempotencyKey::RETENTION_HOURS)
+Schedule::command('model:prune', ['--model' => [\App\Models\IdempotencyKey::class]])->hourly();
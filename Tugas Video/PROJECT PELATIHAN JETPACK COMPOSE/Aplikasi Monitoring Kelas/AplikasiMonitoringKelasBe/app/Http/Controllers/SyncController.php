@@ -0,0 +1,129 @@
+<?php
+
+namespace App\Http\Controllers;
+
+use App\Models\GuruPengganti;
+use App\Models\Schedule;
+use App\Models\Teacher;
+use App\Models\TeacherAttendance;
+use Illuminate\Http\Request;
+use Illuminate\Http\Response;
+use Carbon\Carbon;
+
+class SyncController extends Controller
+{
+    /**
+     * Role yang boleh melihat data guru pengganti (sama dengan route /guru-pengganti)
+     */
+    private const GURU_PENGGANTI_ROLES = ['kurikulum', 'guru', 'kepala_sekolah', 'admin'];
+
+    /**
+     * Rentang from..to terpanjang dalam satu permintaan (laporan kepala sekolah: 90 hari)
+     */
+    private const MAX_RANGE_DAYS = 92;
+
+    /**
+     * Delta sync untuk penyimpanan lokal aplikasi.
+     *
+     * Mengembalikan jadwal yang berubah sejak schedules_updated_after, serta
+     * kehadiran guru dan guru pengganti yang berubah sejak updated_after untuk
+     * satu tanggal, atau untuk rentang from..to (inklusif) sekaligus. Setiap
+     * bagian juga membawa daftar id yang masih ada dalam rentang itu, sehingga
+     * aplikasi bisa menghapus baris yang sudah dihapus di server.
+     * server_time dipakai aplikasi sebagai updated_after pada sync berikutnya.
+     */
+    public function index(Request $request)
+    {
+        try {
+            // Diambil sebelum query agar perubahan selama query tidak terlewat
+            $serverTime = Carbon::now();
+
+            if ($request->filled('from') || $request->filled('to')) {
+                $from = Carbon::parse($request->input('from', $request->input('to')))->format('Y-m-d');
+                $to = Carbon::parse($request->input('to', $request->input('from')))->format('Y-m-d');
+            } else {
+                $from = $to = $request->input('tanggal')
+                    ? Carbon::parse($request->input('tanggal'))->format('Y-m-d')
+                    : Carbon::now('Asia/Jakarta')->format('Y-m-d');
+            }
+
+            if ($from > $to || Carbon::parse($from)->diffInDays(Carbon::parse($to)) >= self::MAX_RANGE_DAYS) {
+                return response()->json([
+                    'success' => false,
+                    'message' => 'Rentang tanggal tidak valid (maksimal ' . self::MAX_RANGE_DAYS . ' hari)',
+                ], Response::HTTP_UNPROCESSABLE_ENTITY);
+            }
+            $range = [$from, $to];
+
+            $schedulesAfter = $this->parseTime($request->input('schedules_updated_after'));
+            $updatedAfter = $this->parseTime($request->input('updated_after'));
+
+            // Jadwal: jadwal milik guru yang namanya berubah ikut terkirim ulang
+            $schedules = Schedule::with(['guru']);
+            if ($schedulesAfter) {
+                $schedules->where(function ($query) use ($schedulesAfter) {
+                    $query->where('updated_at', '>=', $schedulesAfter)
+                        ->orWhereIn('guru_id', Teacher::where('updated_at', '>=', $schedulesAfter)->select('id'));
+                });
+            }
+
+            $attendances = TeacherAttendance::with(['schedule', 'guru', 'guruAsli', 'createdBy'])
+                ->whereBetween('tanggal', $range);
+            if ($updatedAfter) {
+                $attendances->where('updated_at', '>=', $updatedAfter);
+            }
+
+            $guruPengganti = null;
+            if (in_array(strtolower($request->user()->role), self::GURU_PENGGANTI_ROLES)) {
+                $query = GuruPengganti::with(['guruPengganti:id,name,email,mata_pelajaran', 'guruAsli:id,name,email,mata_pelajaran'])
+                    ->whereBetween('tanggal', $range);
+                if ($updatedAfter) {
+                    $query->where('updated_at', '>=', $updatedAfter);
+                }
+                $guruPengganti = [
+                    'changed' => $query->get(),
+                    'ids' => GuruPengganti::whereBetween('tanggal', $range)->pluck('id'),
+                ];
+            }
+
+            return response()->json([
+                'success' => true,
+                'message' => 'Data sinkronisasi berhasil diambil',
+                'server_time' => $serverTime->toIso8601String(),
+                'tanggal' => $from,
+                'from' => $from,
+                'to' => $to,
+                'schedules' => [
+                    'changed' => $schedules->orderBy('id')->get(),
+                    'ids' => Schedule::pluck('id'),
+                ],
+                'attendances' => [
+                    'changed' => $attendances->orderBy('id')->get(),
+                    'ids' => TeacherAttendance::whereBetween('tanggal', $range)->pluck('id'),
+                ],
+                // null jika role tidak boleh melihat guru pengganti
+                'guru_pengganti' => $guruPengganti,
+            ], Response::HTTP_OK);
+
+        } catch (\Exception $e) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Terjadi kesalahan server',
+                'error' => $e->getMessage()
+            ], Response::HTTP_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private function parseTime(?string $value): ?Carbon
+    {
+        if (!$value) {
+            return null;
+        }
+        try {
+            return Carbon::parse($value);
+        } catch (\Exception $e) {
+            // Cursor tidak valid: kirim ulang semuanya
+            return null;
+        }
+    }
+}
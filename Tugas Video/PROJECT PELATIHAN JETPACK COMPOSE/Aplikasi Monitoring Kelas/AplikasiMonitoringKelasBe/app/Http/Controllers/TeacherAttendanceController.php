@@ -4,12 +4,31 @@
 
 use App\Models\TeacherAttendance;
 use App\Models\Schedule;
+use Illuminate\Database\Eloquent\Collection as EloquentCollection;
+use Illuminate\Database\UniqueConstraintViolationException;
 use Illuminate\Http\Request;
 use Illuminate\Support\Facades\Validator;
 use Carbon\Carbon;
 
 class TeacherAttendanceController extends Controller
 {
+    /**
+     * Jumlah baris maksimal per request batch (satu hari penuh jauh di bawah ini)
+     */
+    private const MAX_BATCH_ENTRIES = 50;
+
+    /**
+     * Aturan validasi satu kehadiran, dipakai store() dan tiap baris storeBatch()
+     */
+    private const STORE_RULES = [
+        'schedule_id' => 'required|exists:schedules,id',
+        'guru_id' => 'required|exists:teachers,id',
+        'tanggal' => 'required|date',
+        'jam_masuk' => 'required|date_format:H:i',
+        'status' => 'required|in:hadir,telat,tidak_hadir',
+        'keterangan' => 'nullable|string'
+    ];
+
     /**
      * Display a listing of teacher attendances with optional filters
      */
@@ -52,9 +71,14 @@ public function index(Request $request)
             });
         }
 
+        // id as the last sort key keeps page boundaries stable while the app
+        // pages through the history; per_page is capped so one request stays small
+        $perPage = min(max((int) $request->get('per_page', 15), 1), 100);
+
         $attendances = $query->orderBy('tanggal', 'desc')
                             ->orderBy('created_at', 'desc')
-                            ->paginate($request->get('per_page', 15));
+                            ->orderBy('id', 'desc')
+                            ->paginate($perPage);
 
         return response()->json($attendances);
     }
@@ -194,14 +218,7 @@ public function allSchedules(Request $request)
      */
     public function store(Request $request)
     {
-        $validator = Validator::make($request->all(), [
-            'schedule_id' => 'required|exists:schedules,id',
-            'guru_id' => 'required|exists:teachers,id',
-            'tanggal' => 'required|date',
-            'jam_masuk' => 'required|date_format:H:i',
-            'status' => 'required|in:hadir,telat,tidak_hadir',
-            'keterangan' => 'nullable|string'
-        ]);
+        $validator = Validator::make($request->all(), self::STORE_RULES);
 
         if ($validator->fails()) {
             return response()->json([
@@ -232,14 +249,126 @@ public function store(Request $request)
             'created_by' => $request->user()->id
         ]);
 
-        $attendance->load(['schedule', 'guru', 'createdBy']);
+        $attendance->load(['schedule', 'guru', 'guruAsli', 'createdBy']);
 
         return response()->json([
+            'success' => true,
             'message' => 'Kehadiran guru berhasil dicatat',
             'data' => $attendance
         ], 201);
     }
 
+    /**
+     * Store several attendances in one request (entri kehadiran sekaligus)
+     *
+     * Setiap baris divalidasi dan disimpan sendiri-sendiri dengan aturan yang
+     * sama seperti store(); baris yang gagal (422, 409, atau 500 bila query
+     * baris itu error) tidak membatalkan baris lain.
+     * Hasil dikembalikan per baris, dengan index sesuai urutan di request.
+     */
+    public function storeBatch(Request $request)
+    {
+        $validator = Validator::make($request->all(), [
+            'entries' => 'required|array|min:1|max:' . self::MAX_BATCH_ENTRIES,
+        ]);
+
+        if ($validator->fails()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Validation error',
+                'errors' => $validator->errors()
+            ], 422);
+        }
+
+        $results = [];
+        $created = [];
+
+        foreach (array_values($request->input('entries')) as $index => $entry) {
+            $entry = is_array($entry) ? $entry : [];
+            $rowValidator = Validator::make($entry, self::STORE_RULES);
+
+            if ($rowValidator->fails()) {
+                $results[] = [
+                    'index' => $index,
+                    'success' => false,
+                    'status' => 422,
+                    'message' => 'Validation error',
+                    'errors' => $rowValidator->errors(),
+                    'data' => null
+                ];
+                continue;
+            }
+
+            try {
+                // Baris sebelumnya dalam batch yang sama juga ikut terdeteksi di sini
+                $exists = TeacherAttendance::where('schedule_id', $entry['schedule_id'])
+                    ->where('guru_id', $entry['guru_id'])
+                    ->where('tanggal', $entry['tanggal'])
+                    ->exists();
+
+                if ($exists) {
+                    $results[] = $this->batchConflict($index);
+                    continue;
+                }
+
+                $attendance = TeacherAttendance::create([
+                    'schedule_id' => $entry['schedule_id'],
+                    'guru_id' => $entry['guru_id'],
+                    'tanggal' => $entry['tanggal'],
+                    'jam_masuk' => $entry['jam_masuk'],
+                    'status' => $entry['status'],
+                    'keterangan' => $entry['keterangan'] ?? null,
+                    'created_by' => $request->user()->id
+                ]);
+            } catch (UniqueConstraintViolationException $e) {
+                // Dicatat oleh request lain di antara cek dan insert
+                $results[] = $this->batchConflict($index);
+                continue;
+            } catch (\Exception $e) {
+                $results[] = [
+                    'index' => $index,
+                    'success' => false,
+                    'status' => 500,
+                    'message' => 'Terjadi kesalahan server',
+                    'errors' => null,
+                    'data' => null
+                ];
+                continue;
+            }
+
+            $created[] = $attendance;
+            $results[] = [
+                'index' => $index,
+                'success' => true,
+                'status' => 201,
+                'message' => 'Kehadiran guru berhasil dicatat',
+                'errors' => null,
+                'data' => $attendance
+            ];
+        }
+
+        // Relasi dimuat sekali untuk semua baris yang tersimpan
+        (new EloquentCollection($created))->load(['schedule', 'guru', 'guruAsli', 'createdBy']);
+
+        return response()->json([
+            'success' => true,
+            'message' => count($created) . ' dari ' . count($results) . ' kehadiran guru berhasil dicatat',
+            'data' => $results
+        ], 200);
+    }
+
+    private function batchConflict(int $index): array
+    {
+        return [
+            'index' => $index,
+            'success' => false,
+            'status' => 409,
+            'message' => 'Kehadiran untuk jadwal ini sudah dicatat',
+            'errors' => null,
+            'data' => null
+        ];
+    }
+
     /**
      * Display the specified attendance
      */
@@ -9,6 +9,7 @@
 use App\Http\Controllers\GuruPenggantiController;
 use App\Http\Controllers\TeacherAttendanceController;
 use App\Http\Controllers\TeacherReplacementController;
+use App\Http\Controllers\SyncController;
 
 /*
 |--------------------------------------------------------------------------
@@ -37,10 +38,14 @@
     Route::get('/teacher-attendance/statistics', [TeacherAttendanceController::class, 'statistics']);
     Route::get('/teacher-attendance', [TeacherAttendanceController::class, 'index']);
     Route::post('/teacher-attendance', [TeacherAttendanceController::class, 'store']);
+    Route::post('/teacher-attendance/batch', [TeacherAttendanceController::class, 'storeBatch']);
     Route::get('/teacher-attendance/{id}', [TeacherAttendanceController::class, 'show']);
     Route::put('/teacher-attendance/{id}', [TeacherAttendanceController::class, 'update']);
     Route::patch('/teacher-attendance/{id}/status', [TeacherAttendanceController::class, 'updateStatus']);
     Route::delete('/teacher-attendance/{id}', [TeacherAttendanceController::class, 'destroy']);
+
+    // Delta sync jadwal, kehadiran guru, dan guru pengganti untuk penyimpanan lokal aplikasi
+    Route::get('/sync', [SyncController::class, 'index']);
 });
 
 // Routes untuk SISWA - Mencatat monitoring
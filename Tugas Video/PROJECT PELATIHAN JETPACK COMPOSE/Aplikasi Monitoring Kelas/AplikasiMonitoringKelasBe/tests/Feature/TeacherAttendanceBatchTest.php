@@ -0,0 +1,171 @@
+<?php
+
+namespace Tests\Feature;
+
+use App\Models\Schedule;
+use App\Models\Teacher;
+use App\Models\TeacherAttendance;
+use App\Models\User;
+use Carbon\Carbon;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\DB;
+use Illuminate\Support\Facades\Schema;
+use Laravel\Sanctum\Sanctum;
+use Tests\TestCase;
+
+/**
+ * POST /api/teacher-attendance/batch: tiap baris diproses sendiri, jadi satu
+ * baris gagal (422 / 409 / 500) tidak membatalkan baris lain yang tersimpan.
+ */
+class TeacherAttendanceBatchTest extends TestCase
+{
+    private Schedule $schedule;
+    private Teacher $guru;
+
+    protected function setUp(): void
+    {
+        parent::setUp();
+
+        // Migrasi proyek memakai perintah khusus MySQL; SQLite in-memory
+        // (phpunit.xml) cukup diberi tabel yang dipakai endpoint ini.
+        Schema::create('users', function (Blueprint $table) {
+            $table->id();
+            $table->string('name');
+            $table->string('email')->unique();
+            $table->timestamp('email_verified_at')->nullable();
+            $table->string('password');
+            $table->string('role')->default('siswa');
+            $table->string('mata_pelajaran')->nullable();
+            $table->boolean('is_banned')->default(false);
+            $table->unsignedBigInteger('class_id')->nullable();
+            $table->rememberToken();
+            $table->timestamps();
+        });
+        Schema::create('teachers', function (Blueprint $table) {
+            $table->id();
+            $table->string('name');
+            $table->string('email')->unique();
+            $table->timestamp('email_verified_at')->nullable();
+            $table->string('password');
+            $table->string('mata_pelajaran')->nullable();
+            $table->boolean('is_banned')->default(false);
+            $table->rememberToken();
+            $table->timestamps();
+        });
+        Schema::create('schedules', function (Blueprint $table) {
+            $table->id();
+            $table->string('hari');
+            $table->string('kelas', 10);
+            $table->string('mata_pelajaran');
+            $table->unsignedBigInteger('guru_id');
+            $table->time('jam_mulai');
+            $table->time('jam_selesai');
+            $table->string('ruang')->nullable();
+            $table->timestamps();
+        });
+        Schema::create('teacher_attendances', function (Blueprint $table) {
+            $table->id();
+            $table->unsignedBigInteger('schedule_id');
+            $table->unsignedBigInteger('guru_id');
+            $table->unsignedBigInteger('guru_asli_id')->nullable();
+            $table->date('tanggal');
+            $table->time('jam_masuk')->nullable();
+            $table->string('status')->default('tidak_hadir');
+            $table->text('keterangan')->nullable();
+            $table->unsignedBigInteger('created_by')->nullable();
+            $table->unsignedBigInteger('assigned_by')->nullable();
+            $table->timestamps();
+
+            $table->unique(['schedule_id', 'guru_id', 'tanggal']);
+        });
+
+        Sanctum::actingAs(User::create([
+            'name' => 'Siti Kurikulum',
+            'email' => 'kurikulum@example.com',
+            'password' => 'password',
+            'role' => 'kurikulum',
+        ]));
+
+        $this->guru = Teacher::create([
+            'name' => 'Budi Santoso',
+            'email' => 'budi@example.com',
+            'password' => 'password',
+        ]);
+        $this->schedule = Schedule::create([
+            'hari' => 'Senin',
+            'kelas' => 'XI RPL 1',
+            'mata_pelajaran' => 'Matematika',
+            'guru_id' => $this->guru->id,
+            'jam_mulai' => '07:00',
+            'jam_selesai' => '08:30',
+        ]);
+    }
+
+    private function entry(array $overrides = []): array
+    {
+        return array_merge([
+            'schedule_id' => $this->schedule->id,
+            'guru_id' => $this->guru->id,
+            'tanggal' => '2025-10-13',
+            'jam_masuk' => '07:05',
+            'status' => 'hadir',
+        ], $overrides);
+    }
+
+    public function test_mixed_batch_reports_each_row_and_keeps_the_saved_ones(): void
+    {
+        // Baris dengan keterangan 'gagal' memicu error database di tengah batch
+        DB::statement("CREATE TRIGGER fail_insert BEFORE INSERT ON teacher_attendances
+            WHEN NEW.keterangan = 'gagal' BEGIN SELECT RAISE(ABORT, 'gagal'); END");
+
+        $response = $this->postJson('/api/teacher-attendance/batch', [
+            'entries' => [
+                $this->entry(),
+                $this->entry(['status' => 'libur']),
+                $this->entry(['jam_masuk' => '07:30', 'status' => 'telat']),
+                $this->entry(['tanggal' => '2025-10-14', 'keterangan' => 'gagal']),
+                $this->entry(['tanggal' => '2025-10-15']),
+            ],
+        ]);
+
+        $response->assertOk()
+            ->assertJsonPath('success', true)
+            ->assertJsonPath('message', '2 dari 5 kehadiran guru berhasil dicatat');
+
+        $this->assertSame([0, 1, 2, 3, 4], array_column($response->json('data'), 'index'));
+        $this->assertSame([201, 422, 409, 500, 201], array_column($response->json('data'), 'status'));
+        $response->assertJsonPath('data.1.errors.status.0', fn ($message) => is_string($message))
+            ->assertJsonPath('data.0.data.guru.name', 'Budi Santoso');
+
+        // Baris 0 tidak ikut dibatalkan oleh kegagalan baris 3
+        $this->assertSame(
+            ['2025-10-13', '2025-10-15'],
+            TeacherAttendance::orderBy('tanggal')->get()->map(fn ($a) => $a->tanggal->toDateString())->all()
+        );
+    }
+
+    public function test_batch_is_capped_at_fifty_rows(): void
+    {
+        $entries = array_map(
+            fn ($day) => $this->entry(['tanggal' => Carbon::create(2025, 7, 14)->addDays($day)->toDateString()]),
+            range(0, 50)
+        );
+
+        $this->postJson('/api/teacher-attendance/batch', ['entries' => $entries])
+            ->assertStatus(422)
+            ->assertJsonValidationErrors('entries');
+        $this->assertSame(0, TeacherAttendance::count());
+
+        $this->postJson('/api/teacher-attendance/batch', ['entries' => array_slice($entries, 0, 50)])
+            ->assertOk()
+            ->assertJsonPath('message', '50 dari 50 kehadiran guru berhasil dicatat');
+        $this->assertSame(50, TeacherAttendance::count());
+    }
+
+    public function test_empty_batch_is_rejected(): void
+    {
+        $this->postJson('/api/teacher-attendance/batch', ['entries' => []])
+            ->assertStatus(422)
+            ->assertJsonValidationErrors('entries');
+    }
+}
@@ -2,6 +2,7 @@ plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.kotlin.android)
     alias(libs.plugins.kotlin.compose)
+    alias(libs.plugins.ksp)
 }
 
 android {
@@ -37,6 +38,13 @@ android {
     buildFeatures {
         compose = true
     }
+    testOptions {
+        unitTests.all {
+            // JsonParsingBenchmark only runs when asked for: ./gradlew :app:testDebugUnitTest -Pbenchmark
+            it.systemProperty("benchmark", project.hasProperty("benchmark").toString())
+            it.systemProperty("benchmark.reportDir", layout.buildDirectory.dir("reports/benchmarks").get().asFile.path)
+        }
+    }
 }
 
 dependencies {
@@ -54,9 +62,13 @@ dependencies {
     
     // Networking - Retrofit & OkHttp
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
-    implementation("com.squareup.retrofit2:converter-gson:2.9.0")
+    implementation("com.squareup.retrofit2:converter-moshi:2.9.0")
     implementation("com.squareup.okhttp3:logging-interceptor:4.11.0")
     
+    // JSON - adapter Moshi dibuat saat compile (KSP), tanpa reflection
+    implementation("com.squareup.moshi:moshi:1.15.1")
+    ksp("com.squareup.moshi:moshi-kotlin-codegen:1.15.1")
+    
     // ViewModel & LiveData
     implementation("androidx.lifecycle:lifecycle-viewmodel-compose:2.7.0")
     implementation("androidx.compose.runtime:runtime-livedata:1.5.4")
@@ -67,7 +79,20 @@ dependencies {
     // SharedPreferences
     implementation("androidx.preference:preference-ktx:1.2.1")
     
+    // Paging - riwayat absensi guru
+    implementation("androidx.paging:paging-runtime-ktx:3.3.2")
+    implementation("androidx.paging:paging-compose:3.3.2")
+    
+    // Room - penyimpanan lokal jadwal & kehadiran guru
+    implementation("androidx.room:room-runtime:2.6.1")
+    implementation("androidx.room:room-ktx:2.6.1")
+    ksp("androidx.room:room-compiler:2.6.1")
+    
     testImplementation(libs.junit)
+    // Gson hanya sebagai pembanding di JsonParsingBenchmark
+    testImplementation("com.google.code.gson:gson:2.10.1")
+    // Server tiruan untuk tes repository (TeacherAttendanceBatchTest)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
     androidTestImplementation(platform(libs.androidx.compose.bom))
@@ -30,15 +30,10 @@ fun JadwalPage(userRole: String = "Siswa", viewModel: ScheduleViewModel = viewMo
     var isHariDropdownExpanded by remember { mutableStateOf(false) }
     var isKelasDropdownExpanded by remember { mutableStateOf(false) }
     
-    val schedules by viewModel.schedules
+    val scheduleIndex by viewModel.scheduleIndex.collectAsState()
     val isLoading by viewModel.isLoading
     val errorMessage by viewModel.errorMessage
     
-    // Load all schedules initially
-    LaunchedEffect(Unit) {
-        token?.let { viewModel.loadSchedules(it) }
-    }
-    
     // Handle error messages
     LaunchedEffect(errorMessage) {
         errorMessage?.let { message ->
@@ -48,16 +43,11 @@ fun JadwalPage(userRole: String = "Siswa", viewModel: ScheduleViewModel = viewMo
         }
     }
     
-    // Filter schedules based on selected day and class
-    val filteredSchedules = remember(schedules, selectedHari, selectedKelas) {
-        schedules.filter { schedule ->
-            (selectedHari.isEmpty() || schedule.hari == selectedHari) &&
-            (selectedKelas.isEmpty() || schedule.kelas == selectedKelas)
-        }
-    }
+    // Filter schedules based on selected day and class (a lookup in the index)
+    val filteredSchedules = scheduleIndex.slice(hari = selectedHari, kelas = selectedKelas)
     
-    val hariList = listOf("Senin", "Selasa", "Rabu", "Kamis", "Jumat", "Sabtu", "Minggu")
-    val kelasList = listOf("X RPL", "XI RPL", "XII RPL")
+    val hariList = ScheduleIndex.HARI
+    val kelasList = scheduleIndex.kelasList
     
     Column(
         modifier = Modifier
@@ -143,8 +133,9 @@ fun JadwalPage(userRole: String = "Siswa", viewModel: ScheduleViewModel = viewMo
         Spacer(modifier = Modifier.height(16.dp))
         
         // Jadwal Cards
+        // Stored schedules stay on screen while the view model syncs in the background
         when {
-            isLoading -> {
+            isLoading && scheduleIndex.all.isEmpty() -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -153,7 +144,7 @@ fun JadwalPage(userRole: String = "Siswa", viewModel: ScheduleViewModel = viewMo
                 }
             }
             
-            errorMessage != null -> {
+            errorMessage != null && scheduleIndex.all.isEmpty() -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -247,10 +238,10 @@ fun JadwalCard(schedule: Schedule) {
                     fontWeight = FontWeight.Medium
                 )
                 
-                if (schedule.guru.name.isNotEmpty()) {
+                if (!schedule.guru?.name.isNullOrEmpty()) {
                     Spacer(modifier = Modifier.height(4.dp))
                     Text(
-                        text = "${schedule.guru.name}",
+                        text = schedule.guru?.name.orEmpty(),
                         fontSize = 12.sp,
                         color = MaterialTheme.colorScheme.onSurfaceVariant
                     )
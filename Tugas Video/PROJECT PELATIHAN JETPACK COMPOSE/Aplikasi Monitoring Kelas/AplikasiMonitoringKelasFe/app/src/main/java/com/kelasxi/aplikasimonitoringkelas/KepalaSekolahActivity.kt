@@ -34,10 +34,15 @@ import androidx.navigation.compose.NavHost
 import androidx.navigation.compose.composable
 import androidx.navigation.compose.currentBackStackEntryAsState
 import androidx.navigation.compose.rememberNavController
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import kotlinx.coroutines.CompletionHandler
+import com.kelasxi.aplikasimonitoringkelas.data.analytics.*
 import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
 import com.kelasxi.aplikasimonitoringkelas.data.model.*
 import com.kelasxi.aplikasimonitoringkelas.data.repository.AppRepositoryNew
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
 import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
 import com.kelasxi.aplikasimonitoringkelas.viewmodel.*
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.AplikasiMonitoringKelasTheme
@@ -172,6 +177,9 @@ fun KepalaSekolahScreen() {
             composable("absensi_guru") {
                 KepalaSekolahAbsensiGuruPage()
             }
+            composable("laporan") {
+                KepalaSekolahLaporanPage()
+            }
         }
     }
 }
@@ -181,7 +189,8 @@ fun KepalaSekolahBottomNavigation(navController: NavController) {
     val items = listOf(
         Triple("jadwal", "Jadwal", Icons.Default.Schedule),
         Triple("guru_pengganti", "Kelas Kosong", Icons.Default.EventBusy), // Renamed and updated icon to match
-        Triple("absensi_guru", "Absensi Guru", Icons.Default.List)
+        Triple("absensi_guru", "Absensi Guru", Icons.Default.List),
+        Triple("laporan", "Laporan", Icons.Default.BarChart)
     )
 
     val navBackStackEntry by navController.currentBackStackEntryAsState()
@@ -237,35 +246,26 @@ fun KepalaSekolahKelasKosongPage() {
     val context = LocalContext.current
     val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
     val token = sharedPrefManager.getToken()
-    val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
+    val store = remember { MonitoringStore.getInstance(context) }
     val scope = rememberCoroutineScope()
 
-    var kelasKosongList by remember { mutableStateOf<List<KelasKosong>>(emptyList()) }
+    // Derived locally from today's schedules and teacher_attendances
+    val today = remember { MonitoringStore.today() }
+    val storedKelasKosong by remember(today) { store.kelasKosong(today) }.collectAsState(initial = null)
+    val kelasKosongList = storedKelasKosong.orEmpty()
     var isLoading by remember { mutableStateOf(false) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
 
-    // Load kelas kosong - this gets classes that don't have teachers present based on teacher_attendances
-    fun loadKelasKosong() {
+    fun loadKelasKosong(force: Boolean = false) {
         if (token != null) {
             scope.launch {
-                isLoading = true
+                isLoading = storedKelasKosong.isNullOrEmpty()
                 errorMessage = null
-                // Get current date from device
-                val currentDate = java.time.LocalDate.now().toString() // Format: YYYY-MM-DD
-                try {
-                    // Fetch empty classes based on teacher attendance records
-                    repository.getKelasKosong(token, currentDate)
-                        .onSuccess { response ->
-                            kelasKosongList = response.data ?: emptyList()
-                        }
-                        .onFailure { error ->
-                            errorMessage = error.message
-                        }
-                } catch (e: Exception) {
-                    errorMessage = e.message
-                } finally {
-                    isLoading = false
-                }
+                store.sync(token, today, force)
+                    .onFailure { error ->
+                        errorMessage = error.message
+                    }
+                isLoading = false
             }
         }
     }
@@ -288,7 +288,7 @@ fun KepalaSekolahKelasKosongPage() {
             ) {
                 CircularProgressIndicator(color = SMKPrimary)
             }
-        } else if (errorMessage != null) {
+        } else if (errorMessage != null && kelasKosongList.isEmpty()) {
             Box(
                 modifier = Modifier
                     .fillMaxSize()
@@ -848,32 +848,26 @@ fun KepalaSekolahJadwalPage() {
     val context = LocalContext.current
     val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
     val token = sharedPrefManager.getToken()
-    val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
+    val store = remember { MonitoringStore.getInstance(context) }
     val scope = rememberCoroutineScope()
 
-    var jadwalList by remember { mutableStateOf<List<TodayScheduleWithAttendance>>(emptyList()) }
+    val today = remember { MonitoringStore.today() }
+    val storedJadwal by remember(today) { store.schedulesWithAttendance(today) }.collectAsState(initial = null)
+    val jadwalList = storedJadwal.orEmpty()
     var isLoading by remember { mutableStateOf(false) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
 
     // Load all schedules for the headmaster
-    fun loadAllSchedules() {
+    fun loadAllSchedules(force: Boolean = false) {
         if (token != null) {
             scope.launch {
-                isLoading = true
+                isLoading = storedJadwal.isNullOrEmpty()
                 errorMessage = null
-                try {
-                    repository.getAllSchedules(token, tanggal = null, kelas = null)
-                        .onSuccess { response ->
-                            jadwalList = response.data ?: emptyList()
-                        }
-                        .onFailure { error ->
-                            errorMessage = error.message
-                        }
-                } catch (e: Exception) {
-                    errorMessage = e.message
-                } finally {
-                    isLoading = false
-                }
+                store.sync(token, today, force)
+                    .onFailure { error ->
+                        errorMessage = error.message
+                    }
+                isLoading = false
             }
         }
     }
@@ -896,7 +890,7 @@ fun KepalaSekolahJadwalPage() {
             ) {
                 CircularProgressIndicator(color = SMKPrimary)
             }
-        } else if (errorMessage != null) {
+        } else if (errorMessage != null && jadwalList.isEmpty()) {
             Box(
                 modifier = Modifier
                     .fillMaxSize()
@@ -1270,45 +1264,19 @@ fun KepalaSekolahTeacherReplacementCard(
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun KepalaSekolahAbsensiGuruPage() {
-    val context = LocalContext.current
-    val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
-    val token = sharedPrefManager.getToken()
-    val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
-    val scope = rememberCoroutineScope()
+    val viewModel: TeacherAttendanceViewModel = viewModel()
+    val attendances = viewModel.attendances.collectAsLazyPagingItems()
+    val filter by viewModel.filter.collectAsState()
+    val kelasOptions by viewModel.kelasOptions
+    val showingCachedPages by viewModel.showingCachedPages
     
-    var teacherAttendanceList by remember { mutableStateOf<List<TeacherAttendance>>(emptyList()) }
-    var isLoading by remember { mutableStateOf(false) }
-    var errorMessage by remember { mutableStateOf<String?>(null) }
-    var selectedDate by remember { mutableStateOf<String?>(null) } // Make date optional
-    var selectedStatus by remember { mutableStateOf<String?>(null) } // For status filtering
-    
-    // Load teacher attendance data
-    fun loadTeacherAttendance(date: String? = null, status: String? = null) {
-        if (token != null) {
-            scope.launch {
-                isLoading = true
-                // Fetch all records if no date is selected, otherwise filter by date
-                repository.getTeacherAttendances(
-                    token = token, 
-                    tanggal = date,
-                    status = status
-                )
-                    .onSuccess { response ->
-                        teacherAttendanceList = response.data
-                        errorMessage = null
-                    }
-                    .onFailure { error ->
-                        errorMessage = error.message
-                        teacherAttendanceList = emptyList()
-                        Toast.makeText(context, "Gagal memuat data absensi: ${error.message}", Toast.LENGTH_LONG).show()
-                    }
-                isLoading = false
-            }
-        }
-    }
+    val selectedDate = filter.tanggal
+    val selectedStatus = filter.status
+    val selectedKelas = filter.kelas
+    val refreshState = attendances.loadState.refresh
     
-    LaunchedEffect(Unit) { // Load all records by default on initial load
-        loadTeacherAttendance()
+    LaunchedEffect(Unit) {
+        viewModel.loadKelasOptions()
     }
     
     Column(
@@ -1339,8 +1307,7 @@ fun KepalaSekolahAbsensiGuruPage() {
             ) {
                 Button(
                     onClick = {
-                        selectedDate = java.time.LocalDate.now().toString()
-                        loadTeacherAttendance(date = selectedDate, status = selectedStatus)
+                        viewModel.setTanggal(java.time.LocalDate.now().toString())
                     },
                     colors = ButtonDefaults.buttonColors(
                         containerColor = if (selectedDate == java.time.LocalDate.now().toString()) SMKPrimary else SMKSurface,
@@ -1355,8 +1322,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                     onClick = {
                         // In a full implementation, you would show a date picker
                         // For now, we'll just use the current date when clicked
-                        selectedDate = java.time.LocalDate.now().toString()
-                        loadTeacherAttendance(date = selectedDate, status = selectedStatus)
+                        viewModel.setTanggal(java.time.LocalDate.now().toString())
                     }
                 ) {
                     Icon(
@@ -1368,8 +1334,7 @@ fun KepalaSekolahAbsensiGuruPage() {
 
                 OutlinedButton(
                     onClick = {
-                        selectedDate = null
-                        loadTeacherAttendance(date = null, status = selectedStatus) // Load all records
+                        viewModel.setTanggal(null) // Load all records
                     },
                     enabled = selectedDate != null
                 ) {
@@ -1397,8 +1362,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                 ) {
                     OutlinedButton(
                         onClick = { 
-                            selectedStatus = null
-                            loadTeacherAttendance(date = selectedDate, status = null)
+                            viewModel.setStatus(null)
                         },
                         modifier = Modifier.weight(1f),
                         colors = ButtonDefaults.outlinedButtonColors(
@@ -1415,8 +1379,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                     
                     OutlinedButton(
                         onClick = { 
-                            selectedStatus = "hadir"
-                            loadTeacherAttendance(date = selectedDate, status = "hadir")
+                            viewModel.setStatus("hadir")
                         },
                         modifier = Modifier.weight(1f),
                         colors = ButtonDefaults.outlinedButtonColors(
@@ -1433,8 +1396,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                     
                     OutlinedButton(
                         onClick = { 
-                            selectedStatus = "telat"
-                            loadTeacherAttendance(date = selectedDate, status = "telat")
+                            viewModel.setStatus("telat")
                         },
                         modifier = Modifier.weight(1f),
                         colors = ButtonDefaults.outlinedButtonColors(
@@ -1451,8 +1413,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                     
                     OutlinedButton(
                         onClick = { 
-                            selectedStatus = "tidak_hadir"
-                            loadTeacherAttendance(date = selectedDate, status = "tidak_hadir")
+                            viewModel.setStatus("tidak_hadir")
                         },
                         modifier = Modifier.weight(1f),
                         colors = ButtonDefaults.outlinedButtonColors(
@@ -1470,14 +1431,32 @@ fun KepalaSekolahAbsensiGuruPage() {
                 }
             }
             
+            // Kelas filter
+            SchoolDropdownField(
+                value = selectedKelas ?: "",
+                onValueChange = { kelas ->
+                    viewModel.setKelas(kelas.takeUnless { it == SEMUA_KELAS })
+                },
+                options = listOf(SEMUA_KELAS) + kelasOptions,
+                label = "Kelas",
+                leadingIcon = Icons.Default.Class,
+                placeholder = SEMUA_KELAS,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(top = Spacing.sm)
+            )
+            
             // Display current filters
             Text(
                 text = buildString {
                     append("Filter: ")
-                    if (selectedDate != null) append("Tanggal: $selectedDate")
-                    if (selectedDate != null && selectedStatus != null) append(", ")
-                    if (selectedStatus != null) append("Status: ${selectedStatus?.uppercase()}")
-                    if (selectedDate == null && selectedStatus == null) append("Tidak ada filter")
+                    val active = listOfNotNull(
+                        selectedDate?.let { "Tanggal: $it" },
+                        selectedStatus?.let { "Status: ${it.uppercase()}" },
+                        selectedKelas?.let { "Kelas: $it" }
+                    )
+                    append(if (active.isEmpty()) "Tidak ada filter" else active.joinToString(", "))
+                    if (showingCachedPages) append(" • Data tersimpan (offline)")
                 },
                 style = MaterialTheme.typography.bodySmall,
                 color = NeutralGray600,
@@ -1486,7 +1465,7 @@ fun KepalaSekolahAbsensiGuruPage() {
         }
         
         when {
-            isLoading -> {
+            refreshState is LoadState.Loading && attendances.itemCount == 0 -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -1495,7 +1474,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                 }
             }
             
-            errorMessage != null -> {
+            refreshState is LoadState.Error && attendances.itemCount == 0 -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -1511,16 +1490,19 @@ fun KepalaSekolahAbsensiGuruPage() {
                             modifier = Modifier.size(48.dp)
                         )
                         Text(
-                            text = "Error: $errorMessage",
+                            text = "Error: ${refreshState.error.message}",
                             style = MaterialTheme.typography.bodyMedium,
                             color = SMKError,
                             textAlign = TextAlign.Center
                         )
+                        OutlinedButton(onClick = { attendances.retry() }) {
+                            Text(text = "Coba Lagi")
+                        }
                     }
                 }
             }
             
-            teacherAttendanceList.isEmpty() -> {
+            attendances.itemCount == 0 -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -1536,7 +1518,7 @@ fun KepalaSekolahAbsensiGuruPage() {
                             modifier = Modifier.size(48.dp)
                         )
                         Text(
-                            text = if (selectedDate != null || selectedStatus != null) 
+                            text = if (selectedDate != null || selectedStatus != null || selectedKelas != null) 
                                 "Tidak ada data absensi sesuai filter" 
                                 else "Tidak ada data absensi",
                             style = MaterialTheme.typography.bodyMedium,
@@ -1550,8 +1532,20 @@ fun KepalaSekolahAbsensiGuruPage() {
                 LazyColumn(
                     verticalArrangement = Arrangement.spacedBy(Spacing.md)
                 ) {
-                    items(teacherAttendanceList) { attendance ->
-                        KepalaSekolahTeacherAttendanceCard(attendance = attendance)
+                    items(
+                        count = attendances.itemCount,
+                        key = attendances.itemKey { it.id }
+                    ) { index ->
+                        attendances[index]?.let { attendance ->
+                            KepalaSekolahTeacherAttendanceCard(attendance = attendance)
+                        }
+                    }
+                    
+                    item {
+                        SchoolPagingFooter(
+                            state = attendances.loadState.append,
+                            onRetry = { attendances.retry() }
+                        )
                     }
                 }
             }
@@ -1559,6 +1553,8 @@ fun KepalaSekolahAbsensiGuruPage() {
     }
 }
 
+private const val SEMUA_KELAS = "Semua Kelas"
+
 @Composable
 fun KepalaSekolahTeacherAttendanceCard(attendance: TeacherAttendance) {
     Card(
@@ -1759,3 +1755,275 @@ fun KepalaSekolahTeacherAttendanceCard(attendance: TeacherAttendance) {
         }
     }
 }
+
+// Laporan Page - Attendance reports computed on the device from the local store
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun KepalaSekolahLaporanPage() {
+    val viewModel: AttendanceAnalyticsViewModel = viewModel()
+    val range by viewModel.range.collectAsState()
+    val report by viewModel.report.collectAsState()
+    val isSyncing by viewModel.isSyncing
+    val errorMessage by viewModel.errorMessage
+
+    LaunchedEffect(Unit) {
+        viewModel.syncRange()
+    }
+
+    LazyColumn(
+        modifier = Modifier
+            .fillMaxSize()
+            .background(SMKBackground),
+        contentPadding = PaddingValues(Spacing.md),
+        verticalArrangement = Arrangement.spacedBy(Spacing.md)
+    ) {
+        item {
+            Row(horizontalArrangement = Arrangement.spacedBy(Spacing.sm)) {
+                ReportRange.values().forEach { option ->
+                    FilterChip(
+                        selected = range == option,
+                        onClick = { viewModel.setRange(option) },
+                        label = { Text(option.label) }
+                    )
+                }
+            }
+            if (isSyncing) {
+                LinearProgressIndicator(
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .padding(top = Spacing.sm),
+                    color = SMKPrimary,
+                    trackColor = SMKPrimaryContainer
+                )
+            }
+            errorMessage?.let { message ->
+                Text(
+                    text = "Tidak dapat memperbarui data, menampilkan data tersimpan ($message)",
+                    style = MaterialTheme.typography.bodySmall,
+                    color = SMKError,
+                    modifier = Modifier.padding(top = Spacing.sm)
+                )
+            }
+        }
+
+        val current = report
+        when {
+            current == null -> item {
+                SchoolLoadingCard(modifier = Modifier.fillMaxWidth())
+            }
+
+            current.isEmpty -> item {
+                SchoolEmptyState(
+                    title = "Belum Ada Data",
+                    subtitle = if (isSyncing) "Sedang mengambil data kehadiran guru" else "Belum ada kehadiran guru pada rentang ini",
+                    icon = Icons.Default.BarChart,
+                    modifier = Modifier.fillMaxWidth()
+                )
+            }
+
+            else -> {
+                item { LaporanTotalsCard(current.totals) }
+                item { LaporanWeeklyCard(current.weekly) }
+                if (current.kelasHeatmap.kelasList.isNotEmpty()) {
+                    item { LaporanHeatmapCard(current.kelasHeatmap) }
+                }
+                item {
+                    Text(
+                        text = "Per Guru",
+                        style = MaterialTheme.typography.titleMedium,
+                        fontWeight = FontWeight.SemiBold,
+                        color = SMKOnSurface
+                    )
+                }
+                items(current.perGuru, key = { it.guruId }) { summary ->
+                    LaporanGuruCard(summary)
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun LaporanTotalsCard(totals: StatusCounts) {
+    SchoolCard(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = "Ringkasan (${totals.total} jadwal tercatat)",
+            style = MaterialTheme.typography.titleMedium,
+            fontWeight = FontWeight.SemiBold,
+            color = SMKOnSurface
+        )
+        Spacer(modifier = Modifier.height(Spacing.sm))
+        Row(
+            modifier = Modifier.fillMaxWidth(),
+            horizontalArrangement = Arrangement.SpaceBetween
+        ) {
+            LaporanStat("Hadir", totals.hadir, SMKSuccess)
+            LaporanStat("Telat", totals.telat, SMKWarning)
+            LaporanStat("Tidak Hadir", totals.tidakHadir, SMKError)
+            LaporanStat("Diganti", totals.diganti, SMKInfo)
+        }
+        Spacer(modifier = Modifier.height(Spacing.sm))
+        SchoolProgressIndicator(
+            progress = (totals.percentageHadir / 100).toFloat(),
+            label = "Tingkat kehadiran"
+        )
+    }
+}
+
+@Composable
+private fun LaporanStat(label: String, value: Int, color: Color) {
+    Column(horizontalAlignment = Alignment.CenterHorizontally) {
+        Text(
+            text = value.toString(),
+            style = MaterialTheme.typography.titleLarge,
+            fontWeight = FontWeight.Bold,
+            color = color
+        )
+        Text(
+            text = label,
+            style = MaterialTheme.typography.labelSmall,
+            color = NeutralGray600
+        )
+    }
+}
+
+@Composable
+private fun LaporanWeeklyCard(weekly: List<WeeklyTrend>) {
+    val formatter = remember { DateTimeFormatter.ofPattern("d MMM", Locale("id", "ID")) }
+    SchoolCard(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = "Tren Mingguan",
+            style = MaterialTheme.typography.titleMedium,
+            fontWeight = FontWeight.SemiBold,
+            color = SMKOnSurface
+        )
+        weekly.forEach { week ->
+            Spacer(modifier = Modifier.height(Spacing.sm))
+            SchoolProgressIndicator(
+                progress = (week.counts.percentageHadir / 100).toFloat(),
+                label = "Minggu ${week.weekStart.format(formatter)} · ${week.counts.tidakHadir} tidak hadir, ${week.counts.telat} telat"
+            )
+        }
+    }
+}
+
+@Composable
+private fun LaporanHeatmapCard(heatmap: KelasAbsenceHeatmap) {
+    val maxRate = heatmap.maxRate
+    SchoolCard(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = "Ketidakhadiran per Kelas",
+            style = MaterialTheme.typography.titleMedium,
+            fontWeight = FontWeight.SemiBold,
+            color = SMKOnSurface
+        )
+        Spacer(modifier = Modifier.height(Spacing.sm))
+        Row(verticalAlignment = Alignment.CenterVertically) {
+            Spacer(modifier = Modifier.width(72.dp))
+            heatmap.hariList.forEach { hari ->
+                Text(
+                    text = hari.take(3),
+                    style = MaterialTheme.typography.labelSmall,
+                    color = NeutralGray600,
+                    textAlign = TextAlign.Center,
+                    modifier = Modifier.weight(1f)
+                )
+            }
+        }
+        heatmap.kelasList.forEachIndexed { row, kelas ->
+            Row(
+                modifier = Modifier.padding(top = Spacing.xs),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                Text(
+                    text = kelas,
+                    style = MaterialTheme.typography.labelSmall,
+                    color = SMKOnSurface,
+                    maxLines = 1,
+                    modifier = Modifier.width(72.dp)
+                )
+                heatmap.hariList.indices.forEach { hari ->
+                    val rate = heatmap.rates[row][hari]
+                    val intensity = if (maxRate > 0) (rate / maxRate).toFloat() else 0f
+                    Box(
+                        modifier = Modifier
+                            .weight(1f)
+                            .height(28.dp)
+                            .padding(horizontal = 2.dp)
+                            .background(
+                                color = if (rate > 0) SMKError.copy(alpha = 0.15f + 0.75f * intensity) else NeutralGray100,
+                                shape = RoundedCornerShape(4.dp)
+                            ),
+                        contentAlignment = Alignment.Center
+                    ) {
+                        val absences = heatmap.absences[row][hari]
+                        if (absences > 0) {
+                            Text(
+                                text = absences.toString(),
+                                style = MaterialTheme.typography.labelSmall,
+                                color = if (intensity > 0.5f) SMKOnPrimary else SMKOnSurface
+                            )
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun LaporanGuruCard(summary: GuruAttendanceSummary) {
+    val maxBucket = summary.lateDistribution.maxOrNull() ?: 0
+    SchoolCard(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = summary.guruName,
+            style = MaterialTheme.typography.titleSmall,
+            fontWeight = FontWeight.SemiBold,
+            color = SMKOnSurface
+        )
+        Text(
+            text = "${summary.counts.hadir} hadir · ${summary.counts.telat} telat · " +
+                "${summary.counts.tidakHadir} tidak hadir · ${summary.counts.diganti} diganti",
+            style = MaterialTheme.typography.bodySmall,
+            color = NeutralGray600
+        )
+        if (maxBucket > 0) {
+            Spacer(modifier = Modifier.height(Spacing.sm))
+            Text(
+                text = "Keterlambatan (rata-rata ${"%.1f".format(summary.averageLateMinutes)} menit)",
+                style = MaterialTheme.typography.labelSmall,
+                color = NeutralGray600
+            )
+            Row(
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .height(40.dp),
+                horizontalArrangement = Arrangement.spacedBy(Spacing.xs),
+                verticalAlignment = Alignment.Bottom
+            ) {
+                summary.lateDistribution.forEach { count ->
+                    Box(
+                        modifier = Modifier
+                            .weight(1f)
+                            .fillMaxHeight(count.toFloat() / maxBucket)
+                            .background(SMKWarning, RoundedCornerShape(topStart = 4.dp, topEnd = 4.dp))
+                    )
+                }
+            }
+            Row(
+                modifier = Modifier.fillMaxWidth(),
+                horizontalArrangement = Arrangement.spacedBy(Spacing.xs)
+            ) {
+                LATE_BUCKET_LABELS.forEach { label ->
+                    Text(
+                        text = label,
+                        style = MaterialTheme.typography.labelSmall,
+                        color = NeutralGray600,
+                        textAlign = TextAlign.Center,
+                        modifier = Modifier.weight(1f)
+                    )
+                }
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import androidx.navigation.compose.rememberNavController
 import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
 import com.kelasxi.aplikasimonitoringkelas.data.model.*
 import com.kelasxi.aplikasimonitoringkelas.data.repository.AppRepositoryNew
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
 import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
 import com.kelasxi.aplikasimonitoringkelas.viewmodel.*
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.AplikasiMonitoringKelasTheme
@@ -228,23 +229,23 @@ fun KelasKosongPage() {
     val context = LocalContext.current
     val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
     val token = sharedPrefManager.getToken()
-    val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
+    val store = remember { MonitoringStore.getInstance(context) }
     val scope = rememberCoroutineScope()
     
-    var kelasKosongList by remember { mutableStateOf<List<KelasKosong>>(emptyList()) }
+    // Derived locally from today's schedules and teacher_attendances
+    val today = remember { MonitoringStore.today() }
+    val storedKelasKosong by remember(today) { store.kelasKosong(today) }.collectAsState(initial = null)
+    val kelasKosongList = storedKelasKosong.orEmpty()
     var isLoading by remember { mutableStateOf(false) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
     
     // Load kelas kosong
-    fun loadKelasKosong() {
+    fun loadKelasKosong(force: Boolean = false) {
         if (token != null) {
             scope.launch {
-                isLoading = true
-                // Get current date from device
-                val currentDate = java.time.LocalDate.now().toString() // Format: YYYY-MM-DD
-                repository.getKelasKosong(token, currentDate)
-                    .onSuccess { response ->
-                        kelasKosongList = response.data
+                isLoading = storedKelasKosong.isNullOrEmpty()
+                store.sync(token, today, force)
+                    .onSuccess {
                         errorMessage = null
                     }
                     .onFailure { error ->
@@ -321,13 +322,13 @@ fun KelasKosongPage() {
                     }
                 }
                 
-                errorMessage != null -> {
+                errorMessage != null && kelasKosongList.isEmpty() -> {
                     SchoolEmptyState(
                         title = "Terjadi Kesalahan",
                         subtitle = errorMessage ?: "Tidak dapat memuat data",
                         icon = Icons.Default.Error,
                         actionText = "Coba Lagi",
-                        onActionClick = { loadKelasKosong() }
+                        onActionClick = { loadKelasKosong(force = true) }
                     )
                 }
                 
@@ -529,10 +530,12 @@ fun GuruPenggantiPage() {
     val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
     val token = sharedPrefManager.getToken()
     val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
+    val store = remember { MonitoringStore.getInstance(context) }
     val scope = rememberCoroutineScope()
     
+    val today = remember { MonitoringStore.today() }
     var teacherReplacementList by remember { mutableStateOf<List<TeacherReplacement>>(emptyList()) }
-    var kelasKosongList by remember { mutableStateOf<List<KelasKosong>>(emptyList()) }
+    val kelasKosongList by remember(today) { store.kelasKosong(today) }.collectAsState(initial = emptyList())
     var guruList by remember { mutableStateOf<List<User>>(emptyList()) }  // Changed back to guruList for compatibility
     var isLoading by remember { mutableStateOf(false) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
@@ -546,13 +549,11 @@ fun GuruPenggantiPage() {
     var keterangan by remember { mutableStateOf("") }
     
     // Load data
-    fun loadData() {
+    fun loadData(force: Boolean = false) {
         if (token != null) {
             println("DEBUG: Starting loadData function")
             scope.launch {
                 isLoading = true
-                // Get current date from device
-                val currentDate = java.time.LocalDate.now().toString() // Format: YYYY-MM-DD
                 
                 // Load teacher replacements (penggantian yang sudah dilakukan)
                 repository.getTeacherReplacements(token)
@@ -565,14 +566,11 @@ fun GuruPenggantiPage() {
                         println("DEBUG: Failed to load teacher replacements - ${error.message}")
                     }
                     
-                repository.getKelasKosong(token, currentDate)
-                    .onSuccess { response ->
-                        kelasKosongList = response.data
-                        println("DEBUG: Loaded ${response.data.size} kelas kosong")
-                    }
+                // Kelas kosong for the dialog come from the local store
+                store.sync(token, today, force)
                     .onFailure { error ->
                         errorMessage = error.message
-                        println("DEBUG: Failed to load kelas kosong - ${error.message}")
+                        println("DEBUG: Failed to sync kelas kosong - ${error.message}")
                     }
                 
                 // Load daftar guru from teachers table
@@ -688,7 +686,7 @@ fun GuruPenggantiPage() {
                                             repository.cancelReplacement(token, replacement.id)
                                                 .onSuccess {
                                                     Toast.makeText(context, "Penggantian dibatalkan", Toast.LENGTH_SHORT).show()
-                                                    loadData()
+                                                    loadData(force = true)
                                                 }
                                                 .onFailure { error ->
                                                     Toast.makeText(context, "Gagal: ${error.message}", Toast.LENGTH_LONG).show()
@@ -734,7 +732,7 @@ fun GuruPenggantiPage() {
                                 selectedKelasKosong = null
                                 selectedGuruPengganti = null
                                 keterangan = ""
-                                loadData()
+                                loadData(force = true)
                             }
                             .onFailure { error ->
                                 Toast.makeText(context, "Gagal: ${error.message}", Toast.LENGTH_LONG).show()
@@ -1304,7 +1302,7 @@ fun GuruPenggantiCard(
                             modifier = Modifier.size(Dimensions.iconSizeSmall)
                         )
                         Text(
-                            text = "Ke: ${guruPengganti.guruPengganti.name}",
+                            text = "Ke: ${guruPengganti.guruPengganti?.name ?: "Tidak ada data"}",
                             style = MaterialTheme.typography.bodyMedium,
                             color = SuccessGreen,
                             fontWeight = FontWeight.SemiBold
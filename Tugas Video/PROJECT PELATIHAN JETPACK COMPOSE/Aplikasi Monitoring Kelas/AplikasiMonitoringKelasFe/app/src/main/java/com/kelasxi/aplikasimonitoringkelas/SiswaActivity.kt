@@ -35,14 +35,22 @@ import androidx.navigation.compose.NavHost
 import androidx.navigation.compose.composable
 import androidx.navigation.compose.currentBackStackEntryAsState
 import androidx.navigation.compose.rememberNavController
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
 import com.kelasxi.aplikasimonitoringkelas.data.model.*
 import com.kelasxi.aplikasimonitoringkelas.data.repository.AppRepositoryNew
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.AplikasiMonitoringKelasTheme
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.*
 import com.kelasxi.aplikasimonitoringkelas.ui.components.*
 import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
 import com.kelasxi.aplikasimonitoringkelas.viewmodel.*
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.launch
 
 // Helper functions
@@ -106,35 +114,24 @@ private fun formatStatusDisplay(status: String): String {
     }
 }
 
-private fun getSubjectStatus(schedule: Schedule): SubjectStatus {
-    // Simple logic to determine subject status
-    val currentTime = java.util.Calendar.getInstance()
-    val currentHour = currentTime.get(java.util.Calendar.HOUR_OF_DAY)
-    val currentMinute = currentTime.get(java.util.Calendar.MINUTE)
-    val currentTimeMinutes = currentHour * 60 + currentMinute
+// Status from the times parsed once when the index was built
+private fun getSubjectStatus(index: ScheduleIndex<Schedule>, schedule: Schedule, nowMinute: Int): SubjectStatus {
+    val startTimeMinutes = index.startMinuteOf(schedule)
+    val endTimeMinutes = index.endMinuteOf(schedule)
+    if (startTimeMinutes < 0 || endTimeMinutes < 0) return SubjectStatus.Scheduled
 
-    // Parse start time (assuming format HH:mm)
-    try {
-        val startParts = schedule.jam_mulai.split(":")
-        val startHour = startParts[0].toInt()
-        val startMinute = startParts[1].toInt()
-        val startTimeMinutes = startHour * 60 + startMinute
-
-        val endParts = schedule.jam_selesai.split(":")
-        val endHour = endParts[0].toInt()
-        val endMinute = endParts[1].toInt()
-        val endTimeMinutes = endHour * 60 + endMinute
-
-        return when {
-            currentTimeMinutes < startTimeMinutes -> SubjectStatus.Scheduled
-            currentTimeMinutes in startTimeMinutes..endTimeMinutes -> SubjectStatus.Ongoing
-            else -> SubjectStatus.Completed
-        }
-    } catch (e: Exception) {
-        return SubjectStatus.Scheduled
+    return when {
+        nowMinute < startTimeMinutes -> SubjectStatus.Scheduled
+        nowMinute <= endTimeMinutes -> SubjectStatus.Ongoing
+        else -> SubjectStatus.Completed
     }
 }
 
+private fun currentMinuteOfDay(): Int {
+    val now = java.util.Calendar.getInstance()
+    return now.get(java.util.Calendar.HOUR_OF_DAY) * 60 + now.get(java.util.Calendar.MINUTE)
+}
+
 class SiswaActivity : ComponentActivity() {
 
     override fun onCreate(savedInstanceState: Bundle?) {
@@ -294,23 +291,28 @@ fun JadwalPage(userRole: String) {
     val context = LocalContext.current
     val scheduleViewModel: ScheduleViewModel = viewModel()
     val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
-    val token = sharedPrefManager.getToken()
 
-    val schedules by scheduleViewModel.schedules
+    val scheduleIndex by scheduleViewModel.scheduleIndex.collectAsState()
     val isLoading by scheduleViewModel.isLoading
     val errorMessage by scheduleViewModel.errorMessage
 
-    // Load schedules for the user's class when page opens
-    LaunchedEffect(Unit) {
-        token?.let {
-            val userClass = sharedPrefManager.getUserClass()
-            if (!userClass.isNullOrEmpty()) {
-                scheduleViewModel.loadSchedules(it, kelas = userClass)
-            } else {
-                scheduleViewModel.loadSchedules(it)
-            }
+    // Ticks once a minute so status chips and the current lesson follow the clock
+    val nowMinute by produceState(initialValue = currentMinuteOfDay()) {
+        while (true) {
+            delay(60_000L - System.currentTimeMillis() % 60_000L)
+            value = currentMinuteOfDay()
         }
     }
+    val lessonsNow = scheduleIndex.lessonsAt(
+        hari = getCurrentDay(),
+        kelas = sharedPrefManager.getUserClass(),
+        minuteOfDay = nowMinute
+    )
+
+    // Reads the stored schedules; the view model syncs them once, not on every visit
+    LaunchedEffect(Unit) {
+        scheduleViewModel.setKelas(sharedPrefManager.getUserClass())
+    }
 
     // Handle error messages
     LaunchedEffect(errorMessage) {
@@ -370,6 +372,17 @@ fun JadwalPage(userRole: String) {
                             fontWeight = FontWeight.SemiBold
                         )
                     }
+                    (lessonsNow.current ?: lessonsNow.next)?.let { lesson ->
+                        Text(
+                            text = if (lesson === lessonsNow.current) {
+                                "Sekarang: ${lesson.mata_pelajaran}"
+                            } else {
+                                "Berikutnya: ${lesson.mata_pelajaran} (${lesson.jam_mulai})"
+                            },
+                            style = MaterialTheme.typography.bodySmall,
+                            color = NeutralGray600
+                        )
+                    }
                 }
 
                 Icon(
@@ -383,32 +396,25 @@ fun JadwalPage(userRole: String) {
             Spacer(modifier = Modifier.height(Spacing.xl))
 
             when {
-                isLoading -> {
+                isLoading && scheduleIndex.all.isEmpty() -> {
                     SchoolLoadingCard(
                         modifier = Modifier.fillMaxWidth()
                     )
                 }
 
-                errorMessage != null -> {
+                errorMessage != null && scheduleIndex.all.isEmpty() -> {
                     SchoolEmptyState(
                         title = "Terjadi Kesalahan",
                         subtitle = errorMessage ?: "Tidak dapat memuat jadwal",
                         icon = Icons.Default.Error,
                         actionText = "Coba Lagi",
                         onActionClick = {
-                            token?.let {
-                                val userClass = sharedPrefManager.getUserClass()
-                                if (!userClass.isNullOrEmpty()) {
-                                    scheduleViewModel.loadSchedules(it, kelas = userClass)
-                                } else {
-                                    scheduleViewModel.loadSchedules(it)
-                                }
-                            }
+                            scheduleViewModel.refresh()
                         }
                     )
                 }
 
-                schedules.isEmpty() -> {
+                scheduleIndex.all.isEmpty() -> {
                     SchoolEmptyState(
                         title = "Belum Ada Jadwal",
                         subtitle = if (sharedPrefManager.getUserClass() != null) {
@@ -425,12 +431,12 @@ fun JadwalPage(userRole: String) {
                     LazyColumn(
                         verticalArrangement = Arrangement.spacedBy(Spacing.md)
                     ) {
-                        items(schedules) { schedule ->
+                        items(scheduleIndex.all) { schedule ->
                             SchoolSubjectCard(
                                 subjectName = schedule.mata_pelajaran,
-                                teacherName = schedule.guru.name,
+                                teacherName = schedule.guru?.name.orEmpty(),
                                 time = "${schedule.jam_mulai} - ${schedule.jam_selesai}",
-                                status = getSubjectStatus(schedule),
+                                status = getSubjectStatus(scheduleIndex, schedule, nowMinute),
                                 onClick = {
                                     // Handle schedule item click if needed
                                 }
@@ -622,7 +628,7 @@ fun MyReportCard(monitoring: Monitoring) {
                         modifier = Modifier.size(Dimensions.iconSizeSmall)
                     )
                     Text(
-                        text = monitoring.jam_laporan,
+                        text = monitoring.jam_laporan ?: "-",
                         style = MaterialTheme.typography.bodyMedium,
                         fontWeight = FontWeight.Medium,
                         color = SMKSecondary
@@ -715,26 +721,36 @@ fun EntriPage() {
     val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
     val scope = rememberCoroutineScope()
 
-    var todaySchedules by remember { mutableStateOf<List<TodayScheduleWithAttendance>>(emptyList()) }
+    val store = remember { MonitoringStore.getInstance(context) }
+    // Today's schedules of the student's class, read from the local store
+    val today = remember { MonitoringStore.today() }
+    val userClass = remember { sharedPrefManager.getUserClass() }
+    // Indexed once per store change, off the main thread
+    val storedSchedules by remember(today, userClass) {
+        store.schedulesWithAttendance(today, userClass)
+            .map { schedules -> ScheduleIndex.of(schedules) { it.schedule } }
+            .flowOn(Dispatchers.Default)
+    }.collectAsState(initial = null)
+    val todaySchedules = storedSchedules?.all.orEmpty()
     var isLoading by remember { mutableStateOf(false) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
     var successMessage by remember { mutableStateOf<String?>(null) }
     var selectedSchedule by remember { mutableStateOf<TodayScheduleWithAttendance?>(null) }
     var showEntryDialog by remember { mutableStateOf(false) }
 
-    // Load today's schedules filtered by student's class
-    LaunchedEffect(Unit) {
+    // Batch entry: pick several unrecorded lessons and send them in one request
+    var batchMode by remember { mutableStateOf(false) }
+    var batchSelection by remember { mutableStateOf<Set<Int>>(emptySet()) } // schedule ids
+    var showBatchDialog by remember { mutableStateOf(false) }
+    var batchErrors by remember { mutableStateOf<Map<Int, String>>(emptyMap()) } // schedule id -> message
+
+    fun loadSchedules(force: Boolean = false) {
         if (token != null) {
             scope.launch {
-                isLoading = true
-                // Get the student's class from shared preferences
-                val userClass = sharedPrefManager.getUserClass()
-                // Set date to today for filtering
-                val currentDate = java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault())
-                    .format(java.util.Date())
-                repository.getAllSchedules(token, currentDate, userClass)
-                    .onSuccess { response ->
-                        todaySchedules = response.data
+                isLoading = storedSchedules?.all.isNullOrEmpty()
+                store.sync(token, today, force)
+                    .onSuccess {
+                        errorMessage = null
                     }
                     .onFailure { error ->
                         errorMessage = error.message
@@ -745,23 +761,15 @@ fun EntriPage() {
         }
     }
 
-    // Handle success message
+    LaunchedEffect(Unit) {
+        loadSchedules()
+    }
+
+    // Handle success message; the saved attendance is already in the store
     LaunchedEffect(successMessage) {
         successMessage?.let { message ->
             Toast.makeText(context, message, Toast.LENGTH_SHORT).show()
             successMessage = null
-            // Reload schedules
-            if (token != null) {
-                scope.launch {
-                    val userClass = sharedPrefManager.getUserClass()
-                    val currentDate = java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault())
-                        .format(java.util.Date())
-                    repository.getAllSchedules(token, currentDate, userClass)
-                        .onSuccess { response ->
-                            todaySchedules = response.data
-                        }
-                }
-            }
         }
     }
 
@@ -819,7 +827,54 @@ fun EntriPage() {
                 }
             }
 
-            Spacer(modifier = Modifier.height(Spacing.xl))
+            Spacer(modifier = Modifier.height(Spacing.md))
+
+            // Batch entry toolbar
+            Row(
+                modifier = Modifier.fillMaxWidth(),
+                horizontalArrangement = Arrangement.spacedBy(Spacing.sm),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                FilterChip(
+                    selected = batchMode,
+                    onClick = {
+                        batchMode = !batchMode
+                        batchSelection = emptySet()
+                        batchErrors = emptyMap()
+                    },
+                    label = { Text("Entri Sekaligus") },
+                    leadingIcon = {
+                        Icon(
+                            imageVector = Icons.Default.Checklist,
+                            contentDescription = null,
+                            modifier = Modifier.size(Dimensions.iconSizeSmall)
+                        )
+                    }
+                )
+                if (batchMode) {
+                    TextButton(
+                        onClick = {
+                            // Every unrecorded lesson of today
+                            val hariIni = MonitoringStore.hariOf(java.time.LocalDate.parse(today))
+                            batchSelection = storedSchedules?.slice(hari = hariIni).orEmpty()
+                                .filter { !it.hasAttendance }
+                                .map { it.schedule.id }
+                                .toSet()
+                        }
+                    ) {
+                        Text("Pilih hari ini")
+                    }
+                    Spacer(modifier = Modifier.weight(1f))
+                    SchoolButton(
+                        onClick = { showBatchDialog = true },
+                        text = "Catat (${batchSelection.size})",
+                        variant = ButtonVariant.Primary,
+                        enabled = batchSelection.isNotEmpty()
+                    )
+                }
+            }
+
+            Spacer(modifier = Modifier.height(Spacing.md))
 
             when {
                 isLoading -> {
@@ -831,31 +886,13 @@ fun EntriPage() {
                     }
                 }
 
-                errorMessage != null -> {
+                errorMessage != null && todaySchedules.isEmpty() -> {
                     SchoolEmptyState(
                         title = "Terjadi Kesalahan",
                         subtitle = errorMessage ?: "Tidak dapat memuat jadwal",
                         icon = Icons.Default.Error,
                         actionText = "Coba Lagi",
-                        onActionClick = {
-                            if (token != null) {
-                                scope.launch {
-                                    isLoading = true
-                                    val userClass = sharedPrefManager.getUserClass()
-                                    val currentDate = java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault())
-                                        .format(java.util.Date())
-                                    repository.getAllSchedules(token, currentDate, userClass)
-                                        .onSuccess { response ->
-                                            todaySchedules = response.data
-                                            errorMessage = null
-                                        }
-                                        .onFailure { error ->
-                                            errorMessage = error.message
-                                        }
-                                    isLoading = false
-                                }
-                            }
-                        }
+                        onActionClick = { loadSchedules(force = true) }
                     )
                 }
 
@@ -872,12 +909,11 @@ fun EntriPage() {
                     LazyColumn(
                         verticalArrangement = Arrangement.spacedBy(Spacing.md)
                     ) {
-                        // Group schedules by day
-                        val groupedSchedules = todaySchedules.groupBy { it.schedule.hari }
-                        val sortedDays = listOf("Senin", "Selasa", "Rabu", "Kamis", "Jumat", "Sabtu", "Minggu")
+                        // Schedules grouped by day, straight from the index
+                        val scheduleIndex = storedSchedules ?: return@LazyColumn
                         
-                        sortedDays.forEach { day ->
-                            groupedSchedules[day]?.let { schedulesForDay ->
+                        scheduleIndex.days.forEach { day ->
+                            scheduleIndex.slice(hari = day).let { schedulesForDay ->
                                 // Day header
                                 item {
                                     Surface(
@@ -919,11 +955,21 @@ fun EntriPage() {
                                             selectedSchedule = scheduleItem
                                             showEntryDialog = true
                                         },
+                                        selectionMode = batchMode,
+                                        selected = scheduleItem.schedule.id in batchSelection,
+                                        onSelectedChange = { checked ->
+                                            batchSelection = if (checked) {
+                                                batchSelection + scheduleItem.schedule.id
+                                            } else {
+                                                batchSelection - scheduleItem.schedule.id
+                                            }
+                                        },
                                         onConfirmReplacementAttendance = { attendanceId, newStatus ->
                                             if (token != null) {
                                                 scope.launch {
                                                     repository.updateTeacherAttendanceStatus(token, attendanceId, newStatus)
-                                                        .onSuccess {
+                                                        .onSuccess { updated ->
+                                                            store.saveAttendance(updated)
                                                             successMessage = if (newStatus == "hadir") {
                                                                 "Guru pengganti dikonfirmasi hadir"
                                                             } else {
@@ -958,20 +1004,18 @@ fun EntriPage() {
             onSubmit = { jamMasuk, status, keterangan ->
                 if (token != null) {
                     scope.launch {
-                        val currentDate = java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault())
-                            .format(java.util.Date())
-                        
                         val request = TeacherAttendanceRequest(
                             scheduleId = selectedSchedule!!.schedule.id,
-                            guruId = selectedSchedule!!.schedule.guru.id,
-                            tanggal = currentDate,
+                            guruId = selectedSchedule!!.schedule.guru_id,
+                            tanggal = today,
                             jamMasuk = jamMasuk,
                             status = status,
                             keterangan = keterangan
                         )
                         
                         repository.createTeacherAttendance(token, request)
-                            .onSuccess {
+                            .onSuccess { attendance ->
+                                store.saveAttendance(attendance)
                                 successMessage = "Kehadiran guru berhasil dicatat"
                                 // Tutup modal dan reset state
                                 showEntryDialog = false
@@ -987,13 +1031,74 @@ fun EntriPage() {
             }
         )
     }
+
+    // Batch Entry Dialog
+    if (showBatchDialog) {
+        val selectedSchedules = todaySchedules
+            .filter { it.schedule.id in batchSelection && !it.hasAttendance }
+            .map { it.schedule }
+        TeacherAttendanceBatchDialog(
+            schedules = selectedSchedules,
+            errors = batchErrors,
+            onDismiss = {
+                showBatchDialog = false
+                batchErrors = emptyMap()
+            },
+            onSubmit = { entries ->
+                if (token != null) {
+                    scope.launch {
+                        val requests = entries.map { entry ->
+                            TeacherAttendanceRequest(
+                                scheduleId = entry.schedule.id,
+                                guruId = entry.schedule.guru_id,
+                                tanggal = today,
+                                jamMasuk = entry.jamMasuk,
+                                status = entry.status,
+                                keterangan = entry.keterangan
+                            )
+                        }
+                        repository.createTeacherAttendanceBatch(token, requests)
+                            .onSuccess { results ->
+                                // Apply what was saved; keep the failed rows selected with their reason
+                                store.saveAttendances(results.filter { it.success }.mapNotNull { it.data })
+                                val failed = results.filter { !it.success }
+                                    .mapNotNull { result ->
+                                        entries.getOrNull(result.index)?.let { it.schedule.id to result.message }
+                                    }
+                                    .toMap()
+                                val savedCount = results.count { it.success }
+                                batchErrors = failed
+                                batchSelection = failed.keys
+                                if (failed.isEmpty()) {
+                                    showBatchDialog = false
+                                    batchMode = false
+                                    successMessage = "$savedCount kehadiran guru berhasil dicatat"
+                                } else {
+                                    Toast.makeText(
+                                        context,
+                                        "$savedCount berhasil, ${failed.size} gagal dicatat",
+                                        Toast.LENGTH_LONG
+                                    ).show()
+                                }
+                            }
+                            .onFailure { error ->
+                                Toast.makeText(context, "Gagal: ${error.message}", Toast.LENGTH_LONG).show()
+                            }
+                    }
+                }
+            }
+        )
+    }
 }
 
 @Composable
 fun TeacherAttendanceEntryCard(
     scheduleWithAttendance: TodayScheduleWithAttendance,
     onEntryClick: () -> Unit,
-    onConfirmReplacementAttendance: (attendanceId: Int, status: String) -> Unit = { _, _ -> }
+    onConfirmReplacementAttendance: (attendanceId: Int, status: String) -> Unit = { _, _ -> },
+    selectionMode: Boolean = false,
+    selected: Boolean = false,
+    onSelectedChange: (Boolean) -> Unit = {}
 ) {
     var showConfirmDialog by remember { mutableStateOf(false) }
     var confirmAction by remember { mutableStateOf("") } // "hadir" atau "tidak_hadir"
@@ -1067,7 +1172,7 @@ fun TeacherAttendanceEntryCard(
                             modifier = Modifier.size(Dimensions.iconSizeSmall)
                         )
                         Text(
-                            text = "Pengganti: ${scheduleWithAttendance.attendance.guru?.name ?: schedule.guru.name}",
+                            text = "Pengganti: ${scheduleWithAttendance.attendance.guru?.name ?: schedule.guru?.name ?: "-"}",
                             style = MaterialTheme.typography.bodyMedium,
                             color = SuccessGreen
                         )
@@ -1085,7 +1190,7 @@ fun TeacherAttendanceEntryCard(
                             modifier = Modifier.size(Dimensions.iconSizeSmall)
                         )
                         Text(
-                            text = schedule.guru.name,
+                            text = schedule.guru?.name ?: "-",
                             style = MaterialTheme.typography.bodyMedium,
                             color = NeutralGray700
                         )
@@ -1253,7 +1358,13 @@ fun TeacherAttendanceEntryCard(
                 }
             }
 
-            if (!hasAttendance) {
+            if (!hasAttendance && selectionMode) {
+                Checkbox(
+                    checked = selected,
+                    onCheckedChange = onSelectedChange,
+                    colors = CheckboxDefaults.colors(checkedColor = SMKPrimary)
+                )
+            } else if (!hasAttendance) {
                     SchoolButton(
                         onClick = onEntryClick,
                         text = "Catat",
@@ -1345,7 +1456,7 @@ fun TeacherAttendanceEntryDialog(
                     fontWeight = FontWeight.Bold
                 )
                 Text(
-                    text = "${schedule.mata_pelajaran} - ${schedule.guru.name}",
+                    text = "${schedule.mata_pelajaran} - ${schedule.guru?.name ?: "-"}",
                     style = MaterialTheme.typography.bodyMedium,
                     color = NeutralGray600
                 )
@@ -1425,48 +1536,157 @@ fun TeacherAttendanceEntryDialog(
     )
 }
 
-@Composable
-fun ListPage() {
-    val context = LocalContext.current
-    val sharedPrefManager = remember { SharedPrefManager.getInstance(context) }
-    val token = sharedPrefManager.getToken()
-    val repository = remember { AppRepositoryNew(RetrofitClient.apiService) }
-    val scope = rememberCoroutineScope()
+/** One row of [TeacherAttendanceBatchDialog]. */
+data class BatchAttendanceEntry(
+    val schedule: Schedule,
+    val jamMasuk: String,
+    val status: String,
+    val keterangan: String?
+)
 
-    var attendanceList by remember { mutableStateOf<List<TeacherAttendance>>(emptyList()) }
-    var isLoading by remember { mutableStateOf(false) }
-    var errorMessage by remember { mutableStateOf<String?>(null) }
-    var selectedFilter by remember { mutableStateOf("all") } // all, hadir, telat, tidak_hadir
-    var currentPage by remember { mutableStateOf(1) }
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun TeacherAttendanceBatchDialog(
+    schedules: List<Schedule>,
+    errors: Map<Int, String>,
+    onDismiss: () -> Unit,
+    onSubmit: (entries: List<BatchAttendanceEntry>) -> Unit
+) {
+    val now = remember {
+        java.text.SimpleDateFormat("HH:mm", java.util.Locale.getDefault()).format(java.util.Date())
+    }
+    // Per schedule id; on time (hadir) by default, jam masuk = jam mulai
+    var statuses by remember { mutableStateOf(schedules.associate { it.id to "hadir" }) }
+    var jamMasuk by remember { mutableStateOf(schedules.associate { it.id to it.jam_mulai.take(5) }) }
+    var keterangan by remember { mutableStateOf("") }
+    var isSubmitting by remember(errors) { mutableStateOf(false) }
 
-    // Function to load attendance data
-    fun loadAttendanceData() {
-        if (token != null) {
-            scope.launch {
-                isLoading = true
-                val filterStatus = if (selectedFilter == "all") null else selectedFilter
-                repository.getTeacherAttendances(
-                    token = token,
-                    status = filterStatus,
-                    page = currentPage,
-                    perPage = 20
+    AlertDialog(
+        onDismissRequest = { if (!isSubmitting) onDismiss() },
+        title = {
+            Column {
+                Text(
+                    text = "Catat Kehadiran Sekaligus",
+                    style = MaterialTheme.typography.titleLarge,
+                    fontWeight = FontWeight.Bold
                 )
-                    .onSuccess { response ->
-                        attendanceList = response.data
-                    }
-                    .onFailure { error ->
-                        errorMessage = error.message
-                        Toast.makeText(context, "Gagal memuat data: ${error.message}", Toast.LENGTH_LONG).show()
+                Text(
+                    text = "${schedules.size} jadwal dipilih",
+                    style = MaterialTheme.typography.bodyMedium,
+                    color = NeutralGray600
+                )
+            }
+        },
+        text = {
+            LazyColumn(
+                modifier = Modifier.heightIn(max = 420.dp),
+                verticalArrangement = Arrangement.spacedBy(Spacing.md)
+            ) {
+                items(schedules, key = { it.id }) { schedule ->
+                    val status = statuses[schedule.id] ?: "hadir"
+                    Column(verticalArrangement = Arrangement.spacedBy(Spacing.xs)) {
+                        Text(
+                            text = "${schedule.jam_mulai.take(5)} · ${schedule.mata_pelajaran}",
+                            style = MaterialTheme.typography.titleSmall,
+                            fontWeight = FontWeight.SemiBold
+                        )
+                        Text(
+                            text = schedule.guru?.name ?: "-",
+                            style = MaterialTheme.typography.bodySmall,
+                            color = NeutralGray600
+                        )
+                        Row(horizontalArrangement = Arrangement.spacedBy(Spacing.xs)) {
+                            listOf("hadir" to "Hadir", "telat" to "Telat", "tidak_hadir" to "Tidak Hadir").forEach { (value, label) ->
+                                FilterChip(
+                                    selected = status == value,
+                                    onClick = {
+                                        statuses = statuses + (schedule.id to value)
+                                        // Late arrivals default to the current time
+                                        if (value == "telat") jamMasuk = jamMasuk + (schedule.id to now)
+                                        if (value == "hadir") jamMasuk = jamMasuk + (schedule.id to schedule.jam_mulai.take(5))
+                                    },
+                                    label = { Text(label) }
+                                )
+                            }
+                        }
+                        if (status == "telat") {
+                            SchoolTextField(
+                                value = jamMasuk[schedule.id].orEmpty(),
+                                onValueChange = { jamMasuk = jamMasuk + (schedule.id to it) },
+                                label = "Jam Masuk",
+                                placeholder = "HH:mm (contoh: 08:30)",
+                                leadingIcon = Icons.Default.Schedule,
+                                modifier = Modifier.fillMaxWidth()
+                            )
+                        }
+                        errors[schedule.id]?.let { message ->
+                            Text(
+                                text = message,
+                                style = MaterialTheme.typography.labelSmall,
+                                color = ErrorRed
+                            )
+                        }
                     }
-                isLoading = false
+                }
+                item {
+                    SchoolTextField(
+                        value = keterangan,
+                        onValueChange = { keterangan = it },
+                        label = "Keterangan (Opsional)",
+                        placeholder = "Berlaku untuk semua jadwal yang dipilih",
+                        leadingIcon = Icons.Default.Notes,
+                        singleLine = false,
+                        minLines = 2,
+                        maxLines = 4,
+                        modifier = Modifier.fillMaxWidth()
+                    )
+                }
             }
+        },
+        confirmButton = {
+            val canSubmit = schedules.isNotEmpty() && !isSubmitting &&
+                schedules.all { !jamMasuk[it.id].isNullOrBlank() }
+            SchoolButton(
+                onClick = {
+                    if (canSubmit) {
+                        isSubmitting = true
+                        onSubmit(
+                            schedules.map { schedule ->
+                                BatchAttendanceEntry(
+                                    schedule = schedule,
+                                    jamMasuk = jamMasuk[schedule.id].orEmpty(),
+                                    status = statuses[schedule.id] ?: "hadir",
+                                    keterangan = keterangan.ifBlank { null }
+                                )
+                            }
+                        )
+                    }
+                },
+                text = if (isSubmitting) "Menyimpan..." else "Simpan Semua",
+                variant = ButtonVariant.Primary,
+                enabled = canSubmit
+            )
+        },
+        dismissButton = {
+            SchoolButton(
+                onClick = onDismiss,
+                text = "Batal",
+                variant = ButtonVariant.Secondary,
+                enabled = !isSubmitting
+            )
         }
-    }
+    )
+}
 
-    // Load data when page opens or filter changes
-    LaunchedEffect(selectedFilter) {
-        loadAttendanceData()
-    }
+@Composable
+fun ListPage() {
+    val viewModel: TeacherAttendanceViewModel = viewModel()
+    val attendances = viewModel.attendances.collectAsLazyPagingItems()
+    val filter by viewModel.filter.collectAsState()
+    val showingCachedPages by viewModel.showingCachedPages
+
+    val selectedFilter = filter.status ?: "all" // all, hadir, telat, tidak_hadir
+    val refreshState = attendances.loadState.refresh
 
     Box(
         modifier = Modifier.fillMaxSize()
@@ -1528,7 +1748,7 @@ fun ListPage() {
             ) {
                 FilterChip(
                     selected = selectedFilter == "all",
-                    onClick = { selectedFilter = "all" },
+                    onClick = { viewModel.setStatus(null) },
                     label = { Text("Semua") },
                     leadingIcon = {
                         if (selectedFilter == "all") {
@@ -1542,7 +1762,7 @@ fun ListPage() {
                 )
                 FilterChip(
                     selected = selectedFilter == "hadir",
-                    onClick = { selectedFilter = "hadir" },
+                    onClick = { viewModel.setStatus("hadir") },
                     label = { Text("Hadir") },
                     leadingIcon = {
                         if (selectedFilter == "hadir") {
@@ -1560,7 +1780,7 @@ fun ListPage() {
                 )
                 FilterChip(
                     selected = selectedFilter == "telat",
-                    onClick = { selectedFilter = "telat" },
+                    onClick = { viewModel.setStatus("telat") },
                     label = { Text("Telat") },
                     leadingIcon = {
                         if (selectedFilter == "telat") {
@@ -1578,7 +1798,7 @@ fun ListPage() {
                 )
                 FilterChip(
                     selected = selectedFilter == "tidak_hadir",
-                    onClick = { selectedFilter = "tidak_hadir" },
+                    onClick = { viewModel.setStatus("tidak_hadir") },
                     label = { Text("Tidak Hadir") },
                     leadingIcon = {
                         if (selectedFilter == "tidak_hadir") {
@@ -1598,24 +1818,33 @@ fun ListPage() {
 
             Spacer(modifier = Modifier.height(Spacing.xl))
 
+            if (showingCachedPages) {
+                Text(
+                    text = "Menampilkan data tersimpan (offline)",
+                    style = MaterialTheme.typography.bodySmall,
+                    color = NeutralGray600,
+                    modifier = Modifier.padding(bottom = Spacing.sm)
+                )
+            }
+
             when {
-                isLoading -> {
+                refreshState is LoadState.Loading && attendances.itemCount == 0 -> {
                     SchoolLoadingCard(
                         modifier = Modifier.fillMaxWidth()
                     )
                 }
 
-                errorMessage != null -> {
+                refreshState is LoadState.Error && attendances.itemCount == 0 -> {
                     SchoolEmptyState(
                         title = "Terjadi Kesalahan",
-                        subtitle = errorMessage ?: "Tidak dapat memuat laporan kehadiran",
+                        subtitle = refreshState.error.message ?: "Tidak dapat memuat laporan kehadiran",
                         icon = Icons.Default.Error,
                         actionText = "Coba Lagi",
-                        onActionClick = { loadAttendanceData() }
+                        onActionClick = { attendances.retry() }
                     )
                 }
 
-                attendanceList.isEmpty() -> {
+                attendances.itemCount == 0 -> {
                     SchoolEmptyState(
                         title = "Belum Ada Data",
                         subtitle = if (selectedFilter != "all") {
@@ -1632,8 +1861,20 @@ fun ListPage() {
                     LazyColumn(
                         verticalArrangement = Arrangement.spacedBy(Spacing.md)
                     ) {
-                        items(attendanceList) { attendance ->
-                            TeacherAttendanceListCard(attendance = attendance)
+                        items(
+                            count = attendances.itemCount,
+                            key = attendances.itemKey { it.id }
+                        ) { index ->
+                            attendances[index]?.let { attendance ->
+                                TeacherAttendanceListCard(attendance = attendance)
+                            }
+                        }
+
+                        item {
+                            SchoolPagingFooter(
+                                state = attendances.loadState.append,
+                                onRetry = { attendances.retry() }
+                            )
                         }
                     }
                 }
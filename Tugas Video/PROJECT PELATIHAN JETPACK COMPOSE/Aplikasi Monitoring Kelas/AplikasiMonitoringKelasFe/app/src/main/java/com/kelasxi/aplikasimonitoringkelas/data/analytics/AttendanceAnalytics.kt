@@ -0,0 +1,65 @@
+package com.kelasxi.aplikasimonitoringkelas.data.analytics
+
+import android.content.Context
+import com.kelasxi.aplikasimonitoringkelas.data.local.MonitoringDatabase
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.time.LocalDate
+
+/**
+ * Attendance reports for the principal, computed from the teacher_attendances
+ * rows in the local store (MonitoringStore), so any date range, guru or
+ * class cut is answered offline and without another request.
+ *
+ * Each time the table changes, only the rows written since the last look
+ * (syncedAt cursor) are fed to the [AttendanceCube]; rows that disappeared
+ * are removed from it. The cube lives as long as the process.
+ */
+class AttendanceAnalytics private constructor(context: Context) {
+
+    private val dao = MonitoringDatabase.getInstance(context).monitoringDao()
+    private val cube = AttendanceCube()
+    private val mutex = Mutex()
+    private var cursor = Long.MIN_VALUE
+
+    /** The report for [from]..[to], recomputed whenever stored attendance changes. */
+    fun reports(from: LocalDate, to: LocalDate): Flow<AttendanceReport> =
+        dao.attendanceChanges()
+            .conflate()
+            .map {
+                mutex.withLock {
+                    catchUp()
+                    cube.report(from, to)
+                }
+            }
+            .flowOn(Dispatchers.Default)
+
+    private suspend fun catchUp() {
+        // >= so rows written in the same millisecond as the last batch aren't
+        // missed; re-applying an unchanged row is a no-op
+        val facts = dao.attendanceFactsSince(cursor)
+        facts.forEach { cube.upsert(it) }
+        facts.maxOfOrNull { it.syncedAt }?.let { cursor = it }
+
+        val ids = dao.attendanceIds()
+        if (facts.isNotEmpty() || ids.size != cube.size) {
+            cube.retainOnly(ids.toHashSet())
+        }
+    }
+
+    companion object {
+        @Volatile
+        private var INSTANCE: AttendanceAnalytics? = null
+
+        fun getInstance(context: Context): AttendanceAnalytics {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AttendanceAnalytics(context.applicationContext).also { INSTANCE = it }
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.kelasxi.aplikasimonitoringkelas.data.analytics
+
+import com.kelasxi.aplikasimonitoringkelas.data.local.AttendanceFact
+import java.time.DayOfWeek
+import java.time.LocalDate
+import java.util.TreeMap
+
+/**
+ * Teacher-attendance aggregates kept up to date row by row.
+ *
+ *  - Rows are stored column-wise in primitive arrays (guru, kelas, day,
+ *    status, minutes late), one slot per attendance id. Guru and kelas are
+ *    dictionary-encoded to dense indexes.
+ *  - Every day with data has a [DayBlock] of counters: per guru x status,
+ *    per kelas x status, and per guru x late bucket. Adding, changing or
+ *    removing a row only touches the counters of its own day.
+ *  - [report] sums the blocks of the days in range, so a report costs
+ *    O(days x (guru + kelas)) however many rows there are.
+ *
+ * Not thread-safe; [AttendanceAnalytics] confines it behind a mutex.
+ */
+internal class AttendanceCube {
+
+    // ==================== COLUMNS ====================
+
+    var size = 0
+        private set
+    private var rowId = IntArray(INITIAL_CAPACITY)
+    private var rowGuru = IntArray(INITIAL_CAPACITY)
+    private var rowKelas = IntArray(INITIAL_CAPACITY) // -1 when unknown
+    private var rowDay = IntArray(INITIAL_CAPACITY) // epoch day
+    private var rowStatus = IntArray(INITIAL_CAPACITY) // STATUS_*, -1 when unknown
+    private var rowLate = IntArray(INITIAL_CAPACITY) // minutes, -1 when not late or unknown
+    private val slotOfId = HashMap<Int, Int>()
+
+    // ==================== DICTIONARIES ====================
+
+    private val guruIndex = HashMap<Int, Int>()
+    private val guruIds = ArrayList<Int>()
+    private val guruNames = ArrayList<String>()
+    private val kelasIndex = HashMap<String, Int>()
+    private val kelasNames = ArrayList<String>()
+
+    // ==================== AGGREGATES ====================
+
+    private class DayBlock {
+        var guruStatus = IntArray(0) // [guru * STATUS_COUNT + status]
+        var kelasStatus = IntArray(0) // [kelas * STATUS_COUNT + status]
+        var guruLate = IntArray(0) // [guru * LATE_BUCKETS + bucket]
+        var guruLateMinutes = LongArray(0) // [guru]
+    }
+
+    private val days = HashMap<Int, DayBlock>()
+
+    /**
+     * Adds [fact] or updates the row with its id. Returns false when the row
+     * was already stored with the same values.
+     */
+    fun upsert(fact: AttendanceFact): Boolean {
+        val day = epochDayOf(fact.tanggal) ?: return false
+        val guru = guruSlot(fact.guruId, fact.guruName)
+        val kelas = fact.kelas?.takeIf { it.isNotBlank() }?.let { kelasSlot(it) } ?: -1
+        val status = statusOf(fact.status)
+        val late = if (status == STATUS_TELAT) minutesLate(fact.jamMulai, fact.jamMasuk) else -1
+
+        val existing = slotOfId[fact.id]
+        val slot = if (existing != null) {
+            if (rowGuru[existing] == guru && rowKelas[existing] == kelas && rowDay[existing] == day &&
+                rowStatus[existing] == status && rowLate[existing] == late
+            ) {
+                return false
+            }
+            contribute(existing, -1)
+            existing
+        } else {
+            ensureRowCapacity(size + 1)
+            slotOfId[fact.id] = size
+            rowId[size] = fact.id
+            size++
+            size - 1
+        }
+        rowGuru[slot] = guru
+        rowKelas[slot] = kelas
+        rowDay[slot] = day
+        rowStatus[slot] = status
+        rowLate[slot] = late
+        contribute(slot, +1)
+        return true
+    }
+
+    /** Removes every row whose id isn't in [ids]. Returns how many were removed. */
+    fun retainOnly(ids: Collection<Int>): Int {
+        val keep = ids as? Set<Int> ?: ids.toHashSet()
+        var removed = 0
+        var slot = size - 1
+        while (slot >= 0) {
+            if (rowId[slot] !in keep) {
+                remove(slot)
+                removed++
+            }
+            slot--
+        }
+        return removed
+    }
+
+    fun report(from: LocalDate, to: LocalDate): AttendanceReport {
+        val fromDay = from.toEpochDay().toInt()
+        val toDay = to.toEpochDay().toInt()
+        val guruCount = guruIds.size
+        val kelasCount = kelasNames.size
+
+        val totals = IntArray(STATUS_COUNT)
+        val guruStatus = IntArray(guruCount * STATUS_COUNT)
+        val guruLate = IntArray(guruCount * LATE_BUCKETS)
+        val guruLateMinutes = LongArray(guruCount)
+        val heatAbsent = IntArray(kelasCount * HEATMAP_HARI.size)
+        val heatTotal = IntArray(kelasCount * HEATMAP_HARI.size)
+        val weekly = TreeMap<Int, IntArray>()
+
+        for ((day, block) in days) {
+            if (day < fromDay || day > toDay) continue
+            val date = LocalDate.ofEpochDay(day.toLong())
+            val week = weekly.getOrPut(date.with(DayOfWeek.MONDAY).toEpochDay().toInt()) { IntArray(STATUS_COUNT) }
+
+            addInto(guruStatus, block.guruStatus)
+            addInto(guruLate, block.guruLate)
+            for (i in block.guruLateMinutes.indices) guruLateMinutes[i] += block.guruLateMinutes[i]
+            for (i in block.guruStatus.indices) {
+                totals[i % STATUS_COUNT] += block.guruStatus[i]
+                week[i % STATUS_COUNT] += block.guruStatus[i]
+            }
+
+            val hari = date.dayOfWeek.value - 1 // Senin = 0
+            if (hari < HEATMAP_HARI.size) {
+                for (kelas in 0 until block.kelasStatus.size / STATUS_COUNT) {
+                    val base = kelas * STATUS_COUNT
+                    heatAbsent[kelas * HEATMAP_HARI.size + hari] += block.kelasStatus[base + STATUS_TIDAK_HADIR]
+                    for (status in 0 until STATUS_COUNT) {
+                        heatTotal[kelas * HEATMAP_HARI.size + hari] += block.kelasStatus[base + status]
+                    }
+                }
+            }
+        }
+
+        val perGuru = (0 until guruCount).mapNotNull { guru ->
+            val counts = countsAt(guruStatus, guru * STATUS_COUNT)
+            if (counts.total == 0) return@mapNotNull null
+            val distribution = (0 until LATE_BUCKETS).map { guruLate[guru * LATE_BUCKETS + it] }
+            val timedLate = distribution.sum()
+            GuruAttendanceSummary(
+                guruId = guruIds[guru],
+                guruName = guruNames[guru],
+                counts = counts,
+                lateDistribution = distribution,
+                averageLateMinutes = if (timedLate == 0) 0.0 else guruLateMinutes[guru].toDouble() / timedLate
+            )
+        }.sortedWith(
+            compareByDescending<GuruAttendanceSummary> { it.counts.tidakHadir + it.counts.telat }
+                .thenBy { it.guruName }
+        )
+
+        // Only classes with recorded lessons in range, sorted by name
+        val kelasRows = (0 until kelasCount)
+            .filter { kelas -> (0 until HEATMAP_HARI.size).any { heatTotal[kelas * HEATMAP_HARI.size + it] > 0 } }
+            .sortedBy { kelasNames[it] }
+        val heatmap = KelasAbsenceHeatmap(
+            kelasList = kelasRows.map { kelasNames[it] },
+            hariList = HEATMAP_HARI,
+            absences = kelasRows.map { kelas ->
+                IntArray(HEATMAP_HARI.size) { heatAbsent[kelas * HEATMAP_HARI.size + it] }
+            },
+            rates = kelasRows.map { kelas ->
+                DoubleArray(HEATMAP_HARI.size) {
+                    val total = heatTotal[kelas * HEATMAP_HARI.size + it]
+                    if (total == 0) 0.0 else heatAbsent[kelas * HEATMAP_HARI.size + it].toDouble() / total
+                }
+            }
+        )
+
+        return AttendanceReport(
+            from = from,
+            to = to,
+            totals = countsAt(totals, 0),
+            weekly = weekly.map { (weekStart, counts) ->
+                WeeklyTrend(LocalDate.ofEpochDay(weekStart.toLong()), countsAt(counts, 0))
+            },
+            perGuru = perGuru,
+            kelasHeatmap = heatmap
+        )
+    }
+
+    // ==================== INTERNAL ====================
+
+    /** Adds ([sign] = 1) or subtracts (-1) the row at [slot] from its day's counters. */
+    private fun contribute(slot: Int, sign: Int) {
+        val status = rowStatus[slot]
+        if (status < 0) return
+        val block = days.getOrPut(rowDay[slot]) { DayBlock() }
+        val guru = rowGuru[slot]
+        val kelas = rowKelas[slot]
+
+        if (block.guruStatus.size < guruIds.size * STATUS_COUNT) {
+            block.guruStatus = block.guruStatus.copyOf(guruIds.size * STATUS_COUNT)
+            block.guruLate = block.guruLate.copyOf(guruIds.size * LATE_BUCKETS)
+            block.guruLateMinutes = block.guruLateMinutes.copyOf(guruIds.size)
+        }
+        block.guruStatus[guru * STATUS_COUNT + status] += sign
+
+        if (kelas >= 0) {
+            if (block.kelasStatus.size < kelasNames.size * STATUS_COUNT) {
+                block.kelasStatus = block.kelasStatus.copyOf(kelasNames.size * STATUS_COUNT)
+            }
+            block.kelasStatus[kelas * STATUS_COUNT + status] += sign
+        }
+
+        val late = rowLate[slot]
+        if (late >= 0) {
+            block.guruLate[guru * LATE_BUCKETS + lateBucket(late)] += sign
+            block.guruLateMinutes[guru] += (sign * late).toLong()
+        }
+    }
+
+    private fun remove(slot: Int) {
+        contribute(slot, -1)
+        slotOfId.remove(rowId[slot])
+        val last = size - 1
+        if (slot != last) {
+            rowId[slot] = rowId[last]
+            rowGuru[slot] = rowGuru[last]
+            rowKelas[slot] = rowKelas[last]
+            rowDay[slot] = rowDay[last]
+            rowStatus[slot] = rowStatus[last]
+            rowLate[slot] = rowLate[last]
+            slotOfId[rowId[slot]] = slot
+        }
+        size = last
+    }
+
+    private fun guruSlot(guruId: Int, name: String?): Int {
+        val existing = guruIndex[guruId]
+        if (existing != null) {
+            if (!name.isNullOrBlank()) guruNames[existing] = name
+            return existing
+        }
+        guruIds.add(guruId)
+        guruNames.add(name?.takeIf { it.isNotBlank() } ?: "Guru #$guruId")
+        return (guruIds.size - 1).also { guruIndex[guruId] = it }
+    }
+
+    private fun kelasSlot(kelas: String): Int =
+        kelasIndex.getOrPut(kelas) {
+            kelasNames.add(kelas)
+            kelasNames.size - 1
+        }
+
+    private fun ensureRowCapacity(capacity: Int) {
+        if (capacity <= rowId.size) return
+        val newCapacity = maxOf(capacity, rowId.size * 2)
+        rowId = rowId.copyOf(newCapacity)
+        rowGuru = rowGuru.copyOf(newCapacity)
+        rowKelas = rowKelas.copyOf(newCapacity)
+        rowDay = rowDay.copyOf(newCapacity)
+        rowStatus = rowStatus.copyOf(newCapacity)
+        rowLate = rowLate.copyOf(newCapacity)
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 256
+
+        const val STATUS_HADIR = 0
+        const val STATUS_TELAT = 1
+        const val STATUS_TIDAK_HADIR = 2
+        const val STATUS_DIGANTI = 3
+        const val STATUS_COUNT = 4
+
+        /** Upper bounds (minutes, inclusive) of the late buckets; the last is open-ended. */
+        private val LATE_BUCKET_LIMITS = intArrayOf(5, 10, 15, 30)
+        val LATE_BUCKETS = LATE_BUCKET_LIMITS.size + 1 // Matches LATE_BUCKET_LABELS
+
+        val HEATMAP_HARI = listOf("Senin", "Selasa", "Rabu", "Kamis", "Jumat", "Sabtu")
+
+        private fun statusOf(status: String): Int = when (status) {
+            "hadir" -> STATUS_HADIR
+            "telat" -> STATUS_TELAT
+            "tidak_hadir" -> STATUS_TIDAK_HADIR
+            "diganti" -> STATUS_DIGANTI
+            else -> -1
+        }
+
+        private fun lateBucket(minutes: Int): Int {
+            val bucket = LATE_BUCKET_LIMITS.indexOfFirst { minutes <= it }
+            return if (bucket < 0) LATE_BUCKET_LIMITS.size else bucket
+        }
+
+        private fun countsAt(counts: IntArray, offset: Int) = StatusCounts(
+            hadir = counts[offset + STATUS_HADIR],
+            telat = counts[offset + STATUS_TELAT],
+            tidakHadir = counts[offset + STATUS_TIDAK_HADIR],
+            diganti = counts[offset + STATUS_DIGANTI]
+        )
+
+        private fun addInto(target: IntArray, source: IntArray) {
+            for (i in source.indices) target[i] += source[i]
+        }
+
+        private fun epochDayOf(tanggal: String): Int? =
+            try {
+                LocalDate.parse(tanggal.take(10)).toEpochDay().toInt()
+            } catch (e: Exception) {
+                null
+            }
+
+        // jam_masuk - jam_mulai in minutes, never negative; -1 when either is missing
+        private fun minutesLate(jamMulai: String?, jamMasuk: String?): Int {
+            val start = minuteOf(jamMulai) ?: return -1
+            val arrived = minuteOf(jamMasuk) ?: return -1
+            return maxOf(0, arrived - start)
+        }
+
+        private fun minuteOf(time: String?): Int? {
+            val parts = time?.split(":") ?: return null
+            if (parts.size < 2) return null
+            val hour = parts[0].trim().toIntOrNull() ?: return null
+            val minute = parts[1].trim().toIntOrNull() ?: return null
+            return hour * 60 + minute
+        }
+    }
+}
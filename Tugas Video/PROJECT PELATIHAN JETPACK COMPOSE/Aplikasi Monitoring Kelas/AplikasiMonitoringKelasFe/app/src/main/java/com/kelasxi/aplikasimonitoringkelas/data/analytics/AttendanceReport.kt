@@ -0,0 +1,62 @@
+package com.kelasxi.aplikasimonitoringkelas.data.analytics
+
+import java.time.LocalDate
+
+/** Minutes-late buckets of [GuruAttendanceSummary.lateDistribution]. */
+val LATE_BUCKET_LABELS = listOf("≤5", "6-10", "11-15", "16-30", ">30")
+
+/** Teacher-attendance report for one date range, computed on the device. */
+data class AttendanceReport(
+    val from: LocalDate,
+    val to: LocalDate,
+    val totals: StatusCounts,
+    val weekly: List<WeeklyTrend>,
+    val perGuru: List<GuruAttendanceSummary>,
+    val kelasHeatmap: KelasAbsenceHeatmap
+) {
+    val isEmpty: Boolean get() = totals.total == 0
+}
+
+data class StatusCounts(
+    val hadir: Int,
+    val telat: Int,
+    val tidakHadir: Int,
+    val diganti: Int
+) {
+    val total: Int get() = hadir + telat + tidakHadir + diganti
+
+    val percentageHadir: Double get() = percentage(hadir)
+    val percentageTelat: Double get() = percentage(telat)
+    val percentageTidakHadir: Double get() = percentage(tidakHadir)
+
+    private fun percentage(count: Int): Double = if (total == 0) 0.0 else count * 100.0 / total
+}
+
+/** Counts of the week starting on [weekStart] (a Monday). */
+data class WeeklyTrend(
+    val weekStart: LocalDate,
+    val counts: StatusCounts
+)
+
+data class GuruAttendanceSummary(
+    val guruId: Int,
+    val guruName: String,
+    val counts: StatusCounts,
+    /** Late arrivals per bucket of [LATE_BUCKET_LABELS]. */
+    val lateDistribution: List<Int>,
+    /** Average minutes late over the late arrivals with a recorded jam_masuk. */
+    val averageLateMinutes: Double
+)
+
+/**
+ * Absences (tidak_hadir) per class and school day; [rates] is absences over
+ * recorded lessons for the same cell, 0 when nothing was recorded.
+ */
+data class KelasAbsenceHeatmap(
+    val kelasList: List<String>,
+    val hariList: List<String>,
+    val absences: List<IntArray>,
+    val rates: List<DoubleArray>
+) {
+    val maxRate: Double get() = rates.maxOfOrNull { row -> row.maxOrNull() ?: 0.0 } ?: 0.0
+}
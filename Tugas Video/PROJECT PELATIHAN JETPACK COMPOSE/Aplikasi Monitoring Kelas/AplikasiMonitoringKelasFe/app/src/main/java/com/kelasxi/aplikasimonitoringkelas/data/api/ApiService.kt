@@ -236,6 +236,12 @@ interface ApiService {
         @Body request: TeacherAttendanceRequest
     ): Response<ApiResponse<TeacherAttendance>>
     
+    @POST("teacher-attendance/batch")
+    suspend fun createTeacherAttendanceBatch(
+        @Header("Authorization") token: String,
+        @Body request: TeacherAttendanceBatchRequest
+    ): Response<ApiResponse<List<TeacherAttendanceBatchResult>>>
+    
     @GET("teacher-attendance/{id}")
     suspend fun getTeacherAttendance(
         @Header("Authorization") token: String,
@@ -261,4 +267,16 @@ interface ApiService {
         @Header("Authorization") token: String,
         @Path("id") id: Int
     ): Response<ApiResponse<Any>>
+    
+    // ==================== SYNC: Penyimpanan Lokal ====================
+    
+    @GET("sync")
+    suspend fun sync(
+        @Header("Authorization") token: String,
+        @Query("tanggal") tanggal: String? = null,
+        @Query("from") from: String? = null, // from/to: rentang tanggal sekaligus, menggantikan tanggal
+        @Query("to") to: String? = null,
+        @Query("updated_after") updatedAfter: String? = null,
+        @Query("schedules_updated_after") schedulesUpdatedAfter: String? = null
+    ): Response<SyncResponse>
 }
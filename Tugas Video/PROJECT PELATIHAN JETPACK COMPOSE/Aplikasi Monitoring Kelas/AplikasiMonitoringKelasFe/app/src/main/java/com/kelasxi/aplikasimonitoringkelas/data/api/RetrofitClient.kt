@@ -1,9 +1,11 @@
 package com.kelasxi.aplikasimonitoringkelas.data.api
 
+import com.kelasxi.aplikasimonitoringkelas.data.model.MonitoringJsonAdapters
+import com.squareup.moshi.Moshi
 import okhttp3.OkHttpClient
 import okhttp3.logging.HttpLoggingInterceptor
 import retrofit2.Retrofit
-import retrofit2.converter.gson.GsonConverterFactory
+import retrofit2.converter.moshi.MoshiConverterFactory
 import java.util.concurrent.TimeUnit
 
 object RetrofitClient {
@@ -22,11 +24,17 @@ object RetrofitClient {
         .writeTimeout(30, TimeUnit.SECONDS)
         .build()
     
+    // Model dibaca/ditulis oleh adapter hasil codegen (@JsonClass) langsung
+    // dari stream response; dipakai juga untuk JSON yang disimpan di perangkat
+    val moshi: Moshi = Moshi.Builder()
+        .add(MonitoringJsonAdapters)
+        .build()
+    
     val apiService: ApiService by lazy {
         Retrofit.Builder()
             .baseUrl(BASE_URL)
             .client(httpClient)
-            .addConverterFactory(GsonConverterFactory.create())
+            .addConverterFactory(MoshiConverterFactory.create(moshi))
             .build()
             .create(ApiService::class.java)
     }
@@ -0,0 +1,114 @@
+package com.kelasxi.aplikasimonitoringkelas.data.local
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Upsert
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+abstract class MonitoringDao {
+
+    // ==================== JADWAL ====================
+
+    @Query("SELECT * FROM schedules ORDER BY jamMulai")
+    abstract fun schedules(): Flow<List<ScheduleEntity>>
+
+    @Query("SELECT id FROM schedules")
+    protected abstract suspend fun scheduleIds(): List<Int>
+
+    @Upsert
+    protected abstract suspend fun upsertSchedules(rows: List<ScheduleEntity>)
+
+    @Query("DELETE FROM schedules WHERE id IN (:ids)")
+    protected abstract suspend fun deleteSchedules(ids: List<Int>)
+
+    // ==================== KEHADIRAN GURU ====================
+
+    @Query("SELECT * FROM teacher_attendances WHERE tanggal = :tanggal ORDER BY jamMulai")
+    abstract fun attendancesOn(tanggal: String): Flow<List<TeacherAttendanceEntity>>
+
+    @Query("SELECT id FROM teacher_attendances WHERE tanggal BETWEEN :from AND :to")
+    protected abstract suspend fun attendanceIdsBetween(from: String, to: String): List<Int>
+
+    @Upsert
+    abstract suspend fun upsertAttendances(rows: List<TeacherAttendanceEntity>)
+
+    @Query("DELETE FROM teacher_attendances WHERE id IN (:ids)")
+    protected abstract suspend fun deleteAttendances(ids: List<Int>)
+
+    // Analytics: re-emits on every change to the table
+    @Query("SELECT COUNT(*) FROM teacher_attendances")
+    abstract fun attendanceChanges(): Flow<Int>
+
+    @Query(
+        "SELECT id, guruId, guruName, kelas, tanggal, status, jamMulai, jamMasuk, syncedAt " +
+            "FROM teacher_attendances WHERE syncedAt >= :since"
+    )
+    abstract suspend fun attendanceFactsSince(since: Long): List<AttendanceFact>
+
+    @Query("SELECT id FROM teacher_attendances")
+    abstract suspend fun attendanceIds(): List<Int>
+
+    // ==================== GURU PENGGANTI ====================
+
+    @Query("SELECT * FROM guru_pengganti WHERE tanggal = :tanggal ORDER BY jamMulai")
+    abstract fun guruPenggantiOn(tanggal: String): Flow<List<GuruPenggantiEntity>>
+
+    @Query("SELECT id FROM guru_pengganti WHERE tanggal BETWEEN :from AND :to")
+    protected abstract suspend fun guruPenggantiIdsBetween(from: String, to: String): List<Int>
+
+    @Upsert
+    protected abstract suspend fun upsertGuruPengganti(rows: List<GuruPenggantiEntity>)
+
+    @Query("DELETE FROM guru_pengganti WHERE id IN (:ids)")
+    protected abstract suspend fun deleteGuruPengganti(ids: List<Int>)
+
+    // ==================== SYNC ====================
+
+    @Query("SELECT * FROM sync_state WHERE `key` = :key")
+    abstract suspend fun syncState(key: String): SyncStateEntity?
+
+    @Query("SELECT * FROM sync_state WHERE `key` IN (:keys)")
+    abstract suspend fun syncStates(keys: List<String>): List<SyncStateEntity>
+
+    @Upsert
+    protected abstract suspend fun upsertSyncState(state: SyncStateEntity)
+
+    /**
+     * Applies one delta sync of the dates [from]..[to] atomically: upserts the
+     * changed rows, deletes the local rows in that range whose id the server
+     * no longer has, and stores the new cursors.
+     * [guruPenggantiIds] null means the role can't see guru pengganti.
+     */
+    @Transaction
+    open suspend fun applySync(
+        from: String,
+        to: String,
+        schedules: List<ScheduleEntity>,
+        scheduleIds: List<Int>,
+        attendances: List<TeacherAttendanceEntity>,
+        attendanceIds: List<Int>,
+        guruPengganti: List<GuruPenggantiEntity>,
+        guruPenggantiIds: List<Int>?,
+        states: List<SyncStateEntity>
+    ) {
+        upsertSchedules(schedules)
+        (scheduleIds() - scheduleIds.toSet()).chunked(MAX_IDS).forEach { deleteSchedules(it) }
+
+        upsertAttendances(attendances)
+        (attendanceIdsBetween(from, to) - attendanceIds.toSet()).chunked(MAX_IDS).forEach { deleteAttendances(it) }
+
+        if (guruPenggantiIds != null) {
+            upsertGuruPengganti(guruPengganti)
+            (guruPenggantiIdsBetween(from, to) - guruPenggantiIds.toSet()).chunked(MAX_IDS).forEach { deleteGuruPengganti(it) }
+        }
+
+        states.forEach { upsertSyncState(it) }
+    }
+
+    companion object {
+        // Below SQLite's 999 bound-variable limit
+        private const val MAX_IDS = 500
+    }
+}
@@ -0,0 +1,43 @@
+package com.kelasxi.aplikasimonitoringkelas.data.local
+
+import android.content.Context
+import androidx.room.Database
+import androidx.room.Room
+import androidx.room.RoomDatabase
+
+@Database(
+    entities = [
+        ScheduleEntity::class,
+        TeacherAttendanceEntity::class,
+        GuruPenggantiEntity::class,
+        SyncStateEntity::class
+    ],
+    version = 2,
+    exportSchema = false
+)
+abstract class MonitoringDatabase : RoomDatabase() {
+
+    abstract fun monitoringDao(): MonitoringDao
+
+    companion object {
+        private const val DATABASE_NAME = "monitoring_kelas.db"
+
+        @Volatile
+        private var INSTANCE: MonitoringDatabase? = null
+
+        // Everything here can be synced again, so a schema change just
+        // starts from an empty store
+        fun getInstance(context: Context): MonitoringDatabase {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: Room.databaseBuilder(
+                    context.applicationContext,
+                    MonitoringDatabase::class.java,
+                    DATABASE_NAME
+                )
+                    .fallbackToDestructiveMigration()
+                    .build()
+                    .also { INSTANCE = it }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kelasxi.aplikasimonitoringkelas.data.local
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+// Each row keeps the server object as JSON (json) plus the columns the
+// queries filter and sort on
+
+@Entity(tableName = "schedules", indices = [Index("hari"), Index("kelas")])
+data class ScheduleEntity(
+    @PrimaryKey val id: Int,
+    val hari: String,
+    val kelas: String,
+    val guruId: Int,
+    val jamMulai: String,
+    val json: String
+)
+
+@Entity(
+    tableName = "teacher_attendances",
+    indices = [Index("tanggal"), Index("scheduleId"), Index("syncedAt")]
+)
+data class TeacherAttendanceEntity(
+    @PrimaryKey val id: Int,
+    val scheduleId: Int,
+    val guruId: Int,
+    val tanggal: String, // yyyy-MM-dd
+    val status: String, // hadir, telat, tidak_hadir, diganti
+    val kelas: String?,
+    val jamMulai: String?,
+    val jamMasuk: String?,
+    val guruName: String?,
+    val syncedAt: Long, // When this row was last written locally (analytics cursor)
+    val json: String
+)
+
+/** The scalar columns of teacher_attendances, without the JSON, for analytics. */
+data class AttendanceFact(
+    val id: Int,
+    val guruId: Int,
+    val guruName: String?,
+    val kelas: String?,
+    val tanggal: String,
+    val status: String,
+    val jamMulai: String?,
+    val jamMasuk: String?,
+    val syncedAt: Long
+)
+
+@Entity(tableName = "guru_pengganti", indices = [Index("tanggal")])
+data class GuruPenggantiEntity(
+    @PrimaryKey val id: Int,
+    val tanggal: String, // yyyy-MM-dd
+    val kelas: String,
+    val jamMulai: String,
+    val json: String
+)
+
+/** Cursor of the last delta sync: server_time to send back as updated_after. */
+@Entity(tableName = "sync_state")
+data class SyncStateEntity(
+    @PrimaryKey val key: String,
+    val serverTime: String,
+    val syncedAt: Long
+)
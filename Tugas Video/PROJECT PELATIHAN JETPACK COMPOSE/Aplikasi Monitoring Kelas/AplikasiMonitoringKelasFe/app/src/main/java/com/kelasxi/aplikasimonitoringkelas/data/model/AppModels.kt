@@ -1,26 +1,33 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
+import com.squareup.moshi.JsonClass
+
 // Models untuk Jadwal Pelajaran
+@JsonClass(generateAdapter = true)
 data class ScheduleResponse(
     val success: Boolean,
     val message: String,
     val data: List<Schedule>
 )
 
+@JsonClass(generateAdapter = true)
 data class Schedule(
     val id: Int,
     val hari: String,
     val kelas: String,
     val mata_pelajaran: String,
-    val guru_id: Int,
+    // Jadwal yang ikut dalam data kehadiran guru hanya membawa sebagian kolom
+    // (schedule:id,kelas,...) dan tanpa relasi guru
+    val guru_id: Int = 0,
     val jam_mulai: String,
     val jam_selesai: String,
     val ruang: String?,
-    val created_at: String,
-    val updated_at: String,
-    val guru: Guru
+    val created_at: String? = null,
+    val updated_at: String? = null,
+    val guru: Guru? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class ScheduleRequest(
     val hari: String,
     val kelas: String,
@@ -31,6 +38,7 @@ data class ScheduleRequest(
     val ruang: String?
 )
 
+@JsonClass(generateAdapter = true)
 data class Guru(
     val id: Int,
     val name: String,
@@ -39,6 +47,7 @@ data class Guru(
 )
 
 // Models untuk Users Management (Admin)
+@JsonClass(generateAdapter = true)
 data class UsersResponse(
     val success: Boolean,
     val message: String,
@@ -46,34 +55,38 @@ data class UsersResponse(
 )
 
 // Models untuk Monitoring
+@JsonClass(generateAdapter = true)
 data class MonitoringResponse(
     val success: Boolean,
     val message: String,
     val data: Monitoring?
 )
 
+@JsonClass(generateAdapter = true)
 data class MonitoringListResponse(
     val success: Boolean,
     val message: String,
     val data: List<Monitoring>
 )
 
+@JsonClass(generateAdapter = true)
 data class Monitoring(
     val id: Int,
     val guru_id: Int,
-    val pelapor_id: Int,
+    val pelapor_id: Int?,
     val status_hadir: String, // "Hadir", "Terlambat", "Tidak Hadir"
     val catatan: String?,
     val kelas: String,
     val mata_pelajaran: String,
     val tanggal: String,
-    val jam_laporan: String,
+    val jam_laporan: String?, // jam_masuk, kosong jika guru tidak hadir
     val created_at: String,
     val updated_at: String,
     val guru: Guru,
-    val pelapor: Guru
+    val pelapor: Guru? = null // Tidak dimuat di laporan milik sendiri (my-reports)
 )
 
+@JsonClass(generateAdapter = true)
 data class MonitoringRequest(
     val guru_id: Int,
     val status_hadir: String,
@@ -84,6 +97,7 @@ data class MonitoringRequest(
     val jam_laporan: String? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class UpdateRoleRequest(
     val role: String
 )
\ No newline at end of file
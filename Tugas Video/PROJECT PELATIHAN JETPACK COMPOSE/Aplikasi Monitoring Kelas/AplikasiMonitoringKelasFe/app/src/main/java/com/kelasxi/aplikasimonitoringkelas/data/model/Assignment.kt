@@ -1,5 +1,8 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
+import com.squareup.moshi.JsonClass
+
+@JsonClass(generateAdapter = true)
 data class Assignment(
     val id: Int,
     val guru_id: Int,
@@ -22,12 +25,14 @@ data class Assignment(
     val graded_count: Int? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class GuruInfo(
     val id: Int,
     val name: String,
     val email: String
 )
 
+@JsonClass(generateAdapter = true)
 data class AssignmentSubmission(
     val id: Int,
     val assignment_id: Int,
@@ -41,12 +46,14 @@ data class AssignmentSubmission(
     val grade: Grade?
 )
 
+@JsonClass(generateAdapter = true)
 data class SiswaInfo(
     val id: Int,
     val name: String,
     val email: String
 )
 
+@JsonClass(generateAdapter = true)
 data class Grade(
     val id: Int,
     val siswa_id: Int,
@@ -61,53 +68,62 @@ data class Grade(
 )
 
 // Response models
+@JsonClass(generateAdapter = true)
 data class AssignmentsResponse(
     val success: Boolean,
     val message: String,
     val data: List<Assignment>
 )
 
+@JsonClass(generateAdapter = true)
 data class AssignmentResponse(
     val success: Boolean,
     val message: String,
     val data: Assignment
 )
 
+@JsonClass(generateAdapter = true)
 data class SubmissionsResponse(
     val success: Boolean,
     val message: String,
     val data: List<AssignmentSubmission>
 )
 
+@JsonClass(generateAdapter = true)
 data class SubmissionResponse(
     val success: Boolean,
     val message: String,
     val data: AssignmentSubmission
 )
 
+@JsonClass(generateAdapter = true)
 data class GradesResponse(
     val success: Boolean,
     val message: String,
     val data: List<Grade>
 )
 
+@JsonClass(generateAdapter = true)
 data class GradeResponse(
     val success: Boolean,
     val message: String,
     val data: Grade
 )
 
+@JsonClass(generateAdapter = true)
 data class SiswaGradesResponse(
     val success: Boolean,
     val message: String,
     val data: SiswaGradesData
 )
 
+@JsonClass(generateAdapter = true)
 data class SiswaGradesData(
     val grades: List<Grade>,
     val statistics: GradeStatistics
 )
 
+@JsonClass(generateAdapter = true)
 data class GradeStatistics(
     val total_assignments: Int,
     val average_grade: Double?,
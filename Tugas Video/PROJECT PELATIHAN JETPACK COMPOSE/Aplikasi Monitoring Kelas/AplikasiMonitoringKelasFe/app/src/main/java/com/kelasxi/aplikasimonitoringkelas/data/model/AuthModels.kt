@@ -1,18 +1,21 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
-import com.google.gson.annotations.JsonAdapter
+import com.squareup.moshi.JsonClass
 
+@JsonClass(generateAdapter = true)
 data class LoginRequest(
     val email: String,
     val password: String
 )
 
+@JsonClass(generateAdapter = true)
 data class LoginResponse(
     val success: Boolean,
     val message: String,
     val data: LoginData?
 )
 
+@JsonClass(generateAdapter = true)
 data class LoginData(
     val user: User,
     val token: String,
@@ -20,20 +23,23 @@ data class LoginData(
     val expires_at: String?
 )
 
+@JsonClass(generateAdapter = true)
 data class User(
     val id: Int,
     val name: String,
-    val email: String,
-    val role: String,
+    // Daftar guru dan assigned_by hanya memuat sebagian kolom user
+    val email: String = "",
+    val role: String = "",
     val mata_pelajaran: String? = null,
     val class_id: Int? = null,
     val kelas: String? = null,  // The class name when included in the response
-    @JsonAdapter(BooleanTypeAdapter::class)
+    @LenientBoolean
     val is_banned: Boolean = false,
-    val created_at: String,
-    val updated_at: String
+    val created_at: String? = null,
+    val updated_at: String? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class CreateUserRequest(
     val name: String,
     val email: String,
@@ -42,6 +48,7 @@ data class CreateUserRequest(
     val mata_pelajaran: String? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class ApiResponse<T>(
     val success: Boolean,
     val message: String,
@@ -1,12 +1,17 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
+
 // Models untuk Teacher Replacement (Guru Pengganti) - Updated System
+@JsonClass(generateAdapter = true)
 data class TeacherReplacementResponse(
     val success: Boolean,
     val message: String,
     val data: List<TeacherReplacement>
 )
 
+@JsonClass(generateAdapter = true)
 data class TeacherReplacement(
     val id: Int,
     val schedule_id: Int,
@@ -24,6 +29,7 @@ data class TeacherReplacement(
     val updated_at: String
 )
 
+@JsonClass(generateAdapter = true)
 data class AssignReplacementRequest(
     val attendance_id: Int,
     val guru_pengganti_id: Int,
@@ -31,12 +37,14 @@ data class AssignReplacementRequest(
 )
 
 // Models untuk Guru Pengganti (OLD - Keep for backward compatibility)
+@JsonClass(generateAdapter = true)
 data class GuruPenggantiResponse(
     val success: Boolean,
     val message: String,
     val data: List<GuruPengganti>
 )
 
+@JsonClass(generateAdapter = true)
 data class GuruPengganti(
     val id: Int,
     val guru_pengganti_id: Int,
@@ -48,13 +56,15 @@ data class GuruPengganti(
     val jam_selesai: String,
     val ruang: String?,
     val keterangan: String?,
-    val assigned_by: Int,
-    val guruPengganti: Guru,
-    val guruAsli: Guru?,
+    @IdOrObject
+    val assigned_by: Int?, // Berisi objek user jika relasi assignedBy dimuat
+    @Json(name = "guru_pengganti") val guruPengganti: Guru?,
+    @Json(name = "guru_asli") val guruAsli: Guru?,
     val created_at: String,
     val updated_at: String
 )
 
+@JsonClass(generateAdapter = true)
 data class GuruPenggantiRequest(
     val guru_pengganti_id: Int,
     val guru_asli_id: Int?,
@@ -68,6 +78,7 @@ data class GuruPenggantiRequest(
 )
 
 // Models untuk Kelas Kosong
+@JsonClass(generateAdapter = true)
 data class KelasKosongResponse(
     val success: Boolean,
     val message: String,
@@ -75,6 +86,7 @@ data class KelasKosongResponse(
     val summary: KelasKosongSummary
 )
 
+@JsonClass(generateAdapter = true)
 data class KelasKosong(
     val jadwal_id: Int?,
     val attendance_id: Int?, // ID dari teacher_attendance
@@ -90,6 +102,7 @@ data class KelasKosong(
     val keterangan: String? // Keterangan dari teacher attendance
 )
 
+@JsonClass(generateAdapter = true)
 data class KelasKosongSummary(
     val total_jadwal: Int,
     val total_kelas_kosong: Int,
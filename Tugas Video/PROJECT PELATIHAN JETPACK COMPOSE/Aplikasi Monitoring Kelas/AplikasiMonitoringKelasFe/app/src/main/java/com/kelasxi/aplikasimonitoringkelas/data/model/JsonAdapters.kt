@@ -0,0 +1,113 @@
+package com.kelasxi.aplikasimonitoringkelas.data.model
+
+import com.squareup.moshi.FromJson
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonQualifier
+import com.squareup.moshi.JsonReader
+import com.squareup.moshi.JsonWriter
+import com.squareup.moshi.ToJson
+
+// Fields the backend sends in more than one shape. Each adapter reads the
+// token in place (peek, then read or skip) instead of building a tree first.
+
+/** created_by: a User object when the relation is loaded, otherwise just its id (read as null). */
+@Retention(AnnotationRetention.RUNTIME)
+@JsonQualifier
+annotation class UserOrId
+
+/** guru / guru_asli: a Guru object when the relation is loaded, otherwise just its id (read as null). */
+@Retention(AnnotationRetention.RUNTIME)
+@JsonQualifier
+annotation class GuruOrId
+
+/** assigned_by: the id itself, or the assignedBy relation object it is taken from. */
+@Retention(AnnotationRetention.RUNTIME)
+@JsonQualifier
+annotation class IdOrObject
+
+/** true/false, 1/0 or "true"/"1"/"yes"/"on". */
+@Retention(AnnotationRetention.RUNTIME)
+@JsonQualifier
+annotation class LenientBoolean
+
+object MonitoringJsonAdapters {
+
+    @FromJson
+    @UserOrId
+    fun userFromJson(reader: JsonReader, delegate: JsonAdapter<User>): User? =
+        reader.objectOrNull(delegate)
+
+    @ToJson
+    fun userToJson(writer: JsonWriter, @UserOrId value: User?, delegate: JsonAdapter<User>) {
+        delegate.nullSafe().toJson(writer, value)
+    }
+
+    @FromJson
+    @GuruOrId
+    fun guruFromJson(reader: JsonReader, delegate: JsonAdapter<Guru>): Guru? =
+        reader.objectOrNull(delegate)
+
+    @ToJson
+    fun guruToJson(writer: JsonWriter, @GuruOrId value: Guru?, delegate: JsonAdapter<Guru>) {
+        delegate.nullSafe().toJson(writer, value)
+    }
+
+    @FromJson
+    @IdOrObject
+    fun idFromJson(reader: JsonReader): Int? =
+        when (reader.peek()) {
+            JsonReader.Token.NUMBER, JsonReader.Token.STRING -> reader.nextInt()
+            JsonReader.Token.BEGIN_OBJECT -> {
+                var id: Int? = null
+                reader.beginObject()
+                while (reader.hasNext()) {
+                    if (reader.selectName(ID_NAME) == 0 && reader.peek() != JsonReader.Token.NULL) {
+                        id = reader.nextInt()
+                    } else {
+                        reader.skipName()
+                        reader.skipValue()
+                    }
+                }
+                reader.endObject()
+                id
+            }
+            else -> {
+                reader.skipValue()
+                null
+            }
+        }
+
+    @ToJson
+    fun idToJson(writer: JsonWriter, @IdOrObject value: Int?) {
+        writer.value(value)
+    }
+
+    @FromJson
+    @LenientBoolean
+    fun booleanFromJson(reader: JsonReader): Boolean =
+        when (reader.peek()) {
+            JsonReader.Token.BOOLEAN -> reader.nextBoolean()
+            JsonReader.Token.NUMBER -> reader.nextDouble() != 0.0
+            JsonReader.Token.STRING -> when (reader.nextString().lowercase()) {
+                "true", "1", "yes", "on" -> true
+                else -> false
+            }
+            else -> {
+                reader.skipValue()
+                false
+            }
+        }
+
+    @ToJson
+    fun booleanToJson(@LenientBoolean value: Boolean): Boolean = value
+
+    private val ID_NAME = JsonReader.Options.of("id")
+
+    private fun <T> JsonReader.objectOrNull(delegate: JsonAdapter<T>): T? =
+        if (peek() == JsonReader.Token.BEGIN_OBJECT) {
+            delegate.fromJson(this)
+        } else {
+            skipValue()
+            null
+        }
+}
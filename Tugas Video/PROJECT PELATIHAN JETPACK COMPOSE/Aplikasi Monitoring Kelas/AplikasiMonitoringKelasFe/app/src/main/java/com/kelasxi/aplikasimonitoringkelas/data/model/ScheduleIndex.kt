@@ -0,0 +1,178 @@
+package com.kelasxi.aplikasimonitoringkelas.data.model
+
+import java.util.IdentityHashMap
+
+/**
+ * Read-only index over one load of schedules, built once off the UI and
+ * then queried by the pages instead of filtering/grouping the whole list
+ * on every recomposition.
+ *
+ *  - [slice] returns the lessons of a hari, a kelas or both, already sorted
+ *    by jam_mulai (week order first when hari is not given).
+ *  - [ofGuru] returns a teacher's lessons in the same order.
+ *  - [lessonsAt] answers "which lesson is on now / next" for a slice from a
+ *    precomputed timeline; [startMinuteOf]/[endMinuteOf] give the parsed
+ *    times of one item.
+ *
+ * [T] is the listed item (Schedule, TodayScheduleWithAttendance, ...);
+ * [scheduleOf] reads its schedule.
+ */
+class ScheduleIndex<T> private constructor(
+    items: List<T>,
+    scheduleOf: (T) -> Schedule
+) {
+    /** Every item, in week order then by start time. */
+    val all: List<T>
+
+    /** Days that have at least one lesson, in week order. */
+    val days: List<String>
+
+    /** Classes that have at least one lesson, sorted by name. */
+    val kelasList: List<String>
+
+    private val byHari: Map<String, List<T>>
+    private val byKelas: Map<String, List<T>>
+    private val byHariKelas: Map<String, List<T>>
+    private val byGuru: Map<Int, List<T>>
+
+    // Position of each item in [all]; identity so data class hashing isn't paid per lookup
+    private val position = IdentityHashMap<T, Int>(items.size)
+    private val startMinutes: IntArray
+    private val endMinutes: IntArray
+
+    private val timelines = HashMap<String, Timeline>()
+
+    init {
+        val schedules = items.map(scheduleOf)
+        val order = items.indices.sortedWith(
+            compareBy<Int>({ dayOrder(schedules[it].hari) }, { minuteOf(schedules[it].jam_mulai) })
+        )
+        all = order.map { items[it] }
+        startMinutes = IntArray(order.size) { minuteOf(schedules[order[it]].jam_mulai) }
+        endMinutes = IntArray(order.size) { minuteOf(schedules[order[it]].jam_selesai) }
+        all.forEachIndexed { index, item -> position[item] = index }
+
+        val sortedSchedules = order.map { schedules[it] }
+        val hari = LinkedHashMap<String, MutableList<T>>()
+        val kelas = HashMap<String, MutableList<T>>()
+        val hariKelas = HashMap<String, MutableList<T>>()
+        val guru = HashMap<Int, MutableList<T>>()
+        all.forEachIndexed { index, item ->
+            val schedule = sortedSchedules[index]
+            hari.getOrPut(schedule.hari) { ArrayList() }.add(item)
+            kelas.getOrPut(schedule.kelas) { ArrayList() }.add(item)
+            hariKelas.getOrPut(key(schedule.hari, schedule.kelas)) { ArrayList() }.add(item)
+            guru.getOrPut(schedule.guru_id) { ArrayList() }.add(item)
+        }
+        byHari = hari
+        byKelas = kelas
+        byHariKelas = hariKelas
+        byGuru = guru
+        days = hari.keys.toList()
+        kelasList = kelas.keys.sorted()
+
+        // Timelines only make sense within one day
+        hari.forEach { (day, lessons) -> timelines[key(day, null)] = Timeline(lessons) }
+        hariKelas.forEach { (dayKelas, lessons) -> timelines[dayKelas] = Timeline(lessons) }
+    }
+
+    /** Lessons of [hari] and/or [kelas]; null (or blank) means any. */
+    fun slice(hari: String? = null, kelas: String? = null): List<T> {
+        val day = hari?.takeIf { it.isNotBlank() }
+        val cls = kelas?.takeIf { it.isNotBlank() }
+        return when {
+            day != null && cls != null -> byHariKelas[key(day, cls)]
+            day != null -> byHari[day]
+            cls != null -> byKelas[cls]
+            else -> all
+        } ?: emptyList()
+    }
+
+    fun ofGuru(guruId: Int): List<T> = byGuru[guruId] ?: emptyList()
+
+    /** Parsed jam_mulai of [item] in minutes since midnight, or -1 if unknown. */
+    fun startMinuteOf(item: T): Int = position[item]?.let { startMinutes[it] } ?: -1
+
+    /** Parsed jam_selesai of [item] in minutes since midnight, or -1 if unknown. */
+    fun endMinuteOf(item: T): Int = position[item]?.let { endMinutes[it] } ?: -1
+
+    /** The lesson on at [minuteOfDay] and the one after it, for [hari] (and [kelas]). */
+    fun lessonsAt(hari: String, kelas: String? = null, minuteOfDay: Int): LessonsAt<T> {
+        val timeline = timelines[key(hari, kelas?.takeIf { it.isNotBlank() })] ?: return LessonsAt(null, null)
+        return timeline.at(minuteOfDay)
+    }
+
+    data class LessonsAt<T>(val current: T?, val next: T?)
+
+    /**
+     * Current/next lesson for every stretch of the day, computed once.
+     * [boundaries] holds each minute where the answer can change (every
+     * start, and the minute after every end, as a lesson is on through its
+     * jam_selesai); a lookup is a binary search over them.
+     */
+    private inner class Timeline(lessons: List<T>) {
+        private val boundaries: IntArray
+        private val current: Array<Any?>
+        private val next: Array<Any?>
+        private val first: T?
+
+        init {
+            val timed = lessons.filter { startMinuteOf(it) >= 0 }
+            first = timed.firstOrNull()
+            boundaries = timed
+                .flatMap { listOf(startMinuteOf(it), endMinuteOf(it) + 1) }
+                .distinct()
+                .sorted()
+                .toIntArray()
+            current = arrayOfNulls(boundaries.size)
+            next = arrayOfNulls(boundaries.size)
+            boundaries.forEachIndexed { index, minute ->
+                current[index] = timed.firstOrNull { startMinuteOf(it) <= minute && minute <= endMinuteOf(it) }
+                next[index] = timed.firstOrNull { startMinuteOf(it) > minute }
+            }
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        fun at(minuteOfDay: Int): LessonsAt<T> {
+            // Last boundary <= minuteOfDay
+            var low = 0
+            var high = boundaries.size - 1
+            var found = -1
+            while (low <= high) {
+                val mid = (low + high) ushr 1
+                if (boundaries[mid] <= minuteOfDay) {
+                    found = mid
+                    low = mid + 1
+                } else {
+                    high = mid - 1
+                }
+            }
+            if (found < 0) return LessonsAt(null, first)
+            return LessonsAt(current[found] as T?, next[found] as T?)
+        }
+    }
+
+    companion object {
+        val HARI = listOf("Senin", "Selasa", "Rabu", "Kamis", "Jumat", "Sabtu", "Minggu")
+
+        fun <T> of(items: List<T>, scheduleOf: (T) -> Schedule): ScheduleIndex<T> =
+            ScheduleIndex(items, scheduleOf)
+
+        fun ofSchedules(schedules: List<Schedule>): ScheduleIndex<Schedule> =
+            ScheduleIndex(schedules) { it }
+
+        private fun key(hari: String, kelas: String?) = if (kelas == null) hari else "$hari|$kelas"
+
+        private fun dayOrder(hari: String): Int =
+            HARI.indexOf(hari).let { if (it < 0) HARI.size else it }
+
+        // "07:30" or "07:30:00" -> 450; -1 if it can't be parsed
+        private fun minuteOf(time: String): Int {
+            val parts = time.split(":")
+            if (parts.size < 2) return -1
+            val hour = parts[0].trim().toIntOrNull() ?: return -1
+            val minute = parts[1].trim().toIntOrNull() ?: return -1
+            return hour * 60 + minute
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.kelasxi.aplikasimonitoringkelas.data.model
+
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
+
+// Response GET sync - delta jadwal, kehadiran guru, dan guru pengganti per tanggal atau rentang from..to
+@JsonClass(generateAdapter = true)
+data class SyncResponse(
+    @Json(name = "success") val success: Boolean,
+    @Json(name = "message") val message: String,
+    @Json(name = "server_time") val serverTime: String,
+    @Json(name = "tanggal") val tanggal: String,
+    @Json(name = "from") val from: String? = null,
+    @Json(name = "to") val to: String? = null,
+    @Json(name = "schedules") val schedules: SyncDelta<Schedule>,
+    @Json(name = "attendances") val attendances: SyncDelta<TeacherAttendance>,
+    @Json(name = "guru_pengganti") val guruPengganti: SyncDelta<GuruPengganti>? // null jika role tidak punya akses
+)
+
+@JsonClass(generateAdapter = true)
+data class SyncDelta<T>(
+    @Json(name = "changed") val changed: List<T>, // Baris yang berubah sejak updated_after
+    @Json(name = "ids") val ids: List<Int> // Semua id yang masih ada di server (dalam rentang tanggal)
+)
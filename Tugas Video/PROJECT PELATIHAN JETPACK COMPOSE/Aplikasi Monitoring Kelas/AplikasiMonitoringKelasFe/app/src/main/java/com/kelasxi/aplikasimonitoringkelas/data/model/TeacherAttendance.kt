@@ -1,137 +1,114 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
-import com.google.gson.*
-import com.google.gson.annotations.JsonAdapter
-import com.google.gson.annotations.SerializedName
-import java.lang.reflect.Type
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
 
+@JsonClass(generateAdapter = true)
 data class TeacherAttendance(
-    @SerializedName("id") val id: Int,
-    @SerializedName("schedule_id") val scheduleId: Int,
-    @SerializedName("guru_id") val guruId: Int,
-    @SerializedName("guru_asli_id") val guruAsliId: Int? = null,
-    @SerializedName("tanggal") val tanggal: String,
-    @SerializedName("jam_masuk") val jamMasuk: String?,
-    @SerializedName("status") val status: String, // hadir, telat, tidak_hadir, diganti
-    @SerializedName("keterangan") val keterangan: String?,
-    @JsonAdapter(UserOrIdDeserializer::class)
-    @SerializedName("created_by") val createdBy: User?, // Can be User object or just an ID
-    @SerializedName("assigned_by") val assignedBy: Int? = null, // ID of user who assigned replacement
-    @SerializedName("created_at") val createdAt: String?,
-    @SerializedName("updated_at") val updatedAt: String?,
-    @SerializedName("schedule") val schedule: Schedule?,
-    @JsonAdapter(GuruOrIdDeserializer::class)
-    @SerializedName("guru") val guru: Guru?, // Guru pengganti jika status diganti, guru asli jika tidak
-    @JsonAdapter(GuruOrIdDeserializer::class)
-    @SerializedName("guru_asli") val guruAsli: Guru? = null // Guru asli jika status diganti
+    @Json(name = "id") val id: Int,
+    @Json(name = "schedule_id") val scheduleId: Int,
+    @Json(name = "guru_id") val guruId: Int,
+    @Json(name = "guru_asli_id") val guruAsliId: Int? = null,
+    @Json(name = "tanggal") val tanggal: String,
+    @Json(name = "jam_masuk") val jamMasuk: String?,
+    @Json(name = "status") val status: String, // hadir, telat, tidak_hadir, diganti
+    @Json(name = "keterangan") val keterangan: String?,
+    @UserOrId
+    @Json(name = "created_by") val createdBy: User?, // Can be User object or just an ID
+    @Json(name = "assigned_by") val assignedBy: Int? = null, // ID of user who assigned replacement
+    @Json(name = "created_at") val createdAt: String?,
+    @Json(name = "updated_at") val updatedAt: String?,
+    @Json(name = "schedule") val schedule: Schedule?,
+    @GuruOrId
+    @Json(name = "guru") val guru: Guru?, // Guru pengganti jika status diganti, guru asli jika tidak
+    @GuruOrId
+    @Json(name = "guru_asli") val guruAsli: Guru? = null // Guru asli jika status diganti
 )
 
-// Custom deserializer to handle both User object and integer ID
-class UserOrIdDeserializer : JsonDeserializer<User?> {
-    override fun deserialize(
-        json: JsonElement?,
-        typeOfT: Type?,
-        context: JsonDeserializationContext?
-    ): User? {
-        return when {
-            json == null || json.isJsonNull -> null
-            json.isJsonPrimitive && json.asJsonPrimitive.isNumber -> {
-                // If it's just a number (ID), return null for now
-                // Backend should always return full User object
-                null
-            }
-            json.isJsonObject -> {
-                // If it's an object, deserialize it as User
-                context?.deserialize(json, User::class.java)
-            }
-            else -> null
-        }
-    }
-}
-
-// Custom deserializer to handle Guru object or integer ID
-class GuruOrIdDeserializer : JsonDeserializer<Guru?> {
-    override fun deserialize(
-        json: JsonElement?,
-        typeOfT: Type?,
-        context: JsonDeserializationContext?
-    ): Guru? {
-        return when {
-            json == null || json.isJsonNull -> null
-            json.isJsonPrimitive && json.asJsonPrimitive.isNumber -> {
-                // If it's just a number (ID), return null for now
-                // Backend may return full Guru object if available
-                null
-            }
-            json.isJsonObject -> {
-                // If it's an object, deserialize it as Guru
-                context?.deserialize(json, Guru::class.java)
-            }
-            else -> null
-        }
-    }
-}
-
+@JsonClass(generateAdapter = true)
 data class TodayScheduleWithAttendance(
-    @SerializedName("schedule") val schedule: Schedule,
-    @SerializedName("attendance") val attendance: TeacherAttendance?,
-    @SerializedName("has_attendance") val hasAttendance: Boolean,
-    @SerializedName("status") val status: String // hadir, telat, tidak_hadir, belum_dicatat
+    @Json(name = "schedule") val schedule: Schedule,
+    @Json(name = "attendance") val attendance: TeacherAttendance?,
+    @Json(name = "has_attendance") val hasAttendance: Boolean,
+    @Json(name = "status") val status: String // hadir, telat, tidak_hadir, belum_dicatat
 )
 
+@JsonClass(generateAdapter = true)
 data class TodaySchedulesResponse(
-    @SerializedName("tanggal") val tanggal: String,
-    @SerializedName("hari") val hari: String,
-    @SerializedName("total_schedules") val totalSchedules: Int,
-    @SerializedName("sudah_dicatat") val sudahDicatat: Int,
-    @SerializedName("belum_dicatat") val belumDicatat: Int,
-    @SerializedName("data") val data: List<TodayScheduleWithAttendance>
+    @Json(name = "tanggal") val tanggal: String,
+    @Json(name = "hari") val hari: String,
+    @Json(name = "total_schedules") val totalSchedules: Int,
+    @Json(name = "sudah_dicatat") val sudahDicatat: Int,
+    @Json(name = "belum_dicatat") val belumDicatat: Int,
+    @Json(name = "data") val data: List<TodayScheduleWithAttendance>
 )
 
+@JsonClass(generateAdapter = true)
 data class TodayAttendanceResponse(
-    @SerializedName("tanggal") val tanggal: String,
-    @SerializedName("total") val total: Int,
-    @SerializedName("hadir") val hadir: Int,
-    @SerializedName("telat") val telat: Int,
-    @SerializedName("tidak_hadir") val tidakHadir: Int,
-    @SerializedName("data") val data: List<TeacherAttendance>
+    @Json(name = "tanggal") val tanggal: String,
+    @Json(name = "total") val total: Int,
+    @Json(name = "hadir") val hadir: Int,
+    @Json(name = "telat") val telat: Int,
+    @Json(name = "tidak_hadir") val tidakHadir: Int,
+    @Json(name = "data") val data: List<TeacherAttendance>
 )
 
+@JsonClass(generateAdapter = true)
 data class AttendanceStatistics(
-    @SerializedName("total") val total: Int,
-    @SerializedName("hadir") val hadir: Int,
-    @SerializedName("telat") val telat: Int,
-    @SerializedName("tidak_hadir") val tidakHadir: Int,
-    @SerializedName("percentage_hadir") val percentageHadir: Double,
-    @SerializedName("percentage_telat") val percentageTelat: Double
+    @Json(name = "total") val total: Int,
+    @Json(name = "hadir") val hadir: Int,
+    @Json(name = "telat") val telat: Int,
+    @Json(name = "tidak_hadir") val tidakHadir: Int,
+    @Json(name = "percentage_hadir") val percentageHadir: Double,
+    @Json(name = "percentage_telat") val percentageTelat: Double
 )
 
+@JsonClass(generateAdapter = true)
 data class TeacherAttendanceRequest(
-    @SerializedName("schedule_id") val scheduleId: Int,
-    @SerializedName("guru_id") val guruId: Int,
-    @SerializedName("tanggal") val tanggal: String,
-    @SerializedName("jam_masuk") val jamMasuk: String,
-    @SerializedName("status") val status: String,
-    @SerializedName("keterangan") val keterangan: String?
+    @Json(name = "schedule_id") val scheduleId: Int,
+    @Json(name = "guru_id") val guruId: Int,
+    @Json(name = "tanggal") val tanggal: String,
+    @Json(name = "jam_masuk") val jamMasuk: String,
+    @Json(name = "status") val status: String,
+    @Json(name = "keterangan") val keterangan: String?
+)
+
+/** Body of POST teacher-attendance/batch. */
+@JsonClass(generateAdapter = true)
+data class TeacherAttendanceBatchRequest(
+    @Json(name = "entries") val entries: List<TeacherAttendanceRequest>
+)
+
+/** Outcome of one entry of a batch; [index] is its position in the request. */
+@JsonClass(generateAdapter = true)
+data class TeacherAttendanceBatchResult(
+    @Json(name = "index") val index: Int,
+    @Json(name = "success") val success: Boolean,
+    @Json(name = "status") val status: Int, // 201, 409 (sudah dicatat), 422 (validasi), 500 (error server)
+    @Json(name = "message") val message: String,
+    @Json(name = "errors") val errors: Map<String, List<String>>? = null,
+    @Json(name = "data") val data: TeacherAttendance? = null
 )
 
+@JsonClass(generateAdapter = true)
 data class TeacherAttendanceUpdateRequest(
-    @SerializedName("jam_masuk") val jamMasuk: String?,
-    @SerializedName("status") val status: String?,
-    @SerializedName("keterangan") val keterangan: String?
+    @Json(name = "jam_masuk") val jamMasuk: String?,
+    @Json(name = "status") val status: String?,
+    @Json(name = "keterangan") val keterangan: String?
 )
 
+@JsonClass(generateAdapter = true)
 data class PaginatedResponse<T>(
-    @SerializedName("current_page") val currentPage: Int,
-    @SerializedName("data") val data: List<T>,
-    @SerializedName("first_page_url") val firstPageUrl: String,
-    @SerializedName("from") val from: Int?,
-    @SerializedName("last_page") val lastPage: Int,
-    @SerializedName("last_page_url") val lastPageUrl: String,
-    @SerializedName("next_page_url") val nextPageUrl: String?,
-    @SerializedName("path") val path: String,
-    @SerializedName("per_page") val perPage: Int,
-    @SerializedName("prev_page_url") val prevPageUrl: String?,
-    @SerializedName("to") val to: Int?,
-    @SerializedName("total") val total: Int
+    @Json(name = "current_page") val currentPage: Int,
+    @Json(name = "data") val data: List<T>,
+    @Json(name = "first_page_url") val firstPageUrl: String,
+    @Json(name = "from") val from: Int?,
+    @Json(name = "last_page") val lastPage: Int,
+    @Json(name = "last_page_url") val lastPageUrl: String,
+    @Json(name = "next_page_url") val nextPageUrl: String?,
+    @Json(name = "path") val path: String,
+    @Json(name = "per_page") val perPage: Int,
+    @Json(name = "prev_page_url") val prevPageUrl: String?,
+    @Json(name = "to") val to: Int?,
+    @Json(name = "total") val total: Int
 )
@@ -1,9 +1,11 @@
 package com.kelasxi.aplikasimonitoringkelas.data.model
 
-import com.google.gson.annotations.SerializedName
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
 
+@JsonClass(generateAdapter = true)
 data class CreateTeacherReplacementRequest(
-    @SerializedName("kelas_kosong_id") val kelas_kosong_id: Int,
-    @SerializedName("guru_pengganti_id") val guru_pengganti_id: Int,
-    @SerializedName("keterangan") val keterangan: String?
+    @Json(name = "kelas_kosong_id") val kelas_kosong_id: Int,
+    @Json(name = "guru_pengganti_id") val guru_pengganti_id: Int,
+    @Json(name = "keterangan") val keterangan: String?
 )
\ No newline at end of file
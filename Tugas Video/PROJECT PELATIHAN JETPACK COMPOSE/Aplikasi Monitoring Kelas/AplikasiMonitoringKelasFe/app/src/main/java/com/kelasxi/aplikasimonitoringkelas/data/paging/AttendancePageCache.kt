@@ -0,0 +1,100 @@
+package com.kelasxi.aplikasimonitoringkelas.data.paging
+
+import android.content.Context
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.kelasxi.aplikasimonitoringkelas.data.model.PaginatedResponse
+import com.kelasxi.aplikasimonitoringkelas.data.model.TeacherAttendance
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Types
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import okio.buffer
+import okio.sink
+import okio.source
+import java.io.File
+import java.security.MessageDigest
+
+/**
+ * Disk cache of teacher-attendance pages (cacheDir/attendance_pages).
+ *
+ * Every page the server returns is stored as-is under its filter and page
+ * number. When the server can't be reached, TeacherAttendancePagingSource
+ * serves the same page from here, so history already scrolled through stays
+ * readable offline. Pages older than [MAX_AGE_MS] are dropped and at most
+ * [MAX_FILES] are kept; logout clears everything.
+ */
+class AttendancePageCache private constructor(context: Context) {
+
+    private val dir = File(context.cacheDir, DIR_NAME)
+    private val pageAdapter: JsonAdapter<PaginatedResponse<TeacherAttendance>> = RetrofitClient.moshi.adapter(
+        Types.newParameterizedType(PaginatedResponse::class.java, TeacherAttendance::class.java)
+    )
+
+    suspend fun read(filter: TeacherAttendanceFilter, page: Int): PaginatedResponse<TeacherAttendance>? =
+        withContext(Dispatchers.IO) {
+            val file = fileFor(filter, page)
+            if (!file.exists() || System.currentTimeMillis() - file.lastModified() > MAX_AGE_MS) {
+                return@withContext null
+            }
+            try {
+                file.source().buffer().use { pageAdapter.fromJson(it) }
+            } catch (e: Exception) {
+                file.delete()
+                null
+            }
+        }
+
+    suspend fun write(filter: TeacherAttendanceFilter, page: Int, response: PaginatedResponse<TeacherAttendance>) {
+        withContext(Dispatchers.IO) {
+            try {
+                dir.mkdirs()
+                // Written next to the target and renamed, so a half-written
+                // page is never read back
+                val target = fileFor(filter, page)
+                val temp = File(dir, target.name + ".tmp")
+                temp.sink().buffer().use { pageAdapter.toJson(it, response) }
+                if (!temp.renameTo(target)) temp.delete()
+                trim()
+            } catch (e: Exception) {
+                // A page that isn't cached is only fetched again next time
+            }
+        }
+    }
+
+    fun clear() {
+        dir.deleteRecursively()
+    }
+
+    private fun fileFor(filter: TeacherAttendanceFilter, page: Int): File =
+        File(dir, "${sha1(filter.cacheKey)}_$page.json")
+
+    private fun trim() {
+        val files = dir.listFiles { file -> file.name.endsWith(".json") } ?: return
+        val now = System.currentTimeMillis()
+        files.filter { now - it.lastModified() > MAX_AGE_MS }.forEach { it.delete() }
+        files.filter { it.exists() }
+            .sortedByDescending { it.lastModified() }
+            .drop(MAX_FILES)
+            .forEach { it.delete() }
+    }
+
+    private fun sha1(value: String): String =
+        MessageDigest.getInstance("SHA-1")
+            .digest(value.toByteArray())
+            .joinToString("") { "%02x".format(it) }
+
+    companion object {
+        private const val DIR_NAME = "attendance_pages"
+        private const val MAX_FILES = 300
+        private const val MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000   // 7 hari
+
+        @Volatile
+        private var INSTANCE: AttendancePageCache? = null
+
+        fun getInstance(context: Context): AttendancePageCache {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AttendancePageCache(context.applicationContext).also { INSTANCE = it }
+            }
+        }
+    }
+}
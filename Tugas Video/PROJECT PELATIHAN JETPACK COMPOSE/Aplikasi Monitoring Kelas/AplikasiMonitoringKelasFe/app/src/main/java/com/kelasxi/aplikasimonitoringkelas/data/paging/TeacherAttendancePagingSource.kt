@@ -0,0 +1,101 @@
+package com.kelasxi.aplikasimonitoringkelas.data.paging
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import com.kelasxi.aplikasimonitoringkelas.data.api.ApiService
+import com.kelasxi.aplikasimonitoringkelas.data.model.PaginatedResponse
+import com.kelasxi.aplikasimonitoringkelas.data.model.TeacherAttendance
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+
+/** Filters sent to GET teacher-attendance; null means "all". */
+data class TeacherAttendanceFilter(
+    val tanggal: String? = null,
+    val status: String? = null,
+    val kelas: String? = null
+) {
+    val cacheKey: String
+        get() = "${tanggal.orEmpty()}|${status.orEmpty()}|${kelas.orEmpty()}"
+}
+
+/**
+ * Pages through GET teacher-attendance (page/per_page) with [filter] applied
+ * by the server. Every page fetched is written to [pageCache]; when the
+ * server can't be reached the same page is read back from there instead and
+ * [onPageSource] is told so (true = from cache).
+ *
+ * New attendance recorded while the user scrolls shifts the server's pages
+ * down, so a row can come back at the top of the next page. Each id is only
+ * kept on the first page it was loaded on.
+ */
+class TeacherAttendancePagingSource(
+    private val apiService: ApiService,
+    private val token: String?,
+    private val filter: TeacherAttendanceFilter,
+    private val pageCache: AttendancePageCache,
+    private val onPageSource: (fromCache: Boolean) -> Unit = {}
+) : PagingSource<Int, TeacherAttendance>() {
+
+    private val pageOfId = ConcurrentHashMap<Int, Int>()
+
+    override suspend fun load(params: LoadParams<Int>): LoadResult<Int, TeacherAttendance> {
+        if (token == null) {
+            return LoadResult.Error(Exception("Sesi berakhir. Silakan login kembali."))
+        }
+        val page = params.key ?: FIRST_PAGE
+
+        val response = try {
+            apiService.getTeacherAttendances(
+                token = "Bearer $token",
+                tanggal = filter.tanggal,
+                status = filter.status,
+                kelas = filter.kelas,
+                page = page,
+                perPage = PAGE_SIZE
+            )
+        } catch (e: IOException) {
+            val cached = pageCache.read(filter, page)
+                ?: return LoadResult.Error(Exception("Gagal terhubung ke server: ${e.message}"))
+            onPageSource(true)
+            return toPage(cached, page)
+        } catch (e: Exception) {
+            return LoadResult.Error(Exception("Gagal memuat data kehadiran: ${e.message}"))
+        }
+
+        val body = response.body()
+        if (!response.isSuccessful || body == null) {
+            val errorBody = response.errorBody()?.string()
+            return LoadResult.Error(
+                if (response.code() == 403) {
+                    Exception("Akses ditolak: Anda tidak memiliki izin untuk mengakses data kehadiran.")
+                } else {
+                    Exception("Gagal mengambil data kehadiran: ${response.code()} - $errorBody")
+                }
+            )
+        }
+
+        pageCache.write(filter, page, body)
+        onPageSource(false)
+        return toPage(body, page)
+    }
+
+    private fun toPage(response: PaginatedResponse<TeacherAttendance>, page: Int): LoadResult.Page<Int, TeacherAttendance> =
+        LoadResult.Page(
+            data = response.data.filter { (pageOfId.putIfAbsent(it.id, page) ?: page) == page },
+            prevKey = if (page > FIRST_PAGE) page - 1 else null,
+            nextKey = if (response.currentPage < response.lastPage) page + 1 else null
+        )
+
+    // Reload the page the user was looking at; the ones around it follow
+    override fun getRefreshKey(state: PagingState<Int, TeacherAttendance>): Int? =
+        state.anchorPosition
+            ?.let { state.closestPageToPosition(it) }
+            ?.let { it.prevKey?.plus(1) ?: it.nextKey?.minus(1) }
+
+    companion object {
+        const val FIRST_PAGE = 1
+
+        /** per_page sent to the server; also the Pager's page size. */
+        const val PAGE_SIZE = 30
+    }
+}
@@ -686,6 +686,71 @@ class AppRepositoryNew(private val apiService: ApiService) {
         }
     }
     
+    /**
+     * Catat beberapa kehadiran guru sekaligus dalam satu request
+     * (POST teacher-attendance/batch). Hasilnya per baris, urut sesuai [requests].
+     * Server yang belum punya endpoint batch (404/405) dilayani dengan POST per
+     * baris di sini, dengan bentuk hasil yang sama.
+     */
+    suspend fun createTeacherAttendanceBatch(
+        token: String,
+        requests: List<TeacherAttendanceRequest>
+    ): Result<List<TeacherAttendanceBatchResult>> {
+        return withContext(Dispatchers.IO) {
+            try {
+                val response = apiService.createTeacherAttendanceBatch(
+                    "Bearer $token",
+                    TeacherAttendanceBatchRequest(requests)
+                )
+                when {
+                    response.isSuccessful && response.body() != null -> {
+                        val apiResponse = response.body()!!
+                        if (apiResponse.success && apiResponse.data != null) {
+                            Result.success(apiResponse.data.sortedBy { it.index })
+                        } else {
+                            Result.failure(Exception(apiResponse.message))
+                        }
+                    }
+                    response.code() == 404 || response.code() == 405 -> {
+                        Result.success(createTeacherAttendanceOneByOne(token, requests))
+                    }
+                    else -> {
+                        val errorBody = response.errorBody()?.string()
+                        Result.failure(Exception("Gagal mencatat kehadiran: ${response.code()} - $errorBody"))
+                    }
+                }
+            } catch (e: Exception) {
+                Result.failure(Exception("Gagal terhubung ke server: ${e.message}"))
+            }
+        }
+    }
+
+    private suspend fun createTeacherAttendanceOneByOne(
+        token: String,
+        requests: List<TeacherAttendanceRequest>
+    ): List<TeacherAttendanceBatchResult> =
+        requests.mapIndexed { index, request ->
+            createTeacherAttendance(token, request).fold(
+                onSuccess = { attendance ->
+                    TeacherAttendanceBatchResult(
+                        index = index,
+                        success = true,
+                        status = 201,
+                        message = "Kehadiran guru berhasil dicatat",
+                        data = attendance
+                    )
+                },
+                onFailure = { error ->
+                    TeacherAttendanceBatchResult(
+                        index = index,
+                        success = false,
+                        status = 0,
+                        message = error.message ?: "Gagal mencatat kehadiran"
+                    )
+                }
+            )
+        }
+    
     suspend fun updateTeacherAttendance(token: String, id: Int, request: TeacherAttendanceUpdateRequest): Result<TeacherAttendance> {
         return withContext(Dispatchers.IO) {
             try {
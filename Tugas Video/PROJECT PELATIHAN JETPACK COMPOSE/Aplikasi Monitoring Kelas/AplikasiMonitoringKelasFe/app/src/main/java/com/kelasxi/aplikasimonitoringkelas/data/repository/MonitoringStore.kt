@@ -0,0 +1,345 @@
+package com.kelasxi.aplikasimonitoringkelas.data.repository
+
+import android.content.Context
+import com.kelasxi.aplikasimonitoringkelas.data.api.ApiService
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.kelasxi.aplikasimonitoringkelas.data.local.GuruPenggantiEntity
+import com.kelasxi.aplikasimonitoringkelas.data.local.MonitoringDatabase
+import com.kelasxi.aplikasimonitoringkelas.data.local.ScheduleEntity
+import com.kelasxi.aplikasimonitoringkelas.data.local.SyncStateEntity
+import com.kelasxi.aplikasimonitoringkelas.data.local.TeacherAttendanceEntity
+import com.kelasxi.aplikasimonitoringkelas.data.model.*
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.time.DayOfWeek
+import java.time.LocalDate
+import java.time.OffsetDateTime
+
+/**
+ * Local store of schedules, teacher attendance, guru pengganti and
+ * teacher replacements (Room, monitoring_kelas.db), shared by every role.
+ *
+ *  - Pages read the flows below; they re-emit whenever the tables change,
+ *    so switching tabs never goes to the network.
+ *  - [sync] asks GET sync for what changed since the last server_time
+ *    (updated_after), for one date, and applies it in one transaction.
+ *    Calls within [MIN_SYNC_INTERVAL_MS] of the last sync for that date are
+ *    skipped unless forced; [syncRange] pulls a whole date range per call.
+ *  - Writes made by the app ([saveAttendance]) go straight into the store,
+ *    so the screen updates without refetching.
+ *  - Kelas kosong and teacher replacements are derived from the schedule
+ *    and attendance rows, the same way the server derives them.
+ */
+class MonitoringStore private constructor(context: Context) {
+
+    private val database = MonitoringDatabase.getInstance(context)
+    private val dao = database.monitoringDao()
+    private val apiService: ApiService = RetrofitClient.apiService
+    private val scheduleAdapter = RetrofitClient.moshi.adapter(Schedule::class.java)
+    private val attendanceAdapter = RetrofitClient.moshi.adapter(TeacherAttendance::class.java)
+    private val guruPenggantiAdapter = RetrofitClient.moshi.adapter(GuruPengganti::class.java)
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val syncMutex = Mutex()
+
+    // ==================== READ ====================
+
+    /** All schedules, in week order (Senin first) then by start time. */
+    fun schedules(): Flow<List<Schedule>> =
+        dao.schedules()
+            .map { rows -> rows.map { it.toSchedule() }.sortedWith(SCHEDULE_ORDER) }
+            .flowOn(Dispatchers.Default)
+
+    fun attendancesOn(tanggal: String): Flow<List<TeacherAttendance>> =
+        dao.attendancesOn(tanggal)
+            .map { rows -> rows.map { it.toAttendance() } }
+            .flowOn(Dispatchers.Default)
+
+    /**
+     * Every schedule (of [kelas], or all classes) with its attendance on
+     * [tanggal] — what GET teacher-attendance/all-schedules returns.
+     */
+    fun schedulesWithAttendance(tanggal: String, kelas: String? = null): Flow<List<TodayScheduleWithAttendance>> =
+        combine(schedules(), attendancesOn(tanggal)) { schedules, attendances ->
+            val bySchedule = attendances.associateBy { it.scheduleId }
+            schedules
+                .filter { kelas == null || it.kelas == kelas }
+                .map { schedule ->
+                    val attendance = bySchedule[schedule.id]
+                    TodayScheduleWithAttendance(
+                        schedule = schedule,
+                        attendance = attendance,
+                        hasAttendance = attendance != null,
+                        status = attendance?.status ?: "belum_dicatat"
+                    )
+                }
+        }.flowOn(Dispatchers.Default)
+
+    /** Lessons on [tanggal] whose teacher is recorded tidak_hadir (GET monitoring/kelas-kosong). */
+    fun kelasKosong(tanggal: String): Flow<List<KelasKosong>> {
+        val hari = hariOf(LocalDate.parse(tanggal))
+        return combine(schedules(), attendancesOn(tanggal)) { schedules, attendances ->
+            val absent = attendances.filter { it.status == "tidak_hadir" }.associateBy { it.scheduleId }
+            schedules
+                .filter { it.hari == hari }
+                .mapNotNull { schedule ->
+                    val attendance = absent[schedule.id] ?: return@mapNotNull null
+                    KelasKosong(
+                        jadwal_id = schedule.id,
+                        attendance_id = attendance.id,
+                        kelas = schedule.kelas,
+                        mata_pelajaran = schedule.mata_pelajaran,
+                        guru = schedule.guru ?: Guru(id = schedule.guru_id, name = "-", email = ""),
+                        jam_mulai = schedule.jam_mulai,
+                        jam_selesai = schedule.jam_selesai,
+                        ruang = schedule.ruang,
+                        tanggal = tanggal,
+                        hari = hari,
+                        status = "Tidak Hadir",
+                        keterangan = attendance.keterangan
+                    )
+                }
+        }.flowOn(Dispatchers.Default)
+    }
+
+    /** Attendance rows marked diganti on [tanggal] (GET teacher-replacement). */
+    fun teacherReplacements(tanggal: String): Flow<List<TeacherReplacement>> =
+        attendancesOn(tanggal)
+            .map { attendances ->
+                attendances
+                    .filter { it.status == "diganti" }
+                    .mapNotNull { attendance ->
+                        val schedule = attendance.schedule ?: return@mapNotNull null
+                        val pengganti = attendance.guru ?: return@mapNotNull null
+                        TeacherReplacement(
+                            id = attendance.id,
+                            schedule_id = attendance.scheduleId,
+                            guru_pengganti = pengganti,
+                            guru_asli = attendance.guruAsli,
+                            kelas = schedule.kelas,
+                            mata_pelajaran = schedule.mata_pelajaran,
+                            tanggal = attendance.tanggal,
+                            jam_mulai = schedule.jam_mulai,
+                            jam_selesai = schedule.jam_selesai,
+                            ruang = schedule.ruang,
+                            keterangan = attendance.keterangan,
+                            assigned_by = null, // Only the id is synced
+                            created_at = attendance.createdAt.orEmpty(),
+                            updated_at = attendance.updatedAt.orEmpty()
+                        )
+                    }
+            }
+            .flowOn(Dispatchers.Default)
+
+    fun guruPengganti(tanggal: String): Flow<List<GuruPengganti>> =
+        dao.guruPenggantiOn(tanggal)
+            .map { rows -> rows.map { requireNotNull(guruPenggantiAdapter.fromJson(it.json)) } }
+            .flowOn(Dispatchers.Default)
+
+    // ==================== SYNC ====================
+
+    /**
+     * Pulls what changed on the server since the last sync of [tanggal].
+     * A failure leaves the store as it was; pages keep showing it.
+     */
+    suspend fun sync(
+        token: String,
+        tanggal: String = today(),
+        force: Boolean = false,
+        minIntervalMs: Long = MIN_SYNC_INTERVAL_MS
+    ): Result<Unit> {
+        val date = LocalDate.parse(tanggal)
+        return pull(token, date, date, force) { minIntervalMs }
+    }
+
+    /**
+     * Syncs every date from [from] to [to] (the principal's reports) with one
+     * GET sync per [MAX_RANGE_DAYS] days, each applied in one transaction.
+     * Past dates change rarely and are only re-synced after
+     * [PAST_DATE_SYNC_INTERVAL_MS]. Stops at the first failure.
+     */
+    suspend fun syncRange(token: String, from: LocalDate, to: LocalDate): Result<Unit> {
+        val today = LocalDate.now()
+        var windowTo = to
+        // Newest first: the recent weeks are what the reports show first
+        while (!windowTo.isBefore(from)) {
+            val windowFrom = maxOf(from, windowTo.minusDays(MAX_RANGE_DAYS - 1))
+            pull(token, windowFrom, windowTo, force = false) { date ->
+                if (date.isBefore(today)) PAST_DATE_SYNC_INTERVAL_MS else MIN_SYNC_INTERVAL_MS
+            }.onFailure { return Result.failure(it) }
+            windowTo = windowFrom.minusDays(1)
+        }
+        return Result.success(Unit)
+    }
+
+    /**
+     * One GET sync for the dates [from]..[to], narrowed to the dates whose
+     * last sync is older than [minIntervalMs]. The cursor is the oldest
+     * server_time of those dates (none if one was never synced); rows the
+     * other dates already have come back again and are upserted as is.
+     */
+    private suspend fun pull(
+        token: String,
+        from: LocalDate,
+        to: LocalDate,
+        force: Boolean,
+        minIntervalMs: (LocalDate) -> Long
+    ): Result<Unit> =
+        withContext(Dispatchers.IO) {
+            syncMutex.withLock {
+                val dates = generateSequence(from) { it.plusDays(1) }.takeWhile { !it.isAfter(to) }.toList()
+                val states = dao.syncStates(dates.map { KEY_DATE_PREFIX + it }).associateBy { it.key }
+                val now = System.currentTimeMillis()
+                val stale = if (force) dates else dates.filter { date ->
+                    val state = states[KEY_DATE_PREFIX + date]
+                    state == null || now - state.syncedAt >= minIntervalMs(date)
+                }
+                if (stale.isEmpty()) return@withLock Result.success(Unit)
+
+                val pullFrom = stale.first()
+                val pullTo = stale.last()
+                val pulled = dates.filter { !it.isBefore(pullFrom) && !it.isAfter(pullTo) }
+                val pulledStates = pulled.map { states[KEY_DATE_PREFIX + it] }
+                val updatedAfter = if (pulledStates.any { it == null }) {
+                    null
+                } else {
+                    pulledStates.filterNotNull().minByOrNull { parseServerTime(it.serverTime) }?.serverTime
+                }
+
+                try {
+                    val response = apiService.sync(
+                        token = "Bearer $token",
+                        from = pullFrom.toString(),
+                        to = pullTo.toString(),
+                        updatedAfter = updatedAfter,
+                        schedulesUpdatedAfter = dao.syncState(KEY_SCHEDULES)?.serverTime
+                    )
+                    val body = response.body()
+                    if (!response.isSuccessful || body == null || !body.success) {
+                        val errorBody = response.errorBody()?.string()
+                        return@withLock Result.failure(
+                            Exception(body?.message ?: "Gagal sinkronisasi data: ${response.code()} - $errorBody")
+                        )
+                    }
+
+                    dao.applySync(
+                        from = pullFrom.toString(),
+                        to = pullTo.toString(),
+                        schedules = body.schedules.changed.map { it.toEntity() },
+                        scheduleIds = body.schedules.ids,
+                        attendances = body.attendances.changed.map { it.toEntity() },
+                        attendanceIds = body.attendances.ids,
+                        guruPengganti = body.guruPengganti?.changed.orEmpty().map { it.toEntity() },
+                        guruPenggantiIds = body.guruPengganti?.ids,
+                        states = listOf(SyncStateEntity(KEY_SCHEDULES, body.serverTime, now)) +
+                            pulled.map { SyncStateEntity(KEY_DATE_PREFIX + it, body.serverTime, now) }
+                    )
+                    Result.success(Unit)
+                } catch (e: Exception) {
+                    Result.failure(Exception("Gagal terhubung ke server: ${e.message}"))
+                }
+            }
+        }
+
+    // ==================== WRITE ====================
+
+    /** Stores an attendance the server just returned for a create/update. */
+    suspend fun saveAttendance(attendance: TeacherAttendance) {
+        saveAttendances(listOf(attendance))
+    }
+
+    /** Stores several attendances (a batch entry) in one write. */
+    suspend fun saveAttendances(attendances: List<TeacherAttendance>) {
+        if (attendances.isEmpty()) return
+        withContext(Dispatchers.IO) {
+            dao.upsertAttendances(attendances.map { it.toEntity() })
+        }
+    }
+
+    /** Drops everything (logout). */
+    fun clear() {
+        scope.launch { database.clearAllTables() }
+    }
+
+    // ==================== MAPPING ====================
+
+    private fun ScheduleEntity.toSchedule(): Schedule = requireNotNull(scheduleAdapter.fromJson(json))
+
+    private fun TeacherAttendanceEntity.toAttendance(): TeacherAttendance =
+        requireNotNull(attendanceAdapter.fromJson(json))
+
+    private fun Schedule.toEntity() = ScheduleEntity(
+        id = id,
+        hari = hari,
+        kelas = kelas,
+        guruId = guru_id,
+        jamMulai = jam_mulai,
+        json = scheduleAdapter.toJson(this)
+    )
+
+    private fun TeacherAttendance.toEntity() = TeacherAttendanceEntity(
+        id = id,
+        scheduleId = scheduleId,
+        guruId = guruId,
+        tanggal = dateOnly(tanggal),
+        status = status,
+        kelas = schedule?.kelas,
+        jamMulai = schedule?.jam_mulai,
+        jamMasuk = jamMasuk,
+        guruName = guru?.name,
+        syncedAt = System.currentTimeMillis(),
+        json = attendanceAdapter.toJson(this)
+    )
+
+    private fun GuruPengganti.toEntity() = GuruPenggantiEntity(
+        id = id,
+        tanggal = dateOnly(tanggal),
+        kelas = kelas,
+        jamMulai = jam_mulai,
+        json = guruPenggantiAdapter.toJson(this)
+    )
+
+    companion object {
+        private const val KEY_SCHEDULES = "schedules"
+        private const val KEY_DATE_PREFIX = "tanggal:"
+        private const val MIN_SYNC_INTERVAL_MS = 2 * 60 * 1000L // 2 menit
+        private const val PAST_DATE_SYNC_INTERVAL_MS = 6 * 60 * 60 * 1000L // 6 jam
+        private const val MAX_RANGE_DAYS = 92L // Batas rentang from..to di server
+
+        private val HARI = ScheduleIndex.HARI
+
+        private val SCHEDULE_ORDER = compareBy<Schedule>(
+            { HARI.indexOf(it.hari).let { index -> if (index < 0) HARI.size else index } },
+            { it.jam_mulai }
+        )
+
+        fun today(): String = LocalDate.now().toString()
+
+        /** Indonesian day name as stored in schedules.hari. */
+        fun hariOf(date: LocalDate): String = HARI[date.dayOfWeek.value - DayOfWeek.MONDAY.value]
+
+        // The server sends date columns as "2025-10-15" or "2025-10-15T00:00:00.000000Z"
+        private fun dateOnly(tanggal: String): String = tanggal.take(10)
+
+        // An unreadable cursor sorts first, so the pull falls back to that one
+        private fun parseServerTime(serverTime: String): OffsetDateTime =
+            runCatching { OffsetDateTime.parse(serverTime) }.getOrDefault(OffsetDateTime.MIN)
+
+        @Volatile
+        private var INSTANCE: MonitoringStore? = null
+
+        fun getInstance(context: Context): MonitoringStore {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: MonitoringStore(context.applicationContext).also { INSTANCE = it }
+            }
+        }
+    }
+}
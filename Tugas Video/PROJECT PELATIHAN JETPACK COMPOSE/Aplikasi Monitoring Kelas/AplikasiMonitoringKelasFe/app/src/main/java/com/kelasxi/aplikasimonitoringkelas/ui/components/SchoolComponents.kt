@@ -33,6 +33,7 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.input.VisualTransformation
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.unit.dp
+import androidx.paging.LoadState
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.AnimationDuration
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.Dimensions
 import com.kelasxi.aplikasimonitoringkelas.ui.theme.Spacing
@@ -579,6 +580,41 @@ fun SchoolLoadingCard(
     }
 }
 
+// Footer for paged lists: spinner while the next page loads, retry on error
+@Composable
+fun SchoolPagingFooter(
+    state: LoadState,
+    onRetry: () -> Unit,
+    modifier: Modifier = Modifier
+) {
+    Box(
+        modifier = modifier
+            .fillMaxWidth()
+            .padding(vertical = Spacing.md),
+        contentAlignment = Alignment.Center
+    ) {
+        when (state) {
+            is LoadState.Loading -> CircularProgressIndicator(
+                modifier = Modifier.size(Dimensions.iconSize),
+                strokeWidth = 3.dp,
+                color = MaterialTheme.colorScheme.primary
+            )
+            is LoadState.Error -> Column(horizontalAlignment = Alignment.CenterHorizontally) {
+                Text(
+                    text = state.error.message ?: "Gagal memuat data berikutnya",
+                    style = MaterialTheme.typography.bodySmall,
+                    color = MaterialTheme.colorScheme.error,
+                    textAlign = TextAlign.Center
+                )
+                TextButton(onClick = onRetry) {
+                    Text(text = "Coba Lagi")
+                }
+            }
+            is LoadState.NotLoading -> Unit
+        }
+    }
+}
+
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun SchoolEmptyState(
@@ -2,8 +2,10 @@ package com.kelasxi.aplikasimonitoringkelas.utils
 
 import android.content.Context
 import android.content.SharedPreferences
+import com.kelasxi.aplikasimonitoringkelas.data.paging.AttendancePageCache
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
 
-class SharedPrefManager private constructor(context: Context) {
+class SharedPrefManager private constructor(private val context: Context) {
     
     private val sharedPref: SharedPreferences
     
@@ -66,5 +68,8 @@ class SharedPrefManager private constructor(context: Context) {
     
     fun logout() {
         sharedPref.edit().clear().apply()
+        // Cached attendance pages and the local store belong to the account that fetched them
+        AttendancePageCache.getInstance(context).clear()
+        MonitoringStore.getInstance(context).clear()
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.kelasxi.aplikasimonitoringkelas.viewmodel
+
+import android.app.Application
+import androidx.compose.runtime.mutableStateOf
+import androidx.lifecycle.AndroidViewModel
+import androidx.lifecycle.viewModelScope
+import com.kelasxi.aplikasimonitoringkelas.data.analytics.AttendanceAnalytics
+import com.kelasxi.aplikasimonitoringkelas.data.analytics.AttendanceReport
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
+import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.launch
+import java.time.LocalDate
+
+/** Date ranges offered on the principal's report page. */
+enum class ReportRange(val label: String, val days: Long) {
+    SEPEKAN("7 Hari", 7),
+    SEBULAN("30 Hari", 30),
+    TIGA_BULAN("90 Hari", 90);
+
+    val from: LocalDate get() = LocalDate.now().minusDays(days - 1)
+    val to: LocalDate get() = LocalDate.now()
+}
+
+/**
+ * Reports for KepalaSekolahLaporanPage. The report itself comes from the
+ * local store (AttendanceAnalytics) and is shown straight away; [syncRange]
+ * pulls the range from the server in the background with one request and
+ * the report updates once it is applied.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class AttendanceAnalyticsViewModel(application: Application) : AndroidViewModel(application) {
+
+    private val sharedPrefManager = SharedPrefManager.getInstance(application)
+    private val store = MonitoringStore.getInstance(application)
+    private val analytics = AttendanceAnalytics.getInstance(application)
+
+    private val _range = MutableStateFlow(ReportRange.SEPEKAN)
+    val range: StateFlow<ReportRange> = _range.asStateFlow()
+
+    val report: StateFlow<AttendanceReport?> = _range
+        .flatMapLatest { range -> analytics.reports(range.from, range.to) }
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), null)
+
+    var isSyncing = mutableStateOf(false)
+    var errorMessage = mutableStateOf<String?>(null)
+
+    private var syncJob: Job? = null
+
+    fun setRange(range: ReportRange) {
+        if (_range.value == range) return
+        _range.value = range
+        syncRange()
+    }
+
+    fun syncRange() {
+        val token = sharedPrefManager.getToken() ?: return
+        val range = _range.value
+        syncJob?.cancel()
+        syncJob = viewModelScope.launch {
+            isSyncing.value = true
+            errorMessage.value = null
+            store.syncRange(token, range.from, range.to)
+                .onFailure { error ->
+                    errorMessage.value = error.message
+                }
+            isSyncing.value = false
+        }
+    }
+
+    fun clearError() {
+        errorMessage.value = null
+    }
+}
@@ -1,39 +1,67 @@
 package com.kelasxi.aplikasimonitoringkelas.viewmodel
 
+import android.app.Application
 import androidx.compose.runtime.mutableStateOf
-import androidx.lifecycle.ViewModel
+import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
-import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
 import com.kelasxi.aplikasimonitoringkelas.data.model.*
-import com.kelasxi.aplikasimonitoringkelas.data.repository.AppRepository
+import com.kelasxi.aplikasimonitoringkelas.data.repository.MonitoringStore
+import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.stateIn
 import kotlinx.coroutines.launch
 
-class ScheduleViewModel : ViewModel() {
-    
-    private val repository = AppRepository(RetrofitClient.apiService)
-    
-    var schedules = mutableStateOf<List<Schedule>>(emptyList())
+/**
+ * Schedules for JadwalPage, read from the local store (MonitoringStore) so
+ * they show offline and switching tabs never goes to the network. The store
+ * is refreshed once when the view model is created; [refresh] forces it.
+ */
+class ScheduleViewModel(application: Application) : AndroidViewModel(application) {
+
+    private val store = MonitoringStore.getInstance(application)
+    private val sharedPrefManager = SharedPrefManager.getInstance(application)
+    private val kelas = MutableStateFlow<String?>(null)
+
+    // Rebuilt only when Room emits or the class filter changes; pages filter and group through it
+    val scheduleIndex: StateFlow<ScheduleIndex<Schedule>> =
+        combine(store.schedules(), kelas) { schedules, kelas ->
+            ScheduleIndex.ofSchedules(if (kelas == null) schedules else schedules.filter { it.kelas == kelas })
+        }
+            .flowOn(Dispatchers.Default)
+            .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), ScheduleIndex.ofSchedules(emptyList()))
+
     var isLoading = mutableStateOf(false)
     var errorMessage = mutableStateOf<String?>(null)
-    
-    fun loadSchedules(token: String, hari: String? = null, kelas: String? = null) {
+
+    init {
+        refresh(force = false)
+    }
+
+    /** Limits [scheduleIndex] to one class; null or empty shows every class. */
+    fun setKelas(kelas: String?) {
+        this.kelas.value = kelas?.takeIf { it.isNotEmpty() }
+    }
+
+    /** Pulls schedule changes into the store in the background; the index follows. */
+    fun refresh(force: Boolean = true) {
+        val token = sharedPrefManager.getToken() ?: return
         viewModelScope.launch {
             isLoading.value = true
             errorMessage.value = null
-            
-            repository.getSchedules(token, hari, kelas)
-                .onSuccess { response ->
-                    schedules.value = response.data
-                }
+            store.sync(token, force = force)
                 .onFailure { error ->
                     errorMessage.value = error.message
                 }
-            
             isLoading.value = false
         }
     }
-    
+
     fun clearError() {
         errorMessage.value = null
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.kelasxi.aplikasimonitoringkelas.viewmodel
+
+import android.app.Application
+import androidx.compose.runtime.mutableStateOf
+import androidx.lifecycle.AndroidViewModel
+import androidx.lifecycle.viewModelScope
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.kelasxi.aplikasimonitoringkelas.data.model.TeacherAttendance
+import com.kelasxi.aplikasimonitoringkelas.data.paging.AttendancePageCache
+import com.kelasxi.aplikasimonitoringkelas.data.paging.TeacherAttendanceFilter
+import com.kelasxi.aplikasimonitoringkelas.data.paging.TeacherAttendancePagingSource
+import com.kelasxi.aplikasimonitoringkelas.data.repository.AppRepositoryNew
+import com.kelasxi.aplikasimonitoringkelas.utils.SharedPrefManager
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+
+/**
+ * Teacher-attendance history for KepalaSekolahAbsensiGuruPage and the
+ * siswa ListPage. A filter change starts a new Pager; the list is loaded
+ * PAGE_SIZE rows at a time, the next page is requested a full page before
+ * the user reaches the end, and at most [MAX_LOADED_ROWS] rows are held in
+ * memory (pages scrolled far past are dropped and reloaded when scrolled
+ * back to).
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class TeacherAttendanceViewModel(application: Application) : AndroidViewModel(application) {
+
+    private val sharedPrefManager = SharedPrefManager.getInstance(application)
+    private val pageCache = AttendancePageCache.getInstance(application)
+    private val repository = AppRepositoryNew(RetrofitClient.apiService)
+
+    private val _filter = MutableStateFlow(TeacherAttendanceFilter())
+    val filter: StateFlow<TeacherAttendanceFilter> = _filter.asStateFlow()
+
+    /** True while the last page shown came from the disk cache (offline). */
+    var showingCachedPages = mutableStateOf(false)
+    var kelasOptions = mutableStateOf<List<String>>(emptyList())
+
+    val attendances: Flow<PagingData<TeacherAttendance>> = _filter
+        .flatMapLatest { filter ->
+            Pager(
+                config = PagingConfig(
+                    pageSize = TeacherAttendancePagingSource.PAGE_SIZE,
+                    initialLoadSize = TeacherAttendancePagingSource.PAGE_SIZE,
+                    prefetchDistance = TeacherAttendancePagingSource.PAGE_SIZE,
+                    maxSize = MAX_LOADED_ROWS,
+                    enablePlaceholders = false
+                ),
+                pagingSourceFactory = {
+                    TeacherAttendancePagingSource(
+                        apiService = RetrofitClient.apiService,
+                        token = sharedPrefManager.getToken(),
+                        filter = filter,
+                        pageCache = pageCache,
+                        onPageSource = { fromCache -> showingCachedPages.value = fromCache }
+                    )
+                }
+            ).flow
+        }
+        .cachedIn(viewModelScope)
+
+    fun setTanggal(tanggal: String?) = _filter.update { it.copy(tanggal = tanggal) }
+
+    fun setStatus(status: String?) = _filter.update { it.copy(status = status) }
+
+    fun setKelas(kelas: String?) = _filter.update { it.copy(kelas = kelas) }
+
+    /** Class names for the kelas filter, taken from the schedule. */
+    fun loadKelasOptions() {
+        val token = sharedPrefManager.getToken() ?: return
+        if (kelasOptions.value.isNotEmpty()) return
+        viewModelScope.launch {
+            repository.getSchedules(token)
+                .onSuccess { response ->
+                    kelasOptions.value = response.data.map { it.kelas }.distinct().sorted()
+                }
+        }
+    }
+
+    companion object {
+        private const val MAX_LOADED_ROWS = TeacherAttendancePagingSource.PAGE_SIZE * 20
+    }
+}
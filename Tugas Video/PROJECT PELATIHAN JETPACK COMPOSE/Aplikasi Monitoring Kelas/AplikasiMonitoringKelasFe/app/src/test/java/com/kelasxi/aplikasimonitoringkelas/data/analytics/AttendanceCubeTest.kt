@@ -0,0 +1,161 @@
+package com.kelasxi.aplikasimonitoringkelas.data.analytics
+
+import com.kelasxi.aplikasimonitoringkelas.data.local.AttendanceFact
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.time.LocalDate
+
+class AttendanceCubeTest {
+
+    // 2025-10-13 is a Monday
+    private val senin = LocalDate.of(2025, 10, 13)
+
+    private fun fact(
+        id: Int,
+        guruId: Int = 1,
+        kelas: String? = "XI RPL 1",
+        tanggal: LocalDate = senin,
+        status: String = "hadir",
+        jamMulai: String? = "07:00",
+        jamMasuk: String? = "07:00"
+    ) = AttendanceFact(
+        id = id,
+        guruId = guruId,
+        guruName = "Guru $guruId",
+        kelas = kelas,
+        tanggal = tanggal.toString(),
+        status = status,
+        jamMulai = jamMulai,
+        jamMasuk = jamMasuk,
+        syncedAt = 0L
+    )
+
+    private fun AttendanceCube.week(): AttendanceReport = report(senin, senin.plusDays(6))
+
+    @Test
+    fun upsert_addsRowsToTheTotals() {
+        val cube = AttendanceCube()
+        assertTrue(cube.upsert(fact(1, status = "hadir")))
+        assertTrue(cube.upsert(fact(2, status = "telat", jamMasuk = "07:12")))
+        assertTrue(cube.upsert(fact(3, status = "tidak_hadir")))
+        assertTrue(cube.upsert(fact(4, status = "diganti")))
+
+        assertEquals(4, cube.size)
+        assertEquals(StatusCounts(hadir = 1, telat = 1, tidakHadir = 1, diganti = 1), cube.week().totals)
+    }
+
+    @Test
+    fun upsert_sameValuesIsANoOp() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, status = "telat", jamMasuk = "07:20"))
+
+        assertFalse(cube.upsert(fact(1, status = "telat", jamMasuk = "07:20")))
+        assertEquals(1, cube.size)
+        assertEquals(1, cube.week().totals.total)
+    }
+
+    @Test
+    fun upsert_changedRowMovesBetweenCounters() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, status = "tidak_hadir"))
+        assertTrue(cube.upsert(fact(1, status = "telat", jamMasuk = "07:08")))
+
+        val report = cube.week()
+        assertEquals(1, cube.size)
+        assertEquals(StatusCounts(hadir = 0, telat = 1, tidakHadir = 0, diganti = 0), report.totals)
+        assertEquals(0, report.kelasHeatmap.absences.single()[0])
+        assertEquals(listOf(0, 1, 0, 0, 0), report.perGuru.single().lateDistribution)
+    }
+
+    @Test
+    fun upsert_changedDateMovesTheRowOutOfRange() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1))
+        cube.upsert(fact(1, tanggal = senin.plusDays(7)))
+
+        assertTrue(cube.week().isEmpty)
+        assertEquals(1, cube.report(senin.plusDays(7), senin.plusDays(7)).totals.hadir)
+    }
+
+    @Test
+    fun retainOnly_removesMissingIdsAndTheirCounts() {
+        val cube = AttendanceCube()
+        (1..5).forEach { cube.upsert(fact(it, status = if (it % 2 == 0) "tidak_hadir" else "hadir")) }
+
+        assertEquals(3, cube.retainOnly(listOf(2, 5, 99)))
+        assertEquals(2, cube.size)
+        assertEquals(StatusCounts(hadir = 1, telat = 0, tidakHadir = 1, diganti = 0), cube.week().totals)
+
+        // Slots freed by removal are reused; the moved rows still update in place
+        assertTrue(cube.upsert(fact(5, status = "tidak_hadir")))
+        assertEquals(StatusCounts(hadir = 0, telat = 0, tidakHadir = 2, diganti = 0), cube.week().totals)
+    }
+
+    @Test
+    fun report_onlyCountsDaysInRange() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, tanggal = senin.minusDays(1)))
+        cube.upsert(fact(2, tanggal = senin))
+        cube.upsert(fact(3, tanggal = senin.plusDays(6)))
+        cube.upsert(fact(4, tanggal = senin.plusDays(7)))
+
+        assertEquals(2, cube.week().totals.total)
+        assertEquals(4, cube.report(senin.minusDays(1), senin.plusDays(7)).totals.total)
+    }
+
+    @Test
+    fun report_groupsWeeksByMonday() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, tanggal = senin.plusDays(2)))
+        cube.upsert(fact(2, tanggal = senin.plusDays(4), status = "tidak_hadir"))
+        cube.upsert(fact(3, tanggal = senin.plusDays(8)))
+
+        val weekly = cube.report(senin, senin.plusDays(13)).weekly
+        assertEquals(listOf(senin, senin.plusDays(7)), weekly.map { it.weekStart })
+        assertEquals(StatusCounts(hadir = 1, telat = 0, tidakHadir = 1, diganti = 0), weekly[0].counts)
+        assertEquals(1, weekly[1].counts.total)
+    }
+
+    @Test
+    fun report_perGuruSortsByAbsencesAndAveragesLateness() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, guruId = 1, status = "hadir"))
+        cube.upsert(fact(2, guruId = 2, status = "telat", jamMasuk = "07:04"))
+        cube.upsert(fact(3, guruId = 2, status = "telat", jamMasuk = "07:40"))
+        cube.upsert(fact(4, guruId = 2, status = "telat", jamMasuk = null)) // Not timed
+
+        val perGuru = cube.week().perGuru
+        assertEquals(listOf(2, 1), perGuru.map { it.guruId })
+        assertEquals(3, perGuru[0].counts.telat)
+        assertEquals(listOf(1, 0, 0, 0, 1), perGuru[0].lateDistribution)
+        assertEquals(22.0, perGuru[0].averageLateMinutes, 1e-9)
+    }
+
+    @Test
+    fun report_heatmapRatesPerKelasAndHari() {
+        val cube = AttendanceCube()
+        cube.upsert(fact(1, kelas = "X A", status = "tidak_hadir"))
+        cube.upsert(fact(2, kelas = "X A", status = "hadir"))
+        cube.upsert(fact(3, kelas = "X B", tanggal = senin.plusDays(1), status = "tidak_hadir"))
+        cube.upsert(fact(4, kelas = null, status = "tidak_hadir")) // Counted in totals only
+        cube.upsert(fact(5, kelas = "X C", tanggal = senin.plusDays(6))) // Minggu isn't on the heatmap
+
+        val report = cube.week()
+        val heatmap = report.kelasHeatmap
+        assertEquals(listOf("X A", "X B"), heatmap.kelasList)
+        assertEquals(1, heatmap.absences[0][0])
+        assertEquals(0.5, heatmap.rates[0][0], 1e-9)
+        assertEquals(1.0, heatmap.rates[1][1], 1e-9)
+        assertEquals(1.0, heatmap.maxRate, 1e-9)
+        assertEquals(3, report.totals.tidakHadir)
+    }
+
+    @Test
+    fun upsert_ignoresUnparseableDates() {
+        val cube = AttendanceCube()
+        assertFalse(cube.upsert(fact(1).copy(tanggal = "bukan tanggal")))
+        assertEquals(0, cube.size)
+    }
+}
@@ -0,0 +1,144 @@
+package com.kelasxi.aplikasimonitoringkelas.data.model
+
+import com.google.gson.FieldNamingPolicy
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.google.gson.JsonDeserializer
+import com.google.gson.JsonElement
+import com.google.gson.JsonParser
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.squareup.moshi.Types
+import org.junit.Assert.assertEquals
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.lang.reflect.Type
+
+/**
+ * Parse time and allocations of the recorded responses, Moshi codegen (the
+ * app's RetrofitClient.moshi) against the reflective Gson setup it replaced:
+ * created_by / guru / guru_asli read through a JsonElement tree and booleans
+ * through a JsonDeserializer, as the old UserOrIdDeserializer,
+ * GuruOrIdDeserializer and BooleanTypeAdapter did.
+ *
+ * Skipped in the normal unit test run; run it with
+ * ./gradlew :app:testDebugUnitTest --tests '*JsonParsingBenchmark' -Pbenchmark
+ * The timings land in app/build/reports/benchmarks/JsonParsingBenchmark.txt.
+ */
+class JsonParsingBenchmark {
+
+    @Before
+    fun optIn() {
+        assumeTrue("benchmark not requested (-Pbenchmark)", System.getProperty("benchmark") == "true")
+    }
+
+    private val moshi = RetrofitClient.moshi
+    private val gson: Gson = GsonBuilder()
+        .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+        .registerTypeAdapterFactory(ObjectOrIdFactory(setOf(User::class.java, Guru::class.java)))
+        .registerTypeAdapter(Boolean::class.java, lenientBoolean)
+        .registerTypeAdapter(Boolean::class.javaObjectType, lenientBoolean)
+        .create()
+
+    @Test
+    fun teacherAttendancePage() {
+        compare(
+            "teacher_attendance_page",
+            Types.newParameterizedType(PaginatedResponse::class.java, TeacherAttendance::class.java)
+        )
+    }
+
+    @Test
+    fun myReports() {
+        compare("my_reports", MonitoringListResponse::class.java)
+    }
+
+    private fun compare(name: String, type: Type) {
+        val json = payload(name)
+        val moshiAdapter = moshi.adapter<Any>(type)
+        val gsonAdapter = gson.getAdapter(TypeToken.get(type))
+
+        // Same payload, same models: both parsers must agree before timing them
+        assertEquals(moshiAdapter.fromJson(json), gsonAdapter.fromJson(json))
+
+        val moshiResult = measure { moshiAdapter.fromJson(json) }
+        val gsonResult = measure { gsonAdapter.fromJson(json) }
+        report(
+            "%-24s moshi %8.1f µs %9d B/op | gson %8.1f µs %9d B/op".format(
+                name,
+                moshiResult.nanosPerOp / 1000.0, moshiResult.bytesPerOp,
+                gsonResult.nanosPerOp / 1000.0, gsonResult.bytesPerOp
+            )
+        )
+    }
+
+    /** Appends one result line to the report the test task leaves in build/reports/benchmarks. */
+    private fun report(line: String) {
+        val dir = File(System.getProperty("benchmark.reportDir") ?: "build/reports/benchmarks")
+        dir.mkdirs()
+        File(dir, "JsonParsingBenchmark.txt").appendText(line + "\n")
+    }
+
+    private class Result(val nanosPerOp: Double, val bytesPerOp: Long)
+
+    private inline fun measure(parse: () -> Any?): Result {
+        repeat(WARMUP) { parse() }
+        val threadId = Thread.currentThread().id
+        val bytesBefore = allocatedBytes(threadId)
+        val start = System.nanoTime()
+        var sink = 0
+        repeat(ITERATIONS) { sink += parse().hashCode() }
+        val elapsed = System.nanoTime() - start
+        val bytes = allocatedBytes(threadId) - bytesBefore
+        if (sink == 42) Thread.yield() // Keeps the results alive
+        return Result(elapsed.toDouble() / ITERATIONS, if (bytesBefore < 0) -1 else bytes / ITERATIONS)
+    }
+
+    private fun payload(name: String): String =
+        requireNotNull(javaClass.classLoader?.getResourceAsStream("payloads/$name.json")) { "payloads/$name.json" }
+            .bufferedReader()
+            .use { it.readText() }
+
+    /** Reads the value as a tree first; an object is then bound to the type, anything else is null. */
+    private class ObjectOrIdFactory(private val types: Set<Class<*>>) : TypeAdapterFactory {
+        override fun <T> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
+            if (type.rawType !in types) return null
+            val delegate = gson.getDelegateAdapter(this, type)
+            return object : TypeAdapter<T>() {
+                override fun read(reader: JsonReader): T? {
+                    val tree: JsonElement = JsonParser.parseReader(reader)
+                    return if (tree.isJsonObject) delegate.fromJsonTree(tree) else null
+                }
+
+                override fun write(writer: JsonWriter, value: T?) = delegate.write(writer, value)
+            }
+        }
+    }
+
+    companion object {
+        private const val WARMUP = 2_000
+        private const val ITERATIONS = 5_000
+
+        private val lenientBoolean = JsonDeserializer<Boolean> { json, _, _ ->
+            val primitive = json.takeIf { it.isJsonPrimitive }?.asJsonPrimitive
+            when {
+                primitive == null -> false
+                primitive.isBoolean -> primitive.asBoolean
+                primitive.isNumber -> primitive.asInt != 0
+                else -> primitive.asString.lowercase() in setOf("true", "1", "yes", "on")
+            }
+        }
+
+        private fun allocatedBytes(threadId: Long): Long =
+            (ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean)
+                ?.getThreadAllocatedBytes(threadId)
+                ?: -1
+    }
+}
@@ -0,0 +1,101 @@
+package com.kelasxi.aplikasimonitoringkelas.data.model
+
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.squareup.moshi.Types
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Parses responses recorded from the backend (src/test/resources/payloads)
+ * with the app's Moshi instance, so a model that no longer matches what the
+ * server sends fails here rather than at runtime.
+ */
+class MoshiPayloadTest {
+
+    private val moshi = RetrofitClient.moshi
+
+    @Test
+    fun teacherAttendancePage() {
+        val type = Types.newParameterizedType(PaginatedResponse::class.java, TeacherAttendance::class.java)
+        val page = requireNotNull(moshi.adapter<PaginatedResponse<TeacherAttendance>>(type).fromJson(payload("teacher_attendance_page")))
+
+        assertEquals(2, page.currentPage)
+        assertEquals(3, page.lastPage)
+        assertEquals(45, page.total)
+        assertEquals(listOf(41, 42), page.data.map { it.id })
+
+        val telat = page.data[0]
+        assertEquals("telat", telat.status)
+        assertEquals("07:12", telat.jamMasuk)
+        assertEquals("Siti Kurikulum", telat.createdBy?.name)
+        assertFalse(telat.createdBy!!.is_banned)
+        assertEquals("Budi Santoso", telat.guru?.name)
+        assertEquals("R-201", telat.schedule?.ruang)
+        assertNull(telat.guruAsli)
+
+        // created_by and guru_asli sent as bare ids; the schedule without guru_id
+        val diganti = page.data[1]
+        assertNull(diganti.createdBy)
+        assertNull(diganti.guruAsli)
+        assertEquals(4, diganti.guruAsliId)
+        assertEquals(9, diganti.assignedBy)
+        assertEquals(0, diganti.schedule?.guru_id)
+        assertNull(diganti.schedule?.created_at)
+    }
+
+    @Test
+    fun sync() {
+        val sync = requireNotNull(moshi.adapter(SyncResponse::class.java).fromJson(payload("sync")))
+
+        assertEquals("2025-10-15T08:00:00+07:00", sync.serverTime)
+        assertEquals("2025-10-13", sync.from)
+        assertEquals("2025-10-15", sync.to)
+        assertEquals(listOf(7, 8, 9), sync.schedules.ids)
+        assertEquals("Budi Santoso", sync.schedules.changed.single().guru?.name)
+        assertEquals(listOf(38, 39, 41), sync.attendances.ids)
+        assertFalse(sync.attendances.changed.single().createdBy!!.is_banned)
+
+        val guruPengganti = requireNotNull(sync.guruPengganti).changed.single()
+        assertEquals(9, guruPengganti.assigned_by)
+        assertEquals("Dewi Lestari", guruPengganti.guruPengganti?.name)
+        assertEquals("Andi Wijaya", guruPengganti.guruAsli?.name)
+    }
+
+    @Test
+    fun myReports() {
+        val reports = requireNotNull(moshi.adapter(MonitoringListResponse::class.java).fromJson(payload("my_reports")))
+
+        assertEquals(listOf(88, 87), reports.data.map { it.id })
+        assertEquals("07:15:00", reports.data[0].jam_laporan)
+        assertNull(reports.data[1].jam_laporan)
+        assertNull(reports.data[0].pelapor) // Not loaded for the reporter's own list
+        assertNull(reports.data[1].guru.mata_pelajaran)
+    }
+
+    @Test
+    fun guruPengganti() {
+        val response = requireNotNull(moshi.adapter(GuruPenggantiResponse::class.java).fromJson(payload("guru_pengganti")))
+
+        // assigned_by: the loaded assignedBy relation object, then null
+        assertEquals(9, response.data[0].assigned_by)
+        assertNull(response.data[1].assigned_by)
+        assertEquals("Dewi Lestari", response.data[0].guruPengganti?.name)
+        assertNull(response.data[1].guruAsli)
+    }
+
+    @Test
+    fun storedJsonRoundTrips() {
+        // MonitoringStore keeps models as JSON written by the same adapters
+        val adapter = moshi.adapter(GuruPengganti::class.java)
+        val parsed = requireNotNull(moshi.adapter(GuruPenggantiResponse::class.java).fromJson(payload("guru_pengganti"))).data[0]
+
+        assertEquals(parsed, adapter.fromJson(adapter.toJson(parsed)))
+    }
+
+    private fun payload(name: String): String =
+        requireNotNull(javaClass.classLoader?.getResourceAsStream("payloads/$name.json")) { "payloads/$name.json" }
+            .bufferedReader()
+            .use { it.readText() }
+}
@@ -0,0 +1,130 @@
+package com.kelasxi.aplikasimonitoringkelas.data.repository
+
+import com.kelasxi.aplikasimonitoringkelas.data.api.ApiService
+import com.kelasxi.aplikasimonitoringkelas.data.api.RetrofitClient
+import com.kelasxi.aplikasimonitoringkelas.data.model.TeacherAttendanceRequest
+import kotlinx.coroutines.runBlocking
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.moshi.MoshiConverterFactory
+
+/**
+ * AppRepositoryNew.createTeacherAttendanceBatch against a MockWebServer: the
+ * batch endpoint's per-row results, and the one-by-one fallback for a server
+ * without it (404/405), where a failed row comes back with status 0.
+ */
+class TeacherAttendanceBatchTest {
+
+    private val server = MockWebServer()
+    private lateinit var repository: AppRepositoryNew
+
+    private val requests = listOf(
+        TeacherAttendanceRequest(7, 3, "2025-10-15", "07:05", "hadir", null),
+        TeacherAttendanceRequest(8, 4, "2025-10-15", "08:40", "telat", "Macet")
+    )
+
+    @Before
+    fun setUp() {
+        server.start()
+        val api = Retrofit.Builder()
+            .baseUrl(server.url("/api/"))
+            .addConverterFactory(MoshiConverterFactory.create(RetrofitClient.moshi))
+            .build()
+            .create(ApiService::class.java)
+        repository = AppRepositoryNew(api)
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    private fun json(code: Int, body: String) =
+        MockResponse().setResponseCode(code).setHeader("Content-Type", "application/json").setBody(body)
+
+    private fun attendance(id: Int, scheduleId: Int) = """
+        {"id": $id, "schedule_id": $scheduleId, "guru_id": 3, "tanggal": "2025-10-15", "jam_masuk": "07:05",
+         "status": "hadir", "keterangan": null, "created_by": 9, "created_at": null, "updated_at": null,
+         "schedule": null, "guru": 3}
+    """.trimIndent()
+
+    @Test
+    fun batchResultsComeBackInRequestOrder() = runBlocking {
+        server.enqueue(
+            json(
+                200,
+                """
+                {"success": true, "message": "1 dari 2 kehadiran guru berhasil dicatat", "data": [
+                  {"index": 1, "success": false, "status": 409, "message": "Kehadiran untuk jadwal ini sudah dicatat", "errors": null, "data": null},
+                  {"index": 0, "success": true, "status": 201, "message": "Kehadiran guru berhasil dicatat", "errors": null, "data": ${attendance(41, 7)}}
+                ]}
+                """.trimIndent()
+            )
+        )
+
+        val results = repository.createTeacherAttendanceBatch("token", requests).getOrThrow()
+
+        assertEquals(listOf(0, 1), results.map { it.index })
+        assertEquals(listOf(201, 409), results.map { it.status })
+        assertEquals(41, results[0].data?.id)
+
+        val sent = server.takeRequest()
+        assertEquals("/api/teacher-attendance/batch", sent.path)
+        assertEquals("Bearer token", sent.getHeader("Authorization"))
+        assertTrue(sent.body.readUtf8().startsWith("{\"entries\":[{\"schedule_id\":7"))
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun serverWithoutBatchFallsBackToOneRequestPerRow() = runBlocking {
+        server.enqueue(json(404, """{"message": "Not Found"}"""))
+        server.enqueue(json(201, """{"success": true, "message": "Kehadiran guru berhasil dicatat", "data": ${attendance(42, 7)}}"""))
+        server.enqueue(json(422, """{"success": false, "message": "Validation error", "errors": {"jam_masuk": ["Format salah"]}}"""))
+
+        val results = repository.createTeacherAttendanceBatch("token", requests).getOrThrow()
+
+        assertEquals(listOf(0, 1), results.map { it.index })
+        assertEquals(true, results[0].success)
+        assertEquals(201, results[0].status)
+        assertEquals(42, results[0].data?.id)
+
+        // The failed row: status 0 (no per-row code from the server) and the error text
+        assertEquals(false, results[1].success)
+        assertEquals(0, results[1].status)
+        assertTrue(results[1].message, results[1].message.contains("422"))
+
+        assertEquals("/api/teacher-attendance/batch", server.takeRequest().path)
+        assertEquals("/api/teacher-attendance", server.takeRequest().path)
+        assertEquals("/api/teacher-attendance", server.takeRequest().path)
+        assertEquals(3, server.requestCount)
+    }
+
+    @Test
+    fun methodNotAllowedAlsoFallsBack() = runBlocking {
+        server.enqueue(json(405, """{"message": "The POST method is not supported for route api/teacher-attendance/batch."}"""))
+        server.enqueue(json(200, """{"success": false, "message": "Kehadiran untuk jadwal ini sudah dicatat"}"""))
+
+        val results = repository.createTeacherAttendanceBatch("token", requests.take(1)).getOrThrow()
+
+        assertEquals(0, results.single().status)
+        assertEquals("Kehadiran untuk jadwal ini sudah dicatat", results.single().message)
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun otherErrorsFailTheWholeBatch() = runBlocking {
+        server.enqueue(json(500, """{"message": "Server Error"}"""))
+
+        val result = repository.createTeacherAttendanceBatch("token", requests)
+
+        assertTrue(result.isFailure)
+        assertTrue(result.exceptionOrNull()!!.message!!.startsWith("Gagal mencatat kehadiran: 500"))
+        assertEquals(1, server.requestCount)
+    }
+}